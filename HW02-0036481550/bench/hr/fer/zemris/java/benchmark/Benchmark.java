@@ -0,0 +1,65 @@
+package hr.fer.zemris.java.benchmark;
+
+/**
+ * Class Benchmark represents a single measured operation. Subclasses prepare
+ * their state in {@link #setUp(int)} and perform exactly one operation per
+ * call of {@link #run()}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public abstract class Benchmark {
+
+    /** Name of this benchmark. */
+    private final String name;
+
+    /**
+     * Constructs a benchmark with the specified name.
+     *
+     * @param name
+     *            Name of the benchmark
+     */
+    protected Benchmark(String name) {
+        if (name == null) {
+            throw new NullPointerException();
+        }
+
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of this benchmark.
+     *
+     * @return Name of this benchmark
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Prepares the state of this benchmark for the specified problem size.
+     * Called once before the warmup of every size.
+     *
+     * @param size
+     *            Problem size
+     */
+    public void setUp(int size) {
+
+    }
+
+    /**
+     * Releases the state of this benchmark so it can be garbage collected
+     * before the next size is measured.
+     */
+    public void tearDown() {
+
+    }
+
+    /**
+     * Performs one operation of this benchmark.
+     *
+     * @return Result of the operation which is consumed by the runner so the
+     *         JIT cannot eliminate the work
+     */
+    public abstract Object run();
+}
@@ -0,0 +1,320 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs {@link Benchmark} objects and reports the average time per operation
+ * together with the allocation rate of all threads of the JVM, in the same
+ * units the JMH gc profiler uses (bytes per operation and MB per second).
+ * Allocation of worker threads, such as those of the common fork-join pool,
+ * is therefore included. On Java 14 and later the total allocation of the JVM
+ * is read, earlier versions sum the threads which are alive at the end of the
+ * measurement, so threads that terminated during it are not counted.
+ * <p>
+ * The runner measures in the JVM of the caller, so the results depend on
+ * what ran before them. Forked and statistically sound measurements are made
+ * by the JMH benchmarks of the {@code jmh} module, which run the same suites.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class BenchmarkRunner {
+
+    /** Number of warmup iterations run before measuring. */
+    private final int warmupIterations;
+    /** Number of measured iterations. */
+    private final int measurementIterations;
+    /** Duration of a single iteration in nanoseconds. */
+    private final long iterationNanos;
+    /** Stream to which results are written. */
+    private final PrintStream out;
+    /** Thread bean used to read allocated bytes, null if not supported. */
+    private final com.sun.management.ThreadMXBean threadBean;
+    /** Method which reads bytes allocated by all threads, null before Java 14. */
+    private final Method totalAllocatedBytes;
+
+    /** Shortest duration of a batch of operations in nanoseconds. */
+    private static final long MIN_BATCH_NANOS = 20_000;
+    /** Largest number of operations in a batch. */
+    private static final int MAX_BATCH = 1 << 20;
+
+    /** Field which consumes results of benchmarks. */
+    static Object sink;
+
+    /**
+     * Constructs a runner with the specified iteration settings.
+     *
+     * @param warmupIterations
+     *            Number of warmup iterations
+     * @param measurementIterations
+     *            Number of measured iterations
+     * @param iterationMillis
+     *            Duration of a single iteration in milliseconds
+     * @param out
+     *            Stream to which results are written
+     */
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis,
+            PrintStream out) {
+        if (warmupIterations < 0 || measurementIterations < 1 || iterationMillis < 1) {
+            throw new IllegalArgumentException();
+        } else if (out == null) {
+            throw new NullPointerException();
+        }
+
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+        this.out = out;
+        this.threadBean = allocationBean();
+        this.totalAllocatedBytes = threadBean == null ? null
+                : totalAllocatedBytesMethod(threadBean);
+    }
+
+    /**
+     * Constructs a runner with 3 warmup and 5 measured iterations of one
+     * second which writes to the standard output.
+     */
+    public BenchmarkRunner() {
+        this(3, 5, 1000, System.out);
+    }
+
+    /**
+     * Prints the header of the result table.
+     */
+    public void printHeader() {
+        out.printf("%-48s %10s %14s %12s %14s %12s%n", "Benchmark", "size", "ns/op", "error",
+                "alloc B/op", "alloc MB/s");
+    }
+
+    /**
+     * Measures the specified benchmark for every specified size and prints one
+     * result line per size.
+     *
+     * @param benchmark
+     *            Benchmark to be measured
+     * @param sizes
+     *            Problem sizes
+     */
+    public void run(Benchmark benchmark, int[] sizes) {
+        if (benchmark == null || sizes == null) {
+            throw new NullPointerException();
+        }
+
+        for (int size : sizes) {
+            benchmark.setUp(size);
+            try {
+                measure(benchmark, size);
+            } finally {
+                benchmark.tearDown();
+            }
+        }
+    }
+
+    /**
+     * Measures the specified benchmark for the single size.
+     *
+     * @param benchmark
+     *            Benchmark to be measured
+     * @param size
+     *            Problem size
+     */
+    private void measure(Benchmark benchmark, int size) {
+        int batch = calibrate(benchmark);
+
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(benchmark, batch);
+        }
+
+        double[] nanosPerOp = new double[measurementIterations];
+        long totalOps = 0;
+        long totalNanos = 0;
+        Map<Long, Long> allocatedBefore = allocatedBytes();
+
+        for (int i = 0; i < measurementIterations; i++) {
+            long start = System.nanoTime();
+            long ops = iteration(benchmark, batch);
+            long elapsed = System.nanoTime() - start;
+
+            nanosPerOp[i] = (double) elapsed / ops;
+            totalOps += ops;
+            totalNanos += elapsed;
+        }
+
+        long allocated = allocatedSince(allocatedBefore);
+
+        double mean = (double) totalNanos / totalOps;
+        double variance = 0;
+        for (double value : nanosPerOp) {
+            variance += (value - mean) * (value - mean);
+        }
+        double error = Math.sqrt(variance / nanosPerOp.length);
+
+        if (threadBean == null) {
+            out.printf("%-48s %10d %14.3f %12.3f %14s %12s%n", benchmark.getName(), size, mean, error,
+                    "n/a", "n/a");
+        } else {
+            double bytesPerOp = (double) allocated / totalOps;
+            double megabytesPerSecond = allocated / (totalNanos / 1e9) / (1024 * 1024);
+
+            out.printf("%-48s %10d %14.3f %12.3f %14.1f %12.1f%n", benchmark.getName(), size, mean,
+                    error, bytesPerOp, megabytesPerSecond);
+        }
+    }
+
+    /**
+     * Finds the number of operations which are run between two readings of the
+     * clock, so reading the clock does not dominate short operations.
+     *
+     * @param benchmark
+     *            Benchmark to be run
+     * @return Number of operations in a batch
+     */
+    private static int calibrate(Benchmark benchmark) {
+        int batch = 1;
+
+        while (batch < MAX_BATCH) {
+            long start = System.nanoTime();
+            batch(benchmark, batch);
+            if (System.nanoTime() - start >= MIN_BATCH_NANOS) {
+                break;
+            }
+            batch *= 2;
+        }
+
+        return batch;
+    }
+
+    /**
+     * Runs the benchmark in batches for the duration of one iteration.
+     *
+     * @param benchmark
+     *            Benchmark to be run
+     * @param batch
+     *            Number of operations in a batch
+     * @return Number of operations performed
+     */
+    private long iteration(Benchmark benchmark, int batch) {
+        long ops = 0;
+        long deadline = System.nanoTime() + iterationNanos;
+
+        do {
+            batch(benchmark, batch);
+            ops += batch;
+        } while (System.nanoTime() < deadline);
+
+        return ops;
+    }
+
+    /**
+     * Runs the specified number of operations.
+     *
+     * @param benchmark
+     *            Benchmark to be run
+     * @param batch
+     *            Number of operations
+     */
+    private static void batch(Benchmark benchmark, int batch) {
+        for (int i = 0; i < batch; i++) {
+            sink = benchmark.run();
+        }
+    }
+
+    /**
+     * Gets the number of bytes allocated so far. The total of the JVM is
+     * stored under the key -1 if it can be read, otherwise the allocation of
+     * every live thread is stored under its identifier.
+     *
+     * @return Allocated bytes, empty if the JVM cannot measure them
+     */
+    private Map<Long, Long> allocatedBytes() {
+        Map<Long, Long> allocated = new HashMap<>();
+
+        if (totalAllocatedBytes != null) {
+            try {
+                allocated.put(-1L, (Long) totalAllocatedBytes.invoke(threadBean));
+                return allocated;
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                // fall back to the live threads
+            }
+        }
+
+        if (threadBean != null) {
+            long[] ids = threadBean.getAllThreadIds();
+            long[] bytes = threadBean.getThreadAllocatedBytes(ids);
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] >= 0) {
+                    allocated.put(ids[i], bytes[i]);
+                }
+            }
+        }
+
+        return allocated;
+    }
+
+    /**
+     * Gets the number of bytes allocated since an earlier reading. Threads
+     * which started after the reading are counted from zero.
+     *
+     * @param before
+     *            Reading returned by {@link #allocatedBytes()}
+     * @return Allocated bytes
+     */
+    private long allocatedSince(Map<Long, Long> before) {
+        long allocated = 0;
+
+        for (Map.Entry<Long, Long> entry : allocatedBytes().entrySet()) {
+            Long previous = before.get(entry.getKey());
+            allocated += entry.getValue() - (previous == null ? 0 : previous);
+        }
+
+        return allocated;
+    }
+
+    /**
+     * Gets the method of the thread bean which reads the number of bytes
+     * allocated by all threads, including terminated ones. The method was added
+     * in Java 14, so it is looked up reflectively.
+     *
+     * @param bean
+     *            Thread bean
+     * @return Method or null if the JVM does not provide it
+     */
+    private static Method totalAllocatedBytesMethod(com.sun.management.ThreadMXBean bean) {
+        try {
+            Method method = com.sun.management.ThreadMXBean.class
+                    .getMethod("getTotalThreadAllocatedBytes");
+            if ((Long) method.invoke(bean) >= 0) {
+                return method;
+            }
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            // not available before Java 14
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the thread bean which can measure allocated bytes.
+     *
+     * @return Thread bean or null if the JVM does not support it
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+
+            if (allocationBean.isThreadAllocatedMemorySupported()) {
+                allocationBean.setThreadAllocatedMemoryEnabled(true);
+                return allocationBean;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.util.List;
+
+/**
+ * Command-line application which runs every benchmark suite of the project.
+ * Accepted options are:
+ * <ul>
+ * <li>{@code -s 10,1000,...} collection sizes (default 10 to 10 000 000)</li>
+ * <li>{@code -f text} runs only benchmarks whose name contains the text</li>
+ * <li>{@code -w n} number of warmup iterations (default 3)</li>
+ * <li>{@code -i n} number of measured iterations (default 5)</li>
+ * <li>{@code -t ms} duration of one iteration in milliseconds (default
+ * 1000)</li>
+ * </ul>
+ * Sizes of ten million elements need a heap of a few gigabytes, for example
+ * {@code java -Xmx4g hr.fer.zemris.java.benchmark.Benchmarks}.
+ * <p>
+ * The suites run in this JVM one after another. For forked runs with JMH
+ * statistics the same suites are exposed as JMH benchmarks by the
+ * {@code jmh} module, for example
+ * {@code gradle :jmh:jmh -PjmhArgs=CollectionSuite}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class Benchmarks {
+
+    /** Default collection sizes. */
+    private static final int[] DEFAULT_SIZES = { 10, 1_000, 100_000, 10_000_000 };
+
+    /**
+     * Starting point of a program.
+     *
+     * @param args
+     *            Command-line arguments
+     */
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        String filter = "";
+        int warmupIterations = 3;
+        int measurementIterations = 5;
+        long iterationMillis = 1000;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-s":
+                    sizes = parseSizes(args[i + 1]);
+                    break;
+                case "-f":
+                    filter = args[i + 1];
+                    break;
+                case "-w":
+                    warmupIterations = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-i":
+                    measurementIterations = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-t":
+                    iterationMillis = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    return;
+            }
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmupIterations, measurementIterations,
+                iterationMillis, System.out);
+        runner.printHeader();
+
+        run(runner, CollectionBenchmarks.benchmarks(), sizes, filter);
+        run(runner, PrimitiveCollectionBenchmarks.benchmarks(), sizes, filter);
+        run(runner, ObjectStackBenchmarks.benchmarks(), sizes, filter);
+        run(runner, RPNBenchmarks.benchmarks(), RPNBenchmarks.SIZES, filter);
+        run(runner, RPNBenchmarks.batchBenchmarks(), RPNBenchmarks.BATCH_SIZES, filter);
+        run(runner, RPNBenchmarks.parallelBenchmarks(), RPNBenchmarks.PARALLEL_SIZES, filter);
+        run(runner, ComplexNumberBenchmarks.benchmarks(), ComplexNumberBenchmarks.SIZES, filter);
+        run(runner, ComplexVectorBenchmarks.benchmarks(), ComplexVectorBenchmarks.SIZES, filter);
+        run(runner, FFTBenchmarks.benchmarks(), FFTBenchmarks.SIZES, filter);
+        run(runner, FFTBenchmarks.parallelBenchmarks(), FFTBenchmarks.PARALLEL_SIZES, filter);
+        run(runner, ComplexBinaryFormatBenchmarks.benchmarks(), ComplexBinaryFormatBenchmarks.SIZES,
+                filter);
+        run(runner, ComplexPolynomialBenchmarks.benchmarks(), ComplexPolynomialBenchmarks.SIZES,
+                filter);
+        run(runner, ComplexPolynomialBenchmarks.gridBenchmarks(),
+                ComplexPolynomialBenchmarks.GRID_SIZES, filter);
+        run(runner, ComplexPolynomialBenchmarks.rootBenchmarks(),
+                ComplexPolynomialBenchmarks.ROOT_DEGREES, filter);
+        run(runner, NewtonFractalBenchmarks.benchmarks(), NewtonFractalBenchmarks.SIZES, filter);
+    }
+
+    /**
+     * Runs every benchmark whose name contains the filter.
+     *
+     * @param runner
+     *            Runner used for measuring
+     * @param benchmarks
+     *            Benchmarks to be run
+     * @param sizes
+     *            Problem sizes
+     * @param filter
+     *            Text which must be contained in the name of the benchmark
+     */
+    private static void run(BenchmarkRunner runner, List<Benchmark> benchmarks, int[] sizes,
+            String filter) {
+        for (Benchmark benchmark : benchmarks) {
+            if (benchmark.getName().contains(filter)) {
+                runner.run(benchmark, sizes);
+            }
+        }
+    }
+
+    /**
+     * Parses comma separated sizes.
+     *
+     * @param s
+     *            Comma separated sizes
+     * @return Array of sizes
+     */
+    private static int[] parseSizes(String s) {
+        String[] parts = s.split(",");
+        int[] sizes = new int[parts.length];
+
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim().replace("_", ""));
+            if (sizes[i] < 1) {
+                throw new IllegalArgumentException("Size must be positive: " + parts[i]);
+            }
+        }
+
+        return sizes;
+    }
+}
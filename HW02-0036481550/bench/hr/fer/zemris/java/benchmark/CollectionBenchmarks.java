@@ -0,0 +1,647 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hr.fer.zemris.java.custom.collections.ArrayIndexedCollection;
+import hr.fer.zemris.java.custom.collections.Collection;
+import hr.fer.zemris.java.custom.collections.ElementsGetter;
+import hr.fer.zemris.java.custom.collections.LinkedListIndexedCollection;
+import hr.fer.zemris.java.custom.collections.ListCursor;
+import hr.fer.zemris.java.custom.collections.Processor;
+import hr.fer.zemris.java.custom.collections.TreeIndexedCollection;
+import hr.fer.zemris.java.custom.collections.UnrolledLinkedListIndexedCollection;
+
+/**
+ * Benchmarks of add, addAll, get, insert, remove, indexOf, toArray, element
+ * getters and forEach for
+ * every indexed implementation of the {@link Collection} class, and of
+ * cursors for the linked implementations.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class CollectionBenchmarks {
+
+    /** Stride used to visit indexes in a cache-unfriendly order. */
+    private static final int STRIDE = 7_368_787;
+    /** Number of removed nodes reused by the pooled linked list. */
+    private static final int POOL_CAPACITY = 1024;
+
+    /**
+     * Class which adapts indexed operations of a single implementation, since
+     * they are not declared by the {@link Collection} class.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    abstract static class Target {
+        /** Short name of the implementation. */
+        final String name;
+
+        /**
+         * Constructs a target with the specified name.
+         *
+         * @param name
+         *            Short name of the implementation
+         */
+        Target(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Creates an empty collection.
+         *
+         * @return Empty collection
+         */
+        abstract Collection create();
+
+        /**
+         * Gets the object at specified index.
+         *
+         * @param c
+         *            Collection
+         * @param index
+         *            Index of the object
+         * @return Object at the specified index
+         */
+        abstract Object get(Collection c, int index);
+
+        /**
+         * Inserts the object at the specified position.
+         *
+         * @param c
+         *            Collection
+         * @param value
+         *            Object to be inserted
+         * @param position
+         *            Position of the object
+         */
+        abstract void insert(Collection c, Object value, int position);
+
+        /**
+         * Removes the object at the specified index.
+         *
+         * @param c
+         *            Collection
+         * @param index
+         *            Index of the object
+         */
+        abstract void remove(Collection c, int index);
+
+        /**
+         * Finds the index of the specified object.
+         *
+         * @param c
+         *            Collection
+         * @param value
+         *            Object to search for
+         * @return Index of the object or -1
+         */
+        abstract int indexOf(Collection c, Object value);
+
+        /**
+         * Creates a cursor at the specified position.
+         *
+         * @param c
+         *            Collection
+         * @param index
+         *            Position of the cursor
+         * @return Cursor at the specified position
+         * @throws UnsupportedOperationException
+         *             If the implementation has no cursors
+         */
+        ListCursor createCursor(Collection c, int index) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Base class of benchmarks which work on a collection filled with
+     * {@code size} distinct elements.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    abstract static class CollectionBenchmark extends Benchmark {
+        /** Implementation under test. */
+        final Target target;
+        /** Distinct elements used to fill the collection. */
+        Integer[] values;
+        /** Collection filled in {@link #setUp(int)}. */
+        Collection collection;
+        /** Index of the next visited element. */
+        int index;
+        /** Sum of primitive results, keeps them from being eliminated. */
+        long checksum;
+
+        /**
+         * Constructs a benchmark of the specified operation.
+         *
+         * @param target
+         *            Implementation under test
+         * @param operation
+         *            Name of the operation
+         */
+        CollectionBenchmark(Target target, String operation) {
+            super(target.name + "." + operation);
+            this.target = target;
+        }
+
+        @Override
+        public void setUp(int size) {
+            values = new Integer[size];
+            collection = target.create();
+
+            for (int i = 0; i < size; i++) {
+                values[i] = i;
+                collection.add(values[i]);
+            }
+            index = 0;
+        }
+
+        @Override
+        public void tearDown() {
+            values = null;
+            collection = null;
+        }
+
+        /**
+         * Gets the next index in a cache-unfriendly order.
+         *
+         * @return Next index
+         */
+        int nextIndex() {
+            index = (int) ((index + (long) STRIDE) % values.length);
+            return index;
+        }
+    }
+
+    /**
+     * Processor which counts processed elements.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    static class CountingProcessor extends Processor {
+        /** Number of processed elements. */
+        int count;
+
+        @Override
+        public void process(Object value) {
+            count++;
+        }
+    }
+
+    /** Adapter of the {@link ArrayIndexedCollection}. */
+    static final Target ARRAY = new Target("ArrayIndexedCollection") {
+        @Override
+        Collection create() {
+            return new ArrayIndexedCollection();
+        }
+
+        @Override
+        Object get(Collection c, int index) {
+            return ((ArrayIndexedCollection) c).get(index);
+        }
+
+        @Override
+        void insert(Collection c, Object value, int position) {
+            ((ArrayIndexedCollection) c).insert(value, position);
+        }
+
+        @Override
+        void remove(Collection c, int index) {
+            ((ArrayIndexedCollection) c).remove(index);
+        }
+
+        @Override
+        int indexOf(Collection c, Object value) {
+            return ((ArrayIndexedCollection) c).indexOf(value);
+        }
+    };
+
+    /** Adapter of the {@link LinkedListIndexedCollection}. */
+    static final Target LINKED_LIST = new Target("LinkedListIndexedCollection") {
+        @Override
+        Collection create() {
+            return new LinkedListIndexedCollection();
+        }
+
+        @Override
+        Object get(Collection c, int index) {
+            return ((LinkedListIndexedCollection) c).get(index);
+        }
+
+        @Override
+        void insert(Collection c, Object value, int position) {
+            ((LinkedListIndexedCollection) c).insert(value, position);
+        }
+
+        @Override
+        void remove(Collection c, int index) {
+            ((LinkedListIndexedCollection) c).remove(index);
+        }
+
+        @Override
+        int indexOf(Collection c, Object value) {
+            return ((LinkedListIndexedCollection) c).indexOf(value);
+        }
+
+        @Override
+        ListCursor createCursor(Collection c, int index) {
+            return ((LinkedListIndexedCollection) c).createCursor(index);
+        }
+    };
+
+    /** Adapter of the {@link LinkedListIndexedCollection} which reuses nodes. */
+    static final Target POOLED_LINKED_LIST = new Target("LinkedListIndexedCollection.pooled") {
+        @Override
+        Collection create() {
+            return new LinkedListIndexedCollection(POOL_CAPACITY);
+        }
+
+        @Override
+        Object get(Collection c, int index) {
+            return ((LinkedListIndexedCollection) c).get(index);
+        }
+
+        @Override
+        void insert(Collection c, Object value, int position) {
+            ((LinkedListIndexedCollection) c).insert(value, position);
+        }
+
+        @Override
+        void remove(Collection c, int index) {
+            ((LinkedListIndexedCollection) c).remove(index);
+        }
+
+        @Override
+        int indexOf(Collection c, Object value) {
+            return ((LinkedListIndexedCollection) c).indexOf(value);
+        }
+
+        @Override
+        ListCursor createCursor(Collection c, int index) {
+            return ((LinkedListIndexedCollection) c).createCursor(index);
+        }
+    };
+
+    /** Adapter of the {@link ArrayIndexedCollection} with a hash index. */
+    static final Target HASHED_ARRAY = new Target("ArrayIndexedCollection.hashed") {
+        @Override
+        Collection create() {
+            ArrayIndexedCollection c = new ArrayIndexedCollection();
+            c.setHashIndexed(true);
+            return c;
+        }
+
+        @Override
+        Object get(Collection c, int index) {
+            return ((ArrayIndexedCollection) c).get(index);
+        }
+
+        @Override
+        void insert(Collection c, Object value, int position) {
+            ((ArrayIndexedCollection) c).insert(value, position);
+        }
+
+        @Override
+        void remove(Collection c, int index) {
+            ((ArrayIndexedCollection) c).remove(index);
+        }
+
+        @Override
+        int indexOf(Collection c, Object value) {
+            return ((ArrayIndexedCollection) c).indexOf(value);
+        }
+    };
+
+    /** Adapter of the {@link LinkedListIndexedCollection} with a hash index. */
+    static final Target HASHED_LINKED_LIST = new Target("LinkedListIndexedCollection.hashed") {
+        @Override
+        Collection create() {
+            LinkedListIndexedCollection c = new LinkedListIndexedCollection();
+            c.setHashIndexed(true);
+            return c;
+        }
+
+        @Override
+        Object get(Collection c, int index) {
+            return ((LinkedListIndexedCollection) c).get(index);
+        }
+
+        @Override
+        void insert(Collection c, Object value, int position) {
+            ((LinkedListIndexedCollection) c).insert(value, position);
+        }
+
+        @Override
+        void remove(Collection c, int index) {
+            ((LinkedListIndexedCollection) c).remove(index);
+        }
+
+        @Override
+        int indexOf(Collection c, Object value) {
+            return ((LinkedListIndexedCollection) c).indexOf(value);
+        }
+
+        @Override
+        ListCursor createCursor(Collection c, int index) {
+            return ((LinkedListIndexedCollection) c).createCursor(index);
+        }
+    };
+
+    /** Adapter of the {@link UnrolledLinkedListIndexedCollection}. */
+    static final Target UNROLLED_LIST = new Target("UnrolledLinkedListIndexedCollection") {
+        @Override
+        Collection create() {
+            return new UnrolledLinkedListIndexedCollection();
+        }
+
+        @Override
+        Object get(Collection c, int index) {
+            return ((UnrolledLinkedListIndexedCollection) c).get(index);
+        }
+
+        @Override
+        void insert(Collection c, Object value, int position) {
+            ((UnrolledLinkedListIndexedCollection) c).insert(value, position);
+        }
+
+        @Override
+        void remove(Collection c, int index) {
+            ((UnrolledLinkedListIndexedCollection) c).remove(index);
+        }
+
+        @Override
+        int indexOf(Collection c, Object value) {
+            return ((UnrolledLinkedListIndexedCollection) c).indexOf(value);
+        }
+
+        @Override
+        ListCursor createCursor(Collection c, int index) {
+            return ((UnrolledLinkedListIndexedCollection) c).createCursor(index);
+        }
+    };
+
+    /** Adapter of the {@link TreeIndexedCollection}. */
+    static final Target TREE = new Target("TreeIndexedCollection") {
+        @Override
+        Collection create() {
+            return new TreeIndexedCollection();
+        }
+
+        @Override
+        Object get(Collection c, int index) {
+            return ((TreeIndexedCollection) c).get(index);
+        }
+
+        @Override
+        void insert(Collection c, Object value, int position) {
+            ((TreeIndexedCollection) c).insert(value, position);
+        }
+
+        @Override
+        void remove(Collection c, int index) {
+            ((TreeIndexedCollection) c).remove(index);
+        }
+
+        @Override
+        int indexOf(Collection c, Object value) {
+            return ((TreeIndexedCollection) c).indexOf(value);
+        }
+    };
+
+    /**
+     * Creates all benchmarks of this suite.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        for (Target target : new Target[] { ARRAY, HASHED_ARRAY, LINKED_LIST, POOLED_LINKED_LIST,
+                HASHED_LINKED_LIST, UNROLLED_LIST, TREE }) {
+            benchmarks.addAll(benchmarks(target));
+        }
+        for (Target target : new Target[] { LINKED_LIST, POOLED_LINKED_LIST, UNROLLED_LIST }) {
+            benchmarks.addAll(cursorBenchmarks(target));
+        }
+
+        return benchmarks;
+    }
+
+    /**
+     * Creates the cursor benchmarks of the specified implementation.
+     *
+     * @param target
+     *            Implementation under test, which has cursors
+     * @return List of benchmarks
+     */
+    static List<Benchmark> cursorBenchmarks(final Target target) {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        // one operation walks the whole list and replaces every element
+        benchmarks.add(new CollectionBenchmark(target, "cursorSet") {
+            @Override
+            public Object run() {
+                ListCursor cursor = target.createCursor(collection, 0);
+                for (; cursor.hasElement(); cursor.next()) {
+                    cursor.set(values[cursor.getIndex()]);
+                }
+                return collection;
+            }
+        });
+
+        // inserts before and removes every 16th element, so the size stays
+        // constant
+        benchmarks.add(new CollectionBenchmark(target, "cursorInsertRemove") {
+            @Override
+            public Object run() {
+                ListCursor cursor = target.createCursor(collection, 0);
+                while (cursor.hasElement()) {
+                    cursor.insertBefore(values[0]);
+                    cursor.previous();
+                    cursor.remove();
+                    for (int i = 0; i < 16 && cursor.hasElement(); i++) {
+                        cursor.next();
+                    }
+                }
+                return collection;
+            }
+        });
+
+        return benchmarks;
+    }
+
+    /**
+     * Creates all benchmarks of the specified implementation.
+     *
+     * @param target
+     *            Implementation under test
+     * @return List of benchmarks
+     */
+    static List<Benchmark> benchmarks(Target target) {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        // fills a new collection with all elements, one operation per fill
+        benchmarks.add(new CollectionBenchmark(target, "add") {
+            @Override
+            public Object run() {
+                Collection c = target.create();
+                for (Integer value : values) {
+                    c.add(value);
+                }
+                return c;
+            }
+        });
+
+        benchmarks.add(new CollectionBenchmark(target, "addAll") {
+            @Override
+            public Object run() {
+                Collection c = target.create();
+                c.addAll(collection);
+                return c;
+            }
+        });
+
+        benchmarks.add(new CollectionBenchmark(target, "get") {
+            @Override
+            public Object run() {
+                return target.get(collection, nextIndex());
+            }
+        });
+
+        // one operation reads every element by index in order
+        benchmarks.add(new CollectionBenchmark(target, "getSequential") {
+            @Override
+            public Object run() {
+                Object last = null;
+                for (int i = 0; i < values.length; i++) {
+                    last = target.get(collection, i);
+                }
+                return last;
+            }
+        });
+
+        // removing the last element is cheap for all implementations so the
+        // size stays constant without hiding the cost of the insert
+        benchmarks.add(new CollectionBenchmark(target, "insertMiddle") {
+            @Override
+            public Object run() {
+                target.insert(collection, values[0], values.length / 2);
+                target.remove(collection, values.length);
+                return collection;
+            }
+        });
+
+        benchmarks.add(new CollectionBenchmark(target, "insertFront") {
+            @Override
+            public Object run() {
+                target.insert(collection, values[0], 0);
+                target.remove(collection, values.length);
+                return collection;
+            }
+        });
+
+        // positions follow the cache-unfriendly order of the get benchmark
+        benchmarks.add(new CollectionBenchmark(target, "insertRandom") {
+            @Override
+            public Object run() {
+                target.insert(collection, values[0], nextIndex());
+                target.remove(collection, values.length);
+                return collection;
+            }
+        });
+
+        // appends at the tail and removes at index 0 like a queue, the
+        // allocation rate shows whether nodes are reused
+        benchmarks.add(new CollectionBenchmark(target, "queue") {
+            @Override
+            public Object run() {
+                collection.add(values[0]);
+                target.remove(collection, 0);
+                return collection;
+            }
+        });
+
+        // refills the same collection, which reuses nodes if it pools them
+        benchmarks.add(new CollectionBenchmark(target, "clearAndRefill") {
+            @Override
+            public Object run() {
+                collection.clear();
+                for (Integer value : values) {
+                    collection.add(value);
+                }
+                return collection;
+            }
+        });
+
+        benchmarks.add(new CollectionBenchmark(target, "removeMiddle") {
+            @Override
+            public Object run() {
+                target.remove(collection, values.length / 2);
+                collection.add(values[0]);
+                return collection;
+            }
+        });
+
+        benchmarks.add(new CollectionBenchmark(target, "indexOfLast") {
+            @Override
+            public Object run() {
+                checksum += target.indexOf(collection, values[values.length - 1]);
+                return collection;
+            }
+        });
+
+        benchmarks.add(new CollectionBenchmark(target, "indexOfRandom") {
+            @Override
+            public Object run() {
+                checksum += target.indexOf(collection, values[nextIndex()]);
+                return collection;
+            }
+        });
+
+        // the element is absent, so every scan visits the whole collection
+        benchmarks.add(new CollectionBenchmark(target, "containsMissing") {
+            @Override
+            public Object run() {
+                return collection.contains(values.length);
+            }
+        });
+
+        benchmarks.add(new CollectionBenchmark(target, "toArray") {
+            @Override
+            public Object run() {
+                return collection.toArray();
+            }
+        });
+
+        benchmarks.add(new CollectionBenchmark(target, "elementsGetter") {
+            @Override
+            public Object run() {
+                ElementsGetter getter = collection.createElementsGetter();
+                Object last = null;
+                while (getter.hasNextElement()) {
+                    last = getter.getNextElement();
+                }
+                return last;
+            }
+        });
+
+        benchmarks.add(new CollectionBenchmark(target, "forEach") {
+            /** Processor reused between operations. */
+            private final CountingProcessor processor = new CountingProcessor();
+
+            @Override
+            public Object run() {
+                processor.count = 0;
+                collection.forEach(processor);
+                return processor;
+            }
+        });
+
+        return benchmarks;
+    }
+}
@@ -0,0 +1,166 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexBinaryFormat;
+import hr.fer.zemris.java.tecaj.hw2.ComplexBinaryFormat.Layout;
+import hr.fer.zemris.java.tecaj.hw2.ComplexVector;
+import hr.fer.zemris.java.tecaj.hw2.MappedComplexArray;
+
+/**
+ * Benchmarks of {@link ComplexBinaryFormat}. One operation writes, reads or
+ * maps a whole file in the temporary directory, so the results mostly show
+ * the cost of copying through the page cache. The text conversion shows how
+ * much slower the text format is for the same elements.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexBinaryFormatBenchmarks {
+
+    /** Number of elements in a file regardless of the collection sizes. */
+    public static final int[] SIZES = { 1024 * 1024 };
+
+    /**
+     * Base class of benchmarks which work on a vector of random complex
+     * numbers and temporary files holding it.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    abstract static class FileBenchmark extends Benchmark {
+        /** Layout of the binary file. */
+        final Layout layout;
+        /** Elements of the files. */
+        ComplexVector vector;
+        /** Binary file with the elements. */
+        Path binary;
+        /** Text file with the elements. */
+        Path text;
+
+        /**
+         * Constructs a benchmark with the specified name.
+         *
+         * @param name
+         *            Name of the benchmark
+         * @param layout
+         *            Layout of the binary file
+         */
+        FileBenchmark(String name, Layout layout) {
+            super("ComplexBinaryFormat." + name);
+            this.layout = layout;
+        }
+
+        @Override
+        public void setUp(int size) {
+            Random random = new Random(42);
+            vector = new ComplexVector(size);
+            for (int i = 0; i < size; i++) {
+                vector.set(i, random.nextGaussian(), random.nextGaussian());
+            }
+
+            try {
+                binary = Files.createTempFile("complex", ".bin");
+                text = Files.createTempFile("complex", ".txt");
+                ComplexBinaryFormat.write(binary, vector, layout);
+                ComplexBinaryFormat.toText(binary, text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void tearDown() {
+            try {
+                Files.deleteIfExists(binary);
+                Files.deleteIfExists(text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            vector = null;
+        }
+
+        @Override
+        public Object run() {
+            try {
+                return operation();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Runs one operation on the files.
+         *
+         * @return Result of the operation
+         * @throws IOException
+         *             If the operation fails
+         */
+        abstract Object operation() throws IOException;
+    }
+
+    /**
+     * Creates all benchmarks of this suite.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        for (Layout layout : Layout.values()) {
+            String suffix = "." + layout.name().toLowerCase();
+
+            benchmarks.add(new FileBenchmark("write" + suffix, layout) {
+                @Override
+                Object operation() throws IOException {
+                    ComplexBinaryFormat.write(binary, vector, layout);
+                    return binary;
+                }
+            });
+
+            benchmarks.add(new FileBenchmark("read" + suffix, layout) {
+                @Override
+                Object operation() throws IOException {
+                    return ComplexBinaryFormat.read(binary);
+                }
+            });
+
+            // sums every element so the whole mapping is touched
+            benchmarks.add(new FileBenchmark("map.sum" + suffix, layout) {
+                @Override
+                Object operation() throws IOException {
+                    MappedComplexArray array = ComplexBinaryFormat.map(binary);
+                    double sum = 0;
+                    for (int i = 0; i < array.size(); i++) {
+                        sum += array.getReal(i) + array.getImaginary(i);
+                    }
+                    return sum;
+                }
+            });
+        }
+
+        benchmarks.add(new FileBenchmark("toText", Layout.INTERLEAVED) {
+            @Override
+            Object operation() throws IOException {
+                ComplexBinaryFormat.toText(binary, text);
+                return text;
+            }
+        });
+
+        benchmarks.add(new FileBenchmark("fromText", Layout.INTERLEAVED) {
+            @Override
+            Object operation() throws IOException {
+                ComplexBinaryFormat.fromText(text, binary, layout);
+                return binary;
+            }
+        });
+
+        return benchmarks;
+    }
+}
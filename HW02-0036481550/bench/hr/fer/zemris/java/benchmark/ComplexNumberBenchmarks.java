@@ -0,0 +1,355 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexNumber;
+import hr.fer.zemris.java.tecaj.hw2.MutableComplexNumber;
+
+/**
+ * Benchmarks of arithmetic, parsing and formatting of the
+ * {@link ComplexNumber} class. Every operation works on the next number from
+ * a pool of {@code size} random numbers so the JIT cannot fold constants.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexNumberBenchmarks {
+
+    /** Pool sizes used by this suite regardless of the collection sizes. */
+    public static final int[] SIZES = { 1024 };
+
+    /**
+     * Base class of benchmarks which work on a pool of random complex numbers.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    abstract static class ComplexBenchmark extends Benchmark {
+        /** Pool of random complex numbers. */
+        ComplexNumber[] numbers;
+        /** Pool of string representations of the numbers. */
+        String[] strings;
+        /** Index of the next number. */
+        int index;
+
+        /**
+         * Constructs a benchmark with the specified name.
+         *
+         * @param name
+         *            Name of the benchmark
+         */
+        ComplexBenchmark(String name) {
+            super("ComplexNumber." + name);
+        }
+
+        @Override
+        public void setUp(int size) {
+            Random random = new Random(42);
+
+            numbers = new ComplexNumber[size];
+            strings = new String[size];
+            for (int i = 0; i < size; i++) {
+                numbers[i] = new ComplexNumber(random.nextDouble() * 200 - 100,
+                        random.nextDouble() * 200 - 100);
+                strings[i] = literal(random.nextInt(3), numbers[i]);
+            }
+            index = 0;
+        }
+
+        @Override
+        public void tearDown() {
+            numbers = null;
+            strings = null;
+        }
+
+        /**
+         * Gets the next number of the pool.
+         *
+         * @return Next number
+         */
+        ComplexNumber next() {
+            if (++index == numbers.length) {
+                index = 0;
+            }
+            return numbers[index];
+        }
+
+        /**
+         * Gets the next string of the pool.
+         *
+         * @return Next string
+         */
+        String nextString() {
+            if (++index == strings.length) {
+                index = 0;
+            }
+            return strings[index];
+        }
+
+        /**
+         * Creates a literal accepted by {@link ComplexNumber#parse(String)}.
+         *
+         * @param form
+         *            0 for real, 1 for imaginary and 2 for complex literal
+         * @param c
+         *            Source of the parts
+         * @return Literal
+         */
+        private static String literal(int form, ComplexNumber c) {
+            String real = Double.toString(Math.floor(c.getReal() * 1000) / 1000);
+            String imaginary = Double.toString(Math.floor(c.getImaginary() * 1000) / 1000);
+
+            switch (form) {
+                case 0:
+                    return real;
+                case 1:
+                    return imaginary + "i";
+                default:
+                    return real + (imaginary.startsWith("-") ? "" : "+") + imaginary + "i";
+            }
+        }
+    }
+
+    /**
+     * Creates all benchmarks of this suite.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        benchmarks.add(new ComplexBenchmark("add") {
+            @Override
+            public Object run() {
+                return next().add(numbers[0]);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("sub") {
+            @Override
+            public Object run() {
+                return next().sub(numbers[0]);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("mul") {
+            @Override
+            public Object run() {
+                return next().mul(numbers[0]);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("div") {
+            @Override
+            public Object run() {
+                return next().div(numbers[0]);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("power3") {
+            @Override
+            public Object run() {
+                return next().power(3);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("power3.polar") {
+            @Override
+            public Object run() {
+                return polarPower(next(), 3);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("power-3") {
+            @Override
+            public Object run() {
+                return next().power(-3);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("power64") {
+            @Override
+            public Object run() {
+                return next().power(64);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("power64.polar") {
+            @Override
+            public Object run() {
+                return polarPower(next(), 64);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("root3") {
+            @Override
+            public Object run() {
+                return next().root(3);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("root16") {
+            @Override
+            public Object run() {
+                return next().root(16);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("root16.arrays") {
+            /** Real parts of the roots. */
+            private final double[] real = new double[16];
+            /** Imaginary parts of the roots. */
+            private final double[] imaginary = new double[16];
+
+            @Override
+            public Object run() {
+                next().root(16, real, imaginary, 0);
+                return real;
+            }
+        });
+
+        // sum of products of neighbouring numbers over the whole pool
+        benchmarks.add(new ComplexBenchmark("sumOfProducts") {
+            @Override
+            public Object run() {
+                ComplexNumber sum = new ComplexNumber(0, 0);
+                for (int i = 1; i < numbers.length; i++) {
+                    sum = sum.add(numbers[i - 1].mul(numbers[i]));
+                }
+                return sum;
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("mutable.sumOfProducts") {
+            /** Accumulator reused between operations. */
+            private final MutableComplexNumber sum = new MutableComplexNumber();
+
+            @Override
+            public Object run() {
+                sum.set(0, 0);
+                for (int i = 1; i < numbers.length; i++) {
+                    sum.addProduct(numbers[i - 1], numbers[i]);
+                }
+                return sum;
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("mulDivChain") {
+            @Override
+            public Object run() {
+                ComplexNumber c = numbers[0];
+                for (int i = 1; i < numbers.length; i++) {
+                    c = c.mul(numbers[i]).div(numbers[i - 1]);
+                }
+                return c;
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("mutable.mulDivChain") {
+            /** Accumulator reused between operations. */
+            private final MutableComplexNumber c = new MutableComplexNumber();
+
+            @Override
+            public Object run() {
+                c.set(numbers[0]);
+                for (int i = 1; i < numbers.length; i++) {
+                    c.mul(numbers[i]).div(numbers[i - 1]);
+                }
+                return c;
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("parse") {
+            @Override
+            public Object run() {
+                try {
+                    return ComplexNumber.parse(nextString());
+                } catch (ParseException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        // one operation parses the whole pool, one literal per line
+        benchmarks.add(new ComplexBenchmark("parseAll") {
+            /** Literals of the pool as ASCII lines. */
+            private ByteBuffer buffer;
+            /** Real parts of the parsed numbers. */
+            private double[] real;
+            /** Imaginary parts of the parsed numbers. */
+            private double[] imaginary;
+
+            @Override
+            public void setUp(int size) {
+                super.setUp(size);
+                buffer = ByteBuffer.wrap(String.join("\n", strings).getBytes(StandardCharsets.US_ASCII));
+                real = new double[size];
+                imaginary = new double[size];
+            }
+
+            @Override
+            public Object run() {
+                buffer.rewind();
+                try {
+                    ComplexNumber.parseAll(buffer, real, imaginary, 0);
+                } catch (ParseException e) {
+                    throw new IllegalStateException(e);
+                }
+                return real;
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("toString") {
+            @Override
+            public Object run() {
+                return next().toString();
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("format.StringBuilder") {
+            /** Builder reused between operations. */
+            private final StringBuilder sb = new StringBuilder();
+
+            @Override
+            public Object run() {
+                sb.setLength(0);
+                return next().format(sb, 4);
+            }
+        });
+
+        benchmarks.add(new ComplexBenchmark("format.ByteBuffer") {
+            /** Buffer reused between operations. */
+            private final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+            @Override
+            public Object run() {
+                buffer.clear();
+                return next().format(buffer, 4);
+            }
+        });
+
+        return benchmarks;
+    }
+
+    /**
+     * Raises the complex number to a power through the polar form, the way
+     * {@link ComplexNumber#power(int)} computes large exponents.
+     *
+     * @param c
+     *            Base
+     * @param n
+     *            Exponent
+     * @return Base to the power of n
+     */
+    static ComplexNumber polarPower(ComplexNumber c, int n) {
+        double magnitude = Math.pow(c.getMagnitude(), n);
+        double angle = (c.getAngle() * n) % (2 * Math.PI);
+
+        return new ComplexNumber(magnitude * Math.cos(angle), magnitude * Math.sin(angle));
+    }
+}
@@ -0,0 +1,245 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexNumber;
+import hr.fer.zemris.java.tecaj.hw2.ComplexPolynomial;
+
+/**
+ * Benchmarks of {@link ComplexPolynomial}. Evaluation benchmarks evaluate a
+ * polynomial of degree {@value #DEGREE} at every point, either by chaining
+ * {@link ComplexNumber#mul(ComplexNumber)} and
+ * {@link ComplexNumber#add(ComplexNumber)} as before, or with the polynomial
+ * on objects, split arrays and grids. Root benchmarks find all roots of a
+ * polynomial whose degree is the size.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexPolynomialBenchmarks {
+
+    /** Degree of the evaluated polynomial. */
+    public static final int DEGREE = 8;
+    /** Numbers of points used by the evaluation benchmarks. */
+    public static final int[] SIZES = { 1 << 16 };
+    /** Numbers of grid points used by the grid benchmarks. */
+    public static final int[] GRID_SIZES = { 1 << 20 };
+    /** Degrees of the polynomials used by the root benchmarks. */
+    public static final int[] ROOT_DEGREES = { 8, 32 };
+
+    /**
+     * Base class of benchmarks which evaluate a polynomial at random points
+     * stored both as objects and as split arrays.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    abstract static class EvaluationBenchmark extends Benchmark {
+        /** Coefficients from the constant one to the leading one. */
+        ComplexNumber[] coefficients;
+        /** Evaluated polynomial. */
+        ComplexPolynomial polynomial;
+        /** Points as objects. */
+        ComplexNumber[] points;
+        /** Values as objects. */
+        ComplexNumber[] values;
+        /** Derivatives as objects. */
+        ComplexNumber[] derivatives;
+        /** Real parts of the points. */
+        double[] pointReal;
+        /** Imaginary parts of the points. */
+        double[] pointImaginary;
+        /** Real parts of the values. */
+        double[] valueReal;
+        /** Imaginary parts of the values. */
+        double[] valueImaginary;
+        /** Real parts of the derivatives. */
+        double[] derivativeReal;
+        /** Imaginary parts of the derivatives. */
+        double[] derivativeImaginary;
+
+        /**
+         * Constructs a benchmark with the specified name.
+         *
+         * @param name
+         *            Name of the benchmark
+         */
+        EvaluationBenchmark(String name) {
+            super("ComplexPolynomial." + name);
+        }
+
+        @Override
+        public void setUp(int size) {
+            Random random = new Random(42);
+            coefficients = new ComplexNumber[DEGREE + 1];
+            for (int i = 0; i <= DEGREE; i++) {
+                coefficients[i] = new ComplexNumber(random.nextGaussian(), random.nextGaussian());
+            }
+            polynomial = new ComplexPolynomial(coefficients);
+
+            points = new ComplexNumber[size];
+            values = new ComplexNumber[size];
+            derivatives = new ComplexNumber[size];
+            pointReal = new double[size];
+            pointImaginary = new double[size];
+            for (int i = 0; i < size; i++) {
+                pointReal[i] = random.nextDouble() * 2 - 1;
+                pointImaginary[i] = random.nextDouble() * 2 - 1;
+                points[i] = new ComplexNumber(pointReal[i], pointImaginary[i]);
+            }
+            valueReal = new double[size];
+            valueImaginary = new double[size];
+            derivativeReal = new double[size];
+            derivativeImaginary = new double[size];
+        }
+
+        @Override
+        public void tearDown() {
+            coefficients = null;
+            polynomial = null;
+            points = null;
+            values = null;
+            derivatives = null;
+            pointReal = null;
+            pointImaginary = null;
+            valueReal = null;
+            valueImaginary = null;
+            derivativeReal = null;
+            derivativeImaginary = null;
+        }
+    }
+
+    /**
+     * Creates the evaluation benchmarks.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        benchmarks.add(new EvaluationBenchmark("objects.evaluate") {
+            @Override
+            public Object run() {
+                for (int k = 0; k < points.length; k++) {
+                    ComplexNumber z = points[k];
+                    ComplexNumber value = coefficients[DEGREE];
+                    for (int i = DEGREE - 1; i >= 0; i--) {
+                        value = value.mul(z).add(coefficients[i]);
+                    }
+                    values[k] = value;
+                }
+                return values;
+            }
+        });
+
+        benchmarks.add(new EvaluationBenchmark("evaluate") {
+            @Override
+            public Object run() {
+                for (int k = 0; k < points.length; k++) {
+                    values[k] = polynomial.evaluate(points[k]);
+                }
+                return values;
+            }
+        });
+
+        benchmarks.add(new EvaluationBenchmark("batch.evaluate") {
+            @Override
+            public Object run() {
+                polynomial.evaluate(pointReal, pointImaginary, valueReal, valueImaginary);
+                return valueReal;
+            }
+        });
+
+        benchmarks.add(new EvaluationBenchmark("objects.evaluateWithDerivative") {
+            @Override
+            public Object run() {
+                ComplexPolynomial derivative = polynomial.derivative();
+                for (int k = 0; k < points.length; k++) {
+                    values[k] = polynomial.evaluate(points[k]);
+                    derivatives[k] = derivative.evaluate(points[k]);
+                }
+                return derivatives;
+            }
+        });
+
+        benchmarks.add(new EvaluationBenchmark("batch.evaluateWithDerivative") {
+            @Override
+            public Object run() {
+                polynomial.evaluateWithDerivative(pointReal, pointImaginary, valueReal,
+                        valueImaginary, derivativeReal, derivativeImaginary);
+                return valueReal;
+            }
+        });
+
+        return benchmarks;
+    }
+
+    /**
+     * Creates the grid benchmarks, which evaluate a square grid of the size.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> gridBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        benchmarks.add(new EvaluationBenchmark("grid") {
+            @Override
+            public Object run() {
+                int side = (int) Math.sqrt(valueReal.length);
+                polynomial.evaluateGrid(-1, 1, -1, 1, side, side, valueReal, valueImaginary);
+                return valueReal;
+            }
+        });
+
+        benchmarks.add(new EvaluationBenchmark("parallelGrid") {
+            @Override
+            public Object run() {
+                int side = (int) Math.sqrt(valueReal.length);
+                polynomial.parallelEvaluateGrid(-1, 1, -1, 1, side, side, valueReal,
+                        valueImaginary);
+                return valueReal;
+            }
+        });
+
+        return benchmarks;
+    }
+
+    /**
+     * Creates the root benchmarks, which find the roots of a polynomial with
+     * random roots whose degree is the size.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> rootBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        benchmarks.add(new Benchmark("ComplexPolynomial.roots") {
+            /** Polynomial whose roots are found. */
+            private ComplexPolynomial polynomial;
+
+            @Override
+            public void setUp(int size) {
+                Random random = new Random(42);
+                ComplexNumber[] roots = new ComplexNumber[size];
+                for (int i = 0; i < size; i++) {
+                    roots[i] = new ComplexNumber(random.nextGaussian(), random.nextGaussian());
+                }
+                polynomial = ComplexPolynomial.fromRoots(roots);
+            }
+
+            @Override
+            public void tearDown() {
+                polynomial = null;
+            }
+
+            @Override
+            public Object run() {
+                return polynomial.roots();
+            }
+        });
+
+        return benchmarks;
+    }
+}
@@ -0,0 +1,133 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexNumber;
+
+/**
+ * Compares the precision of {@link ComplexNumber#power(int)} with the polar
+ * form it used before. Bases are random Gaussian integers, whose powers are
+ * exact in rectangular form, and random numbers near the unit circle. Exact
+ * powers are computed with {@link BigDecimal}. Errors are reported as the
+ * largest difference of either part in ulps of the magnitude of the exact
+ * power.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexPowerPrecision {
+
+    /** Precision of the exact powers. */
+    private static final MathContext CONTEXT = new MathContext(60);
+
+    /** Exponents which are checked. */
+    private static final int[] EXPONENTS = { 2, 3, 5, 8, 16, 33, 64, -1, -3, -16 };
+
+    /** Number of bases per exponent and kind of base. */
+    private static final int SAMPLES = 2000;
+
+    /**
+     * Starting point of a program.
+     *
+     * @param args
+     *            Command-line arguments, not used
+     */
+    public static void main(String[] args) {
+        Random random = new Random(42);
+
+        System.out.printf("%8s %12s %12s %12s %12s%n", "n", "int power", "int polar",
+                "unit power", "unit polar");
+        for (int n : EXPONENTS) {
+            double[] integer = new double[2];
+            double[] unit = new double[2];
+
+            for (int i = 0; i < SAMPLES; i++) {
+                // parts are small enough that the exact power stays below 2^53
+                int limit = (int) Math.max(1, Math.pow(2, 50.0 / Math.abs(n) / 2));
+                ComplexNumber base = new ComplexNumber(random.nextInt(2 * limit + 1) - limit,
+                        random.nextInt(2 * limit + 1) - limit);
+                if (base.getReal() != 0 || base.getImaginary() != 0) {
+                    measure(base, n, integer);
+                }
+
+                double angle = (random.nextDouble() * 2 - 1) * Math.PI;
+                double magnitude = 1 + (random.nextDouble() - 0.5) / 100;
+                measure(ComplexNumber.fromMagnitudeAndAngle(magnitude, angle), n, unit);
+            }
+
+            System.out.printf("%8d %12.2f %12.2f %12.2f %12.2f%n", n, integer[0], integer[1],
+                    unit[0], unit[1]);
+        }
+    }
+
+    /**
+     * Measures errors of both strategies for one base and keeps the largest
+     * ones.
+     *
+     * @param base
+     *            Base
+     * @param n
+     *            Exponent
+     * @param errors
+     *            Largest errors of {@code power} and of the polar form
+     */
+    private static void measure(ComplexNumber base, int n, double[] errors) {
+        BigDecimal[] exact = exactPower(base, n);
+
+        errors[0] = Math.max(errors[0], error(base.power(n), exact));
+        errors[1] = Math.max(errors[1], error(ComplexNumberBenchmarks.polarPower(base, n), exact));
+    }
+
+    /**
+     * Computes the error of a power in ulps of the magnitude of the exact
+     * power.
+     *
+     * @param c
+     *            Computed power
+     * @param exact
+     *            Real and imaginary part of the exact power
+     * @return Error in ulps
+     */
+    private static double error(ComplexNumber c, BigDecimal[] exact) {
+        double ulp = Math.ulp(Math.hypot(exact[0].doubleValue(), exact[1].doubleValue()));
+        BigDecimal real = new BigDecimal(c.getReal()).subtract(exact[0]).abs();
+        BigDecimal imaginary = new BigDecimal(c.getImaginary()).subtract(exact[1]).abs();
+
+        return real.max(imaginary).doubleValue() / ulp;
+    }
+
+    /**
+     * Computes the power with 60 significant digits.
+     *
+     * @param base
+     *            Base
+     * @param n
+     *            Exponent
+     * @return Real and imaginary part of the power
+     */
+    private static BigDecimal[] exactPower(ComplexNumber base, int n) {
+        BigDecimal baseReal = new BigDecimal(base.getReal());
+        BigDecimal baseImaginary = new BigDecimal(base.getImaginary());
+        BigDecimal real = BigDecimal.ONE;
+        BigDecimal imaginary = BigDecimal.ZERO;
+
+        for (int i = 0; i < Math.abs(n); i++) {
+            BigDecimal newReal = real.multiply(baseReal, CONTEXT)
+                    .subtract(imaginary.multiply(baseImaginary, CONTEXT), CONTEXT);
+            imaginary = real.multiply(baseImaginary, CONTEXT)
+                    .add(imaginary.multiply(baseReal, CONTEXT), CONTEXT);
+            real = newReal;
+        }
+
+        if (n < 0) {
+            BigDecimal norm = real.multiply(real, CONTEXT).add(imaginary.multiply(imaginary, CONTEXT),
+                    CONTEXT);
+            real = real.divide(norm, CONTEXT);
+            imaginary = imaginary.negate().divide(norm, CONTEXT);
+        }
+
+        return new BigDecimal[] { real, imaginary };
+    }
+}
@@ -0,0 +1,167 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexNumber;
+
+/**
+ * Measures the precision of {@link ComplexNumber#root(int)}, whose
+ * documentation promises that both parts of every root are within 12 ulps of
+ * the magnitude of the root from the exact value. Numbers are random with
+ * magnitudes from 1e-10 to 1e10 and numbers near the unit circle, with angles
+ * close to pi. The error of a root w of c is its distance from the nearest
+ * exact root, {@code (w^n - c) / (n * w^(n - 1))}, computed with
+ * {@link BigDecimal}; it is reported as the largest error of either part in
+ * ulps of the magnitude of the root.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexRootPrecision {
+
+    /** Precision of the exact powers. */
+    private static final MathContext CONTEXT = new MathContext(60);
+
+    /** Roots which are checked. */
+    private static final int[] ROOTS = { 1, 2, 3, 5, 8, 16, 33, 64, 257, 1000 };
+
+    /** Number of numbers per root and kind of number. */
+    private static final int SAMPLES = 200;
+
+    /** Error bound promised by the documentation, in ulps. */
+    private static final double BOUND = 12;
+
+    /**
+     * Starting point of a program.
+     *
+     * @param args
+     *            Command-line arguments, not used
+     */
+    public static void main(String[] args) {
+        Random random = new Random(42);
+
+        System.out.printf("%8s %12s %12s%n", "n", "random", "near pi");
+        for (int n : ROOTS) {
+            double randomError = 0;
+            double nearPiError = 0;
+
+            for (int i = 0; i < SAMPLES; i++) {
+                double scale = Math.pow(10, random.nextInt(21) - 10);
+                ComplexNumber c = new ComplexNumber((random.nextDouble() * 2 - 1) * scale,
+                        (random.nextDouble() * 2 - 1) * scale);
+                randomError = Math.max(randomError, maxError(c, n));
+
+                double angle = Math.PI - random.nextDouble() * 1e-3;
+                double magnitude = 1 + (random.nextDouble() - 0.5) / 100;
+                c = ComplexNumber.fromMagnitudeAndAngle(magnitude,
+                        random.nextBoolean() ? angle : -angle);
+                nearPiError = Math.max(nearPiError, maxError(c, n));
+            }
+
+            System.out.printf("%8d %12.2f %12.2f%s%n", n, randomError, nearPiError,
+                    Math.max(randomError, nearPiError) > BOUND ? "  exceeds bound" : "");
+        }
+    }
+
+    /**
+     * Computes the largest error of the n-th roots of a complex number.
+     *
+     * @param c
+     *            Complex number
+     * @param n
+     *            Root
+     * @return Largest error in ulps of the magnitude of the roots
+     */
+    static double maxError(ComplexNumber c, int n) {
+        BigDecimal[] exact = { new BigDecimal(c.getReal()), new BigDecimal(c.getImaginary()) };
+        double error = 0;
+
+        for (ComplexNumber root : c.root(n)) {
+            error = Math.max(error, error(root, exact, n));
+        }
+
+        return error;
+    }
+
+    /**
+     * Computes the error of a root in ulps of its magnitude.
+     *
+     * @param root
+     *            Computed root
+     * @param c
+     *            Real and imaginary part of the number
+     * @param n
+     *            Root
+     * @return Error in ulps
+     */
+    private static double error(ComplexNumber root, BigDecimal[] c, int n) {
+        BigDecimal[] w = { new BigDecimal(root.getReal()), new BigDecimal(root.getImaginary()) };
+        BigDecimal[] power = power(w, n - 1);
+        BigDecimal[] derivative = { power[0].multiply(BigDecimal.valueOf(n), CONTEXT),
+                power[1].multiply(BigDecimal.valueOf(n), CONTEXT) };
+        power = multiply(power, w);
+
+        BigDecimal[] residual = { power[0].subtract(c[0], CONTEXT),
+                power[1].subtract(c[1], CONTEXT) };
+        BigDecimal[] correction = divide(residual, derivative);
+
+        double ulp = Math.ulp(Math.hypot(root.getReal(), root.getImaginary()));
+        return correction[0].abs().max(correction[1].abs()).doubleValue() / ulp;
+    }
+
+    /**
+     * Raises a complex number to a power by repeated squaring.
+     *
+     * @param base
+     *            Real and imaginary part of the base
+     * @param n
+     *            Non-negative exponent
+     * @return Real and imaginary part of the power
+     */
+    private static BigDecimal[] power(BigDecimal[] base, int n) {
+        BigDecimal[] result = { BigDecimal.ONE, BigDecimal.ZERO };
+
+        for (BigDecimal[] square = base; n > 0; n >>= 1) {
+            if ((n & 1) != 0) {
+                result = multiply(result, square);
+            }
+            square = multiply(square, square);
+        }
+
+        return result;
+    }
+
+    /**
+     * Multiplies two complex numbers.
+     *
+     * @param a
+     *            Real and imaginary part of the first number
+     * @param b
+     *            Real and imaginary part of the second number
+     * @return Real and imaginary part of the product
+     */
+    private static BigDecimal[] multiply(BigDecimal[] a, BigDecimal[] b) {
+        return new BigDecimal[] {
+                a[0].multiply(b[0], CONTEXT).subtract(a[1].multiply(b[1], CONTEXT), CONTEXT),
+                a[0].multiply(b[1], CONTEXT).add(a[1].multiply(b[0], CONTEXT), CONTEXT) };
+    }
+
+    /**
+     * Divides two complex numbers.
+     *
+     * @param a
+     *            Real and imaginary part of the dividend
+     * @param b
+     *            Real and imaginary part of the divisor
+     * @return Real and imaginary part of the quotient
+     */
+    private static BigDecimal[] divide(BigDecimal[] a, BigDecimal[] b) {
+        BigDecimal norm = b[0].multiply(b[0], CONTEXT).add(b[1].multiply(b[1], CONTEXT), CONTEXT);
+        BigDecimal[] product = multiply(a, new BigDecimal[] { b[0], b[1].negate() });
+
+        return new BigDecimal[] { product[0].divide(norm, CONTEXT),
+                product[1].divide(norm, CONTEXT) };
+    }
+}
@@ -0,0 +1,195 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexNumber;
+import hr.fer.zemris.java.tecaj.hw2.ComplexVector;
+
+/**
+ * Benchmarks of element-wise operations of {@link ComplexVector} compared to
+ * the same loops over {@code ComplexNumber[]}. One operation processes the
+ * whole vector. Elements lie on the unit circle so repeated multiplication
+ * and division neither overflow nor underflow.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexVectorBenchmarks {
+
+    /** Vector lengths used by this suite regardless of the collection sizes. */
+    public static final int[] SIZES = { 1024, 1024 * 1024 };
+
+    /**
+     * Base class of benchmarks which work on two vectors of random complex
+     * numbers, stored both as arrays of objects and as vectors.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    abstract static class VectorBenchmark extends Benchmark {
+        /** First operand as array of objects. */
+        ComplexNumber[] left;
+        /** Second operand as array of objects. */
+        ComplexNumber[] right;
+        /** Results of the operations on arrays of objects. */
+        ComplexNumber[] result;
+        /** First operand as vector. */
+        ComplexVector leftVector;
+        /** Second operand as vector. */
+        ComplexVector rightVector;
+        /** Results of magnitude calculations. */
+        double[] magnitudes;
+
+        /**
+         * Constructs a benchmark with the specified name.
+         *
+         * @param name
+         *            Name of the benchmark
+         */
+        VectorBenchmark(String name) {
+            super("ComplexVector." + name);
+        }
+
+        @Override
+        public void setUp(int size) {
+            left = random(size, new Random(42));
+            right = random(size, new Random(43));
+            result = new ComplexNumber[size];
+            leftVector = ComplexVector.fromComplexNumbers(left);
+            rightVector = ComplexVector.fromComplexNumbers(right);
+            magnitudes = new double[size];
+        }
+
+        @Override
+        public void tearDown() {
+            left = null;
+            right = null;
+            result = null;
+            leftVector = null;
+            rightVector = null;
+            magnitudes = null;
+        }
+
+        /**
+         * Creates random complex numbers on the unit circle.
+         *
+         * @param size
+         *            Number of complex numbers
+         * @param random
+         *            Source of randomness
+         * @return Array of complex numbers
+         */
+        private static ComplexNumber[] random(int size, Random random) {
+            ComplexNumber[] numbers = new ComplexNumber[size];
+            for (int i = 0; i < size; i++) {
+                double angle = (random.nextDouble() * 2 - 1) * Math.PI;
+                numbers[i] = new ComplexNumber(Math.cos(angle), Math.sin(angle));
+            }
+            return numbers;
+        }
+    }
+
+    /**
+     * Creates all benchmarks of this suite.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        benchmarks.add(new VectorBenchmark("array.add") {
+            @Override
+            public Object run() {
+                for (int i = 0; i < left.length; i++) {
+                    result[i] = left[i].add(right[i]);
+                }
+                return result;
+            }
+        });
+
+        // subtraction undoes the addition so the values stay bounded
+        benchmarks.add(new VectorBenchmark("add") {
+            @Override
+            public Object run() {
+                return leftVector.add(rightVector).sub(rightVector);
+            }
+        });
+
+        benchmarks.add(new VectorBenchmark("array.mul") {
+            @Override
+            public Object run() {
+                for (int i = 0; i < left.length; i++) {
+                    result[i] = left[i].mul(right[i]);
+                }
+                return result;
+            }
+        });
+
+        benchmarks.add(new VectorBenchmark("mul") {
+            @Override
+            public Object run() {
+                return leftVector.mul(rightVector);
+            }
+        });
+
+        benchmarks.add(new VectorBenchmark("array.div") {
+            @Override
+            public Object run() {
+                for (int i = 0; i < left.length; i++) {
+                    result[i] = left[i].div(right[i]);
+                }
+                return result;
+            }
+        });
+
+        benchmarks.add(new VectorBenchmark("div") {
+            @Override
+            public Object run() {
+                return leftVector.div(rightVector);
+            }
+        });
+
+        benchmarks.add(new VectorBenchmark("array.magnitudes") {
+            @Override
+            public Object run() {
+                for (int i = 0; i < left.length; i++) {
+                    magnitudes[i] = left[i].getMagnitude();
+                }
+                return magnitudes;
+            }
+        });
+
+        benchmarks.add(new VectorBenchmark("magnitudes") {
+            @Override
+            public Object run() {
+                return leftVector.magnitudes(magnitudes);
+            }
+        });
+
+        benchmarks.add(new VectorBenchmark("array.dot") {
+            @Override
+            public Object run() {
+                double real = 0;
+                double imaginary = 0;
+                for (int i = 0; i < left.length; i++) {
+                    ComplexNumber a = left[i];
+                    ComplexNumber b = right[i];
+                    real += a.getReal() * b.getReal() + a.getImaginary() * b.getImaginary();
+                    imaginary += a.getImaginary() * b.getReal() - a.getReal() * b.getImaginary();
+                }
+                return new ComplexNumber(real, imaginary);
+            }
+        });
+
+        benchmarks.add(new VectorBenchmark("dot") {
+            @Override
+            public Object run() {
+                return leftVector.dot(rightVector);
+            }
+        });
+
+        return benchmarks;
+    }
+}
@@ -0,0 +1,167 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexNumber;
+import hr.fer.zemris.java.tecaj.hw2.FFT;
+
+/**
+ * Benchmarks of {@link FFT} compared to a naive discrete Fourier transform
+ * built from {@link ComplexNumber} operations. One operation transforms the
+ * whole sequence.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class FFTBenchmarks {
+
+    /** Lengths of the sequences: a power of two and a length for Bluestein. */
+    public static final int[] SIZES = { 1000, 1024 };
+
+    /** Lengths of the sequences of the parallel benchmarks. */
+    public static final int[] PARALLEL_SIZES = { 1 << 20 };
+
+    /**
+     * Base class of benchmarks which transform a sequence of random complex
+     * numbers. Every operation copies the sequence first, so the copy is part
+     * of the measured time.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    abstract static class TransformBenchmark extends Benchmark {
+        /** Sequence as array of objects. */
+        ComplexNumber[] numbers;
+        /** Real parts of the sequence. */
+        double[] real;
+        /** Imaginary parts of the sequence. */
+        double[] imaginary;
+        /** Real parts of the transformed copy. */
+        double[] outputReal;
+        /** Imaginary parts of the transformed copy. */
+        double[] outputImaginary;
+
+        /**
+         * Constructs a benchmark with the specified name.
+         *
+         * @param name
+         *            Name of the benchmark
+         */
+        TransformBenchmark(String name) {
+            super("FFT." + name);
+        }
+
+        @Override
+        public void setUp(int size) {
+            Random random = new Random(42);
+
+            numbers = new ComplexNumber[size];
+            real = new double[size];
+            imaginary = new double[size];
+            for (int i = 0; i < size; i++) {
+                real[i] = random.nextDouble() * 2 - 1;
+                imaginary[i] = random.nextDouble() * 2 - 1;
+                numbers[i] = new ComplexNumber(real[i], imaginary[i]);
+            }
+            outputReal = new double[size];
+            outputImaginary = new double[size];
+        }
+
+        @Override
+        public void tearDown() {
+            numbers = null;
+            real = null;
+            imaginary = null;
+            outputReal = null;
+            outputImaginary = null;
+        }
+
+        /**
+         * Copies the sequence into the output arrays.
+         */
+        void copy() {
+            System.arraycopy(real, 0, outputReal, 0, real.length);
+            System.arraycopy(imaginary, 0, outputImaginary, 0, imaginary.length);
+        }
+    }
+
+    /**
+     * Creates benchmarks of sequential transforms.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        // the way transforms were written before, one object per operation
+        benchmarks.add(new TransformBenchmark("naiveDft") {
+            @Override
+            public Object run() {
+                int n = numbers.length;
+                ComplexNumber[] output = new ComplexNumber[n];
+
+                for (int k = 0; k < n; k++) {
+                    ComplexNumber sum = new ComplexNumber(0, 0);
+                    for (int j = 0; j < n; j++) {
+                        ComplexNumber w = ComplexNumber.fromMagnitudeAndAngle(1,
+                                -2 * Math.PI * ((long) j * k % n) / n);
+                        sum = sum.add(numbers[j].mul(w));
+                    }
+                    output[k] = sum;
+                }
+
+                return output;
+            }
+        });
+
+        benchmarks.add(new TransformBenchmark("transform") {
+            @Override
+            public Object run() {
+                copy();
+                FFT.transform(outputReal, outputImaginary);
+                return outputReal;
+            }
+        });
+
+        benchmarks.add(new TransformBenchmark("transform.complexNumbers") {
+            @Override
+            public Object run() {
+                return FFT.transform(numbers);
+            }
+        });
+
+        return benchmarks;
+    }
+
+    /**
+     * Creates benchmarks which compare sequential and parallel transforms of
+     * long sequences.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> parallelBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        benchmarks.add(new TransformBenchmark("transform") {
+            @Override
+            public Object run() {
+                copy();
+                FFT.transform(outputReal, outputImaginary);
+                return outputReal;
+            }
+        });
+
+        benchmarks.add(new TransformBenchmark("parallelTransform") {
+            @Override
+            public Object run() {
+                copy();
+                FFT.parallelTransform(outputReal, outputImaginary);
+                return outputReal;
+            }
+        });
+
+        return benchmarks;
+    }
+}
@@ -0,0 +1,62 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexNumber;
+import hr.fer.zemris.java.tecaj.hw2.ComplexPolynomial;
+import hr.fer.zemris.java.tecaj.hw2.fractal.FractalRenderer;
+import hr.fer.zemris.java.tecaj.hw2.fractal.NewtonFractal;
+
+/**
+ * Benchmarks of {@link FractalRenderer}, one per mode. One operation renders
+ * a square image of the Newton fractal of {@code z^5 - 1} whose number of
+ * pixels is the size, so pixels per second are the size divided by the time
+ * of an operation.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class NewtonFractalBenchmarks {
+
+    /** Numbers of pixels used by this suite regardless of the collection sizes. */
+    public static final int[] SIZES = { 512 * 512 };
+
+    /**
+     * Creates all benchmarks of this suite.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> benchmarks() {
+        ComplexPolynomial polynomial = new ComplexPolynomial(ComplexNumber.fromReal(-1),
+                ComplexNumber.fromReal(0), ComplexNumber.fromReal(0), ComplexNumber.fromReal(0),
+                ComplexNumber.fromReal(0), ComplexNumber.fromReal(1));
+        final FractalRenderer renderer = new FractalRenderer(
+                new NewtonFractal(polynomial, -1.5, 1.5, -1.5, 1.5));
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        for (final FractalRenderer.Mode mode : FractalRenderer.Mode.values()) {
+            benchmarks.add(new Benchmark("NewtonFractal." + mode.name().toLowerCase()) {
+                /** Length of a side of the image. */
+                private int side;
+
+                @Override
+                public void setUp(int size) {
+                    side = (int) Math.sqrt(size);
+                }
+
+                @Override
+                public Object run() {
+                    try {
+                        return renderer.render(side, side, mode);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        }
+
+        return benchmarks;
+    }
+}
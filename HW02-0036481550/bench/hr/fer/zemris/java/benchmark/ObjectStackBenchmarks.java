@@ -0,0 +1,117 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hr.fer.zemris.java.custom.collections.IntStack;
+import hr.fer.zemris.java.custom.collections.ObjectStack;
+
+/**
+ * Benchmarks of push and pop operations of the {@link ObjectStack} class and
+ * its primitive counterpart {@link IntStack}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ObjectStackBenchmarks {
+
+    /**
+     * Creates all benchmarks of this suite.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        // one push and one pop on a stack which already holds size elements
+        benchmarks.add(new Benchmark("ObjectStack.pushPop") {
+            /** Stack under test. */
+            private ObjectStack stack;
+
+            @Override
+            public void setUp(int size) {
+                stack = new ObjectStack();
+                for (int i = 0; i < size; i++) {
+                    stack.push(i);
+                }
+            }
+
+            @Override
+            public void tearDown() {
+                stack = null;
+            }
+
+            @Override
+            public Object run() {
+                stack.push(stack.size());
+                return stack.pop();
+            }
+        });
+
+        // size pushes followed by size pops on an empty stack
+        benchmarks.add(new Benchmark("ObjectStack.fillDrain") {
+            /** Stack under test. */
+            private ObjectStack stack;
+            /** Elements pushed onto the stack. */
+            private Integer[] values;
+
+            @Override
+            public void setUp(int size) {
+                stack = new ObjectStack();
+                values = new Integer[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = i;
+                }
+            }
+
+            @Override
+            public void tearDown() {
+                stack = null;
+                values = null;
+            }
+
+            @Override
+            public Object run() {
+                for (Integer value : values) {
+                    stack.push(value);
+                }
+
+                Object last = null;
+                while (!stack.isEmpty()) {
+                    last = stack.pop();
+                }
+
+                return last;
+            }
+        });
+
+        benchmarks.add(new Benchmark("IntStack.pushPop") {
+            /** Stack under test. */
+            private IntStack stack;
+            /** Sum of popped values, keeps them from being eliminated. */
+            private long checksum;
+
+            @Override
+            public void setUp(int size) {
+                stack = new IntStack();
+                for (int i = 0; i < size; i++) {
+                    stack.push(i);
+                }
+            }
+
+            @Override
+            public void tearDown() {
+                stack = null;
+            }
+
+            @Override
+            public Object run() {
+                stack.push(stack.size());
+                checksum += stack.pop();
+                return stack;
+            }
+        });
+
+        return benchmarks;
+    }
+}
@@ -0,0 +1,186 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hr.fer.zemris.java.custom.collections.DoubleArrayIndexedCollection;
+import hr.fer.zemris.java.custom.collections.DoubleProcessor;
+import hr.fer.zemris.java.custom.collections.IntArrayIndexedCollection;
+import hr.fer.zemris.java.custom.collections.IntProcessor;
+
+/**
+ * Benchmarks of the primitive-specialized collections. They mirror the
+ * {@code ArrayIndexedCollection} cases of {@link CollectionBenchmarks} so the
+ * two can be compared directly.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class PrimitiveCollectionBenchmarks {
+
+    /**
+     * Processor which sums processed {@code int} values.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    static class IntSum extends IntProcessor {
+        /** Sum of processed values. */
+        long sum;
+
+        @Override
+        public void process(int value) {
+            sum += value;
+        }
+    }
+
+    /**
+     * Processor which sums processed {@code double} values.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    static class DoubleSum extends DoubleProcessor {
+        /** Sum of processed values. */
+        double sum;
+
+        @Override
+        public void process(double value) {
+            sum += value;
+        }
+    }
+
+    /**
+     * Base class of benchmarks which work on a filled {@code int} collection.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    abstract static class IntBenchmark extends Benchmark {
+        /** Collection filled in {@link #setUp(int)}. */
+        IntArrayIndexedCollection collection;
+        /** Sum of primitive results, keeps them from being eliminated. */
+        long checksum;
+
+        /**
+         * Constructs a benchmark of the specified operation.
+         *
+         * @param operation
+         *            Name of the operation
+         */
+        IntBenchmark(String operation) {
+            super("IntArrayIndexedCollection." + operation);
+        }
+
+        @Override
+        public void setUp(int size) {
+            collection = new IntArrayIndexedCollection();
+            for (int i = 0; i < size; i++) {
+                collection.add(i);
+            }
+        }
+
+        @Override
+        public void tearDown() {
+            collection = null;
+        }
+    }
+
+    /**
+     * Base class of benchmarks which work on a filled {@code double}
+     * collection.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    abstract static class DoubleBenchmark extends Benchmark {
+        /** Collection filled in {@link #setUp(int)}. */
+        DoubleArrayIndexedCollection collection;
+        /** Sum of primitive results, keeps them from being eliminated. */
+        double checksum;
+
+        /**
+         * Constructs a benchmark of the specified operation.
+         *
+         * @param operation
+         *            Name of the operation
+         */
+        DoubleBenchmark(String operation) {
+            super("DoubleArrayIndexedCollection." + operation);
+        }
+
+        @Override
+        public void setUp(int size) {
+            collection = new DoubleArrayIndexedCollection();
+            for (int i = 0; i < size; i++) {
+                collection.add(i);
+            }
+        }
+
+        @Override
+        public void tearDown() {
+            collection = null;
+        }
+    }
+
+    /**
+     * Creates all benchmarks of this suite.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        benchmarks.add(new IntBenchmark("add") {
+            @Override
+            public Object run() {
+                int size = collection.size();
+                IntArrayIndexedCollection c = new IntArrayIndexedCollection();
+                for (int i = 0; i < size; i++) {
+                    c.add(i);
+                }
+                return c;
+            }
+        });
+
+        benchmarks.add(new IntBenchmark("indexOfLast") {
+            @Override
+            public Object run() {
+                checksum += collection.indexOf(collection.size() - 1);
+                return collection;
+            }
+        });
+
+        benchmarks.add(new IntBenchmark("forEach") {
+            /** Processor reused between operations. */
+            private final IntSum processor = new IntSum();
+
+            @Override
+            public Object run() {
+                collection.forEach(processor);
+                return processor;
+            }
+        });
+
+        benchmarks.add(new DoubleBenchmark("indexOfLast") {
+            @Override
+            public Object run() {
+                checksum += collection.indexOf(collection.size() - 1);
+                return collection;
+            }
+        });
+
+        benchmarks.add(new DoubleBenchmark("forEach") {
+            /** Processor reused between operations. */
+            private final DoubleSum processor = new DoubleSum();
+
+            @Override
+            public Object run() {
+                collection.forEach(processor);
+                return processor;
+            }
+        });
+
+        return benchmarks;
+    }
+}
@@ -0,0 +1,345 @@
+package hr.fer.zemris.java.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import hr.fer.zemris.java.custom.collections.ObjectStack;
+import hr.fer.zemris.java.custom.rpn.RPNBatchEvaluator;
+import hr.fer.zemris.java.custom.rpn.RPNParallelEvaluator;
+import hr.fer.zemris.java.custom.rpn.RPNProgram;
+import hr.fer.zemris.java.custom.rpn.RPNStreamEvaluator;
+
+/**
+ * Benchmarks of postfix expression evaluation. The interpreted case repeats
+ * what {@code StackDemo} used to do on every evaluation (split, regular
+ * expression check, string switch and a boxing {@link ObjectStack}) and the
+ * compiled cases evaluate an {@link RPNProgram}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class RPNBenchmarks {
+
+    /** Pool sizes used by this suite regardless of the collection sizes. */
+    public static final int[] SIZES = { 1 };
+    /** Row counts used by the batch benchmarks. */
+    public static final int[] BATCH_SIZES = { 1_000, 1_000_000 };
+    /** Line counts used by the parallel benchmarks. */
+    public static final int[] PARALLEL_SIZES = { 1_000_000 };
+
+    /** Expression with variables evaluated by the compiled cases. */
+    static final String EXPRESSION = "a 8 b / + c * 7 % a b * - c +";
+    /** Same expression with values of the variables written in. */
+    static final String LITERAL_EXPRESSION = "-1 8 2 / + 3 * 7 % -1 2 * - 3 +";
+    /** Values of the variables a, b and c. */
+    static final int[] VARIABLES = { -1, 2, 3 };
+
+    /**
+     * Creates all benchmarks of this suite.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        benchmarks.add(new Benchmark("RPN.interpreted") {
+            @Override
+            public Object run() {
+                return interpret(LITERAL_EXPRESSION);
+            }
+        });
+
+        benchmarks.add(new Benchmark("RPN.compileAndEvaluate") {
+            @Override
+            public Object run() {
+                try {
+                    return RPNProgram.compile(EXPRESSION).evaluate(VARIABLES);
+                } catch (ParseException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        benchmarks.add(new Benchmark("RPN.compiled") {
+            /** Program compiled once. */
+            private RPNProgram program;
+            /** Reused stack. */
+            private int[] stack;
+            /** Reused variables. */
+            private final int[] variables = VARIABLES.clone();
+            /** Sum of results, keeps them from being eliminated. */
+            private long checksum;
+
+            @Override
+            public void setUp(int size) {
+                try {
+                    program = RPNProgram.compile(EXPRESSION);
+                } catch (ParseException e) {
+                    throw new IllegalStateException(e);
+                }
+                stack = new int[program.getMaxStackDepth()];
+            }
+
+            @Override
+            public Object run() {
+                variables[0]++;
+                checksum += program.evaluate(variables, stack);
+                return program;
+            }
+        });
+
+        return benchmarks;
+    }
+
+    /**
+     * Base class of benchmarks which evaluate the expression over random
+     * columns of variable values.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    abstract static class BatchBenchmark extends Benchmark {
+        /** Program compiled once. */
+        RPNProgram program;
+        /** Columns of variable values. */
+        int[][] columns;
+        /** Column of results. */
+        int[] output;
+
+        /**
+         * Constructs a benchmark with the specified name.
+         *
+         * @param name
+         *            Name of the benchmark
+         */
+        BatchBenchmark(String name) {
+            super("RPN." + name);
+        }
+
+        @Override
+        public void setUp(int size) {
+            try {
+                program = RPNProgram.compile(EXPRESSION);
+            } catch (ParseException e) {
+                throw new IllegalStateException(e);
+            }
+
+            Random random = new Random(42);
+            columns = new int[program.getVariableCount()][size];
+            for (int[] column : columns) {
+                for (int i = 0; i < size; i++) {
+                    column[i] = random.nextInt(1000) + 1;
+                }
+            }
+            output = new int[size];
+        }
+
+        @Override
+        public void tearDown() {
+            columns = null;
+            output = null;
+        }
+    }
+
+    /**
+     * Creates the benchmarks which evaluate one expression over many rows.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> batchBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        benchmarks.add(new BatchBenchmark("rowByRow") {
+            @Override
+            public Object run() {
+                int[] stack = new int[program.getMaxStackDepth()];
+                int[] variables = new int[columns.length];
+
+                for (int row = 0; row < output.length; row++) {
+                    for (int slot = 0; slot < columns.length; slot++) {
+                        variables[slot] = columns[slot][row];
+                    }
+                    output[row] = program.evaluate(variables, stack);
+                }
+                return output;
+            }
+        });
+
+        benchmarks.add(new BatchBenchmark("batch") {
+            /** Evaluator reused between operations. */
+            private RPNBatchEvaluator evaluator;
+
+            @Override
+            public void setUp(int size) {
+                super.setUp(size);
+                evaluator = new RPNBatchEvaluator(program);
+            }
+
+            @Override
+            public Object run() {
+                evaluator.evaluate(columns, output, null);
+                return output;
+            }
+        });
+
+        // size is the number of lines, bytes per second follow from the input size
+        benchmarks.add(new Benchmark("RPN.stream") {
+            /** Input text. */
+            private byte[] input;
+            /** Evaluator reused between operations. */
+            private final RPNStreamEvaluator evaluator = new RPNStreamEvaluator();
+
+            @Override
+            public void setUp(int size) {
+                input = lines(size);
+                System.out.printf("# RPN.stream input of %d lines is %d bytes%n", size,
+                        input.length);
+            }
+
+            @Override
+            public void tearDown() {
+                input = null;
+            }
+
+            @Override
+            public Object run() {
+                try {
+                    return evaluator.evaluate(Channels.newChannel(new ByteArrayInputStream(input)),
+                            DISCARD);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        return benchmarks;
+    }
+
+    /**
+     * Creates the benchmarks which evaluate lines on a growing number of
+     * workers, from one up to twice the number of available processors, so
+     * the results form the scaling curve.
+     *
+     * @return List of benchmarks
+     */
+    public static List<Benchmark> parallelBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        for (int workers = 1; workers <= processors * 2; workers *= 2) {
+            RPNParallelEvaluator evaluator = new RPNParallelEvaluator(workers,
+                    RPNParallelEvaluator.DEFAULT_CHUNK_SIZE);
+
+            benchmarks.add(new Benchmark("RPN.parallel.workers" + workers) {
+                /** Input text. */
+                private byte[] input;
+
+                @Override
+                public void setUp(int size) {
+                    input = lines(size);
+                }
+
+                @Override
+                public void tearDown() {
+                    input = null;
+                }
+
+                @Override
+                public Object run() {
+                    try {
+                        return evaluator.evaluate(
+                                Channels.newChannel(new ByteArrayInputStream(input)), DISCARD);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        }
+
+        return benchmarks;
+    }
+
+    /**
+     * Creates the input of the streaming benchmarks.
+     *
+     * @param count
+     *            Number of lines
+     * @return Lines of the literal expression
+     */
+    static byte[] lines(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(LITERAL_EXPRESSION).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** Channel which discards everything written to it. */
+    private static final WritableByteChannel DISCARD = new WritableByteChannel() {
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int count = src.remaining();
+            src.position(src.limit());
+            return count;
+        }
+    };
+
+    /**
+     * Evaluates the expression the way {@code StackDemo} did before
+     * expressions were compiled.
+     *
+     * @param expression
+     *            Postfix expression without variables
+     * @return Value of the expression
+     */
+    static Object interpret(String expression) {
+        ObjectStack stack = new ObjectStack();
+
+        for (String arg : expression.trim().split(" ")) {
+            if (arg.matches("^-?[0-9]+(\\.[0-9]+)?$")) {
+                stack.push(Integer.parseInt(arg));
+            } else {
+                int right = (int) stack.pop();
+                int left = (int) stack.pop();
+
+                switch (arg) {
+                    case "+":
+                        stack.push(left + right);
+                        break;
+                    case "-":
+                        stack.push(left - right);
+                        break;
+                    case "*":
+                        stack.push(left * right);
+                        break;
+                    case "/":
+                        stack.push(left / right);
+                        break;
+                    default:
+                        stack.push(left % right);
+                        break;
+                }
+            }
+        }
+
+        return stack.pop();
+    }
+}
@@ -0,0 +1,47 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.CollectionBenchmarks;
+
+/**
+ * JMH benchmarks of the cursors of the linked collections.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class CollectionCursorSuite extends HarnessBenchmark {
+
+    /** Measured collection. */
+    @Param({
+            "LinkedListIndexedCollection", "LinkedListIndexedCollection.pooled",
+            "UnrolledLinkedListIndexedCollection"
+    })
+    public String target;
+
+    /** Measured operation. */
+    @Param({ "cursorSet", "cursorInsertRemove" })
+    public String operation;
+
+    /** Number of elements of the collection. */
+    @Param({ "10", "1000", "100000" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return CollectionBenchmarks.benchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return target + "." + operation;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
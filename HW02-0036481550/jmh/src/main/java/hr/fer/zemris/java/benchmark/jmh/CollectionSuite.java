@@ -0,0 +1,56 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.CollectionBenchmarks;
+
+/**
+ * JMH benchmarks of every operation of every indexed collection. Sizes of ten
+ * million elements, which the in-process harness measures by default, need a
+ * few gigabytes of heap and are selected by
+ * {@code -p size=10000000 -jvmArgsAppend -Xmx4g}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class CollectionSuite extends HarnessBenchmark {
+
+    /** Measured collection. */
+    @Param({
+            "ArrayIndexedCollection", "ArrayIndexedCollection.hashed",
+            "LinkedListIndexedCollection", "LinkedListIndexedCollection.pooled",
+            "LinkedListIndexedCollection.hashed", "UnrolledLinkedListIndexedCollection",
+            "TreeIndexedCollection"
+    })
+    public String target;
+
+    /** Measured operation. */
+    @Param({
+            "add", "addAll", "get", "getSequential", "insertMiddle", "insertFront", "insertRandom",
+            "queue", "clearAndRefill", "removeMiddle", "indexOfLast", "indexOfRandom",
+            "containsMissing", "toArray", "elementsGetter", "forEach"
+    })
+    public String operation;
+
+    /** Number of elements of the collection. */
+    @Param({ "10", "1000", "100000" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return CollectionBenchmarks.benchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return target + "." + operation;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
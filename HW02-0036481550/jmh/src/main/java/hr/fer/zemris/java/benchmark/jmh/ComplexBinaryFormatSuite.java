@@ -0,0 +1,45 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.ComplexBinaryFormatBenchmarks;
+
+/**
+ * JMH benchmarks of the binary and text formats of complex numbers.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexBinaryFormatSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({
+            "ComplexBinaryFormat.write.interleaved", "ComplexBinaryFormat.read.interleaved",
+            "ComplexBinaryFormat.map.sum.interleaved", "ComplexBinaryFormat.write.split",
+            "ComplexBinaryFormat.read.split", "ComplexBinaryFormat.map.sum.split",
+            "ComplexBinaryFormat.toText", "ComplexBinaryFormat.fromText"
+    })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "1048576" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return ComplexBinaryFormatBenchmarks.benchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,49 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.ComplexNumberBenchmarks;
+
+/**
+ * JMH benchmarks of the operations of complex numbers.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexNumberSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({
+            "ComplexNumber.add", "ComplexNumber.sub", "ComplexNumber.mul", "ComplexNumber.div",
+            "ComplexNumber.power3", "ComplexNumber.power3.polar", "ComplexNumber.power-3",
+            "ComplexNumber.power64", "ComplexNumber.power64.polar", "ComplexNumber.root3",
+            "ComplexNumber.root16", "ComplexNumber.root16.arrays", "ComplexNumber.sumOfProducts",
+            "ComplexNumber.mutable.sumOfProducts", "ComplexNumber.mulDivChain",
+            "ComplexNumber.mutable.mulDivChain", "ComplexNumber.parse", "ComplexNumber.parseAll",
+            "ComplexNumber.toString", "ComplexNumber.format.StringBuilder",
+            "ComplexNumber.format.ByteBuffer"
+    })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "1024" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return ComplexNumberBenchmarks.benchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
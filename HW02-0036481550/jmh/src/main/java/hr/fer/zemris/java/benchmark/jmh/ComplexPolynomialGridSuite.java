@@ -0,0 +1,40 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.ComplexPolynomialBenchmarks;
+
+/**
+ * JMH benchmarks of the evaluation of a complex polynomial over a grid.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexPolynomialGridSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({ "ComplexPolynomial.grid", "ComplexPolynomial.parallelGrid" })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "1048576" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return ComplexPolynomialBenchmarks.gridBenchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,40 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.ComplexPolynomialBenchmarks;
+
+/**
+ * JMH benchmarks of finding the roots of complex polynomials.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexPolynomialRootsSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({ "ComplexPolynomial.roots" })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "8", "32" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return ComplexPolynomialBenchmarks.rootBenchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
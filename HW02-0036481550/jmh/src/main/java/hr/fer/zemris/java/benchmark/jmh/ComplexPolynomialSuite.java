@@ -0,0 +1,44 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.ComplexPolynomialBenchmarks;
+
+/**
+ * JMH benchmarks of the evaluation of complex polynomials.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexPolynomialSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({
+            "ComplexPolynomial.objects.evaluate", "ComplexPolynomial.evaluate",
+            "ComplexPolynomial.batch.evaluate", "ComplexPolynomial.objects.evaluateWithDerivative",
+            "ComplexPolynomial.batch.evaluateWithDerivative"
+    })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "65536" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return ComplexPolynomialBenchmarks.benchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
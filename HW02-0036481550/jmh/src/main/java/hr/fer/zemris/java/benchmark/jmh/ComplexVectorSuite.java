@@ -0,0 +1,45 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.ComplexVectorBenchmarks;
+
+/**
+ * JMH benchmarks of the operations of complex vectors.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexVectorSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({
+            "ComplexVector.array.add", "ComplexVector.add", "ComplexVector.array.mul",
+            "ComplexVector.mul", "ComplexVector.array.div", "ComplexVector.div",
+            "ComplexVector.array.magnitudes", "ComplexVector.magnitudes",
+            "ComplexVector.array.dot", "ComplexVector.dot"
+    })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "1024", "1048576" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return ComplexVectorBenchmarks.benchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,40 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.FFTBenchmarks;
+
+/**
+ * JMH benchmarks of the parallel fast Fourier transform.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class FFTParallelSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({ "FFT.transform", "FFT.parallelTransform" })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "1048576" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return FFTBenchmarks.parallelBenchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,40 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.FFTBenchmarks;
+
+/**
+ * JMH benchmarks of the sequential fast Fourier transform.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class FFTSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({ "FFT.naiveDft", "FFT.transform", "FFT.transform.complexNumbers" })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "1000", "1024" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return FFTBenchmarks.benchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
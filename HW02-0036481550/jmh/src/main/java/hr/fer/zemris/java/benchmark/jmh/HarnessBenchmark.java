@@ -0,0 +1,104 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+
+/**
+ * Runs a benchmark of the in-process harness under JMH. Subclasses expose one
+ * suite and select the benchmark and the problem size by {@code @Param}
+ * fields, so every suite is measured with forks, JMH statistics and, given
+ * {@code -prof gc}, the allocation of all threads of the forked JVM.
+ * <p>
+ * The benchmark is prepared once per trial, exactly as
+ * {@link hr.fer.zemris.java.benchmark.BenchmarkRunner} prepares it once per
+ * size, and every invocation performs one operation.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public abstract class HarnessBenchmark {
+
+    /** Benchmark being measured. */
+    private Benchmark benchmark;
+
+    /**
+     * Gets the benchmarks of the measured suite.
+     *
+     * @return Benchmarks of the suite
+     */
+    protected abstract List<Benchmark> suite();
+
+    /**
+     * Gets the name of the measured benchmark.
+     *
+     * @return Name of the benchmark
+     */
+    protected abstract String name();
+
+    /**
+     * Gets the problem size.
+     *
+     * @return Problem size
+     */
+    protected abstract int size();
+
+    /**
+     * Finds the measured benchmark in the suite and prepares it.
+     *
+     * @throws IllegalArgumentException
+     *             If the suite has no benchmark of that name
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        String name = name();
+
+        for (Benchmark candidate : suite()) {
+            if (candidate.getName().equals(name)) {
+                benchmark = candidate;
+                benchmark.setUp(size());
+                return;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown benchmark " + name);
+    }
+
+    /**
+     * Releases the state of the measured benchmark.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        benchmark.tearDown();
+        benchmark = null;
+    }
+
+    /**
+     * Performs one operation of the measured benchmark.
+     *
+     * @return Result of the operation, consumed by JMH
+     */
+    @org.openjdk.jmh.annotations.Benchmark
+    public Object run() {
+        return benchmark.run();
+    }
+}
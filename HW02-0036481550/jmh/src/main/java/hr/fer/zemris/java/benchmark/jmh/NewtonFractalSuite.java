@@ -0,0 +1,43 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.NewtonFractalBenchmarks;
+
+/**
+ * JMH benchmarks of the rendering of Newton fractals.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class NewtonFractalSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({
+            "NewtonFractal.sequential", "NewtonFractal.fork_join", "NewtonFractal.parallel_stream",
+            "NewtonFractal.thread_pool"
+    })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "262144" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return NewtonFractalBenchmarks.benchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
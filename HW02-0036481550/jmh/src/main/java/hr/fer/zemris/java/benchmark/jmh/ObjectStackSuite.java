@@ -0,0 +1,40 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.ObjectStackBenchmarks;
+
+/**
+ * JMH benchmarks of the stacks.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ObjectStackSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({ "ObjectStack.pushPop", "ObjectStack.fillDrain", "IntStack.pushPop" })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "10", "1000", "100000" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return ObjectStackBenchmarks.benchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,44 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.PrimitiveCollectionBenchmarks;
+
+/**
+ * JMH benchmarks of the collections of primitive values.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class PrimitiveCollectionSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({
+            "IntArrayIndexedCollection.add", "IntArrayIndexedCollection.indexOfLast",
+            "IntArrayIndexedCollection.forEach", "DoubleArrayIndexedCollection.indexOfLast",
+            "DoubleArrayIndexedCollection.forEach"
+    })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "10", "1000", "100000" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return PrimitiveCollectionBenchmarks.benchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,40 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.RPNBenchmarks;
+
+/**
+ * JMH benchmarks of the evaluation of an RPN expression over many rows.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class RPNBatchSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({ "RPN.rowByRow", "RPN.batch", "RPN.stream" })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "1000", "1000000" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return RPNBenchmarks.batchBenchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,40 @@
+package hr.fer.zemris.java.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+
+import hr.fer.zemris.java.benchmark.Benchmark;
+import hr.fer.zemris.java.benchmark.RPNBenchmarks;
+
+/**
+ * JMH benchmarks of the parallel evaluation of an RPN expression.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class RPNParallelSuite extends HarnessBenchmark {
+
+    /** Name of the measured benchmark. */
+    @Param({ "RPN.parallel.workers1", "RPN.parallel.workers2" })
+    public String benchmark;
+
+    /** Problem size. */
+    @Param({ "1000000" })
+    public int size;
+
+    @Override
+    protected List<Benchmark> suite() {
+        return RPNBenchmarks.parallelBenchmarks();
+    }
+
+    @Override
+    protected String name() {
+        return benchmark;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -1,8 +1,19 @@
 package hr.fer.zemris.java.custom.collections;
 
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
 /**
  * Resizable-array implementation of the Collection class. Implements all
  * optional array operations, and permits all elements, excluding null.
+ * <p>
+ * {@link #setHashIndexed(boolean)} enables a hash index which maps elements
+ * to their positions. It is built once {@link #indexOf(Object)} has scanned
+ * the array a few times, and then answers {@link #indexOf(Object)},
+ * {@link #contains(Object)} and {@link #remove(Object)} in expected constant
+ * time. Appending keeps the index up to date cheaply, while inserting or
+ * removing before the end shifts all recorded positions, so the index is
+ * dropped if that happens repeatedly without queries in between.
  * 
  * @author TheKarlo95
  * @version 1.0
@@ -20,6 +31,17 @@ public class ArrayIndexedCollection extends Collection {
      * Array of all elements contained in this {@code ArrayIndexedCollection}.
      */
     private Object[] elements;
+    /**
+     * Number of structural modifications of this
+     * {@code ArrayIndexedCollection}, used by getters to fail fast.
+     */
+    private long modificationCount;
+    /** True if the hash index is enabled. */
+    private boolean hashIndexed;
+    /** Hash index of the elements, null until it is built. */
+    private HashIndex hashIndex;
+    /** Number of linear scans by {@link #indexOf(Object)} since enabling. */
+    private int unindexedQueries;
 
     /**
      * Constructs an empty array with the specified initial capacity.
@@ -96,6 +118,24 @@ public class ArrayIndexedCollection extends Collection {
         return indexOf(value) != -1;
     }
 
+    /**
+     * Removes the first occurrence of the specified element from this array.
+     * 
+     * @param value
+     *            Element to be removed
+     * @return True if this array contained the element
+     */
+    @Override
+    public boolean remove(Object value) {
+        int index = indexOf(value);
+        if (index == -1) {
+            return false;
+        }
+
+        remove(index);
+        return true;
+    }
+
     /**
      * Returns an array containing all of the elements in this array in proper
      * sequence (from first to last element).
@@ -122,16 +162,84 @@ public class ArrayIndexedCollection extends Collection {
         if (value == null) {
             throw new NullPointerException();
         } else if (size == capacity) {
-            capacity *= 2;
-            Object[] newElements = new Object[capacity];
-
-            System.arraycopy(elements, 0, newElements, 0, size);
-
-            elements = newElements;
+            ensureCapacity(size + 1);
         }
 
+        if (hashIndex != null && !hashIndex.insert(value, size)) {
+            dropHashIndex();
+        }
         elements[size] = value;
         size++;
+        modificationCount++;
+    }
+
+    /**
+     * Appends all of the elements of the specified collection to the end of
+     * this array. The backing array is grown at most once and elements of
+     * another {@code ArrayIndexedCollection} are block-copied.
+     * 
+     * @param other
+     *            Collection whose elements are to be appended to this array
+     */
+    @Override
+    public void addAll(Collection other) {
+        insertAll(other, size);
+    }
+
+    /**
+     * Inserts all of the elements of the specified collection at the specified
+     * position in this array, in the order of the specified collection. Shifts
+     * the element currently at that position (if any) and any subsequent
+     * elements to the right only once.
+     * 
+     * @param other
+     *            Collection whose elements are to be inserted
+     * @param position
+     *            Index at which the first element is to be inserted, size of
+     *            this array appends the elements
+     */
+    public void insertAll(Collection other, int position) {
+        if (other == null) {
+            throw new NullPointerException();
+        } else if (position < 0 || position > size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        int count = other.size();
+        if (count == 0) {
+            return;
+        }
+
+        ensureCapacity(size + count);
+        System.arraycopy(elements, position, elements, position + count, size - position);
+
+        if (other == this) {
+            // the original elements are now split around the gap
+            System.arraycopy(elements, 0, elements, position, position);
+            System.arraycopy(elements, position + count, elements, position * 2, size - position);
+        } else if (other instanceof ArrayIndexedCollection) {
+            System.arraycopy(((ArrayIndexedCollection) other).elements, 0, elements, position, count);
+        } else {
+            ElementsGetter getter = other.createElementsGetter();
+            for (int i = position, end = position + count; i < end; i++) {
+                Object value = getter.getNextElement();
+                if (value == null) {
+                    // restore the array so a failed insert leaves it unchanged
+                    System.arraycopy(elements, end, elements, position, size - position);
+                    for (int j = size; j < size + count; j++) {
+                        elements[j] = null;
+                    }
+                    throw new NullPointerException();
+                }
+                elements[i] = value;
+            }
+        }
+
+        if (hashIndex != null && !hashIndex.insertAll(elements, position, count)) {
+            dropHashIndex();
+        }
+        size += count;
+        modificationCount++;
     }
 
     /**
@@ -157,6 +265,10 @@ public class ArrayIndexedCollection extends Collection {
     public void clear() {
         size = 0;
         elements = new Object[capacity];
+        modificationCount++;
+        if (hashIndex != null) {
+            hashIndex.clear();
+        }
     }
 
     /**
@@ -172,13 +284,14 @@ public class ArrayIndexedCollection extends Collection {
     public void insert(Object value, int position) {
         if (position < 0 || position >= size) {
             throw new IndexOutOfBoundsException();
+        } else if (value == null) {
+            throw new NullPointerException();
         } else if (size == capacity) {
-            capacity *= 2;
-            Object[] newElements = new Object[capacity];
-
-            System.arraycopy(elements, 0, newElements, 0, size);
+            ensureCapacity(size + 1);
+        }
 
-            elements = newElements;
+        if (hashIndex != null && !hashIndex.insert(value, position)) {
+            dropHashIndex();
         }
 
         if (elements[position] != null) {
@@ -187,6 +300,7 @@ public class ArrayIndexedCollection extends Collection {
 
         elements[position] = value;
         size++;
+        modificationCount++;
     }
 
     /**
@@ -203,6 +317,11 @@ public class ArrayIndexedCollection extends Collection {
             throw new NullPointerException();
         } else if (size == 0) {
             return -1;
+        } else if (hashIndex != null) {
+            return hashIndex.indexOf(value);
+        } else if (hashIndexed && ++unindexedQueries >= HashIndex.THRESHOLD) {
+            hashIndex = new HashIndex(elements, size);
+            return hashIndex.indexOf(value);
         }
 
         for (int i = 0; i < size; i++) {
@@ -226,7 +345,127 @@ public class ArrayIndexedCollection extends Collection {
             throw new IndexOutOfBoundsException();
         }
 
-        System.arraycopy(elements, index + 1, elements, index, size - index);
+        if (hashIndex != null && !hashIndex.remove(elements[index], index)) {
+            dropHashIndex();
+        }
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
         size--;
+        elements[size] = null;
+        modificationCount++;
+    }
+
+    /**
+     * Enables or disables the hash index. An enabled index is built lazily
+     * once {@link #indexOf(Object)} has scanned this array a few times, a
+     * disabled one is discarded.
+     * 
+     * @param hashIndexed
+     *            True to enable the hash index
+     */
+    public void setHashIndexed(boolean hashIndexed) {
+        this.hashIndexed = hashIndexed;
+        dropHashIndex();
+    }
+
+    /**
+     * Checks if the hash index is enabled.
+     * 
+     * @return True if the hash index is enabled, even if it is not built yet
+     */
+    public boolean isHashIndexed() {
+        return hashIndexed;
+    }
+
+    /**
+     * Discards the hash index, it is built again after a few more queries.
+     */
+    private void dropHashIndex() {
+        hashIndex = null;
+        unindexedQueries = 0;
+    }
+
+    /**
+     * Grows the backing array so it can hold at least the specified number of
+     * elements. The capacity is at least doubled to keep appending amortized
+     * constant time.
+     * 
+     * @param minCapacity
+     *            Required capacity
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("Required array size too large");
+        } else if (minCapacity <= capacity) {
+            return;
+        }
+
+        capacity = (int) Math.min(Math.max(2L * capacity, minCapacity), Integer.MAX_VALUE - 8);
+        Object[] newElements = new Object[capacity];
+
+        System.arraycopy(elements, 0, newElements, 0, size);
+
+        elements = newElements;
+    }
+
+    /**
+     * Creates a new getter which walks the backing array of this collection
+     * from first to last element.
+     * 
+     * @return Getter of the elements of this array
+     */
+    @Override
+    public ElementsGetter createElementsGetter() {
+        return new ArrayElementsGetter();
+    }
+
+    /**
+     * Getter which reads the backing array of {@link ArrayIndexedCollection}
+     * directly.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private class ArrayElementsGetter implements ElementsGetter {
+        /** Index of the next element. */
+        private int nextIndex;
+        /** Modification count of the collection when this getter was created. */
+        private final long savedModificationCount = modificationCount;
+
+        @Override
+        public boolean hasNextElement() {
+            checkModification();
+            return nextIndex < size;
+        }
+
+        @Override
+        public Object getNextElement() {
+            if (!hasNextElement()) {
+                throw new NoSuchElementException();
+            }
+
+            return elements[nextIndex++];
+        }
+
+        @Override
+        public void processRemaining(Processor processor) {
+            if (processor == null) {
+                throw new NullPointerException();
+            }
+
+            for (; nextIndex < size; nextIndex++) {
+                checkModification();
+                processor.process(elements[nextIndex]);
+            }
+            checkModification();
+        }
+
+        /**
+         * Checks if the collection was modified after this getter was created.
+         */
+        private void checkModification() {
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
     }
 }
@@ -74,6 +74,16 @@ public class Collection {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Creates a new getter which walks the elements of this collection from
+     * first to last without copying them(needs implementation).
+     * 
+     * @return Nothing
+     */
+    public ElementsGetter createElementsGetter() {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Iterates the collection and process every object.
      * 
@@ -81,8 +91,7 @@ public class Collection {
      *            Operation which you want to do on objects in collection.
      */
     public void forEach(Processor processor) {
-        for (Object obj : this.toArray())
-            processor.process(obj);
+        createElementsGetter().processRemaining(processor);
     }
 
     /**
@@ -92,8 +101,16 @@ public class Collection {
      *            Source collection.
      */
     public void addAll(Collection other) {
-        for (Object obj : other.toArray())
-            this.add(obj);
+        if (other == this) {
+            // the getter would see its own additions, so a snapshot is needed
+            for (Object obj : other.toArray())
+                this.add(obj);
+            return;
+        }
+
+        ElementsGetter getter = other.createElementsGetter();
+        while (getter.hasNextElement())
+            this.add(getter.getNextElement());
     }
 
     /**
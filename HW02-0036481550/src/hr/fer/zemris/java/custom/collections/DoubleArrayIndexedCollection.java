@@ -0,0 +1,260 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.Arrays;
+
+/**
+ * Resizable-array implementation of a collection of {@code double} values. Has
+ * the same operations as {@link ArrayIndexedCollection} but stores values in
+ * a {@code double[]} so they are never boxed.
+ * 
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class DoubleArrayIndexedCollection {
+
+    /** Number of elements contained in this collection. */
+    private int size;
+    /** Array of all elements contained in this collection. */
+    private double[] elements;
+
+    /**
+     * Constructs an empty array with the specified initial capacity.
+     * 
+     * @param initialCapacity
+     *            The initial capacity of the array
+     */
+    public DoubleArrayIndexedCollection(int initialCapacity) {
+        if (initialCapacity < 1)
+            throw new IllegalArgumentException();
+
+        this.size = 0;
+        this.elements = new double[initialCapacity];
+    }
+
+    /**
+     * Constructs an empty array with the initial capacity of 16.
+     */
+    public DoubleArrayIndexedCollection() {
+        this(16);
+    }
+
+    /**
+     * Constructs an array containing the specified values.
+     * 
+     * @param values
+     *            The values which are to be placed into this array
+     */
+    public DoubleArrayIndexedCollection(double[] values) {
+        this(Math.max(values.length, 1));
+
+        System.arraycopy(values, 0, elements, 0, values.length);
+        size = values.length;
+    }
+
+    /**
+     * Returns the number of elements in this array.
+     * 
+     * @return Current size of the array
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if this array is empty.
+     * 
+     * @return True if empty and false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if this array contains the specified element.
+     * 
+     * @param value
+     *            Element which you want to find in this array
+     * @return True if the element exists in array and false otherwise
+     */
+    public boolean contains(double value) {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this array in proper
+     * sequence (from first to last element).
+     * 
+     * @return An array containing all of the elements in this array in proper
+     *         sequence
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Appends the specified element to the end of this array.
+     * 
+     * @param value
+     *            Element to be appended to this array.
+     */
+    public void add(double value) {
+        if (size == elements.length) {
+            ensureCapacity(size + 1);
+        }
+
+        elements[size] = value;
+        size++;
+    }
+
+    /**
+     * Gets the element at specified index.
+     * 
+     * @param index
+     *            Index of the element you want to get.
+     * @return Element at the specified index.
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return elements[index];
+    }
+
+    /**
+     * Replaces the element at specified index.
+     * 
+     * @param value
+     *            New element
+     * @param index
+     *            Index of the element you want to replace.
+     */
+    public void set(double value, int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        elements[index] = value;
+    }
+
+    /**
+     * Removes all of the elements from this array. The array will be empty
+     * after this call returns. The capacity is kept.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this array.
+     * Shifts the element currently at that position (if any) and any subsequent
+     * elements to the right (adds one to their indices).
+     * 
+     * @param value
+     *            Element to be inserted
+     * @param position
+     *            Index at which the specified element is to be inserted
+     */
+    public void insert(double value, int position) {
+        if (position < 0 || position > size) {
+            throw new IndexOutOfBoundsException();
+        } else if (size == elements.length) {
+            ensureCapacity(size + 1);
+        }
+
+        System.arraycopy(elements, position, elements, position + 1, size - position);
+
+        elements[position] = value;
+        size++;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element in
+     * this array, or -1 if this array does not contain the element. Elements
+     * are compared like {@link Double#equals(Object)} does, so {@code NaN} is
+     * found and {@code 0.0} differs from {@code -0.0}.
+     * 
+     * @param value
+     *            Element to search for
+     * @return The index of the first occurrence of the specified element in
+     *         this array, or -1 if this array does not contain the element
+     */
+    public int indexOf(double value) {
+        double[] elements = this.elements;
+
+        if (value != value) {
+            for (int i = 0, size = this.size; i < size; i++) {
+                if (elements[i] != elements[i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // raw bits of a non-NaN value are unique, so they tell 0.0 from -0.0
+        long bits = Double.doubleToRawLongBits(value);
+        for (int i = 0, size = this.size; i < size; i++) {
+            if (Double.doubleToRawLongBits(elements[i]) == bits) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Removes the element at the specified position in this array. Shifts any
+     * subsequent elements to the left (subtracts one from their indices).
+     * 
+     * @param index
+     *            The index of the element to be removed
+     * @return The removed element
+     */
+    public double remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        double value = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+
+        return value;
+    }
+
+    /**
+     * Iterates this array and processes every element without boxing it.
+     * 
+     * @param processor
+     *            Operation which you want to do on elements of this array.
+     */
+    public void forEach(DoubleProcessor processor) {
+        if (processor == null) {
+            throw new NullPointerException();
+        }
+
+        double[] elements = this.elements;
+        for (int i = 0, size = this.size; i < size; i++) {
+            processor.process(elements[i]);
+        }
+    }
+
+    /**
+     * Grows the backing array so it can hold at least the specified number of
+     * elements.
+     * 
+     * @param minCapacity
+     *            Required capacity
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("Required array size too large");
+        } else if (minCapacity <= elements.length) {
+            return;
+        }
+
+        int capacity = (int) Math.min(Math.max(2L * elements.length, minCapacity),
+                Integer.MAX_VALUE - 8);
+        elements = Arrays.copyOf(elements, capacity);
+    }
+}
@@ -0,0 +1,21 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Class DoubleProcessor is the {@code double} specialization of {@link Processor}
+ * which is used as functional interface java.util.function.DoubleConsumer.
+ * 
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class DoubleProcessor {
+
+    /**
+     * Performs this operation on the given argument.
+     * 
+     * @param value
+     *            The input argument
+     */
+    public void process(double value) {
+
+    }
+}
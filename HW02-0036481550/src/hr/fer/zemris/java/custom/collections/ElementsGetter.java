@@ -0,0 +1,53 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Cursor over the elements of a {@link Collection}. It walks the backing
+ * storage of the collection directly so no copy of the collection is made.
+ * The getter is fail-fast: if the collection is structurally modified after
+ * the getter is created, any further call throws
+ * {@link ConcurrentModificationException}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public interface ElementsGetter {
+
+    /**
+     * Checks if there are more elements to be returned.
+     *
+     * @return True if there are more elements and false otherwise
+     * @throws ConcurrentModificationException
+     *             If the collection was modified after this getter was created
+     */
+    boolean hasNextElement();
+
+    /**
+     * Returns the next element.
+     *
+     * @return The next element
+     * @throws NoSuchElementException
+     *             If there are no more elements
+     * @throws ConcurrentModificationException
+     *             If the collection was modified after this getter was created
+     */
+    Object getNextElement();
+
+    /**
+     * Processes all remaining elements with the specified processor.
+     *
+     * @param processor
+     *            Operation which you want to do on remaining elements
+     */
+    default void processRemaining(Processor processor) {
+        if (processor == null) {
+            throw new NullPointerException();
+        }
+
+        while (hasNextElement()) {
+            processor.process(getNextElement());
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package hr.fer.zemris.java.custom.collections;
 
 /**
- * Thrown by methods in the ObjectStack class to indicate that the stack is
- * empty.
+ * Thrown by methods in the ObjectStack, IntStack, LongStack and DoubleStack
+ * classes to indicate that the stack is empty.
  * 
  * @author TheKarlo95
  * @version 1.0
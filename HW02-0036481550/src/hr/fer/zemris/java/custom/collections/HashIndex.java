@@ -0,0 +1,383 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Hash index of an indexed collection which maps every element to the sorted
+ * positions at which it occurs, so the first occurrence of an element is
+ * found in expected constant time instead of by a linear scan. The index is
+ * an open-addressing table with linear probing, elements are compared by
+ * {@link Object#equals(Object)} and must not change their hash code while
+ * they are in the collection.
+ * <p>
+ * Appending and removing the last element update a single entry. Inserting
+ * or removing anywhere else shifts the positions after it, which takes time
+ * linear in the number of distinct elements, so the collection drops the
+ * index once it is edited that way more than {@value #THRESHOLD} times
+ * without being queried.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+final class HashIndex {
+
+    /**
+     * Number of linear queries after which a collection builds its index, and
+     * number of shifting edits without a query after which it drops it.
+     */
+    static final int THRESHOLD = 4;
+
+    /** Initial number of slots of the table, a power of two. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Distinct elements, null marks an empty slot. */
+    private Object[] keys;
+    /** Positions of the element in each slot, sorted ascending. */
+    private int[][] positions;
+    /** Number of positions of the element in each slot. */
+    private int[] counts;
+    /** Number of distinct elements. */
+    private int keyCount;
+    /** Size of the indexed collection. */
+    private int size;
+    /** Number of shifting edits since the last query. */
+    private int shiftingEdits;
+
+    /**
+     * Constructs an index of the elements of a collection.
+     *
+     * @param elements
+     *            Elements of the collection, in order
+     * @param size
+     *            Number of elements of the collection
+     */
+    HashIndex(Object[] elements, int size) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity / 2 < size) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+
+        for (int i = 0; i < size; i++) {
+            addPosition(elements[i], i);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element.
+     *
+     * @param value
+     *            Element to search for
+     * @return The index of the first occurrence of the element, or -1 if the
+     *         collection does not contain it
+     */
+    int indexOf(Object value) {
+        shiftingEdits = 0;
+
+        int slot = find(value);
+        return keys[slot] == null ? -1 : positions[slot][0];
+    }
+
+    /**
+     * Records an element inserted at the specified position.
+     *
+     * @param value
+     *            Inserted element
+     * @param position
+     *            Position of the element, the size of the collection before
+     *            the insertion appends it
+     * @return False if the index was not updated and has to be dropped
+     */
+    boolean insert(Object value, int position) {
+        if (position < size) {
+            if (++shiftingEdits > THRESHOLD) {
+                return false;
+            }
+            shift(position, 1);
+        }
+
+        addPosition(value, position);
+        size++;
+        return true;
+    }
+
+    /**
+     * Records a range of elements inserted at the specified position.
+     *
+     * @param elements
+     *            Array whose range from the position holds the inserted
+     *            elements
+     * @param position
+     *            Position of the first element, the size of the collection
+     *            before the insertion appends them
+     * @param count
+     *            Number of inserted elements
+     * @return False if the index was not updated and has to be dropped
+     */
+    boolean insertAll(Object[] elements, int position, int count) {
+        if (position < size) {
+            if (++shiftingEdits > THRESHOLD) {
+                return false;
+            }
+            shift(position, count);
+        }
+
+        for (int i = position, end = position + count; i < end; i++) {
+            addPosition(elements[i], i);
+        }
+        size += count;
+        return true;
+    }
+
+    /**
+     * Records an element removed from the specified position.
+     *
+     * @param value
+     *            Removed element
+     * @param position
+     *            Position of the element
+     * @return False if the index was not updated and has to be dropped
+     */
+    boolean remove(Object value, int position) {
+        if (position < size - 1 && ++shiftingEdits > THRESHOLD) {
+            return false;
+        }
+
+        removePosition(value, position);
+        size--;
+        if (position < size) {
+            shift(position + 1, -1);
+        }
+        return true;
+    }
+
+    /**
+     * Records an element replaced at the specified position.
+     *
+     * @param oldValue
+     *            Replaced element
+     * @param newValue
+     *            New element
+     * @param position
+     *            Position of the element
+     */
+    void replace(Object oldValue, Object newValue, int position) {
+        removePosition(oldValue, position);
+        addPosition(newValue, position);
+    }
+
+    /**
+     * Removes all elements from this index.
+     */
+    void clear() {
+        allocate(INITIAL_CAPACITY);
+        keyCount = 0;
+        size = 0;
+        shiftingEdits = 0;
+    }
+
+    /**
+     * Adds a position to the positions of an element.
+     *
+     * @param value
+     *            Element
+     * @param position
+     *            Position of the element, not yet recorded
+     */
+    private void addPosition(Object value, int position) {
+        int slot = find(value);
+        if (keys[slot] == null) {
+            if ((keyCount + 1) * 2 > keys.length) {
+                resize();
+                slot = find(value);
+            }
+            keys[slot] = value;
+            positions[slot] = new int[1];
+            keyCount++;
+        }
+
+        int[] list = positions[slot];
+        int count = counts[slot];
+        // positions mostly arrive in ascending order
+        int at = count == 0 || list[count - 1] < position ? count
+                : lowerBound(list, count, position);
+
+        if (count == list.length) {
+            int[] newList = new int[count * 2];
+            System.arraycopy(list, 0, newList, 0, count);
+            list = newList;
+            positions[slot] = list;
+        }
+        System.arraycopy(list, at, list, at + 1, count - at);
+        list[at] = position;
+        counts[slot] = count + 1;
+    }
+
+    /**
+     * Removes a position from the positions of an element.
+     *
+     * @param value
+     *            Element
+     * @param position
+     *            Recorded position of the element
+     */
+    private void removePosition(Object value, int position) {
+        int slot = find(value);
+        int[] list = positions[slot];
+        int count = counts[slot] - 1;
+        int at = lowerBound(list, count + 1, position);
+
+        System.arraycopy(list, at + 1, list, at, count - at);
+        counts[slot] = count;
+        if (count == 0) {
+            deleteSlot(slot);
+        }
+    }
+
+    /**
+     * Adds a delta to every recorded position not less than the specified one.
+     *
+     * @param from
+     *            Smallest shifted position
+     * @param delta
+     *            Amount added to the positions
+     */
+    private void shift(int from, int delta) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == null) {
+                continue;
+            }
+
+            int[] list = positions[slot];
+            int count = counts[slot];
+            if (list[count - 1] < from) {
+                continue;
+            }
+            for (int i = lowerBound(list, count, from); i < count; i++) {
+                list[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * Empties a slot, moving later entries of its probe sequence back so that
+     * every entry stays reachable from its home slot.
+     *
+     * @param slot
+     *            Slot to be emptied
+     */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+
+        for (int i = (slot + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+            int home = hash(keys[i]) & mask;
+            // the entry may move if the hole lies between its home and its slot
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                positions[hole] = positions[i];
+                counts[hole] = counts[i];
+                hole = i;
+            }
+        }
+
+        keys[hole] = null;
+        positions[hole] = null;
+        counts[hole] = 0;
+        keyCount--;
+    }
+
+    /**
+     * Finds the slot of an element.
+     *
+     * @param value
+     *            Element
+     * @return Slot holding the element, or the empty slot where it belongs
+     */
+    private int find(Object value) {
+        Object[] table = keys;
+        int mask = table.length - 1;
+
+        for (int i = hash(value) & mask;; i = (i + 1) & mask) {
+            Object key = table[i];
+            if (key == null || key.equals(value)) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Doubles the number of slots of the table.
+     */
+    private void resize() {
+        Object[] oldKeys = keys;
+        int[][] oldPositions = positions;
+        int[] oldCounts = counts;
+        allocate(oldKeys.length * 2);
+
+        int mask = keys.length - 1;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] == null) {
+                continue;
+            }
+
+            int i = hash(oldKeys[slot]) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = oldKeys[slot];
+            positions[i] = oldPositions[slot];
+            counts[i] = oldCounts[slot];
+        }
+    }
+
+    /**
+     * Allocates an empty table.
+     *
+     * @param capacity
+     *            Number of slots, a power of two
+     */
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        positions = new int[capacity][];
+        counts = new int[capacity];
+    }
+
+    /**
+     * Spreads the hash code of an element, so consecutive hash codes do not
+     * form long probe sequences.
+     *
+     * @param value
+     *            Element
+     * @return Spread hash code
+     */
+    private static int hash(Object value) {
+        int h = value.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Finds the first of the sorted positions not less than the key.
+     *
+     * @param list
+     *            Sorted positions
+     * @param count
+     *            Number of positions
+     * @param key
+     *            Searched position
+     * @return Index of the first position not less than the key, or the count
+     */
+    private static int lowerBound(int[] list, int count, int key) {
+        int low = 0;
+        int high = count;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (list[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
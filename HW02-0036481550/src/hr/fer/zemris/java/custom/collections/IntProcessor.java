@@ -0,0 +1,21 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Class IntProcessor is the {@code int} specialization of {@link Processor}
+ * which is used as functional interface java.util.function.IntConsumer.
+ * 
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class IntProcessor {
+
+    /**
+     * Performs this operation on the given argument.
+     * 
+     * @param value
+     *            The input argument
+     */
+    public void process(int value) {
+
+    }
+}
@@ -0,0 +1,101 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * The IntStack class represents a last-in-first-out (LIFO) stack of
+ * {@code int} values. It offers the same operations as {@link ObjectStack}
+ * but never boxes the values.
+ * 
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class IntStack {
+
+    /** Array used to store elements of the stack. */
+    private IntArrayIndexedCollection storage;
+
+    /**
+     * Creates an empty stack with the initial capacity of 16.
+     */
+    public IntStack() {
+        storage = new IntArrayIndexedCollection();
+    }
+
+    /**
+     * Creates an empty stack with the initial specified capacity.
+     * 
+     * @param initialCapacity
+     *            The initial capacity of the array
+     */
+    public IntStack(int initialCapacity) {
+        storage = new IntArrayIndexedCollection(initialCapacity);
+    }
+
+    /**
+     * Tests if this stack is empty.
+     * 
+     * @return True if and only if this stack contains no items; false
+     *         otherwise.
+     */
+    public boolean isEmpty() {
+        return storage.isEmpty();
+    }
+
+    /**
+     * Returns the number of elements in this stack.
+     * 
+     * @return The number of elements in this stack
+     */
+    public int size() {
+        return storage.size();
+    }
+
+    /**
+     * Pushes an item onto the top of this stack.
+     * 
+     * @param value
+     *            Value to be pushed onto this stack.
+     */
+    public void push(int value) {
+        storage.add(value);
+    }
+
+    /**
+     * Looks at the value at the top of this stack without removing it from the
+     * stack.
+     * 
+     * @return The value at the top of this stack
+     * @throws EmptyStackException
+     *             If this stack is empty
+     */
+    public int peek() {
+        if (isEmpty()) {
+            throw new EmptyStackException();
+        }
+
+        return storage.get(storage.size() - 1);
+    }
+
+    /**
+     * Removes the value at the top of this stack and returns that value as
+     * the value of this function.
+     * 
+     * @return The value at the top of this stack
+     * @throws EmptyStackException
+     *             If this stack is empty
+     */
+    public int pop() {
+        if (isEmpty()) {
+            throw new EmptyStackException();
+        }
+
+        return storage.remove(storage.size() - 1);
+    }
+
+    /**
+     * Removes all of the elements from this stack. The stack will be empty
+     * after this call returns.
+     */
+    public void clear() {
+        storage.clear();
+    }
+}
@@ -1,8 +1,32 @@
 package hr.fer.zemris.java.custom.collections;
 
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
 /**
  * Doubly-linked list implementation of the Collection class. Implements all
  * optional list operations, and permits all elements, excluding null.
+ * <p>
+ * The list remembers the node it last accessed by index, so {@link #get(int)},
+ * {@link #insert(Object, int)} and {@link #remove(int)} walk from the closest
+ * of the first node, the last node and the remembered one. Sequential and
+ * nearly sequential indices therefore take constant time per call. A
+ * {@link ListCursor} created by {@link #createCursor(int)} edits the list at
+ * its position in constant time.
+ * <p>
+ * A list constructed by {@link #LinkedListIndexedCollection(int)} keeps up to
+ * the specified number of removed nodes on a free list and reuses them for
+ * new elements, so a list used as a queue stops allocating once the free list
+ * covers the difference between the largest and the current size. Removed
+ * nodes never keep a reference to their element.
+ * <p>
+ * {@link #setHashIndexed(boolean)} enables a hash index which maps elements
+ * to their positions. It is built once {@link #indexOf(Object)} has scanned
+ * the list a few times, and then answers {@link #indexOf(Object)},
+ * {@link #contains(Object)} and {@link #remove(Object)} in expected constant
+ * time. Appending keeps the index up to date cheaply, while inserting or
+ * removing before the last element shifts all recorded positions, so the
+ * index is dropped if that happens repeatedly without queries in between.
  * 
  * @author TheKarlo95
  * @version 1.0
@@ -47,14 +71,49 @@ public class LinkedListIndexedCollection extends Collection {
     private ListNode first;
     /** Last node of this list. */
     private ListNode last;
+    /** Number of structural modifications of this list, used by getters. */
+    private long modificationCount;
+    /** Node last accessed by index, or null. */
+    private ListNode cachedNode;
+    /** Index of the node last accessed by index. */
+    private int cachedIndex;
+    /** Largest number of removed nodes kept for reuse. */
+    private final int poolCapacity;
+    /** Removed nodes kept for reuse, linked through their next references. */
+    private ListNode pool;
+    /** Number of nodes in the pool. */
+    private int poolSize;
+    /** True if the hash index is enabled. */
+    private boolean hashIndexed;
+    /** Hash index of the elements, null until it is built. */
+    private HashIndex hashIndex;
+    /** Number of linear scans by {@link #indexOf(Object)} since enabling. */
+    private int unindexedQueries;
 
     /**
      * Constructs an empty list.
      */
     public LinkedListIndexedCollection() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty list which keeps up to the specified number of
+     * removed nodes and reuses them for new elements.
+     * 
+     * @param poolCapacity
+     *            Largest number of removed nodes kept for reuse, 0 disables
+     *            the reuse
+     */
+    public LinkedListIndexedCollection(int poolCapacity) {
+        if (poolCapacity < 0) {
+            throw new IllegalArgumentException();
+        }
+
         this.size = 0;
         this.first = null;
         this.last = null;
+        this.poolCapacity = poolCapacity;
     }
 
     /**
@@ -92,6 +151,24 @@ public class LinkedListIndexedCollection extends Collection {
         return indexOf(value) != -1 ? true : false;
     }
 
+    /**
+     * Removes the first occurrence of the specified element from this list.
+     * 
+     * @param value
+     *            Element to be removed
+     * @return True if this list contained the element
+     */
+    @Override
+    public boolean remove(Object value) {
+        int index = indexOf(value);
+        if (index == -1) {
+            return false;
+        }
+
+        remove(index);
+        return true;
+    }
+
     /**
      * Returns an array containing all of the elements in this list in proper
      * sequence (from first to last element).
@@ -123,17 +200,21 @@ public class LinkedListIndexedCollection extends Collection {
             throw new NullPointerException();
         }
 
+        if (hashIndex != null && !hashIndex.insert(value, size)) {
+            dropHashIndex();
+        }
         if (first == null) {
-            first = new ListNode(value, null, null);
+            first = newNode(value, null, null);
             last = first;
             size++;
         } else {
-            ListNode newNode = new ListNode(value, last, null);
+            ListNode newNode = newNode(value, last, null);
 
             last.next = newNode;
             last = newNode;
             size++;
         }
+        modificationCount++;
     }
 
     /**
@@ -148,37 +229,33 @@ public class LinkedListIndexedCollection extends Collection {
             throw new IndexOutOfBoundsException();
         }
 
-        if (index <= (size - 1) / 2) {
-            int currentIndex = 0;
-            for (ListNode node = first; node != null; node = node.next) {
-                if (index == currentIndex) {
-                    return node.value;
-                }
-                currentIndex++;
-            }
-        } else {
-            int currentIndex = size - 1;
-
-            for (ListNode node = last; node != null; node = node.previous) {
-                if (index == currentIndex) {
-                    return node.value;
-                }
-                currentIndex--;
-            }
-        }
-
-        return null;
+        return node(index).value;
     }
 
     /**
      * Removes all of the elements from this list. The list will be empty after
-     * this call returns.
+     * this call returns. Every removed node is unlinked and its value cleared,
+     * like in {@link java.util.LinkedList#clear()}, so a stale getter or cursor
+     * cannot keep the elements alive; this takes time linear in the size. If
+     * the list reuses nodes, the pool is filled from the removed ones.
      */
     @Override
     public void clear() {
+        ListNode node = first;
+        while (node != null) {
+            ListNode next = node.next;
+            recycle(node);
+            node = next;
+        }
+
         this.first = null;
         this.last = null;
+        this.cachedNode = null;
         this.size = 0;
+        this.modificationCount++;
+        if (hashIndex != null) {
+            hashIndex.clear();
+        }
     }
 
     /**
@@ -198,47 +275,7 @@ public class LinkedListIndexedCollection extends Collection {
             throw new NullPointerException();
         }
 
-        if (position == 0) {
-            ListNode newNode = new ListNode(value, null, first);
-
-            first.previous = newNode;
-            first = newNode;
-            size++;
-        } else if (position == size) {
-            ListNode newNode = new ListNode(value, last, null);
-
-            last.next = newNode;
-            last = newNode;
-            size++;
-        } else if (position <= (size - 1) / 2) {
-            int currentIndex = 0;
-
-            for (ListNode node = first; node != null; node = node.next) {
-                if (position == currentIndex) {
-                    ListNode newNode = new ListNode(value, node.previous, node);
-
-                    node.previous.next = newNode;
-                    node.previous = newNode;
-                    size++;
-                    return;
-                }
-                currentIndex++;
-            }
-        } else {
-            int currentIndex = size - 1;
-
-            for (ListNode node = last; node != null; node = node.previous) {
-                if (position == currentIndex) {
-                    ListNode newNode = new ListNode(value, node.previous, node);
-
-                    node.previous.next = newNode;
-                    node.previous = newNode;
-                    size++;
-                    return;
-                }
-                currentIndex--;
-            }
-        }
+        linkBefore(value, position == size ? null : node(position), position);
     }
 
     /**
@@ -253,6 +290,11 @@ public class LinkedListIndexedCollection extends Collection {
     public int indexOf(Object value) {
         if (value == null) {
             throw new NullPointerException();
+        } else if (hashIndex != null) {
+            return hashIndex.indexOf(value);
+        } else if (hashIndexed && ++unindexedQueries >= HashIndex.THRESHOLD) {
+            hashIndex = new HashIndex(toArray(), size);
+            return hashIndex.indexOf(value);
         }
 
         int currentIndex = 0;
@@ -279,41 +321,397 @@ public class LinkedListIndexedCollection extends Collection {
             throw new IndexOutOfBoundsException();
         }
 
-        if (index == 0) {
-            first = first.next;
-            first.previous = null;
+        unlink(node(index), index);
+    }
 
-            size--;
-        } else if (index == size - 1) {
-            last = last.previous;
-            last.next = null;
+    /**
+     * Creates a cursor at the specified position of this list. Positioning it
+     * walks from the closest node like {@link #get(int)}, every further move
+     * and edit takes constant time.
+     * 
+     * @param index
+     *            Position of the cursor, from 0 to the size of this list
+     * @return Cursor at the specified position
+     */
+    public ListCursor createCursor(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
 
-            size--;
-        } else if (index <= (size - 1) / 2) {
-            int currentIndex = 0;
+        return new Cursor(index == size ? null : node(index), index);
+    }
 
-            for (ListNode node = first; node != null; node = node.next) {
-                if (index == currentIndex) {
-                    node.previous.next = node.next;
-                    node.next.previous = node.previous;
+    /**
+     * Finds the node at the specified index, walking from the first node, the
+     * last node or the cached node, whichever is closest, and caches it.
+     * 
+     * @param index
+     *            Index of the node, within the bounds of this list
+     * @return Node at the specified index
+     */
+    private ListNode node(int index) {
+        ListNode node;
+        int current;
 
-                    size--;
-                    return;
-                }
-                currentIndex++;
-            }
+        if (index <= size - 1 - index) {
+            node = first;
+            current = 0;
+        } else {
+            node = last;
+            current = size - 1;
+        }
+
+        if (cachedNode != null && Math.abs(index - cachedIndex) < Math.abs(index - current)) {
+            node = cachedNode;
+            current = cachedIndex;
+        }
+
+        for (; current < index; current++) {
+            node = node.next;
+        }
+        for (; current > index; current--) {
+            node = node.previous;
+        }
+
+        cachedNode = node;
+        cachedIndex = index;
+        return node;
+    }
+
+    /**
+     * Links a new node before the specified node and caches the new node.
+     * 
+     * @param value
+     *            Value of the new node
+     * @param successor
+     *            Node before which the new node is linked, or null to link it
+     *            after the last node
+     * @param index
+     *            Index of the new node
+     * @return The new node
+     */
+    private ListNode linkBefore(Object value, ListNode successor, int index) {
+        ListNode predecessor = successor == null ? last : successor.previous;
+        ListNode newNode = newNode(value, predecessor, successor);
+
+        if (hashIndex != null && !hashIndex.insert(value, index)) {
+            dropHashIndex();
+        }
+        if (predecessor == null) {
+            first = newNode;
+        } else {
+            predecessor.next = newNode;
+        }
+        if (successor == null) {
+            last = newNode;
+        } else {
+            successor.previous = newNode;
+        }
+
+        size++;
+        modificationCount++;
+        cachedNode = newNode;
+        cachedIndex = index;
+        return newNode;
+    }
+
+    /**
+     * Unlinks the node and caches its successor, or its predecessor if it was
+     * the last node.
+     * 
+     * @param node
+     *            Node to be unlinked
+     * @param index
+     *            Index of the node
+     * @return Successor of the unlinked node, or null if it was the last node
+     */
+    private ListNode unlink(ListNode node, int index) {
+        ListNode predecessor = node.previous;
+        ListNode successor = node.next;
+
+        if (predecessor == null) {
+            first = successor;
+        } else {
+            predecessor.next = successor;
+        }
+        if (successor == null) {
+            last = predecessor;
+        } else {
+            successor.previous = predecessor;
+        }
+
+        if (hashIndex != null && !hashIndex.remove(node.value, index)) {
+            dropHashIndex();
+        }
+        recycle(node);
+        size--;
+        modificationCount++;
+        if (successor != null) {
+            cachedNode = successor;
+            cachedIndex = index;
+        } else {
+            cachedNode = predecessor;
+            cachedIndex = index - 1;
+        }
+        return successor;
+    }
+
+    /**
+     * Enables or disables the hash index. An enabled index is built lazily
+     * once {@link #indexOf(Object)} has scanned this list a few times, a
+     * disabled one is discarded.
+     * 
+     * @param hashIndexed
+     *            True to enable the hash index
+     */
+    public void setHashIndexed(boolean hashIndexed) {
+        this.hashIndexed = hashIndexed;
+        dropHashIndex();
+    }
+
+    /**
+     * Checks if the hash index is enabled.
+     * 
+     * @return True if the hash index is enabled, even if it is not built yet
+     */
+    public boolean isHashIndexed() {
+        return hashIndexed;
+    }
+
+    /**
+     * Discards the hash index, it is built again after a few more queries.
+     */
+    private void dropHashIndex() {
+        hashIndex = null;
+        unindexedQueries = 0;
+    }
+
+    /**
+     * Creates a node, reusing one from the pool if there is one.
+     * 
+     * @param value
+     *            Value of the node
+     * @param previous
+     *            Previous node
+     * @param next
+     *            Next node
+     * @return The node
+     */
+    private ListNode newNode(Object value, ListNode previous, ListNode next) {
+        ListNode node = pool;
+        if (node == null) {
+            return new ListNode(value, previous, next);
+        }
+
+        pool = node.next;
+        poolSize--;
+        node.value = value;
+        node.previous = previous;
+        node.next = next;
+        return node;
+    }
+
+    /**
+     * Puts an unlinked node into the pool if it is not full. The value and the
+     * links of the node are cleared either way, so a stale getter or cursor
+     * cannot keep the element alive.
+     * 
+     * @param node
+     *            Unlinked node
+     */
+    private void recycle(ListNode node) {
+        node.value = null;
+        node.previous = null;
+        if (poolSize < poolCapacity) {
+            node.next = pool;
+            pool = node;
+            poolSize++;
         } else {
-            int currentIndex = size - 1;
+            node.next = null;
+        }
+    }
 
-            for (ListNode node = last; node != null; node = node.previous) {
-                if (index == currentIndex) {
-                    node.previous.next = node.next;
-                    node.next.previous = node.previous;
+    /**
+     * Creates a new getter which walks the nodes of this list from first to
+     * last.
+     * 
+     * @return Getter of the elements of this list
+     */
+    @Override
+    public ElementsGetter createElementsGetter() {
+        return new ListElementsGetter();
+    }
+
+    /**
+     * Getter which follows the nodes of {@link LinkedListIndexedCollection}
+     * directly.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private class ListElementsGetter implements ElementsGetter {
+        /** Node of the next element. */
+        private ListNode nextNode = first;
+        /** Modification count of the list when this getter was created. */
+        private final long savedModificationCount = modificationCount;
+
+        @Override
+        public boolean hasNextElement() {
+            checkModification();
+            return nextNode != null;
+        }
 
-                    size--;
-                    return;
-                }
-                currentIndex--;
+        @Override
+        public Object getNextElement() {
+            if (!hasNextElement()) {
+                throw new NoSuchElementException();
+            }
+
+            Object value = nextNode.value;
+            nextNode = nextNode.next;
+            return value;
+        }
+
+        @Override
+        public void processRemaining(Processor processor) {
+            if (processor == null) {
+                throw new NullPointerException();
+            }
+
+            for (; nextNode != null; nextNode = nextNode.next) {
+                checkModification();
+                processor.process(nextNode.value);
+            }
+            checkModification();
+        }
+
+        /**
+         * Checks if the list was modified after this getter was created.
+         */
+        private void checkModification() {
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Cursor which holds the node at its position, so moving and editing
+     * take constant time.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private class Cursor implements ListCursor {
+        /** Node at this cursor, null after the last element. */
+        private ListNode node;
+        /** Index of this cursor. */
+        private int index;
+        /** Modification count of the list after the last edit by this cursor. */
+        private long savedModificationCount = modificationCount;
+
+        /**
+         * Constructs a cursor at the specified node.
+         * 
+         * @param node
+         *            Node at the cursor, null after the last element
+         * @param index
+         *            Index of the cursor
+         */
+        Cursor(ListNode node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+
+        @Override
+        public int getIndex() {
+            checkModification();
+            return index;
+        }
+
+        @Override
+        public boolean hasElement() {
+            checkModification();
+            return node != null;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            checkModification();
+            return index > 0;
+        }
+
+        @Override
+        public void next() {
+            checkElement();
+            node = node.next;
+            index++;
+        }
+
+        @Override
+        public void previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+
+            node = node == null ? last : node.previous;
+            index--;
+        }
+
+        @Override
+        public Object get() {
+            checkElement();
+            return node.value;
+        }
+
+        @Override
+        public void set(Object value) {
+            checkElement();
+            if (value == null) {
+                throw new NullPointerException();
+            }
+
+            if (hashIndex != null) {
+                hashIndex.replace(node.value, value, index);
+            }
+            node.value = value;
+        }
+
+        @Override
+        public void insertBefore(Object value) {
+            checkModification();
+            if (value == null) {
+                throw new NullPointerException();
+            }
+
+            linkBefore(value, node, index);
+            index++;
+            savedModificationCount = modificationCount;
+        }
+
+        @Override
+        public void remove() {
+            checkElement();
+
+            node = unlink(node, index);
+            savedModificationCount = modificationCount;
+        }
+
+        /**
+         * Checks if there is an element at this cursor.
+         */
+        private void checkElement() {
+            if (!hasElement()) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        /**
+         * Checks if the list was modified other than through this cursor.
+         */
+        private void checkModification() {
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException();
             }
         }
     }
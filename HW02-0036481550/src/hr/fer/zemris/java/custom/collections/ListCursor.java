@@ -0,0 +1,107 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Cursor at a position of an indexed collection which reads, replaces,
+ * inserts and removes elements at its position. The position is an index
+ * from 0 to the size of the collection, where the size means the cursor is
+ * after the last element. Every operation takes constant time for linked
+ * collections, so walking the collection with a cursor takes linear time
+ * where a loop over {@code get(int)} takes quadratic time.
+ * <p>
+ * Like {@link ElementsGetter} the cursor is fail-fast: if the collection is
+ * structurally modified other than through this cursor, any further call
+ * throws {@link ConcurrentModificationException}.
+ *
+ * <pre>
+ * for (ListCursor cursor = list.createCursor(0); cursor.hasElement();) {
+ *     if (shouldRemove(cursor.get())) {
+ *         cursor.remove();
+ *     } else {
+ *         cursor.next();
+ *     }
+ * }
+ * </pre>
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public interface ListCursor {
+
+    /**
+     * Gets the position of this cursor.
+     *
+     * @return Index of the element at this cursor, or the size of the
+     *         collection if this cursor is after the last element
+     */
+    int getIndex();
+
+    /**
+     * Checks if there is an element at this cursor.
+     *
+     * @return False if this cursor is after the last element
+     */
+    boolean hasElement();
+
+    /**
+     * Checks if there is an element before this cursor.
+     *
+     * @return False if this cursor is at index 0
+     */
+    boolean hasPrevious();
+
+    /**
+     * Moves this cursor to the next position.
+     *
+     * @throws NoSuchElementException
+     *             If this cursor is after the last element
+     */
+    void next();
+
+    /**
+     * Moves this cursor to the previous position.
+     *
+     * @throws NoSuchElementException
+     *             If this cursor is at index 0
+     */
+    void previous();
+
+    /**
+     * Gets the element at this cursor.
+     *
+     * @return Element at this cursor
+     * @throws NoSuchElementException
+     *             If this cursor is after the last element
+     */
+    Object get();
+
+    /**
+     * Replaces the element at this cursor.
+     *
+     * @param value
+     *            New element
+     * @throws NoSuchElementException
+     *             If this cursor is after the last element
+     */
+    void set(Object value);
+
+    /**
+     * Inserts an element before this cursor. The cursor stays at the same
+     * element, so its index grows by one.
+     *
+     * @param value
+     *            Element to be inserted
+     */
+    void insertBefore(Object value);
+
+    /**
+     * Removes the element at this cursor. The cursor moves to the following
+     * element, which gets the same index.
+     *
+     * @throws NoSuchElementException
+     *             If this cursor is after the last element
+     */
+    void remove();
+}
@@ -0,0 +1,21 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Class LongProcessor is the {@code long} specialization of {@link Processor}
+ * which is used as functional interface java.util.function.LongConsumer.
+ * 
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class LongProcessor {
+
+    /**
+     * Performs this operation on the given argument.
+     * 
+     * @param value
+     *            The input argument
+     */
+    public void process(long value) {
+
+    }
+}
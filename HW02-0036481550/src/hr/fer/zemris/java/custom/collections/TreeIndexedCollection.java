@@ -0,0 +1,546 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Balanced tree implementation of the Collection class. The elements are
+ * stored in an AVL tree ordered by position, where every node knows the size
+ * of its subtree, so {@link #get(int)}, {@link #insert(Object, int)} and
+ * {@link #remove(int)} take logarithmic time at any position. Permits all
+ * elements, excluding null.
+ * <p>
+ * This makes it the implementation of choice for editing in the middle of
+ * large lists, where {@link ArrayIndexedCollection} shifts the tail and
+ * {@link LinkedListIndexedCollection} walks up to half of the nodes. Appending
+ * and scanning are slower than in an array, since every element is a node.
+ * 
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class TreeIndexedCollection extends Collection {
+
+    /**
+     * Node of the tree.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static class TreeNode {
+        /** Element of this node. */
+        Object value;
+        /** Subtree of the elements before this one. */
+        TreeNode left;
+        /** Subtree of the elements after this one. */
+        TreeNode right;
+        /** Number of elements in the subtree of this node. */
+        int size = 1;
+        /** Height of the subtree of this node, a leaf has height 1. */
+        int height = 1;
+
+        /**
+         * Constructs a leaf with the specified element.
+         * 
+         * @param value
+         *            Element of the node
+         */
+        TreeNode(Object value) {
+            this.value = value;
+        }
+    }
+
+    /** Root of the tree, null if this collection is empty. */
+    private TreeNode root;
+    /** Number of structural modifications of this tree, used by getters. */
+    private long modificationCount;
+
+    /**
+     * Constructs an empty tree.
+     */
+    public TreeIndexedCollection() {
+    }
+
+    /**
+     * Constructs a tree containing the elements of the specified collection,
+     * in the original order.
+     * 
+     * @param other
+     *            The collection whose elements are to be placed into this tree
+     */
+    public TreeIndexedCollection(Collection other) {
+        this.addAll(other);
+    }
+
+    /**
+     * Returns the number of elements in this tree.
+     * 
+     * @return The number of elements in this tree
+     */
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns true if this tree contains the specified element.
+     * 
+     * @param value
+     *            Element whose presence in this tree is to be tested
+     * @return True if this tree contains the specified element
+     */
+    @Override
+    public boolean contains(Object value) {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this tree in proper
+     * sequence (from first to last element).
+     * 
+     * @return An array containing all of the elements in this tree in proper
+     *         sequence
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[size()];
+        int index = 0;
+
+        for (InOrderWalk walk = new InOrderWalk(); walk.node != null;) {
+            array[index++] = walk.advance();
+        }
+
+        return array;
+    }
+
+    /**
+     * Appends the specified element to the end of this tree.
+     * 
+     * @param value
+     *            Element to be appended to this tree.
+     */
+    @Override
+    public void add(Object value) {
+        insert(value, size());
+    }
+
+    /**
+     * Appends all elements of the specified collection to the end of this
+     * tree. If the other collection is at least as large as this tree, the
+     * tree is rebuilt perfectly balanced from both, which takes linear time
+     * instead of a logarithmic time per element.
+     * 
+     * @param other
+     *            Source collection.
+     */
+    @Override
+    public void addAll(Collection other) {
+        if (other.size() == 0 || other.size() < size()) {
+            super.addAll(other);
+            return;
+        }
+
+        Object[] added = other.toArray();
+        for (Object value : added) {
+            if (value == null) {
+                throw new NullPointerException();
+            }
+        }
+
+        Object[] elements = added;
+        if (root != null) {
+            Object[] existing = toArray();
+            elements = new Object[existing.length + added.length];
+            System.arraycopy(existing, 0, elements, 0, existing.length);
+            System.arraycopy(added, 0, elements, existing.length, added.length);
+        }
+
+        root = build(elements, 0, elements.length);
+        modificationCount++;
+    }
+
+    /**
+     * Gets the object at specified index.
+     * 
+     * @param index
+     *            Index of the object you want to get.
+     * @return Object at the specified index.
+     */
+    public Object get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        TreeNode node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    /**
+     * Removes all of the elements from this tree. The tree will be empty after
+     * this call returns.
+     */
+    @Override
+    public void clear() {
+        root = null;
+        modificationCount++;
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this tree.
+     * Shifts the element currently at that position (if any) and any
+     * subsequent elements to the right (adds one to their indices).
+     * 
+     * @param value
+     *            Element to be inserted
+     * @param position
+     *            Index at which the specified element is to be inserted
+     */
+    public void insert(Object value, int position) {
+        if (position < 0 || position > size()) {
+            throw new IndexOutOfBoundsException();
+        } else if (value == null) {
+            throw new NullPointerException();
+        }
+
+        root = insert(root, value, position);
+        modificationCount++;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element in
+     * this tree, or -1 if this tree does not contain the element. The
+     * elements are not ordered by value, so this takes linear time.
+     * 
+     * @param value
+     *            Element to search for
+     * @return The index of the first occurrence of the specified element in
+     *         this tree, or -1 if this tree does not contain the element
+     */
+    public int indexOf(Object value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+
+        int index = 0;
+        for (InOrderWalk walk = new InOrderWalk(); walk.node != null; index++) {
+            if (value.equals(walk.advance())) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Removes the element at the specified position in this tree. Shifts any
+     * subsequent elements to the left (subtracts one from their indices).
+     * 
+     * @param index
+     *            The index of the element to be removed
+     */
+    public void remove(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        root = remove(root, index);
+        modificationCount++;
+    }
+
+    /**
+     * Creates a new getter which walks this tree in order.
+     * 
+     * @return Getter of the elements of this tree
+     */
+    @Override
+    public ElementsGetter createElementsGetter() {
+        return new TreeElementsGetter();
+    }
+
+    /**
+     * Inserts an element into a subtree.
+     * 
+     * @param node
+     *            Root of the subtree, may be null
+     * @param value
+     *            Element to be inserted
+     * @param position
+     *            Position of the element within the subtree
+     * @return New root of the subtree
+     */
+    private static TreeNode insert(TreeNode node, Object value, int position) {
+        if (node == null) {
+            return new TreeNode(value);
+        }
+
+        int leftSize = size(node.left);
+        if (position <= leftSize) {
+            node.left = insert(node.left, value, position);
+        } else {
+            node.right = insert(node.right, value, position - leftSize - 1);
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Removes an element from a subtree.
+     * 
+     * @param node
+     *            Root of the subtree
+     * @param index
+     *            Index of the element within the subtree
+     * @return New root of the subtree, null if it became empty
+     */
+    private static TreeNode remove(TreeNode node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            node.left = remove(node.left, index);
+        } else if (index > leftSize) {
+            node.right = remove(node.right, index - leftSize - 1);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else {
+            // the successor takes the place of the removed element
+            TreeNode successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.value = successor.value;
+            node.right = remove(node.right, 0);
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Builds a perfectly balanced subtree from a range of elements.
+     * 
+     * @param elements
+     *            Elements of the tree
+     * @param from
+     *            First element of the subtree, inclusive
+     * @param to
+     *            Last element of the subtree, exclusive
+     * @return Root of the subtree, null if the range is empty
+     */
+    private static TreeNode build(Object[] elements, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+
+        int middle = (from + to) >>> 1;
+        TreeNode node = new TreeNode(elements[middle]);
+        node.left = build(elements, from, middle);
+        node.right = build(elements, middle + 1, to);
+        update(node);
+        return node;
+    }
+
+    /**
+     * Restores the balance of a node whose subtrees differ in height by at
+     * most two, and updates its size and height.
+     * 
+     * @param node
+     *            Node to be rebalanced
+     * @return New root of the subtree
+     */
+    private static TreeNode rebalance(TreeNode node) {
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        } else if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+
+        update(node);
+        return node;
+    }
+
+    /**
+     * Rotates a subtree to the left.
+     * 
+     * @param node
+     *            Root of the subtree, which has a right child
+     * @return New root of the subtree
+     */
+    private static TreeNode rotateLeft(TreeNode node) {
+        TreeNode right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    /**
+     * Rotates a subtree to the right.
+     * 
+     * @param node
+     *            Root of the subtree, which has a left child
+     * @return New root of the subtree
+     */
+    private static TreeNode rotateRight(TreeNode node) {
+        TreeNode left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    /**
+     * Updates the size and height of a node from its children.
+     * 
+     * @param node
+     *            Node to be updated
+     */
+    private static void update(TreeNode node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+    }
+
+    /**
+     * Gets the size of a subtree.
+     * 
+     * @param node
+     *            Root of the subtree, may be null
+     * @return Number of elements in the subtree
+     */
+    private static int size(TreeNode node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Gets the height of a subtree.
+     * 
+     * @param node
+     *            Root of the subtree, may be null
+     * @return Height of the subtree, 0 if it is empty
+     */
+    private static int height(TreeNode node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * In-order walk of the tree which keeps the path to the next node on an
+     * explicit stack, so each step takes amortized constant time.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private class InOrderWalk {
+        /** Ancestors of the next node whose elements follow it. */
+        private final TreeNode[] stack = new TreeNode[height(root)];
+        /** Number of nodes on the stack. */
+        private int depth;
+        /** Next node, null after the last element. */
+        TreeNode node;
+
+        /**
+         * Constructs a walk positioned at the first element.
+         */
+        InOrderWalk() {
+            descend(root);
+        }
+
+        /**
+         * Returns the element of the next node and moves to its successor.
+         * 
+         * @return Element of the next node
+         */
+        Object advance() {
+            Object value = node.value;
+            if (node.right != null) {
+                descend(node.right);
+            } else {
+                node = depth == 0 ? null : stack[--depth];
+            }
+            return value;
+        }
+
+        /**
+         * Moves to the first node of a subtree, pushing the nodes on the way.
+         * 
+         * @param subtree
+         *            Root of the subtree, may be null
+         */
+        private void descend(TreeNode subtree) {
+            if (subtree == null) {
+                node = null;
+                return;
+            }
+            while (subtree.left != null) {
+                stack[depth++] = subtree;
+                subtree = subtree.left;
+            }
+            node = subtree;
+        }
+    }
+
+    /**
+     * Getter which walks the tree in order.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private class TreeElementsGetter implements ElementsGetter {
+        /** Walk of the tree. */
+        private final InOrderWalk walk = new InOrderWalk();
+        /** Modification count of the tree when this getter was created. */
+        private final long savedModificationCount = modificationCount;
+
+        @Override
+        public boolean hasNextElement() {
+            checkModification();
+            return walk.node != null;
+        }
+
+        @Override
+        public Object getNextElement() {
+            if (!hasNextElement()) {
+                throw new NoSuchElementException();
+            }
+
+            return walk.advance();
+        }
+
+        @Override
+        public void processRemaining(Processor processor) {
+            if (processor == null) {
+                throw new NullPointerException();
+            }
+
+            while (walk.node != null) {
+                checkModification();
+                processor.process(walk.advance());
+            }
+            checkModification();
+        }
+
+        /**
+         * Checks if the tree was modified after this getter was created.
+         */
+        private void checkModification() {
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,723 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Unrolled linked list implementation of the Collection class. Every node
+ * holds a small array of up to {@value #DEFAULT_NODE_CAPACITY} elements, so
+ * there is one node per tens of elements instead of one per element, and
+ * scans like {@link #indexOf(Object)} and {@link #toArray()} read consecutive
+ * array slots instead of following scattered nodes. Permits all elements,
+ * excluding null.
+ * <p>
+ * Inserting into a full node splits it into two half-full nodes, and a node
+ * which drops below half full after a removal is merged with a neighbour if
+ * they fit into one node. Inserting or removing at a {@link ListCursor}
+ * therefore shifts at most one node of elements, which takes constant time.
+ * Like {@link LinkedListIndexedCollection} the list remembers the node it
+ * last accessed by index, so sequential indices take constant time per call.
+ * 
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class UnrolledLinkedListIndexedCollection extends Collection {
+
+    /** Default number of elements per node. */
+    public static final int DEFAULT_NODE_CAPACITY = 64;
+
+    /**
+     * Node of the list, an array of elements with links to its neighbours.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static class Node {
+        /** Elements of this node, the first {@link #count} slots are used. */
+        final Object[] elements;
+        /** Number of elements in this node. */
+        int count;
+        /** Previous node of the list. */
+        Node previous;
+        /** Next node of the list. */
+        Node next;
+
+        /**
+         * Constructs an empty node.
+         * 
+         * @param capacity
+         *            Number of elements the node can hold
+         */
+        Node(int capacity) {
+            this.elements = new Object[capacity];
+        }
+    }
+
+    /**
+     * Position of an element, a node and an offset within it. A position
+     * after the last element has a null node.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static class Position {
+        /** Node of the element, null after the last element. */
+        Node node;
+        /** Offset of the element within the node. */
+        int offset;
+    }
+
+    /** Number of elements per node. */
+    private final int nodeCapacity;
+    /** Current size of this list. */
+    private int size;
+    /** First node of this list. */
+    private Node first;
+    /** Last node of this list. */
+    private Node last;
+    /** Number of structural modifications of this list, used by getters. */
+    private long modificationCount;
+    /** Node last accessed by index, or null. */
+    private Node cachedNode;
+    /** Index of the first element of the cached node. */
+    private int cachedStart;
+    /** Position reused by the index-based operations. */
+    private final Position scratch = new Position();
+
+    /**
+     * Constructs an empty list with nodes of
+     * {@value #DEFAULT_NODE_CAPACITY} elements.
+     */
+    public UnrolledLinkedListIndexedCollection() {
+        this(DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty list with nodes of the specified capacity.
+     * 
+     * @param nodeCapacity
+     *            Number of elements per node, at least 2
+     */
+    public UnrolledLinkedListIndexedCollection(int nodeCapacity) {
+        if (nodeCapacity < 2) {
+            throw new IllegalArgumentException();
+        }
+
+        this.nodeCapacity = nodeCapacity;
+    }
+
+    /**
+     * Constructs a list containing the elements of the specified collection,
+     * in the original order.
+     * 
+     * @param other
+     *            The collection whose elements are to be placed into this list
+     */
+    public UnrolledLinkedListIndexedCollection(Collection other) {
+        this();
+
+        this.addAll(other);
+    }
+
+    /**
+     * Returns the number of elements in this list.
+     * 
+     * @return The number of elements in this list
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this list contains the specified element.
+     * 
+     * @param value
+     *            Element whose presence in this list is to be tested
+     * @return True if this list contains the specified element
+     */
+    @Override
+    public boolean contains(Object value) {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this list in proper
+     * sequence (from first to last element).
+     * 
+     * @return An array containing all of the elements in this list in proper
+     *         sequence
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        int index = 0;
+
+        for (Node node = first; node != null; node = node.next) {
+            System.arraycopy(node.elements, 0, array, index, node.count);
+            index += node.count;
+        }
+
+        return array;
+    }
+
+    /**
+     * Appends the specified element to the end of this list. Appending fills
+     * the last node completely before a new node is started.
+     * 
+     * @param value
+     *            Element to be appended to this list.
+     */
+    @Override
+    public void add(Object value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+
+        if (last == null || last.count == nodeCapacity) {
+            linkAfter(last, new Node(nodeCapacity));
+        }
+        last.elements[last.count++] = value;
+        size++;
+        modificationCount++;
+    }
+
+    /**
+     * Gets the object at specified index.
+     * 
+     * @param index
+     *            Index of the object you want to get.
+     * @return Object at the specified index.
+     */
+    public Object get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        locate(index, scratch);
+        return scratch.node.elements[scratch.offset];
+    }
+
+    /**
+     * Removes all of the elements from this list. The list will be empty after
+     * this call returns.
+     */
+    @Override
+    public void clear() {
+        first = null;
+        last = null;
+        cachedNode = null;
+        size = 0;
+        modificationCount++;
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this list.
+     * Shifts the element currently at that position (if any) and any
+     * subsequent elements to the right (adds one to their indices).
+     * 
+     * @param value
+     *            Element to be inserted
+     * @param position
+     *            Index at which the specified element is to be inserted
+     */
+    public void insert(Object value, int position) {
+        if (position < 0 || position > size) {
+            throw new IndexOutOfBoundsException();
+        } else if (value == null) {
+            throw new NullPointerException();
+        }
+
+        if (position == size) {
+            add(value);
+            return;
+        }
+
+        locate(position, scratch);
+        insertBefore(scratch, value);
+        cache(scratch, position + 1);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element in
+     * this list, or -1 if this list does not contain the element.
+     * 
+     * @param value
+     *            Element to search for
+     * @return The index of the first occurrence of the specified element in
+     *         this list, or -1 if this list does not contain the element
+     */
+    public int indexOf(Object value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+
+        int start = 0;
+        for (Node node = first; node != null; node = node.next) {
+            Object[] elements = node.elements;
+            for (int i = 0, count = node.count; i < count; i++) {
+                if (value.equals(elements[i])) {
+                    return start + i;
+                }
+            }
+            start += node.count;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Removes the element at the specified position in this list. Shifts any
+     * subsequent elements to the left (subtracts one from their indices).
+     * 
+     * @param index
+     *            The index of the element to be removed
+     */
+    public void remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        locate(index, scratch);
+        removeAt(scratch);
+        cache(scratch, index);
+    }
+
+    /**
+     * Creates a cursor at the specified position of this list. Positioning it
+     * walks from the closest node like {@link #get(int)}, every further move
+     * and edit takes constant time.
+     * 
+     * @param index
+     *            Position of the cursor, from 0 to the size of this list
+     * @return Cursor at the specified position
+     */
+    public ListCursor createCursor(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        Cursor cursor = new Cursor(index);
+        locate(index, cursor);
+        return cursor;
+    }
+
+    /**
+     * Creates a new getter which walks the nodes of this list from first to
+     * last.
+     * 
+     * @return Getter of the elements of this list
+     */
+    @Override
+    public ElementsGetter createElementsGetter() {
+        return new UnrolledElementsGetter();
+    }
+
+    /**
+     * Finds the position of the element at the specified index, walking from
+     * the first node, the last node or the cached node, whichever is closest,
+     * and caches its node.
+     * 
+     * @param index
+     *            Index of the element, from 0 to the size of this list
+     * @param position
+     *            Position into which the result is written
+     */
+    private void locate(int index, Position position) {
+        if (index == size) {
+            position.node = null;
+            position.offset = 0;
+            return;
+        }
+
+        Node cached = cachedNode;
+        if (cached != null && index >= cachedStart && index < cachedStart + cached.count) {
+            position.node = cached;
+            position.offset = index - cachedStart;
+            return;
+        }
+
+        Node node;
+        int start;
+        if (index <= size - 1 - index) {
+            node = first;
+            start = 0;
+        } else {
+            node = last;
+            start = size - last.count;
+        }
+
+        if (cachedNode != null && Math.abs(index - cachedStart) < Math.abs(index - start)) {
+            node = cachedNode;
+            start = cachedStart;
+        }
+
+        while (index >= start + node.count) {
+            start += node.count;
+            node = node.next;
+        }
+        while (index < start) {
+            node = node.previous;
+            start -= node.count;
+        }
+
+        cachedNode = node;
+        cachedStart = start;
+        position.node = node;
+        position.offset = index - start;
+    }
+
+    /**
+     * Caches the node of a position after a modification.
+     * 
+     * @param position
+     *            Position of an element
+     * @param index
+     *            Index of the element
+     */
+    private void cache(Position position, int index) {
+        cachedNode = position.node;
+        cachedStart = index - position.offset;
+    }
+
+    /**
+     * Inserts an element before the element at the position, splitting its
+     * node if it is full. The position is updated to keep pointing at the
+     * same element.
+     * 
+     * @param position
+     *            Position of an element, or after the last element
+     * @param value
+     *            Element to be inserted
+     */
+    private void insertBefore(Position position, Object value) {
+        Node node = position.node;
+        int offset = position.offset;
+
+        if (node == null) {
+            // inserting at the end appends and the position stays at the end
+            add(value);
+            return;
+        }
+
+        if (node.count == nodeCapacity) {
+            Node upper = split(node);
+            if (offset >= node.count) {
+                offset -= node.count;
+                node = upper;
+            }
+        }
+
+        System.arraycopy(node.elements, offset, node.elements, offset + 1, node.count - offset);
+        node.elements[offset] = value;
+        node.count++;
+        size++;
+        modificationCount++;
+
+        position.node = node;
+        position.offset = offset + 1;
+    }
+
+    /**
+     * Removes the element at the position, merging its node with a neighbour
+     * if it drops below half full and they fit into one node. The position is
+     * updated to point at the following element.
+     * 
+     * @param position
+     *            Position of an element
+     */
+    private void removeAt(Position position) {
+        Node node = position.node;
+        int offset = position.offset;
+
+        node.count--;
+        System.arraycopy(node.elements, offset + 1, node.elements, offset, node.count - offset);
+        node.elements[node.count] = null;
+        size--;
+        modificationCount++;
+
+        if (node.count == 0) {
+            Node next = node.next;
+            unlink(node);
+            node = next;
+            offset = 0;
+        } else if (node.count < nodeCapacity / 2) {
+            Node next = node.next;
+            Node previous = node.previous;
+
+            if (next != null && node.count + next.count <= nodeCapacity) {
+                System.arraycopy(next.elements, 0, node.elements, node.count, next.count);
+                node.count += next.count;
+                unlink(next);
+            } else if (previous != null && previous.count + node.count <= nodeCapacity) {
+                System.arraycopy(node.elements, 0, previous.elements, previous.count, node.count);
+                offset += previous.count;
+                previous.count += node.count;
+                unlink(node);
+                node = previous;
+            }
+        }
+
+        if (node != null && offset == node.count) {
+            node = node.next;
+            offset = 0;
+        }
+        position.node = node;
+        position.offset = offset;
+    }
+
+    /**
+     * Moves the upper half of a full node into a new node linked after it.
+     * 
+     * @param node
+     *            Full node
+     * @return The new node
+     */
+    private Node split(Node node) {
+        Node upper = new Node(nodeCapacity);
+        int half = node.count / 2;
+
+        upper.count = node.count - half;
+        System.arraycopy(node.elements, half, upper.elements, 0, upper.count);
+        for (int i = half; i < node.count; i++) {
+            node.elements[i] = null;
+        }
+        node.count = half;
+
+        linkAfter(node, upper);
+        return upper;
+    }
+
+    /**
+     * Links a node after the specified node.
+     * 
+     * @param predecessor
+     *            Node after which the new node is linked, or null to link it
+     *            as the first node
+     * @param node
+     *            Node to be linked
+     */
+    private void linkAfter(Node predecessor, Node node) {
+        Node successor = predecessor == null ? first : predecessor.next;
+
+        node.previous = predecessor;
+        node.next = successor;
+        if (predecessor == null) {
+            first = node;
+        } else {
+            predecessor.next = node;
+        }
+        if (successor == null) {
+            last = node;
+        } else {
+            successor.previous = node;
+        }
+    }
+
+    /**
+     * Unlinks a node from this list.
+     * 
+     * @param node
+     *            Node to be unlinked
+     */
+    private void unlink(Node node) {
+        if (node.previous == null) {
+            first = node.next;
+        } else {
+            node.previous.next = node.next;
+        }
+        if (node.next == null) {
+            last = node.previous;
+        } else {
+            node.next.previous = node.previous;
+        }
+    }
+
+    /**
+     * Getter which walks the arrays of the nodes directly.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private class UnrolledElementsGetter implements ElementsGetter {
+        /** Node of the next element. */
+        private Node node = first;
+        /** Offset of the next element within its node. */
+        private int offset;
+        /** Modification count of the list when this getter was created. */
+        private final long savedModificationCount = modificationCount;
+
+        @Override
+        public boolean hasNextElement() {
+            checkModification();
+            return node != null;
+        }
+
+        @Override
+        public Object getNextElement() {
+            if (!hasNextElement()) {
+                throw new NoSuchElementException();
+            }
+
+            Object value = node.elements[offset++];
+            if (offset == node.count) {
+                node = node.next;
+                offset = 0;
+            }
+            return value;
+        }
+
+        @Override
+        public void processRemaining(Processor processor) {
+            if (processor == null) {
+                throw new NullPointerException();
+            }
+
+            for (; node != null; node = node.next, offset = 0) {
+                checkModification();
+                Object[] elements = node.elements;
+                for (int count = node.count; offset < count; offset++) {
+                    processor.process(elements[offset]);
+                }
+            }
+            checkModification();
+        }
+
+        /**
+         * Checks if the list was modified after this getter was created.
+         */
+        private void checkModification() {
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Cursor which holds the node and offset of its element, so moving takes
+     * constant time and editing shifts at most one node of elements.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private class Cursor extends Position implements ListCursor {
+        /** Index of this cursor. */
+        private int index;
+        /** Modification count of the list after the last edit by this cursor. */
+        private long savedModificationCount = modificationCount;
+
+        /**
+         * Constructs a cursor at the specified index, its position is set by
+         * the list.
+         * 
+         * @param index
+         *            Index of the cursor
+         */
+        Cursor(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int getIndex() {
+            checkModification();
+            return index;
+        }
+
+        @Override
+        public boolean hasElement() {
+            checkModification();
+            return node != null;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            checkModification();
+            return index > 0;
+        }
+
+        @Override
+        public void next() {
+            checkElement();
+            offset++;
+            if (offset == node.count) {
+                node = node.next;
+                offset = 0;
+            }
+            index++;
+        }
+
+        @Override
+        public void previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+
+            if (node == null) {
+                node = last;
+                offset = node.count - 1;
+            } else if (offset == 0) {
+                node = node.previous;
+                offset = node.count - 1;
+            } else {
+                offset--;
+            }
+            index--;
+        }
+
+        @Override
+        public Object get() {
+            checkElement();
+            return node.elements[offset];
+        }
+
+        @Override
+        public void set(Object value) {
+            checkElement();
+            if (value == null) {
+                throw new NullPointerException();
+            }
+
+            node.elements[offset] = value;
+        }
+
+        @Override
+        public void insertBefore(Object value) {
+            checkModification();
+            if (value == null) {
+                throw new NullPointerException();
+            }
+
+            UnrolledLinkedListIndexedCollection.this.insertBefore(this, value);
+            index++;
+            cache(this, index);
+            savedModificationCount = modificationCount;
+        }
+
+        @Override
+        public void remove() {
+            checkElement();
+
+            removeAt(this);
+            cache(this, index);
+            savedModificationCount = modificationCount;
+        }
+
+        /**
+         * Checks if there is an element at this cursor.
+         */
+        private void checkElement() {
+            if (!hasElement()) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        /**
+         * Checks if the list was modified other than through this cursor.
+         */
+        private void checkModification() {
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -1,10 +1,29 @@
 package hr.fer.zemris.java.custom.collections.demo;
 
-import hr.fer.zemris.java.custom.collections.ObjectStack;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+
+import hr.fer.zemris.java.custom.rpn.RPNParallelEvaluator;
+import hr.fer.zemris.java.custom.rpn.RPNProgram;
+import hr.fer.zemris.java.custom.rpn.RPNStreamEvaluator;
 
 /**
  * Command-line application which accepts a single command-line argument: a
  * postfix expression which should be evaluated(for example: "-1 8 2 / +").
+ * The expression may contain variables whose values are given by additional
+ * arguments in form name=value (for example: "x 2 *" "x=21").
+ * <p>
+ * With arguments "-f file" the application evaluates every line of the file
+ * and prints one result per line. If the file is omitted or is "-", lines are
+ * read from the standard input. Adding "-p workers" evaluates chunks of lines
+ * on the specified number of threads, and "-c bytes" sets the size of a
+ * chunk.
  * 
  * @author TheKarlo95
  * @version 1.0
@@ -18,72 +37,98 @@ public class StackDemo {
      *            Command-line argument
      */
     public static void main(String[] args) {
-        ObjectStack stack = new ObjectStack();
-
-        String[] arguments = args[0].trim().split(" ");
-        for (String arg : arguments) {
-            if (isNumber(arg)) {
-                stack.push(Integer.parseInt(arg));
-                continue;
-            } else {
-                int rightOperand = (int) stack.pop();
-                int leftOperand = (int) stack.pop();
+        if (args.length > 0 && args[0].equals("-f")) {
+            String file = "-";
+            int workers = 0;
+            int chunkSize = RPNParallelEvaluator.DEFAULT_CHUNK_SIZE;
 
-                try {
-                    stack.push(doOperation(leftOperand, rightOperand, arg));
-                } catch (IllegalArgumentException e) {
-                    System.err.println("Argument " + arg + " is not a number or"
-                            + " valid operator(+, -, *, / or %)");
+            try {
+                for (int i = 1; i < args.length; i++) {
+                    if (args[i].equals("-p") && i + 1 < args.length) {
+                        workers = Integer.parseInt(args[++i]);
+                    } else if (args[i].equals("-c") && i + 1 < args.length) {
+                        chunkSize = Integer.parseInt(args[++i]);
+                    } else {
+                        file = args[i];
+                    }
                 }
+
+                stream(file, workers, chunkSize);
+            } catch (NumberFormatException e) {
+                System.err.println("Number of workers and chunk size must be integers");
+            } catch (IOException e) {
+                System.err.println("Error! " + e.getMessage());
             }
+            return;
         }
 
-        if (stack.size() != 1) {
-            System.err.println("Error!");
-        } else {
-            System.out.println("Expression evaluates to " + stack.pop());
+        RPNProgram program;
+        try {
+            program = RPNProgram.compile(args[0]);
+        } catch (ParseException e) {
+            System.err.println("Error at position " + e.getErrorOffset() + ": " + e.getMessage());
+            return;
         }
-    }
 
-    /**
-     * Returns true if this string represents integer.
-     * 
-     * @param str
-     *            String which is going to be tested
-     * @return True if this string represents integer and false otherwise
-     */
-    private static boolean isNumber(String str) {
-        return str.matches("^-?[0-9]+(\\.[0-9]+)?$");
+        int[] variables = new int[program.getVariableCount()];
+        boolean[] assigned = new boolean[variables.length];
+        for (int i = 1; i < args.length; i++) {
+            int separator = args[i].indexOf('=');
+            int slot = separator == -1 ? -1
+                    : program.getVariableSlot(args[i].substring(0, separator));
+
+            if (slot == -1) {
+                System.err.println("Argument " + args[i]
+                        + " does not assign a variable of the expression");
+                return;
+            }
+
+            try {
+                variables[slot] = Integer.parseInt(args[i].substring(separator + 1).trim());
+                assigned[slot] = true;
+            } catch (NumberFormatException e) {
+                System.err.println("Argument " + args[i] + " does not assign an integer");
+                return;
+            }
+        }
+
+        for (int i = 0; i < assigned.length; i++) {
+            if (!assigned[i]) {
+                System.err.println("Variable " + program.getVariableName(i) + " has no value");
+                return;
+            }
+        }
+
+        try {
+            System.out.println("Expression evaluates to " + program.evaluate(variables));
+        } catch (ArithmeticException e) {
+            System.err.println("Error! " + e.getMessage());
+        }
     }
 
     /**
-     * Does an operation on left and right operand according to the operator.
-     * This method can do addition, subtraction, multiplication, division and
-     * modulus.
+     * Evaluates every line of the file, or of the standard input if the file
+     * is "-", and writes results to the standard output.
      * 
-     * @param leftOperand
-     *            Left operand
-     * @param rightOperand
-     *            Right operand
-     * @param operator
-     *            Operator
-     * @return Result of the operation
+     * @param file
+     *            Path of the file or "-"
+     * @param workers
+     *            Number of worker threads, 0 evaluates on the calling thread
+     * @param chunkSize
+     *            Size of a chunk evaluated by one worker
+     * @throws IOException
+     *             If reading or writing fails
      */
-    private static int doOperation(int leftOperand, int rightOperand, String operator) {
-        switch (operator) {
-            case "+":
-                return leftOperand + rightOperand;
-            case "-":
-                return leftOperand - rightOperand;
-            case "*":
-                return leftOperand * rightOperand;
-            case "/":
-                return leftOperand / rightOperand;
-            case "%":
-                return leftOperand % rightOperand;
-            default:
-                throw new IllegalArgumentException();
+    private static void stream(String file, int workers, int chunkSize) throws IOException {
+        FileChannel out = new FileOutputStream(FileDescriptor.out).getChannel();
+
+        try (FileChannel in = file.equals("-") ? new FileInputStream(FileDescriptor.in).getChannel()
+                : FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            if (workers > 0) {
+                new RPNParallelEvaluator(workers, chunkSize).evaluate(in, out);
+            } else {
+                new RPNStreamEvaluator().evaluate(in, out);
+            }
         }
     }
-
 }
@@ -0,0 +1,246 @@
+package hr.fer.zemris.java.custom.rpn;
+
+/**
+ * Evaluates one {@link RPNProgram} over many rows of variable values at once.
+ * Values are given as columns, one {@code int[]} per variable slot, and every
+ * instruction is applied to a whole chunk of rows before the next instruction
+ * runs. The inner loops are simple array loops which the JIT can unroll and
+ * vectorize.
+ * <p>
+ * Rows which divide by zero do not abort the batch: they are marked in the
+ * error array and get 0 as result. Stack underflow cannot happen because it
+ * is rejected when the program is compiled.
+ * <p>
+ * An evaluator keeps its scratch stack between calls, so it is not safe to
+ * use from multiple threads; every thread should create its own.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class RPNBatchEvaluator {
+
+    /** Number of rows evaluated together, small enough to stay in cache. */
+    public static final int CHUNK_SIZE = 1024;
+
+    /** Evaluated program. */
+    private final RPNProgram program;
+    /** Stack of chunk-sized columns. */
+    private final int[][] stack;
+    /** Rows of the current chunk which divided by zero. */
+    private final boolean[] chunkErrors;
+
+    /**
+     * Constructs an evaluator of the specified program.
+     *
+     * @param program
+     *            Program to be evaluated
+     */
+    public RPNBatchEvaluator(RPNProgram program) {
+        if (program == null) {
+            throw new NullPointerException();
+        }
+
+        this.program = program;
+        this.stack = new int[program.getMaxStackDepth()][CHUNK_SIZE];
+        this.chunkErrors = new boolean[CHUNK_SIZE];
+    }
+
+    /**
+     * Gets the evaluated program.
+     *
+     * @return Evaluated program
+     */
+    public RPNProgram getProgram() {
+        return program;
+    }
+
+    /**
+     * Evaluates the program for every row of the output column.
+     *
+     * @param columns
+     *            Values of the variables, one column per variable slot
+     * @param output
+     *            Column into which results are written
+     * @param errors
+     *            Column in which rows that divide by zero are set to true, or
+     *            null if such rows should only get 0 as result
+     * @return Number of rows which divide by zero
+     */
+    public int evaluate(int[][] columns, int[] output, boolean[] errors) {
+        return evaluate(columns, 0, output.length, output, errors);
+    }
+
+    /**
+     * Evaluates the program for rows from {@code from} inclusive to {@code to}
+     * exclusive. Results are written to the same rows of the output column.
+     *
+     * @param columns
+     *            Values of the variables, one column per variable slot
+     * @param from
+     *            First row, inclusive
+     * @param to
+     *            Last row, exclusive
+     * @param output
+     *            Column into which results are written
+     * @param errors
+     *            Column in which rows that divide by zero are set to true, or
+     *            null if such rows should only get 0 as result
+     * @return Number of rows which divide by zero
+     */
+    public int evaluate(int[][] columns, int from, int to, int[] output, boolean[] errors) {
+        if (columns == null || output == null) {
+            throw new NullPointerException();
+        } else if (columns.length < program.getVariableCount()) {
+            throw new IllegalArgumentException("Expected " + program.getVariableCount() + " columns");
+        } else if (from < 0 || from > to || to > output.length
+                || (errors != null && to > errors.length)) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        for (int slot = 0; slot < program.getVariableCount(); slot++) {
+            if (columns[slot].length < to) {
+                throw new IndexOutOfBoundsException("Column " + slot + " is too short");
+            }
+        }
+
+        int failed = 0;
+        for (int start = from; start < to; start += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, to - start);
+
+            if (evaluateChunk(columns, start, length)) {
+                int[] result = stack[0];
+                for (int i = 0; i < length; i++) {
+                    if (chunkErrors[i]) {
+                        chunkErrors[i] = false;
+                        result[i] = 0;
+                        failed++;
+                        if (errors != null) {
+                            errors[start + i] = true;
+                        }
+                    } else if (errors != null) {
+                        errors[start + i] = false;
+                    }
+                }
+            } else if (errors != null) {
+                for (int i = 0; i < length; i++) {
+                    errors[start + i] = false;
+                }
+            }
+
+            System.arraycopy(stack[0], 0, output, start, length);
+        }
+
+        return failed;
+    }
+
+    /**
+     * Evaluates the program for one chunk of rows. The result is left in the
+     * bottom column of the stack and rows which divide by zero are marked in
+     * {@link #chunkErrors}.
+     *
+     * @param columns
+     *            Values of the variables
+     * @param start
+     *            First row of the chunk
+     * @param length
+     *            Number of rows in the chunk
+     * @return True if any row divides by zero
+     */
+    private boolean evaluateChunk(int[][] columns, int start, int length) {
+        byte[] opcodes = program.opcodes;
+        int[] operands = program.operands;
+        int[][] stack = this.stack;
+        int top = -1;
+        boolean failed = false;
+
+        for (int pc = 0; pc < opcodes.length; pc++) {
+            byte opcode = opcodes[pc];
+
+            if (opcode == RPNProgram.CONST) {
+                int[] result = stack[++top];
+                int value = operands[pc];
+                for (int i = 0; i < length; i++) {
+                    result[i] = value;
+                }
+                continue;
+            } else if (opcode == RPNProgram.LOAD) {
+                System.arraycopy(columns[operands[pc]], start, stack[++top], 0, length);
+                continue;
+            }
+
+            int[] right = stack[top--];
+            int[] left = stack[top];
+
+            switch (opcode) {
+                case RPNProgram.ADD:
+                    for (int i = 0; i < length; i++) {
+                        left[i] += right[i];
+                    }
+                    break;
+                case RPNProgram.SUB:
+                    for (int i = 0; i < length; i++) {
+                        left[i] -= right[i];
+                    }
+                    break;
+                case RPNProgram.MUL:
+                    for (int i = 0; i < length; i++) {
+                        left[i] *= right[i];
+                    }
+                    break;
+                default:
+                    failed |= divide(opcode, left, right, length, chunkErrors);
+                    break;
+            }
+        }
+
+        return failed;
+    }
+
+    /**
+     * Divides or takes the remainder of one chunk. Rows with a zero divisor
+     * get 0 as intermediate result and are marked in the error flags.
+     *
+     * @param opcode
+     *            {@link RPNProgram#DIV} or {@link RPNProgram#MOD}
+     * @param left
+     *            Dividends, overwritten by results
+     * @param right
+     *            Divisors
+     * @param length
+     *            Number of rows in the chunk
+     * @param errors
+     *            Error flags of the rows of the chunk
+     * @return True if any divisor is zero
+     */
+    private static boolean divide(byte opcode, int[] left, int[] right, int length,
+            boolean[] errors) {
+        boolean hasZero = false;
+        for (int i = 0; i < length; i++) {
+            hasZero |= right[i] == 0;
+        }
+
+        if (!hasZero) {
+            if (opcode == RPNProgram.DIV) {
+                for (int i = 0; i < length; i++) {
+                    left[i] /= right[i];
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    left[i] %= right[i];
+                }
+            }
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (right[i] == 0) {
+                left[i] = 0;
+                errors[i] = true;
+            } else {
+                left[i] = RPNProgram.apply(opcode, left[i], right[i]);
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,335 @@
+package hr.fer.zemris.java.custom.rpn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Evaluates newline-separated postfix expressions like
+ * {@link RPNStreamEvaluator} but splits the input into chunks of whole lines
+ * and evaluates the chunks on a pool of worker threads. Every worker thread
+ * has its own {@link RPNStreamEvaluator}, so buffers and stacks are reused.
+ * Results are written in input order.
+ * <p>
+ * The calling thread reads the input and writes the output. At most two
+ * chunks per worker are in flight, which bounds memory use regardless of the
+ * input size. The arrays of a chunk are recycled once its results are
+ * written, and a line which crosses a chunk boundary is copied straight into
+ * the next chunk.
+ * <p>
+ * The pool lives as long as the evaluator, so repeated calls reuse its
+ * threads and their evaluators. The pool created by the evaluator is a
+ * {@link ForkJoinPool}, whose threads are daemon threads that end when they
+ * are idle, so it needs no shutdown. A pool supplied by the caller is never
+ * shut down by the evaluator. Calls of {@link #evaluate} may run
+ * concurrently, every call has its own chunks.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class RPNParallelEvaluator {
+
+    /** Default size of a chunk in bytes. */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    /** Pool which evaluates the chunks. */
+    private final ExecutorService pool;
+    /** Number of worker threads. */
+    private final int workers;
+    /** Size of a chunk in bytes. */
+    private final int chunkSize;
+    /** Evaluator of the current worker thread. */
+    private final ThreadLocal<RPNStreamEvaluator> evaluators = new ThreadLocal<RPNStreamEvaluator>() {
+        @Override
+        protected RPNStreamEvaluator initialValue() {
+            return new RPNStreamEvaluator();
+        }
+    };
+
+    /**
+     * Constructs an evaluator with the specified number of workers and chunk
+     * size.
+     *
+     * @param workers
+     *            Number of worker threads
+     * @param chunkSize
+     *            Size of a chunk in bytes, chunks grow to fit longer lines
+     */
+    public RPNParallelEvaluator(int workers, int chunkSize) {
+        this(new ForkJoinPool(checkWorkers(workers)), workers, chunkSize);
+    }
+
+    /**
+     * Constructs an evaluator which evaluates chunks on a pool supplied by the
+     * caller. The pool is not shut down by the evaluator.
+     *
+     * @param pool
+     *            Pool which evaluates the chunks
+     * @param workers
+     *            Number of threads of the pool to keep busy
+     * @param chunkSize
+     *            Size of a chunk in bytes, chunks grow to fit longer lines
+     */
+    public RPNParallelEvaluator(ExecutorService pool, int workers, int chunkSize) {
+        if (pool == null) {
+            throw new NullPointerException();
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        this.pool = pool;
+        this.workers = checkWorkers(workers);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Constructs an evaluator with one worker per available processor and
+     * chunks of {@value #DEFAULT_CHUNK_SIZE} bytes.
+     */
+    public RPNParallelEvaluator() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Gets the number of worker threads.
+     *
+     * @return Number of worker threads
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Gets the size of a chunk in bytes.
+     *
+     * @return Size of a chunk
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Evaluates every line of the input and writes results to the output in
+     * input order. The channels are not closed.
+     *
+     * @param in
+     *            Channel from which expressions are read
+     * @param out
+     *            Channel to which results are written
+     * @return Number of evaluated lines
+     * @throws IOException
+     *             If reading or writing fails
+     */
+    public long evaluate(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        if (in == null || out == null) {
+            throw new NullPointerException();
+        }
+
+        ArrayDeque<Future<Chunk>> pending = new ArrayDeque<>();
+        ArrayDeque<Chunk> free = new ArrayDeque<>();
+        long lines = 0;
+
+        try {
+            // the carried line is the tail of the previous chunk
+            Chunk previous = null;
+            int carryStart = 0;
+            int carryLength = 0;
+
+            while (true) {
+                Chunk chunk = free.isEmpty() ? new Chunk(chunkSize) : free.pop();
+                if (chunk.input.length < carryLength * 2) {
+                    chunk.input = new byte[carryLength * 2];
+                }
+                byte[] bytes = chunk.input;
+                if (previous != null) {
+                    System.arraycopy(previous.input, carryStart, bytes, 0, carryLength);
+                }
+
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, carryLength, bytes.length - carryLength);
+                boolean eof = false;
+                while (buffer.hasRemaining()) {
+                    if (in.read(buffer) == -1) {
+                        eof = true;
+                        break;
+                    }
+                }
+
+                int length = buffer.position();
+                int end = length;
+                if (!eof) {
+                    while (end > 0 && bytes[end - 1] != '\n') {
+                        end--;
+                    }
+                }
+
+                if (previous != null && previous.length == 0) {
+                    // a chunk without a whole line was never submitted
+                    free.push(previous);
+                }
+                chunk.length = end;
+                if (end > 0) {
+                    pending.add(pool.submit(chunk));
+                }
+                previous = chunk;
+                carryStart = end;
+                carryLength = length - end;
+
+                // at least two chunks are in flight before one is written, so the
+                // newest one keeps its carried tail until the next chunk copies it
+                while (pending.size() >= workers * 2 || (eof && !pending.isEmpty())) {
+                    Chunk written = write(pending.poll(), out);
+                    lines += written.lines;
+                    free.push(written);
+                }
+
+                if (eof) {
+                    break;
+                }
+            }
+        } finally {
+            for (Future<Chunk> future : pending) {
+                future.cancel(true);
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Checks the number of worker threads.
+     *
+     * @param workers
+     *            Number of worker threads
+     * @return The same number
+     * @throws IllegalArgumentException
+     *             If the number is not positive
+     */
+    private static int checkWorkers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException();
+        }
+        return workers;
+    }
+
+    /**
+     * Waits for the results of a chunk and writes them.
+     *
+     * @param future
+     *            Evaluated chunk
+     * @param out
+     *            Channel to which results are written
+     * @return Written chunk, whose arrays may be reused
+     * @throws IOException
+     *             If evaluation or writing fails
+     */
+    private static Chunk write(Future<Chunk> future, WritableByteChannel out) throws IOException {
+        Chunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a chunk", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Evaluation of a chunk failed", e.getCause());
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(chunk.output.array, 0, chunk.output.length);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Chunk of whole lines and its results, which is reused for later chunks
+     * once the results are written.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private class Chunk implements Callable<Chunk> {
+        /** Array with the lines, it grows to fit longer lines. */
+        byte[] input;
+        /** Number of bytes of the lines. */
+        int length;
+        /** Results of the lines. */
+        final ArrayOutputChannel output;
+        /** Number of evaluated lines. */
+        long lines;
+
+        /**
+         * Constructs a chunk of the specified size.
+         *
+         * @param size
+         *            Size of the chunk in bytes
+         */
+        Chunk(int size) {
+            this.input = new byte[size];
+            // results are much shorter than expressions, so this rarely grows
+            this.output = new ArrayOutputChannel(size / 2 + 64);
+        }
+
+        @Override
+        public Chunk call() throws IOException {
+            output.length = 0;
+            lines = evaluators.get().evaluate(ByteBuffer.wrap(input, 0, length), output);
+            return this;
+        }
+    }
+
+    /**
+     * Channel which collects written bytes in a growing array.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static class ArrayOutputChannel implements WritableByteChannel {
+        /** Collected bytes. */
+        byte[] array;
+        /** Number of collected bytes. */
+        int length;
+
+        /**
+         * Constructs a channel with the specified initial capacity.
+         *
+         * @param capacity
+         *            Initial capacity
+         */
+        ArrayOutputChannel(int capacity) {
+            this.array = new byte[capacity];
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int count = src.remaining();
+            if (length + count > array.length) {
+                byte[] larger = new byte[Math.max(array.length * 2, length + count)];
+                System.arraycopy(array, 0, larger, 0, length);
+                array = larger;
+            }
+
+            src.get(array, length, count);
+            length += count;
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+}
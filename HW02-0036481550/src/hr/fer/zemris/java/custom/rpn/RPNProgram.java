@@ -0,0 +1,491 @@
+package hr.fer.zemris.java.custom.rpn;
+
+import java.text.ParseException;
+
+import hr.fer.zemris.java.custom.collections.ArrayIndexedCollection;
+import hr.fer.zemris.java.custom.collections.IntArrayIndexedCollection;
+
+/**
+ * Compiled postfix (reverse Polish notation) integer expression. An expression
+ * such as {@code "x 8 2 / +"} is tokenized and validated once by
+ * {@link #compile(String)} and can then be evaluated any number of times with
+ * different values of its variables. The program is immutable, so one
+ * instance can be shared between threads as long as every thread uses its own
+ * stack.
+ * <p>
+ * Tokens are separated by whitespace and can be integers (for example
+ * {@code -12}), variables (a letter or underscore followed by letters, digits
+ * or underscores) and the operators {@code + - * / %}. Variables get slots in
+ * the order of their first appearance. Subexpressions made only of constants
+ * are folded during compilation.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public final class RPNProgram {
+
+    /** Pushes the operand constant. */
+    static final byte CONST = 0;
+    /** Pushes the variable from the slot given by the operand. */
+    static final byte LOAD = 1;
+    /** Adds two topmost values. */
+    static final byte ADD = 2;
+    /** Subtracts the topmost value from the one below it. */
+    static final byte SUB = 3;
+    /** Multiplies two topmost values. */
+    static final byte MUL = 4;
+    /** Divides the value below the top with the topmost value. */
+    static final byte DIV = 5;
+    /** Remainder of division of the value below the top with the topmost one. */
+    static final byte MOD = 6;
+
+    /** Returned by {@link #parseLiteral} for a token which is not an integer. */
+    static final long NOT_A_NUMBER = Long.MAX_VALUE;
+    /** Returned by {@link #parseLiteral} for an integer out of the {@code int} range. */
+    static final long OUT_OF_RANGE = Long.MIN_VALUE;
+
+    /** Source expression. */
+    private final String expression;
+    /** Opcodes of the instructions. */
+    final byte[] opcodes;
+    /** Operands of the instructions, constant or variable slot. */
+    final int[] operands;
+    /** Names of the variables in order of their slots. */
+    private final String[] variables;
+    /** Largest number of values on the stack during evaluation. */
+    final int maxStackDepth;
+
+    /**
+     * Constructs a program from already validated instructions.
+     *
+     * @param expression
+     *            Source expression
+     * @param opcodes
+     *            Opcodes of the instructions
+     * @param operands
+     *            Operands of the instructions
+     * @param variables
+     *            Names of the variables in order of their slots
+     */
+    private RPNProgram(String expression, byte[] opcodes, int[] operands, String[] variables) {
+        this.expression = expression;
+        this.opcodes = opcodes;
+        this.operands = operands;
+        this.variables = variables;
+
+        int depth = 0;
+        int maxDepth = 0;
+        for (byte opcode : opcodes) {
+            depth += opcode <= LOAD ? 1 : -1;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+        this.maxStackDepth = maxDepth;
+    }
+
+    /**
+     * Compiles the specified postfix expression.
+     *
+     * @param expression
+     *            Postfix expression
+     * @return Compiled program
+     * @throws ParseException
+     *             If the expression contains an unknown token, an operator
+     *             without enough operands, a constant out of the {@code int}
+     *             range or does not leave exactly one value. The error offset
+     *             points to the offending token.
+     */
+    public static RPNProgram compile(String expression) throws ParseException {
+        if (expression == null) {
+            throw new NullPointerException();
+        }
+
+        IntArrayIndexedCollection opcodes = new IntArrayIndexedCollection();
+        IntArrayIndexedCollection operands = new IntArrayIndexedCollection();
+        ArrayIndexedCollection variables = new ArrayIndexedCollection();
+        int depth = 0;
+
+        int length = expression.length();
+        for (int start = 0; start < length;) {
+            if (Character.isWhitespace(expression.charAt(start))) {
+                start++;
+                continue;
+            }
+
+            int end = start;
+            while (end < length && !Character.isWhitespace(expression.charAt(end))) {
+                end++;
+            }
+
+            byte operator = operator(expression, start, end);
+            long value = parseLiteral(expression, start, end);
+            if (operator >= 0) {
+                if (depth < 2) {
+                    throw new ParseException("Not enough operands for operator "
+                            + expression.charAt(start), start);
+                }
+                emitOperator(opcodes, operands, operator);
+                depth--;
+            } else if (value != NOT_A_NUMBER) {
+                if (value == OUT_OF_RANGE) {
+                    throw new ParseException("Integer out of range", start);
+                }
+                opcodes.add(CONST);
+                operands.add((int) value);
+                depth++;
+            } else if (isIdentifier(expression, start, end)) {
+                String name = expression.substring(start, end);
+                int slot = variables.indexOf(name);
+                if (slot == -1) {
+                    slot = variables.size();
+                    variables.add(name);
+                }
+                opcodes.add(LOAD);
+                operands.add(slot);
+                depth++;
+            } else {
+                throw new ParseException("Unknown token " + expression.substring(start, end), start);
+            }
+
+            start = end;
+        }
+
+        if (depth != 1) {
+            throw new ParseException("Expression must leave exactly one value but leaves " + depth,
+                    length);
+        }
+
+        int[] codes = opcodes.toArray();
+        byte[] bytes = new byte[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            bytes[i] = (byte) codes[i];
+        }
+
+        String[] names = new String[variables.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = (String) variables.get(i);
+        }
+
+        return new RPNProgram(expression, bytes, operands.toArray(), names);
+    }
+
+    /**
+     * Gets the source expression of this program.
+     *
+     * @return Source expression
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Gets the number of variables of this program.
+     *
+     * @return Number of variables
+     */
+    public int getVariableCount() {
+        return variables.length;
+    }
+
+    /**
+     * Gets the name of the variable in the specified slot.
+     *
+     * @param slot
+     *            Slot of the variable
+     * @return Name of the variable
+     */
+    public String getVariableName(int slot) {
+        if (slot < 0 || slot >= variables.length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return variables[slot];
+    }
+
+    /**
+     * Gets the slot of the variable with the specified name.
+     *
+     * @param name
+     *            Name of the variable
+     * @return Slot of the variable or -1 if the program has no such variable
+     */
+    public int getVariableSlot(String name) {
+        if (name == null) {
+            throw new NullPointerException();
+        }
+
+        for (int i = 0; i < variables.length; i++) {
+            if (variables[i].equals(name)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Gets the largest number of values on the stack during evaluation, which
+     * is the smallest length of a stack passed to
+     * {@link #evaluate(int[], int[])}.
+     *
+     * @return Largest stack depth
+     */
+    public int getMaxStackDepth() {
+        return maxStackDepth;
+    }
+
+    /**
+     * Evaluates this program with the specified variable values. Allocates a
+     * new stack, so hot loops should use {@link #evaluate(int[], int[])}.
+     *
+     * @param variables
+     *            Values of the variables, indexed by slot
+     * @return Value of the expression
+     * @throws ArithmeticException
+     *             If the expression divides by zero
+     */
+    public int evaluate(int... variables) {
+        return evaluate(variables, new int[maxStackDepth]);
+    }
+
+    /**
+     * Evaluates this program with the specified variable values on the
+     * specified stack. Nothing is allocated, so the stack can be reused for
+     * any number of evaluations.
+     *
+     * @param variables
+     *            Values of the variables, indexed by slot
+     * @param stack
+     *            Stack whose length is at least {@link #getMaxStackDepth()}
+     * @return Value of the expression
+     * @throws ArithmeticException
+     *             If the expression divides by zero
+     */
+    public int evaluate(int[] variables, int[] stack) {
+        if (variables.length < this.variables.length || stack.length < maxStackDepth) {
+            throw new IllegalArgumentException();
+        }
+
+        byte[] opcodes = this.opcodes;
+        int[] operands = this.operands;
+        int top = -1;
+
+        for (int pc = 0; pc < opcodes.length; pc++) {
+            switch (opcodes[pc]) {
+                case CONST:
+                    stack[++top] = operands[pc];
+                    break;
+                case LOAD:
+                    stack[++top] = variables[operands[pc]];
+                    break;
+                case ADD:
+                    top--;
+                    stack[top] += stack[top + 1];
+                    break;
+                case SUB:
+                    top--;
+                    stack[top] -= stack[top + 1];
+                    break;
+                case MUL:
+                    top--;
+                    stack[top] *= stack[top + 1];
+                    break;
+                case DIV:
+                    top--;
+                    stack[top] /= stack[top + 1];
+                    break;
+                default:
+                    top--;
+                    stack[top] %= stack[top + 1];
+                    break;
+            }
+        }
+
+        return stack[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * Applies the operator to two operands.
+     *
+     * @param operator
+     *            Opcode of the operator
+     * @param left
+     *            Left operand
+     * @param right
+     *            Right operand
+     * @return Result of the operation
+     */
+    static int apply(byte operator, int left, int right) {
+        switch (operator) {
+            case ADD:
+                return left + right;
+            case SUB:
+                return left - right;
+            case MUL:
+                return left * right;
+            case DIV:
+                return left / right;
+            case MOD:
+                return left % right;
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Checks if the operator divides by its right operand and the operand is
+     * zero, so that {@link #apply(byte, int, int)} would throw.
+     *
+     * @param operator
+     *            Opcode of the operator
+     * @param right
+     *            Right operand
+     * @return True if the operation divides by zero
+     */
+    static boolean dividesByZero(byte operator, int right) {
+        return right == 0 && (operator == DIV || operator == MOD);
+    }
+
+    /**
+     * Emits the operator, folding it into a single constant if both of its
+     * operands are constants. Division by a zero constant is left to fail at
+     * evaluation time.
+     *
+     * @param opcodes
+     *            Emitted opcodes
+     * @param operands
+     *            Emitted operands
+     * @param operator
+     *            Opcode of the operator
+     */
+    private static void emitOperator(IntArrayIndexedCollection opcodes,
+            IntArrayIndexedCollection operands, byte operator) {
+        int size = opcodes.size();
+
+        if (size >= 2 && opcodes.get(size - 1) == CONST && opcodes.get(size - 2) == CONST) {
+            int right = operands.get(size - 1);
+            int left = operands.get(size - 2);
+
+            if (!dividesByZero(operator, right)) {
+                opcodes.remove(size - 1);
+                operands.remove(size - 1);
+                operands.set(apply(operator, left, right), size - 2);
+                return;
+            }
+        }
+
+        opcodes.add(operator);
+        operands.add(0);
+    }
+
+    /**
+     * Gets the opcode of the operator token.
+     *
+     * @param s
+     *            Expression
+     * @param start
+     *            Start of the token, inclusive
+     * @param end
+     *            End of the token, exclusive
+     * @return Opcode or -1 if the token is not an operator
+     */
+    static byte operator(CharSequence s, int start, int end) {
+        if (end - start != 1) {
+            return -1;
+        }
+
+        switch (s.charAt(start)) {
+            case '+':
+                return ADD;
+            case '-':
+                return SUB;
+            case '*':
+                return MUL;
+            case '/':
+                return DIV;
+            case '%':
+                return MOD;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Checks if the token is a variable name.
+     *
+     * @param s
+     *            Expression
+     * @param start
+     *            Start of the token, inclusive
+     * @param end
+     *            End of the token, exclusive
+     * @return True if the token is a variable name and false otherwise
+     */
+    private static boolean isIdentifier(CharSequence s, int start, int end) {
+        char first = s.charAt(start);
+        if (!Character.isLetter(first) && first != '_') {
+            return false;
+        }
+
+        for (int i = start + 1; i < end; i++) {
+            char c = s.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Parses the token as an integer with an optional minus sign. Instead of
+     * throwing, a token which is not an integer is reported as
+     * {@link #NOT_A_NUMBER} and a value out of the {@code int} range as
+     * {@link #OUT_OF_RANGE}, so {@link RPNStreamEvaluator} can use it without
+     * exceptions per line.
+     *
+     * @param s
+     *            Expression
+     * @param start
+     *            Start of the token, inclusive
+     * @param end
+     *            End of the token, exclusive
+     * @return Value of the token, {@link #NOT_A_NUMBER} or
+     *         {@link #OUT_OF_RANGE}
+     */
+    static long parseLiteral(CharSequence s, int start, int end) {
+        boolean negative = s.charAt(start) == '-';
+        int first = negative ? start + 1 : start;
+        if (first == end) {
+            return NOT_A_NUMBER;
+        }
+
+        long value = 0;
+        boolean overflow = false;
+        for (int i = first; i < end; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_A_NUMBER;
+            }
+            // digits are still checked after an overflow, they decide between the errors
+            if (!overflow) {
+                value = value * 10 + digit;
+                overflow = value > Integer.MAX_VALUE + 1L;
+            }
+        }
+
+        if (overflow) {
+            return OUT_OF_RANGE;
+        } else if (negative) {
+            return -value;
+        }
+        return value > Integer.MAX_VALUE ? OUT_OF_RANGE : value;
+    }
+}
@@ -0,0 +1,458 @@
+package hr.fer.zemris.java.custom.rpn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import hr.fer.zemris.java.custom.collections.IntStack;
+
+/**
+ * Evaluates newline-separated postfix integer expressions read from a channel
+ * and writes one line per expression to another channel. Expressions are
+ * tokenized directly in the input buffer, so no {@code String} is created for
+ * lines or tokens, and results are formatted directly into the output buffer.
+ * Tokens are recognized, parsed and applied by the same helpers
+ * {@link RPNProgram} compiles with, seen through a {@link CharSequence} view
+ * of the buffer.
+ * <p>
+ * Every input line produces either the value of its expression or a line
+ * starting with {@code error:} which describes why the expression could not
+ * be evaluated. Tokens are integers and the operators {@code + - * / %},
+ * separated by spaces, tabs or carriage returns.
+ * <p>
+ * An evaluator reuses its buffers and stack, so it is not safe to use from
+ * multiple threads; every thread should create its own.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class RPNStreamEvaluator {
+
+    /** Default size of the input and output buffers. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** Message of an empty line. */
+    private static final byte[] EMPTY = message("empty expression");
+    /** Message of a token which is neither an integer nor an operator. */
+    private static final byte[] UNKNOWN_TOKEN = message("unknown token");
+    /** Message of an integer out of the {@code int} range. */
+    private static final byte[] OUT_OF_RANGE = message("integer out of range");
+    /** Message of an operator without enough operands. */
+    private static final byte[] UNDERFLOW = message("not enough operands");
+    /** Message of an expression which leaves more than one value. */
+    private static final byte[] LEFTOVER = message("too many operands");
+    /** Message of a division by zero. */
+    private static final byte[] DIVISION_BY_ZERO = message("division by zero");
+
+    /** Input buffer backed by an array, lines are tokenized in place. */
+    private ByteBuffer input;
+    /** View of the input buffer passed to the helpers of {@link RPNProgram}. */
+    private final AsciiSequence view = new AsciiSequence();
+    /** Output buffer. */
+    private final ByteBuffer output;
+    /** Stack reused for every expression. */
+    private final IntStack stack = new IntStack();
+    /** Digits of the last formatted number, written backwards. */
+    private final byte[] digits = new byte[11];
+
+    /**
+     * Constructs an evaluator with buffers of the specified size. Lines longer
+     * than the buffer are supported, the input buffer grows to fit them.
+     *
+     * @param bufferSize
+     *            Size of the input and output buffers
+     */
+    public RPNStreamEvaluator(int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException();
+        }
+
+        this.input = ByteBuffer.allocate(bufferSize);
+        this.output = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Constructs an evaluator with buffers of {@value #DEFAULT_BUFFER_SIZE}
+     * bytes.
+     */
+    public RPNStreamEvaluator() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Evaluates every line of the input and writes results to the output. The
+     * channels are not closed.
+     *
+     * @param in
+     *            Channel from which expressions are read
+     * @param out
+     *            Channel to which results are written
+     * @return Number of evaluated lines
+     * @throws IOException
+     *             If reading or writing fails
+     */
+    public long evaluate(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        if (in == null || out == null) {
+            throw new NullPointerException();
+        }
+
+        long lines = 0;
+        input.clear();
+        output.clear();
+
+        while (true) {
+            int read = in.read(input);
+
+            if (read == -1) {
+                if (input.position() > 0) {
+                    // the last line has no newline, so one is appended
+                    if (!input.hasRemaining()) {
+                        grow();
+                    }
+                    input.put((byte) '\n');
+                    lines += evaluateLines(input.array(), 0, input.position(), out);
+                }
+                break;
+            }
+
+            int end = input.position();
+            byte[] bytes = input.array();
+            while (end > 0 && bytes[end - 1] != '\n') {
+                end--;
+            }
+
+            if (end > 0) {
+                lines += evaluateLines(bytes, 0, end, out);
+                input.flip();
+                input.position(end);
+                input.compact();
+            } else if (!input.hasRemaining()) {
+                // the line does not fit, so the buffer has to grow
+                grow();
+            }
+        }
+
+        flush(out);
+        return lines;
+    }
+
+    /**
+     * Evaluates every line between the position and the limit of the buffer
+     * and writes results to the output. Lines of a buffer backed by an
+     * accessible array are tokenized in that array, without copying them into
+     * the input buffer. The position of the buffer is moved to its limit and
+     * the channel is not closed.
+     *
+     * @param in
+     *            Buffer from which expressions are read
+     * @param out
+     *            Channel to which results are written
+     * @return Number of evaluated lines
+     * @throws IOException
+     *             If writing fails
+     */
+    public long evaluate(ByteBuffer in, WritableByteChannel out) throws IOException {
+        if (in == null || out == null) {
+            throw new NullPointerException();
+        }
+        if (!in.hasArray()) {
+            // direct and read-only buffers are read through the input buffer
+            return evaluate(new BufferChannel(in), out);
+        }
+
+        byte[] bytes = in.array();
+        int start = in.arrayOffset() + in.position();
+        int limit = in.arrayOffset() + in.limit();
+        int end = limit;
+        while (end > start && bytes[end - 1] != '\n') {
+            end--;
+        }
+
+        output.clear();
+        long lines = evaluateLines(bytes, start, end, out);
+
+        if (end < limit) {
+            // the last line has no newline, so it is copied to append one
+            input.clear();
+            while (input.capacity() <= limit - end) {
+                grow();
+            }
+            input.put(bytes, end, limit - end).put((byte) '\n');
+            lines += evaluateLines(input.array(), 0, input.position(), out);
+        }
+        in.position(in.limit());
+
+        flush(out);
+        return lines;
+    }
+
+    /**
+     * Doubles the capacity of the input buffer, keeping its content.
+     */
+    private void grow() {
+        ByteBuffer larger = ByteBuffer.allocate(input.capacity() * 2);
+        input.flip();
+        larger.put(input);
+        input = larger;
+    }
+
+    /**
+     * Evaluates complete lines of an array in a single pass.
+     *
+     * @param bytes
+     *            Array with the lines
+     * @param start
+     *            Start of the first line
+     * @param end
+     *            End of the last complete line, which ends with a newline
+     * @param out
+     *            Channel to which results are written
+     * @return Number of evaluated lines
+     * @throws IOException
+     *             If writing fails
+     */
+    private int evaluateLines(byte[] bytes, int start, int end, WritableByteChannel out)
+            throws IOException {
+        view.bytes = bytes;
+        int lines = 0;
+
+        for (int i = start; i < end; lines++) {
+            if (output.remaining() < 64) {
+                flush(out);
+            }
+            i = evaluateLine(bytes, i);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Evaluates a single line and writes its result. The line must end with a
+     * newline.
+     *
+     * @param bytes
+     *            Content of the input buffer
+     * @param start
+     *            Start of the line
+     * @return Start of the next line
+     */
+    private int evaluateLine(byte[] bytes, int start) {
+        IntStack stack = this.stack;
+        stack.clear();
+
+        int i = start;
+        while (true) {
+            byte b = bytes[i];
+
+            if (b == '\n') {
+                if (stack.isEmpty()) {
+                    writeError(EMPTY);
+                } else if (stack.size() != 1) {
+                    writeError(LEFTOVER);
+                } else {
+                    writeInt(stack.pop());
+                }
+                return i + 1;
+            } else if (isSeparator(b)) {
+                i++;
+                continue;
+            }
+
+            int end = i + 1;
+            while (bytes[end] != '\n' && !isSeparator(bytes[end])) {
+                end++;
+            }
+
+            byte[] error = null;
+            byte operator = RPNProgram.operator(view, i, end);
+
+            if (operator >= 0) {
+                if (stack.size() < 2) {
+                    error = UNDERFLOW;
+                } else {
+                    int right = stack.pop();
+                    int left = stack.pop();
+
+                    if (RPNProgram.dividesByZero(operator, right)) {
+                        error = DIVISION_BY_ZERO;
+                    } else {
+                        stack.push(RPNProgram.apply(operator, left, right));
+                    }
+                }
+            } else {
+                long value = RPNProgram.parseLiteral(view, i, end);
+
+                if (value == RPNProgram.NOT_A_NUMBER) {
+                    error = UNKNOWN_TOKEN;
+                } else if (value == RPNProgram.OUT_OF_RANGE) {
+                    error = OUT_OF_RANGE;
+                } else {
+                    stack.push((int) value);
+                }
+            }
+
+            if (error != null) {
+                writeError(error);
+                while (bytes[end] != '\n') {
+                    end++;
+                }
+                return end + 1;
+            }
+            i = end;
+        }
+    }
+
+    /**
+     * Writes the number followed by a newline to the output buffer.
+     *
+     * @param value
+     *            Number to be written
+     */
+    private void writeInt(int value) {
+        long remaining = value;
+        if (remaining < 0) {
+            output.put((byte) '-');
+            remaining = -remaining;
+        }
+
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+
+        while (count > 0) {
+            output.put(digits[--count]);
+        }
+        output.put((byte) '\n');
+    }
+
+    /**
+     * Writes the error line to the output buffer.
+     *
+     * @param message
+     *            Encoded error line
+     */
+    private void writeError(byte[] message) {
+        output.put(message);
+    }
+
+    /**
+     * Writes the content of the output buffer to the channel.
+     *
+     * @param out
+     *            Channel to which results are written
+     * @throws IOException
+     *             If writing fails
+     */
+    private void flush(WritableByteChannel out) throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            out.write(output);
+        }
+        output.clear();
+    }
+
+    /**
+     * Checks if the byte separates tokens.
+     *
+     * @param b
+     *            Byte to be checked
+     * @return True if the byte separates tokens
+     */
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Encodes the error message as an output line.
+     *
+     * @param text
+     *            Text of the message
+     * @return Encoded line
+     */
+    private static byte[] message(String text) {
+        return ("error: " + text + "\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Channel which reads the remaining bytes of a buffer.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static final class BufferChannel implements ReadableByteChannel {
+
+        /** Buffer whose remaining bytes are read. */
+        private final ByteBuffer source;
+
+        /**
+         * Constructs a channel reading the specified buffer.
+         *
+         * @param source
+         *            Buffer whose remaining bytes are read
+         */
+        BufferChannel(ByteBuffer source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (!source.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(source.remaining(), dst.remaining());
+            ByteBuffer slice = source.duplicate();
+            slice.limit(slice.position() + count);
+            dst.put(slice);
+            source.position(source.position() + count);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+
+    /**
+     * {@link CharSequence} view of bytes, one character per byte. It lets the
+     * token helpers of {@link RPNProgram} read the input buffer in place.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static final class AsciiSequence implements CharSequence {
+
+        /** Viewed bytes. */
+        private byte[] bytes = new byte[0];
+
+        @Override
+        public int length() {
+            return bytes.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
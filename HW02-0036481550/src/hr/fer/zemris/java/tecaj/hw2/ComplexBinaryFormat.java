@@ -0,0 +1,451 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.Arrays;
+
+/**
+ * Compact binary file format for arrays of complex numbers. A file starts
+ * with a 16-byte header followed by the parts as little-endian doubles:
+ *
+ * <pre>
+ * offset  size  content
+ *      0     4  magic bytes "CPLX"
+ *      4     2  version, currently 1
+ *      6     1  layout, 0 for interleaved and 1 for split
+ *      7     1  reserved, 0
+ *      8     8  number of elements
+ *     16        parts
+ * </pre>
+ *
+ * Interleaved files store {@code re0 im0 re1 im1 ...}, split files store all
+ * real parts followed by all imaginary parts. Files are written and read
+ * through {@link FileChannel}, and {@link #map(Path)} exposes a file as a
+ * read-only view without copying.
+ * <p>
+ * Text files hold one literal per line, for example {@code 1.5-2.0E-20i},
+ * and are converted with {@link #toText(Path, Path)} and
+ * {@link #fromText(Path, Path, Layout)}. Every double, including NaN and the
+ * infinities, is written so that it is read back exactly.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public final class ComplexBinaryFormat {
+
+    /** Size of the header in bytes. */
+    public static final int HEADER_SIZE = 16;
+
+    /** Magic bytes "CPLX" read as a little-endian int. */
+    private static final int MAGIC = 'C' | 'P' << 8 | 'L' << 16 | 'X' << 24;
+    /** Current version of the format. */
+    private static final short VERSION = 1;
+    /** Number of doubles copied at once. */
+    private static final int CHUNK = 8192;
+
+    /**
+     * Order of the parts in a file.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    public enum Layout {
+        /** Real and imaginary part of every element next to each other. */
+        INTERLEAVED,
+        /** All real parts followed by all imaginary parts. */
+        SPLIT
+    }
+
+    /**
+     * Prevents creating instances, all methods are static.
+     */
+    private ComplexBinaryFormat() {
+    }
+
+    /**
+     * Writes the parts to a file, replacing its content.
+     *
+     * @param path
+     *            Path of the file
+     * @param real
+     *            Real parts
+     * @param imaginary
+     *            Imaginary parts
+     * @param layout
+     *            Order of the parts in the file
+     * @throws IOException
+     *             If writing fails
+     */
+    public static void write(Path path, double[] real, double[] imaginary, Layout layout)
+            throws IOException {
+        if (path == null || real == null || imaginary == null || layout == null) {
+            throw new NullPointerException();
+        } else if (real.length != imaginary.length) {
+            throw new IllegalArgumentException("Arrays have different lengths");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK * 8).order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(MAGIC).putShort(VERSION).put((byte) layout.ordinal()).put((byte) 0)
+                    .putLong(real.length);
+            buffer.flip();
+            writeFully(channel, buffer);
+
+            if (layout == Layout.INTERLEAVED) {
+                for (int from = 0; from < real.length; from += CHUNK / 2) {
+                    int to = Math.min(real.length, from + CHUNK / 2);
+                    buffer.clear();
+                    DoubleBuffer doubles = buffer.asDoubleBuffer();
+                    for (int i = from; i < to; i++) {
+                        doubles.put(real[i]).put(imaginary[i]);
+                    }
+                    buffer.limit(doubles.position() * 8);
+                    writeFully(channel, buffer);
+                }
+            } else {
+                writeDoubles(channel, buffer, real);
+                writeDoubles(channel, buffer, imaginary);
+            }
+        }
+    }
+
+    /**
+     * Writes the elements of the vector to a file, replacing its content.
+     *
+     * @param path
+     *            Path of the file
+     * @param vector
+     *            Vector to be written
+     * @param layout
+     *            Order of the parts in the file
+     * @throws IOException
+     *             If writing fails
+     */
+    public static void write(Path path, ComplexVector vector, Layout layout) throws IOException {
+        write(path, vector.getRealParts(), vector.getImaginaryParts(), layout);
+    }
+
+    /**
+     * Reads a file into a new vector.
+     *
+     * @param path
+     *            Path of the file
+     * @return Vector with the elements of the file
+     * @throws IOException
+     *             If reading fails or the file is not in this format
+     */
+    public static ComplexVector read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK * 8).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(HEADER_SIZE);
+            readFully(channel, buffer);
+            buffer.flip();
+
+            Layout layout = readHeader(buffer, channel.size());
+            ComplexVector vector = new ComplexVector((int) buffer.getLong(8));
+            double[] real = vector.getRealParts();
+            double[] imaginary = vector.getImaginaryParts();
+
+            if (layout == Layout.INTERLEAVED) {
+                for (int from = 0; from < real.length; from += CHUNK / 2) {
+                    int to = Math.min(real.length, from + CHUNK / 2);
+                    buffer.clear();
+                    buffer.limit((to - from) * 16);
+                    readFully(channel, buffer);
+                    buffer.flip();
+                    DoubleBuffer doubles = buffer.asDoubleBuffer();
+                    for (int i = from; i < to; i++) {
+                        real[i] = doubles.get();
+                        imaginary[i] = doubles.get();
+                    }
+                }
+            } else {
+                readDoubles(channel, buffer, real);
+                readDoubles(channel, buffer, imaginary);
+            }
+
+            return vector;
+        }
+    }
+
+    /**
+     * Maps a file into memory as a read-only view. Elements are read from the
+     * mapping when accessed, nothing is copied.
+     *
+     * @param path
+     *            Path of the file
+     * @return View of the elements of the file
+     * @throws IOException
+     *             If mapping fails, the file is not in this format or a part
+     *             of it exceeds the 2 GB limit of a mapping
+     */
+    public static MappedComplexArray map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header);
+            header.flip();
+
+            Layout layout = readHeader(header, channel.size());
+            long count = header.getLong(8);
+            long size = layout == Layout.INTERLEAVED ? count * 16 : count * 8;
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to be mapped");
+            }
+
+            // the mapping stays valid after the channel is closed
+            DoubleBuffer first = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, size)
+                    .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            DoubleBuffer second = layout == Layout.INTERLEAVED ? null
+                    : channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + size, size)
+                            .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+
+            return new MappedComplexArray((int) count, first, second);
+        }
+    }
+
+    /**
+     * Converts a binary file into a text file with one literal per line. Both
+     * parts are always written, each as by {@link Double#toString(double)},
+     * so {@link #fromText(Path, Path, Layout)} restores every part exactly,
+     * apart from the payload of NaN.
+     *
+     * @param binary
+     *            Path of the binary file
+     * @param text
+     *            Path of the text file, its content is replaced
+     * @throws IOException
+     *             If reading or writing fails
+     */
+    public static void toText(Path binary, Path text) throws IOException {
+        MappedComplexArray array = map(binary);
+
+        try (FileChannel channel = FileChannel.open(text, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK * 8);
+            StringBuilder line = new StringBuilder(64);
+
+            for (int i = 0; i < array.size(); i++) {
+                line.setLength(0);
+                ComplexFormatter.appendLiteral(line, array.getReal(i), array.getImaginary(i));
+                line.append('\n');
+
+                int length = line.length();
+                if (buffer.remaining() < length) {
+                    flush(channel, buffer);
+                }
+                // literals are ASCII
+                for (int j = 0; j < length; j++) {
+                    buffer.put((byte) line.charAt(j));
+                }
+            }
+
+            buffer.flip();
+            writeFully(channel, buffer);
+        }
+    }
+
+    /**
+     * Converts a text file with literals separated by line breaks, commas or
+     * semicolons into a binary file.
+     *
+     * @param text
+     *            Path of the text file
+     * @param binary
+     *            Path of the binary file, its content is replaced
+     * @param layout
+     *            Order of the parts in the binary file
+     * @throws IOException
+     *             If reading or writing fails, or a literal is not valid
+     */
+    public static void fromText(Path text, Path binary, Layout layout) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK * 8);
+        double[] real = new double[1024];
+        double[] imaginary = new double[1024];
+        int count = 0;
+        long offset = 0;
+
+        try (FileChannel channel = FileChannel.open(text, StandardOpenOption.READ)) {
+            while (true) {
+                boolean eof = channel.read(buffer) == -1;
+                buffer.flip();
+
+                // only whole lines are parsed until the end of the file
+                int limit = buffer.limit();
+                if (!eof) {
+                    while (limit > 0 && buffer.get(limit - 1) != '\n') {
+                        limit--;
+                    }
+                }
+
+                int end = buffer.limit();
+                buffer.limit(limit);
+                try {
+                    while (true) {
+                        count += ComplexNumber.parseAll(buffer, real, imaginary, count);
+                        if (count < real.length) {
+                            break;
+                        }
+                        real = Arrays.copyOf(real, real.length * 2);
+                        imaginary = Arrays.copyOf(imaginary, imaginary.length * 2);
+                    }
+                } catch (ParseException e) {
+                    throw new IOException("Invalid literal at byte " + (offset + e.getErrorOffset()),
+                            e);
+                }
+
+                if (eof) {
+                    break;
+                }
+
+                offset += buffer.position();
+                buffer.limit(end);
+                if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                    // a single line does not fit, so the buffer grows
+                    ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                    larger.put(buffer);
+                    buffer = larger;
+                } else {
+                    buffer.compact();
+                }
+            }
+        }
+
+        write(binary, Arrays.copyOf(real, count), Arrays.copyOf(imaginary, count),
+                layout);
+    }
+
+    /**
+     * Checks the header and the size of a file.
+     *
+     * @param header
+     *            Buffer with the header at index 0
+     * @param fileSize
+     *            Size of the file in bytes
+     * @return Layout of the file
+     * @throws IOException
+     *             If the file is not in this format
+     */
+    private static Layout readHeader(ByteBuffer header, long fileSize) throws IOException {
+        if (header.remaining() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a complex array file");
+        } else if (header.getShort(4) != VERSION) {
+            throw new IOException("Unsupported version " + header.getShort(4));
+        }
+
+        int layout = header.get(6);
+        long count = header.getLong(8);
+        if (layout < 0 || layout >= Layout.values().length) {
+            throw new IOException("Unknown layout " + layout);
+        } else if (count < 0 || count > Integer.MAX_VALUE
+                || fileSize != HEADER_SIZE + count * 16) {
+            throw new IOException("File size does not match " + count + " elements");
+        }
+
+        return Layout.values()[layout];
+    }
+
+    /**
+     * Writes the array as doubles through the buffer.
+     *
+     * @param channel
+     *            Channel to which doubles are written
+     * @param buffer
+     *            Little-endian buffer used for copying
+     * @param values
+     *            Doubles to be written
+     * @throws IOException
+     *             If writing fails
+     */
+    private static void writeDoubles(FileChannel channel, ByteBuffer buffer, double[] values)
+            throws IOException {
+        for (int from = 0; from < values.length; from += CHUNK) {
+            int length = Math.min(CHUNK, values.length - from);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(values, from, length);
+            buffer.limit(length * 8);
+            writeFully(channel, buffer);
+        }
+    }
+
+    /**
+     * Reads doubles into the array through the buffer.
+     *
+     * @param channel
+     *            Channel from which doubles are read
+     * @param buffer
+     *            Little-endian buffer used for copying
+     * @param values
+     *            Array into which doubles are read
+     * @throws IOException
+     *             If reading fails
+     */
+    private static void readDoubles(FileChannel channel, ByteBuffer buffer, double[] values)
+            throws IOException {
+        for (int from = 0; from < values.length; from += CHUNK) {
+            int length = Math.min(CHUNK, values.length - from);
+            buffer.clear();
+            buffer.limit(length * 8);
+            readFully(channel, buffer);
+            buffer.flip();
+            buffer.asDoubleBuffer().get(values, from, length);
+        }
+    }
+
+    /**
+     * Writes the content of the buffer and clears it.
+     *
+     * @param channel
+     *            Channel to which bytes are written
+     * @param buffer
+     *            Buffer in write mode
+     * @throws IOException
+     *             If writing fails
+     */
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes every remaining byte of the buffer.
+     *
+     * @param channel
+     *            Channel to which bytes are written
+     * @param buffer
+     *            Buffer with the bytes
+     * @throws IOException
+     *             If writing fails
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads until the buffer is full.
+     *
+     * @param channel
+     *            Channel from which bytes are read
+     * @param buffer
+     *            Buffer into which bytes are read
+     * @throws IOException
+     *             If reading fails or the file ends too early
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) == -1) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Formats complex numbers without {@link DecimalFormat} or
+ * {@link String#format(String, Object...)}. Doubles are written with at most
+ * the requested number of fraction digits, rounded half-even from their exact
+ * binary value and without trailing zeros, which is what
+ * {@code new DecimalFormat("#.####")} does for four digits except for values
+ * very close to a rounding midpoint. {@link ComplexNumber#toString()} falls
+ * back to {@code DecimalFormat} for those, so its output does not change.
+ * It writes the minus sign, the decimal separator and the texts of NaN and
+ * infinity of the default locale and falls back to {@code DecimalFormat}
+ * only for locales whose digits are not ASCII.
+ * <p>
+ * Rounding is done in integer arithmetic on the significand of the double,
+ * so nothing is allocated for values below 2^63. Larger values fall back to
+ * {@link BigDecimal}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+final class ComplexFormatter {
+
+    /** Largest supported number of fraction digits. */
+    static final int MAX_PRECISION = 18;
+
+    /** Mask of the lower 32 bits of a long. */
+    private static final long LOW_MASK = 0xFFFFFFFFL;
+
+    /** Powers of ten up to 10^18. */
+    private static final long[] POWERS_OF_TEN = new long[MAX_PRECISION + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /** Builder reused by formatting into other targets than a builder. */
+    private static final ThreadLocal<StringBuilder> SCRATCH = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(64);
+        }
+    };
+
+    /** Symbols of the last used default locale. */
+    private static volatile LocaleSymbols symbols;
+
+    /**
+     * Prevents creating instances, all methods are static.
+     */
+    private ComplexFormatter() {
+    }
+
+    /**
+     * Creates the string returned by {@link ComplexNumber#toString()}, four
+     * fraction digits with the symbols of the default locale.
+     *
+     * @param real
+     *            Real part
+     * @param imaginary
+     *            Imaginary part
+     * @return String representation
+     */
+    static String toString(double real, double imaginary) {
+        LocaleSymbols symbols = LocaleSymbols.current();
+
+        if (symbols.plain) {
+            StringBuilder sb = new StringBuilder(24);
+            if (append(sb, real, imaginary, 4, symbols.minus, symbols.decimalSeparator,
+                    symbols.nan, symbols.infinity, true)) {
+                return sb.toString();
+            }
+        }
+
+        return legacyToString(real, imaginary);
+    }
+
+    /**
+     * Gets an empty builder of the current thread.
+     *
+     * @return Empty builder
+     */
+    static StringBuilder scratch() {
+        StringBuilder sb = SCRATCH.get();
+        sb.setLength(0);
+        return sb;
+    }
+
+    /**
+     * Appends a complex number as {@code a + bi}, {@code a - bi}, {@code bi}
+     * or {@code a}, the layout of {@link ComplexNumber#toString()}.
+     *
+     * @param sb
+     *            Builder to which the number is appended
+     * @param real
+     *            Real part
+     * @param imaginary
+     *            Imaginary part
+     * @param precision
+     *            Maximum number of fraction digits
+     * @param minus
+     *            Prefix of negative values
+     * @param decimalSeparator
+     *            Decimal separator
+     * @param nan
+     *            Text of NaN
+     * @param infinity
+     *            Text of infinity, without sign
+     * @param compatible
+     *            True if a part whose output might differ from
+     *            {@link DecimalFormat} should stop formatting
+     * @return False if formatting was stopped, the builder then holds a
+     *         partial result
+     */
+    static boolean append(StringBuilder sb, double real, double imaginary, int precision,
+            String minus, char decimalSeparator, String nan, String infinity,
+            boolean compatible) {
+        if (real == 0) {
+            if (!appendDouble(sb, imaginary, precision, minus, decimalSeparator, nan, infinity,
+                    compatible)) {
+                return false;
+            }
+        } else {
+            if (!appendDouble(sb, real, precision, minus, decimalSeparator, nan, infinity,
+                    compatible)) {
+                return false;
+            } else if (imaginary > 0) {
+                sb.append(" + ");
+            } else if (imaginary < 0) {
+                sb.append(" - ");
+            } else {
+                return true;
+            }
+
+            if (!appendDouble(sb, Math.abs(imaginary), precision, minus, decimalSeparator, nan,
+                    infinity, compatible)) {
+                return false;
+            }
+        }
+
+        sb.append('i');
+        return true;
+    }
+
+    /**
+     * Appends a complex number as a literal which {@link ComplexParser} reads
+     * back to the same parts, for example {@code 1.0E-20+3.0E-19i},
+     * {@code -0.0-0.0i} or {@code NaN+Infinityi}. Both parts are always
+     * written, each as by {@link Double#toString(double)}.
+     *
+     * @param sb
+     *            Builder to which the literal is appended
+     * @param real
+     *            Real part
+     * @param imaginary
+     *            Imaginary part
+     */
+    static void appendLiteral(StringBuilder sb, double real, double imaginary) {
+        sb.append(real);
+        // the sign of zero is kept, NaN has no sign to keep
+        sb.append(Double.doubleToRawLongBits(imaginary) < 0 && imaginary == imaginary ? '-' : '+');
+        sb.append(Math.abs(imaginary));
+        sb.append('i');
+    }
+
+    /**
+     * Appends a double rounded half-even from its exact binary value to at
+     * most {@code precision} fraction digits, without trailing zeros and
+     * without the decimal point if there are no fraction digits. Negative
+     * values which round to zero are written as {@code -0}.
+     * <p>
+     * {@link DecimalFormat} rounds the shortest decimal representation of the
+     * double instead of its exact value. Both give the same digits unless a
+     * rounding midpoint lies within half an ulp of the value, or the value is
+     * at least 2^53 so its shortest representation ends with padded zeros. In
+     * compatible mode these values are not formatted.
+     *
+     * @param sb
+     *            Builder to which the value is appended
+     * @param value
+     *            Value to be appended
+     * @param precision
+     *            Maximum number of fraction digits
+     * @param minus
+     *            Prefix of negative values
+     * @param decimalSeparator
+     *            Decimal separator
+     * @param nan
+     *            Text of NaN
+     * @param infinity
+     *            Text of infinity, without sign
+     * @param compatible
+     *            True if values whose output might differ from
+     *            {@link DecimalFormat} should not be formatted
+     * @return False if the value was not formatted in compatible mode
+     */
+    static boolean appendDouble(StringBuilder sb, double value, int precision, String minus,
+            char decimalSeparator, String nan, String infinity, boolean compatible) {
+        if (value != value) {
+            sb.append(nan);
+            return true;
+        }
+
+        long bits = Double.doubleToRawLongBits(value);
+        if (bits < 0) {
+            sb.append(minus);
+        }
+        if (Double.isInfinite(value)) {
+            sb.append(infinity);
+            return true;
+        }
+
+        int exponent = (int) (bits >>> 52) & 0x7FF;
+        long significand = bits & 0xFFFFFFFFFFFFFL;
+        if (exponent == 0) {
+            exponent = 1;
+        } else {
+            significand |= 1L << 52;
+        }
+
+        // the absolute value is significand / 2^shift
+        int shift = 1075 - exponent;
+        if (shift <= 0) {
+            if (compatible && shift < 0) {
+                return false;
+            } else if (shift > -11) {
+                sb.append(significand << -shift);
+            } else {
+                appendBig(sb, value, precision, decimalSeparator);
+            }
+            return true;
+        }
+
+        long scale = POWERS_OF_TEN[precision];
+        long scaled;
+
+        if (shift >= 128) {
+            // the product is below 2^113, so the scaled value is far below 1/2
+            scaled = 0;
+        } else {
+            long a = significand;
+            long b = scale;
+            long lowLow = (a & LOW_MASK) * (b & LOW_MASK);
+            long highLow = (a >>> 32) * (b & LOW_MASK);
+            long lowHigh = (a & LOW_MASK) * (b >>> 32);
+            long cross = (lowLow >>> 32) + (highLow & LOW_MASK) + lowHigh;
+            long high = (a >>> 32) * (b >>> 32) + (highLow >>> 32) + (cross >>> 32);
+            long low = (cross << 32) | (lowLow & LOW_MASK);
+
+            // remainder of the product modulo 2^shift and half of 2^shift
+            long remainderHigh;
+            long remainderLow;
+            long halfHigh;
+            long halfLow;
+            if (shift < 64) {
+                if ((high >>> shift) != 0 || (high << (64 - shift) | low >>> shift) < 0) {
+                    if (compatible) {
+                        return false;
+                    }
+                    appendBig(sb, value, precision, decimalSeparator);
+                    return true;
+                }
+                scaled = high << (64 - shift) | low >>> shift;
+                remainderHigh = 0;
+                remainderLow = low & ((1L << shift) - 1);
+                halfHigh = 0;
+                halfLow = 1L << (shift - 1);
+            } else {
+                scaled = high >>> (shift - 64);
+                remainderHigh = shift == 64 ? 0 : high & ((1L << (shift - 64)) - 1);
+                remainderLow = low;
+                halfHigh = shift == 64 ? 0 : 1L << (shift - 65);
+                halfLow = shift == 64 ? 1L << 63 : 0;
+            }
+
+            // difference of the remainder and the half, positive rounds up
+            long differenceLow = remainderLow - halfLow;
+            long differenceHigh = remainderHigh - halfHigh
+                    - (Long.compareUnsigned(remainderLow, halfLow) < 0 ? 1 : 0);
+
+            if (compatible) {
+                long absoluteHigh = differenceHigh;
+                long absoluteLow = differenceLow;
+                if (differenceHigh < 0) {
+                    absoluteLow = -differenceLow;
+                    absoluteHigh = ~differenceHigh + (differenceLow == 0 ? 1 : 0);
+                }
+                // the rounding interval of the value spans scale / 2 either side,
+                // it must be narrower than a step of the last digit and miss
+                // every midpoint between steps
+                if (shift < 64 && scale >= 1L << (shift - 1)
+                        || absoluteHigh == 0 && absoluteLow >= 0 && absoluteLow <= scale) {
+                    return false;
+                }
+            }
+
+            if (differenceHigh >= 0 && (differenceHigh | differenceLow) != 0
+                    || (differenceHigh | differenceLow) == 0 && (scaled & 1) != 0) {
+                scaled++;
+            }
+        }
+
+        sb.append(scaled / scale);
+        appendFraction(sb, scaled % scale, precision, decimalSeparator);
+        return true;
+    }
+
+    /**
+     * Appends the fraction digits without trailing zeros, or nothing if the
+     * fraction is zero.
+     *
+     * @param sb
+     *            Builder to which the fraction is appended
+     * @param fraction
+     *            Fraction as an integer of {@code precision} digits
+     * @param precision
+     *            Number of fraction digits
+     * @param decimalSeparator
+     *            Decimal separator
+     */
+    private static void appendFraction(StringBuilder sb, long fraction, int precision,
+            char decimalSeparator) {
+        if (fraction == 0) {
+            return;
+        }
+
+        int digits = precision;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+
+        sb.append(decimalSeparator);
+        for (int i = digits - 1; i > 0 && fraction < POWERS_OF_TEN[i]; i--) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    /**
+     * Appends the absolute value of a double which is too large for the
+     * integer path.
+     *
+     * @param sb
+     *            Builder to which the value is appended
+     * @param value
+     *            Value to be appended
+     * @param precision
+     *            Maximum number of fraction digits
+     * @param decimalSeparator
+     *            Decimal separator
+     */
+    private static void appendBig(StringBuilder sb, double value, int precision,
+            char decimalSeparator) {
+        BigDecimal rounded = new BigDecimal(value).abs().setScale(precision, RoundingMode.HALF_EVEN);
+        int start = sb.length();
+        sb.append(rounded.stripTrailingZeros().toPlainString());
+
+        int point = sb.indexOf(".", start);
+        if (point >= 0) {
+            sb.setCharAt(point, decimalSeparator);
+        }
+    }
+
+    /**
+     * Formats like the original {@link ComplexNumber#toString()}, used for
+     * locales whose digits are not ASCII.
+     *
+     * @param real
+     *            Real part
+     * @param imaginary
+     *            Imaginary part
+     * @return String representation
+     */
+    private static String legacyToString(double real, double imaginary) {
+        DecimalFormat format = new DecimalFormat("#.####");
+        format.setDecimalSeparatorAlwaysShown(false);
+
+        if (real == 0) {
+            return format.format(imaginary) + "i";
+        } else if (imaginary > 0) {
+            return format.format(real) + " + " + format.format(imaginary) + "i";
+        } else if (imaginary < 0) {
+            return format.format(real) + " - " + format.format(Math.abs(imaginary)) + "i";
+        } else {
+            return format.format(real);
+        }
+    }
+
+    /**
+     * Symbols of the default locale used by {@link ComplexNumber#toString()}.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static final class LocaleSymbols {
+        /** Locale of the symbols. */
+        final Locale locale;
+        /** True if digits are ASCII. */
+        final boolean plain;
+        /** Prefix of negative values. */
+        final String minus;
+        /** Decimal separator. */
+        final char decimalSeparator;
+        /** Text of NaN. */
+        final String nan;
+        /** Text of infinity. */
+        final String infinity;
+
+        /**
+         * Reads the symbols of the locale.
+         *
+         * @param locale
+         *            Locale of the symbols
+         */
+        private LocaleSymbols(Locale locale) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+
+            this.locale = locale;
+            this.plain = symbols.getZeroDigit() == '0';
+            // may differ from the minus sign, some locales add direction marks
+            this.minus = new DecimalFormat("#.####", symbols).getNegativePrefix();
+            this.decimalSeparator = symbols.getDecimalSeparator();
+            this.nan = symbols.getNaN();
+            this.infinity = symbols.getInfinity();
+        }
+
+        /**
+         * Gets the symbols of the current default locale.
+         *
+         * @return Symbols of the default locale
+         */
+        static LocaleSymbols current() {
+            Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+            LocaleSymbols current = symbols;
+
+            if (current == null || !current.locale.equals(locale)) {
+                current = new LocaleSymbols(locale);
+                symbols = current;
+            }
+            return current;
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package hr.fer.zemris.java.tecaj.hw2;
 
-import java.text.DecimalFormat;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Data type for complex numbers. The data type is "immutable" so once you
@@ -17,10 +17,22 @@ public class ComplexNumber {
     private final double real;
     /** Imaginary part of the complex number. */
     private final double imaginary;
-    /** Magnitude of the complex number. */
-    private final double magnitude;
-    /** Angle of the complex number. */
-    private final double angle;
+    /**
+     * Polar form of the complex number, null until it is first needed. The
+     * polar form has only final fields, so a thread which reads a reference
+     * to it set by another thread also sees both of its values.
+     */
+    private Polar polar;
+
+    /**
+     * Largest absolute exponent raised by repeated squaring, larger ones use
+     * the polar form.
+     */
+    private static final int RECTANGULAR_POWER_LIMIT = 64;
+    /** Largest n whose n-th roots of unity are cached. */
+    private static final int UNITY_CACHE_LIMIT = 256;
+    /** Cached roots of unity, index is n. */
+    private static final RootsOfUnity[] UNITY_CACHE = new RootsOfUnity[UNITY_CACHE_LIMIT + 1];
 
     /**
      * Constructs a new complex number object with the given real and imaginary
@@ -32,10 +44,25 @@ public class ComplexNumber {
      *            Imaginary part of a complex number
      */
     public ComplexNumber(double real, double imaginary) {
+        this(real, imaginary, null);
+    }
+
+    /**
+     * Constructs a new complex number object whose polar form may already be
+     * known.
+     * 
+     * @param real
+     *            Real part of a complex number
+     * @param imaginary
+     *            Imaginary part of a complex number
+     * @param polar
+     *            Polar form of a complex number or null if it is computed
+     *            when needed
+     */
+    private ComplexNumber(double real, double imaginary, Polar polar) {
         this.real = real;
         this.imaginary = imaginary;
-        this.magnitude = Math.pow(Math.pow(real, 2) + Math.pow(imaginary, 2), 1.0 / 2);
-        this.angle = Math.atan2(imaginary, real);
+        this.polar = polar;
     }
 
     /**
@@ -72,44 +99,136 @@ public class ComplexNumber {
      * @return Complex number
      */
     public static ComplexNumber fromMagnitudeAndAngle(double magnitude, double angle) {
-        return new ComplexNumber(magnitude * Math.cos(angle), magnitude * Math.sin(angle));
+        double real = magnitude * Math.cos(angle);
+        double imaginary = magnitude * Math.sin(angle);
+
+        if (magnitude > 0 && angle > -Math.PI && angle <= Math.PI) {
+            // already in the canonical polar form, so it does not need recomputing
+            return new ComplexNumber(real, imaginary, new Polar(magnitude, angle));
+        }
+
+        return new ComplexNumber(real, imaginary);
     }
 
     /**
-     * Factory method which creates complex number by parsing a string.
+     * Factory method which creates complex number by parsing a string. Valid
+     * literals are for example {@code 2.5-3i}, {@code -i}, {@code 4} and
+     * {@code 1e-3 + 2.5E2j}; the imaginary unit is {@code i} or {@code j} in
+     * either case and whitespace is allowed around the parts. A part may also
+     * be {@code NaN} or {@code Infinity}, as in {@code 1.0-Infinityi}.
      * 
      * @param s
      *            String to be parsed
      * @return Complex number
      * @throws ParseException
      *             Signals that an error has been reached unexpectedly while
-     *             parsing.
+     *             parsing. The error offset is the index of the offending
+     *             character.
      */
     public static ComplexNumber parse(String s) throws ParseException {
-        double real = 0;
-        double imaginary = 0;
+        return parse(s, 0, s.length());
+    }
 
-        s = s.trim();
+    /**
+     * Factory method which creates complex number by parsing a range of a
+     * character sequence.
+     * 
+     * @param s
+     *            Sequence to be parsed
+     * @param from
+     *            Start of the literal, inclusive
+     * @param to
+     *            End of the literal, exclusive
+     * @return Complex number
+     * @throws ParseException
+     *             If the range is not a valid literal, the error offset is the
+     *             index of the offending character in the sequence
+     */
+    public static ComplexNumber parse(CharSequence s, int from, int to) throws ParseException {
+        checkRange(from, to, s.length());
+        return new ComplexParser.SequenceParser(s).parse(from, to);
+    }
 
-        if (s.matches("^[-+]?[0-9]*\\.?[0-9]+$")) {
-            real = Double.parseDouble(s);
-        } else if (s.matches("^[-+]?[0-9]*\\.?[0-9]+i$")) {
-            imaginary = Double.parseDouble(s.substring(0, s.length() - 1));
-        } else {
-            Pattern pattern = Pattern.compile(
-                    "([-+]?[0-9]*\\.?[0-9]+)([-+]?[0-9]*\\.?[0-9]+)i",
-                    Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
-            Matcher matcher = pattern.matcher(s);
-
-            if (matcher.matches()) {
-                real = Double.parseDouble(matcher.group(1));
-                imaginary = Double.parseDouble(matcher.group(2));
-            } else {
-                throw new ParseException("", 0);
-            }
-        }
+    /**
+     * Factory method which creates complex number by parsing a range of a
+     * character array.
+     * 
+     * @param chars
+     *            Array to be parsed
+     * @param from
+     *            Start of the literal, inclusive
+     * @param to
+     *            End of the literal, exclusive
+     * @return Complex number
+     * @throws ParseException
+     *             If the range is not a valid literal, the error offset is the
+     *             index of the offending character in the array
+     */
+    public static ComplexNumber parse(char[] chars, int from, int to) throws ParseException {
+        checkRange(from, to, chars.length);
+        return new ComplexParser.ArrayParser(chars).parse(from, to);
+    }
 
-        return new ComplexNumber(real, imaginary);
+    /**
+     * Factory method which creates complex number by parsing ASCII bytes
+     * between the position and the limit of a buffer. The position of the
+     * buffer is not changed.
+     * 
+     * @param buffer
+     *            Buffer to be parsed
+     * @return Complex number
+     * @throws ParseException
+     *             If the bytes are not a valid literal, the error offset is the
+     *             absolute index of the offending byte in the buffer
+     */
+    public static ComplexNumber parse(ByteBuffer buffer) throws ParseException {
+        return new ComplexParser.BufferParser(buffer).parse(buffer.position(), buffer.limit());
+    }
+
+    /**
+     * Parses ASCII literals separated by commas, semicolons or line breaks
+     * from the position of the buffer up to its limit, writing their parts
+     * into the arrays starting at the offset. Empty fields are skipped.
+     * Parsing stops at the limit or when the arrays are full, and the position
+     * of the buffer is moved past the last parsed literal and its separator,
+     * so a full array can be drained and parsing continued.
+     * 
+     * @param buffer
+     *            Buffer with the literals
+     * @param real
+     *            Array into which real parts are written
+     * @param imaginary
+     *            Array into which imaginary parts are written
+     * @param offset
+     *            Index of the first element written
+     * @return Number of parsed literals
+     * @throws ParseException
+     *             If a field is not a valid literal, the error offset is the
+     *             absolute index of the offending byte in the buffer and the
+     *             position of the buffer is unchanged
+     */
+    public static int parseAll(ByteBuffer buffer, double[] real, double[] imaginary, int offset)
+            throws ParseException {
+        ComplexParser parser = new ComplexParser.BufferParser(buffer);
+        int count = parser.parseAll(buffer.position(), buffer.limit(), real, imaginary, offset);
+        buffer.position(parser.position);
+        return count;
+    }
+
+    /**
+     * Checks if the range lies within an input of the specified length.
+     * 
+     * @param from
+     *            Start of the range, inclusive
+     * @param to
+     *            End of the range, exclusive
+     * @param length
+     *            Length of the input
+     */
+    private static void checkRange(int from, int to, int length) {
+        if (from < 0 || from > to || to > length) {
+            throw new IndexOutOfBoundsException();
+        }
     }
 
     /**
@@ -136,7 +255,7 @@ public class ComplexNumber {
      * @return Magnitude of a complex number
      */
     public double getMagnitude() {
-        return magnitude;
+        return polar().magnitude;
     }
 
     /**
@@ -145,7 +264,25 @@ public class ComplexNumber {
      * @return Angle of a complex number
      */
     public double getAngle() {
-        return angle;
+        return polar().angle;
+    }
+
+    /**
+     * Gets the polar form of a complex number, computing it on first use.
+     * Threads which race on the first use compute equal polar forms and one
+     * of them is kept.
+     * 
+     * @return Polar form of a complex number
+     */
+    private Polar polar() {
+        Polar polar = this.polar;
+        if (polar == null) {
+            polar = new Polar(Math.sqrt(real * real + imaginary * imaginary),
+                    Math.atan2(imaginary, real));
+            this.polar = polar;
+        }
+
+        return polar;
     }
 
     /**
@@ -208,32 +345,72 @@ public class ComplexNumber {
             throw new NullPointerException();
         }
 
-        ComplexNumber result = mul(c.conjugate());
-        double real = result.real / Math.pow(c.magnitude, 2);
-        double imaginary = result.imaginary / Math.pow(c.magnitude, 2);
+        double norm = c.real * c.real + c.imaginary * c.imaginary;
+        double real = (this.real * c.real + this.imaginary * c.imaginary) / norm;
+        double imaginary = (this.imaginary * c.real - this.real * c.imaginary) / norm;
 
         return new ComplexNumber(real, imaginary);
     }
 
     /**
      * Calculates the value of this complex number raised to the power of the
-     * second argument.
+     * second argument. Exponents up to {@value #RECTANGULAR_POWER_LIMIT} in
+     * absolute value are computed by repeated squaring in rectangular form,
+     * which is faster than the polar form and exact as long as the parts of
+     * intermediate results are integers below 2^53. Larger exponents use the
+     * polar form. Negative exponents give the reciprocal of the positive
+     * power.
      * 
      * @param n
      *            Exponent
      * @return This complex number to the power of n
      */
     public ComplexNumber power(int n) {
-        if (n < 0) {
-            throw new IllegalArgumentException();
-        }
-
         if (n == 0) {
             return new ComplexNumber(1, 0);
+        } else if (n > RECTANGULAR_POWER_LIMIT || n < -RECTANGULAR_POWER_LIMIT) {
+            return polarPower(n);
         }
 
-        double newMagnitude = Math.pow(this.magnitude, n);
-        double newAngle = (this.angle * n) % (2 * Math.PI);
+        double resultReal = 1;
+        double resultImaginary = 0;
+        double baseReal = real;
+        double baseImaginary = imaginary;
+
+        for (int e = Math.abs(n); e != 0;) {
+            if ((e & 1) != 0) {
+                double newReal = resultReal * baseReal - resultImaginary * baseImaginary;
+                resultImaginary = resultReal * baseImaginary + resultImaginary * baseReal;
+                resultReal = newReal;
+            }
+
+            e >>>= 1;
+            if (e != 0) {
+                double newReal = baseReal * baseReal - baseImaginary * baseImaginary;
+                baseImaginary = 2 * baseReal * baseImaginary;
+                baseReal = newReal;
+            }
+        }
+
+        if (n < 0) {
+            double norm = resultReal * resultReal + resultImaginary * resultImaginary;
+            return new ComplexNumber(resultReal / norm, -resultImaginary / norm);
+        }
+
+        return new ComplexNumber(resultReal, resultImaginary);
+    }
+
+    /**
+     * Calculates the power through the polar form, the magnitude raised to the
+     * power and the angle multiplied by it.
+     * 
+     * @param n
+     *            Exponent
+     * @return This complex number to the power of n
+     */
+    private ComplexNumber polarPower(int n) {
+        double newMagnitude = Math.pow(getMagnitude(), n);
+        double newAngle = (getAngle() * n) % (2 * Math.PI);
 
         double real = newMagnitude * Math.cos(newAngle);
         double imaginary = newMagnitude * Math.sin(newAngle);
@@ -243,7 +420,15 @@ public class ComplexNumber {
 
     /**
      * Calculates the value of this complex number to the root of the second
-     * argument.
+     * argument. Root {@code k} has the angle {@code (angle + 2 * k * pi) / n}.
+     * <p>
+     * Only the first root is computed with {@code pow}, {@code cos} and
+     * {@code sin}; root {@code k} is the first root multiplied by the cached
+     * root of unity {@code exp(2 * k * pi * i / n)}. Both parts of every root
+     * are within 12 ulps of the magnitude of the root from the exact value,
+     * which is better than the direct formula
+     * {@code pow(magnitude, 1 / n) * cos((angle + 2 * k * pi) / n)} that
+     * loses accuracy for angles near {@code 2 * pi}.
      * 
      * @param n
      *            Root
@@ -255,43 +440,250 @@ public class ComplexNumber {
         }
 
         ComplexNumber[] roots = new ComplexNumber[n];
+        roots(n, roots, null, null, 0);
+        return roots;
+    }
 
-        for (int i = 0; i < n; i++) {
-            double real = Math.pow(magnitude, 1 / ((double) n))
-                    * Math.cos((angle + i * 2.0 * Math.PI) / n);
-            double imaginary = Math.pow(magnitude, 1 / ((double) n))
-                    * Math.sin((angle + i * 2.0 * Math.PI) / n);
-
-            roots[i] = new ComplexNumber(real, imaginary);
+    /**
+     * Calculates the n-th roots of this complex number like {@link #root(int)}
+     * and writes their parts into the specified arrays, so nothing is
+     * allocated once the roots of unity of n are cached.
+     * 
+     * @param n
+     *            Root
+     * @param real
+     *            Array into which real parts of the roots are written
+     * @param imaginary
+     *            Array into which imaginary parts of the roots are written
+     * @param offset
+     *            Index at which the first root is written
+     */
+    public void root(int n, double[] real, double[] imaginary, int offset) {
+        if (n < 1) {
+            throw new IllegalArgumentException();
+        } else if (real == null || imaginary == null) {
+            throw new NullPointerException();
+        } else if (offset < 0 || offset + n > real.length || offset + n > imaginary.length) {
+            throw new IndexOutOfBoundsException();
         }
 
-        return roots;
+        roots(n, null, real, imaginary, offset);
     }
 
     /**
-     * Conjugates complex number
+     * Calculates the n-th roots of this complex number as described in
+     * {@link #root(int)} and stores them either as complex numbers or as
+     * parts in arrays.
      * 
-     * @return Conjugated complex number
+     * @param n
+     *            Root, at least 1
+     * @param roots
+     *            Array into which the roots are stored, or null if they are
+     *            written into the arrays of parts
+     * @param real
+     *            Array into which real parts of the roots are written if
+     *            {@code roots} is null
+     * @param imaginary
+     *            Array into which imaginary parts of the roots are written if
+     *            {@code roots} is null
+     * @param offset
+     *            Index at which the parts of the first root are written
      */
-    private ComplexNumber conjugate() {
-        return new ComplexNumber(real, 0 - imaginary);
+    private void roots(int n, ComplexNumber[] roots, double[] real, double[] imaginary,
+            int offset) {
+        double rootMagnitude = Math.pow(getMagnitude(), 1.0 / n);
+        double rootAngle = getAngle() / n;
+        double firstReal = rootMagnitude * Math.cos(rootAngle);
+        double firstImaginary = rootMagnitude * Math.sin(rootAngle);
+
+        RootsOfUnity unity = RootsOfUnity.of(n);
+        double[] cos = unity.cos;
+        double[] sin = unity.sin;
+
+        for (int k = 0; k < n; k++) {
+            double rootReal = firstReal;
+            double rootImaginary = firstImaginary;
+            if (k > 0) {
+                // the first root is not rotated, so multiplying an infinite part
+                // by zero cannot turn it into NaN
+                rootReal = firstReal * cos[k] - firstImaginary * sin[k];
+                rootImaginary = firstReal * sin[k] + firstImaginary * cos[k];
+            }
+
+            if (roots != null) {
+                roots[k] = new ComplexNumber(rootReal, rootImaginary);
+            } else {
+                real[offset + k] = rootReal;
+                imaginary[offset + k] = rootImaginary;
+            }
+        }
     }
 
     /**
      * {inheritDoc}
      */
     public String toString() {
-        DecimalFormat format = new DecimalFormat("#.####");
-        format.setDecimalSeparatorAlwaysShown(false);
-
-        if (real == 0) {
-            return String.format("%si", format.format(imaginary));
-        } else if (imaginary > 0) {
-            return String.format("%s + %si", format.format(real), format.format(imaginary));
-        } else if (imaginary < 0) {
-            return String.format("%s - %si", format.format(real), format.format(Math.abs(imaginary)));
+        return ComplexFormatter.toString(real, imaginary);
+    }
+
+    /**
+     * Appends this complex number to the builder in the layout of
+     * {@link #toString()} with at most {@code precision} fraction digits,
+     * rounded half-even and without trailing zeros. Unlike {@code toString}
+     * the output does not depend on the default locale: the decimal separator
+     * is {@code .} and special values are {@code NaN} and {@code Infinity}.
+     * 
+     * @param sb
+     *            Builder to which this complex number is appended
+     * @param precision
+     *            Maximum number of fraction digits, from 0 to 18
+     * @return The builder
+     */
+    public StringBuilder format(StringBuilder sb, int precision) {
+        if (sb == null) {
+            throw new NullPointerException();
+        } else if (precision < 0 || precision > ComplexFormatter.MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 0 and "
+                    + ComplexFormatter.MAX_PRECISION);
+        }
+
+        ComplexFormatter.append(sb, real, imaginary, precision, "-", '.', "NaN", "Infinity",
+                false);
+        return sb;
+    }
+
+    /**
+     * Appends this complex number to the appendable like
+     * {@link #format(StringBuilder, int)}.
+     * 
+     * @param <A>
+     *            Type of the appendable
+     * @param out
+     *            Appendable to which this complex number is appended
+     * @param precision
+     *            Maximum number of fraction digits, from 0 to 18
+     * @return The appendable
+     * @throws IOException
+     *             If appending fails
+     */
+    public <A extends Appendable> A format(A out, int precision) throws IOException {
+        if (out instanceof StringBuilder) {
+            format((StringBuilder) out, precision);
         } else {
-            return String.format("%s", format.format(real));
+            out.append(format(ComplexFormatter.scratch(), precision));
+        }
+        return out;
+    }
+
+    /**
+     * Writes this complex number as ASCII bytes into the buffer like
+     * {@link #format(StringBuilder, int)}.
+     * 
+     * @param buffer
+     *            Buffer into which this complex number is written
+     * @param precision
+     *            Maximum number of fraction digits, from 0 to 18
+     * @return The buffer
+     * @throws BufferOverflowException
+     *             If the remaining space is too small, nothing is written
+     */
+    public ByteBuffer format(ByteBuffer buffer, int precision) {
+        StringBuilder sb = format(ComplexFormatter.scratch(), precision);
+        if (buffer.remaining() < sb.length()) {
+            throw new BufferOverflowException();
+        }
+
+        for (int i = 0; i < sb.length(); i++) {
+            buffer.put((byte) sb.charAt(i));
+        }
+        return buffer;
+    }
+
+    /**
+     * Polar form of a complex number. The fields are final, so instances are
+     * safely published through the cache field of a complex number without
+     * synchronization.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static final class Polar {
+        /** Magnitude of the complex number. */
+        final double magnitude;
+        /** Angle of the complex number in range (-pi, pi]. */
+        final double angle;
+
+        /**
+         * Constructs a polar form.
+         * 
+         * @param magnitude
+         *            Magnitude of the complex number
+         * @param angle
+         *            Angle of the complex number in range (-pi, pi]
+         */
+        Polar(double magnitude, double angle) {
+            this.magnitude = magnitude;
+            this.angle = angle;
+        }
+    }
+
+    /**
+     * The n-th roots of unity {@code exp(2 * k * pi * i / n)}. The fields are
+     * final, so instances are safely shared through the cache without
+     * synchronization.
+     * 
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static final class RootsOfUnity {
+        /** Real parts of the roots. */
+        final double[] cos;
+        /** Imaginary parts of the roots. */
+        final double[] sin;
+
+        /**
+         * Computes the n-th roots of unity. Roots on the axes are exact.
+         * 
+         * @param n
+         *            Root
+         */
+        private RootsOfUnity(int n) {
+            cos = new double[n];
+            sin = new double[n];
+
+            for (int k = 0; k < n; k++) {
+                if (4L * k % n == 0) {
+                    int quarter = (int) (4L * k / n);
+                    cos[k] = quarter == 0 ? 1 : quarter == 2 ? -1 : 0;
+                    sin[k] = quarter == 1 ? 1 : quarter == 3 ? -1 : 0;
+                } else {
+                    double angle = 2 * Math.PI * k / n;
+                    cos[k] = Math.cos(angle);
+                    sin[k] = Math.sin(angle);
+                }
+            }
+        }
+
+        /**
+         * Gets the n-th roots of unity, cached if n is at most
+         * {@value ComplexNumber#UNITY_CACHE_LIMIT}.
+         * 
+         * @param n
+         *            Root
+         * @return Roots of unity
+         */
+        static RootsOfUnity of(int n) {
+            if (n > UNITY_CACHE_LIMIT) {
+                return new RootsOfUnity(n);
+            }
+
+            RootsOfUnity roots = UNITY_CACHE[n];
+            if (roots == null) {
+                // a race only computes the same roots twice
+                roots = new RootsOfUnity(n);
+                UNITY_CACHE[n] = roots;
+            }
+            return roots;
         }
     }
 }
@@ -0,0 +1,487 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+/**
+ * Single-pass parser of complex number literals used by
+ * {@link ComplexNumber#parse(String)} and its overloads. Subclasses read
+ * characters from a {@code CharSequence}, a {@code char[]} or a
+ * {@code ByteBuffer}, so no {@code String} is created for the input.
+ * <p>
+ * A literal is a real part, an imaginary part, or a real part followed by a
+ * sign and an imaginary part, optionally surrounded and separated by
+ * whitespace. A part is an unsigned decimal number with an optional fraction
+ * and exponent, or {@code NaN} or {@code Infinity} as written by
+ * {@link Double#toString(double)}. The imaginary part ends with {@code i} or
+ * {@code j} in either case, and its number may be omitted for a coefficient
+ * of one. Examples are {@code 2.5-3i}, {@code -i}, {@code 1e-3 + 2.5E2j},
+ * {@code .5} and {@code 1.0-Infinityi}.
+ * <p>
+ * Numbers with at most 15 significant digits and a decimal exponent of at
+ * most 22 are converted exactly with one multiplication or division, which
+ * is correctly rounded. Other numbers fall back to
+ * {@link Double#parseDouble(String)}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+abstract class ComplexParser {
+
+    /** Exact powers of ten representable as double. */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    /** Largest significand which is converted exactly. */
+    private static final long EXACT_SIGNIFICAND = 999_999_999_999_999L;
+
+    /** Index of the next character. */
+    int position;
+    /** End of the input, exclusive. */
+    int end;
+    /** True if separators of bulk input end a literal. */
+    boolean bulk;
+    /** Real part of the last parsed literal. */
+    double real;
+    /** Imaginary part of the last parsed literal. */
+    double imaginary;
+    /** True if the last parsed part ends with an imaginary unit. */
+    private boolean imaginaryPart;
+
+    /**
+     * Gets the character at the specified index.
+     *
+     * @param index
+     *            Index of the character
+     * @return Character as {@code int}
+     */
+    abstract int charAt(int index);
+
+    /**
+     * Creates a string of the characters in the specified range, used only
+     * for numbers which cannot be converted exactly.
+     *
+     * @param from
+     *            Start of the range, inclusive
+     * @param to
+     *            End of the range, exclusive
+     * @return String of the characters
+     */
+    abstract String substring(int from, int to);
+
+    /**
+     * Parses one literal which spans the whole range.
+     *
+     * @param from
+     *            Start of the literal, inclusive
+     * @param to
+     *            End of the literal, exclusive
+     * @return Parsed complex number
+     * @throws ParseException
+     *             If the range is not a valid literal, the error offset is the
+     *             index of the offending character
+     */
+    ComplexNumber parse(int from, int to) throws ParseException {
+        position = from;
+        end = to;
+        bulk = false;
+        parseLiteral();
+        return new ComplexNumber(real, imaginary);
+    }
+
+    /**
+     * Parses literals separated by commas, semicolons or line breaks until
+     * the end of the input or until the arrays are full. Empty fields are
+     * skipped.
+     *
+     * @param from
+     *            Start of the input, inclusive
+     * @param to
+     *            End of the input, exclusive
+     * @param realParts
+     *            Array into which real parts are written
+     * @param imaginaryParts
+     *            Array into which imaginary parts are written
+     * @param offset
+     *            Index of the first element written
+     * @return Number of parsed literals, {@link #position} is after the
+     *         separator of the last one
+     * @throws ParseException
+     *             If a field is not a valid literal, the error offset is the
+     *             index of the offending character
+     */
+    int parseAll(int from, int to, double[] realParts, double[] imaginaryParts, int offset)
+            throws ParseException {
+        int capacity = Math.min(realParts.length, imaginaryParts.length);
+        if (offset < 0 || offset > capacity) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        position = from;
+        end = to;
+        bulk = true;
+
+        int count = 0;
+        while (offset + count < capacity) {
+            skipWhitespace();
+            if (position == end) {
+                break;
+            } else if (isSeparator(charAt(position))) {
+                position++;
+                continue;
+            }
+
+            parseLiteral();
+            realParts[offset + count] = real;
+            imaginaryParts[offset + count] = imaginary;
+            count++;
+
+            if (position < end) {
+                // parseLiteral stops only at the end or at a separator
+                position++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Parses a literal starting at {@link #position} into {@link #real} and
+     * {@link #imaginary}.
+     *
+     * @throws ParseException
+     *             If the literal is not valid
+     */
+    private void parseLiteral() throws ParseException {
+        skipWhitespace();
+        if (atEnd()) {
+            throw new ParseException("Empty complex number", position);
+        }
+
+        boolean negative = parseSign();
+        double value = parsePart(negative);
+        boolean firstImaginary = imaginaryPart;
+
+        skipWhitespace();
+        if (atEnd()) {
+            real = firstImaginary ? 0 : value;
+            imaginary = firstImaginary ? value : 0;
+            return;
+        }
+
+        int c = charAt(position);
+        if (firstImaginary || (c != '+' && c != '-')) {
+            throw new ParseException("Unexpected character '" + (char) c + "'", position);
+        }
+
+        position++;
+        skipWhitespace();
+        int start = position;
+        double second = parsePart(c == '-');
+        if (!imaginaryPart) {
+            throw new ParseException("Expected imaginary part", start);
+        }
+
+        skipWhitespace();
+        if (!atEnd()) {
+            throw new ParseException("Unexpected character '" + (char) charAt(position) + "'",
+                    position);
+        }
+
+        real = value;
+        imaginary = second;
+    }
+
+    /**
+     * Parses an optional sign.
+     *
+     * @return True if the sign is minus
+     */
+    private boolean parseSign() {
+        if (position < end) {
+            int c = charAt(position);
+            if (c == '+' || c == '-') {
+                position++;
+                return c == '-';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses an unsigned number, {@code NaN} or {@code Infinity} optionally
+     * followed by an imaginary unit, or the unit alone, and sets
+     * {@link #imaginaryPart}.
+     *
+     * @param negative
+     *            True if the part is negated
+     * @return Value of the part
+     * @throws ParseException
+     *             If neither a number nor a unit is found
+     */
+    private double parsePart(boolean negative) throws ParseException {
+        int start = position;
+        double value;
+
+        // checked before the unit, which may be an upper case I
+        if (parseWord("Infinity")) {
+            value = Double.POSITIVE_INFINITY;
+        } else if (parseWord("NaN")) {
+            value = Double.NaN;
+        } else if (position < end && isUnit(position)) {
+            value = 1;
+        } else {
+            value = parseNumber();
+            if (position == start) {
+                throw new ParseException("Expected a number", start);
+            }
+        }
+
+        imaginaryPart = position < end && isUnit(position);
+        if (imaginaryPart) {
+            position++;
+        }
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses the specified word if the input continues with it.
+     *
+     * @param word
+     *            Expected word
+     * @return True if the word was parsed, {@link #position} is then after it
+     */
+    private boolean parseWord(String word) {
+        int length = word.length();
+        if (end - position < length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (charAt(position + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        position += length;
+        return true;
+    }
+
+    /**
+     * Parses an unsigned decimal number with optional fraction and exponent.
+     *
+     * @return Value of the number, {@link #position} is unchanged if there is
+     *         no number
+     * @throws ParseException
+     *             If the exponent has no digits
+     */
+    private double parseNumber() throws ParseException {
+        int start = position;
+        long significand = 0;
+        int exponent = 0;
+        boolean exact = true;
+        boolean digits = false;
+        int d;
+
+        while (position < end && (d = charAt(position) - '0') >= 0 && d <= 9) {
+            if (significand <= EXACT_SIGNIFICAND) {
+                significand = significand * 10 + d;
+            } else {
+                exponent++;
+                exact = false;
+            }
+            digits = true;
+            position++;
+        }
+
+        if (position < end && charAt(position) == '.') {
+            position++;
+            while (position < end && (d = charAt(position) - '0') >= 0 && d <= 9) {
+                if (significand <= EXACT_SIGNIFICAND) {
+                    significand = significand * 10 + d;
+                    exponent--;
+                } else {
+                    exact = false;
+                }
+                digits = true;
+                position++;
+            }
+        }
+
+        if (!digits) {
+            position = start;
+            return 0;
+        }
+
+        if (position < end && (charAt(position) == 'e' || charAt(position) == 'E')) {
+            position++;
+            boolean negative = parseSign();
+            int exponentStart = position;
+            int value = 0;
+
+            while (position < end && (d = charAt(position) - '0') >= 0 && d <= 9) {
+                // larger exponents overflow or underflow anyway
+                value = Math.min(value * 10 + d, 100_000);
+                position++;
+            }
+
+            if (position == exponentStart) {
+                throw new ParseException("Expected exponent digits", position);
+            }
+            exponent += negative ? -value : value;
+        }
+
+        if (exact && significand <= EXACT_SIGNIFICAND && exponent >= -22 && exponent <= 22) {
+            return exponent < 0 ? significand / POWERS_OF_TEN[-exponent]
+                    : significand * POWERS_OF_TEN[exponent];
+        }
+
+        return Double.parseDouble(substring(start, position));
+    }
+
+    /**
+     * Skips spaces and tabs, and line breaks unless parsing bulk input.
+     */
+    private void skipWhitespace() {
+        while (position < end) {
+            int c = charAt(position);
+            if (c == ' ' || c == '\t' || (!bulk && (c == '\n' || c == '\r'))) {
+                position++;
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Checks if the current literal ends at {@link #position}.
+     *
+     * @return True at the end of the input or at a separator of bulk input
+     */
+    private boolean atEnd() {
+        return position == end || (bulk && isSeparator(charAt(position)));
+    }
+
+    /**
+     * Checks if the character at the index is an imaginary unit.
+     *
+     * @param index
+     *            Index of the character
+     * @return True for {@code i}, {@code j}, {@code I} and {@code J}
+     */
+    private boolean isUnit(int index) {
+        int c = charAt(index);
+        return c == 'i' || c == 'j' || c == 'I' || c == 'J';
+    }
+
+    /**
+     * Checks if the character separates literals of bulk input.
+     *
+     * @param c
+     *            Character to be checked
+     * @return True for commas, semicolons and line breaks
+     */
+    private static boolean isSeparator(int c) {
+        return c == ',' || c == ';' || c == '\n' || c == '\r';
+    }
+
+    /**
+     * Parser of a {@code CharSequence}.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    static final class SequenceParser extends ComplexParser {
+        /** Parsed characters. */
+        private final CharSequence sequence;
+
+        /**
+         * Constructs a parser of the sequence.
+         *
+         * @param sequence
+         *            Parsed characters
+         */
+        SequenceParser(CharSequence sequence) {
+            this.sequence = sequence;
+        }
+
+        @Override
+        int charAt(int index) {
+            return sequence.charAt(index);
+        }
+
+        @Override
+        String substring(int from, int to) {
+            return sequence.subSequence(from, to).toString();
+        }
+    }
+
+    /**
+     * Parser of a {@code char[]}.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    static final class ArrayParser extends ComplexParser {
+        /** Parsed characters. */
+        private final char[] chars;
+
+        /**
+         * Constructs a parser of the array.
+         *
+         * @param chars
+         *            Parsed characters
+         */
+        ArrayParser(char[] chars) {
+            this.chars = chars;
+        }
+
+        @Override
+        int charAt(int index) {
+            return chars[index];
+        }
+
+        @Override
+        String substring(int from, int to) {
+            return new String(chars, from, to - from);
+        }
+    }
+
+    /**
+     * Parser of ASCII bytes in a {@code ByteBuffer}. Indices are absolute
+     * buffer indices.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    static final class BufferParser extends ComplexParser {
+        /** Parsed bytes. */
+        private final ByteBuffer buffer;
+
+        /**
+         * Constructs a parser of the buffer.
+         *
+         * @param buffer
+         *            Parsed bytes
+         */
+        BufferParser(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        int charAt(int index) {
+            return buffer.get(index) & 0xFF;
+        }
+
+        @Override
+        String substring(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(from + i);
+            }
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
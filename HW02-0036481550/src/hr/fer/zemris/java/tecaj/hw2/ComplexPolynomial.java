@@ -0,0 +1,778 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Immutable polynomial with complex coefficients,
+ * {@code c0 + c1 * z + c2 * z^2 + ... + cn * z^n}. Coefficients are stored as
+ * two arrays of parts, and evaluation uses Horner's scheme on doubles, so
+ * evaluating at a point allocates at most the result and the batch methods
+ * allocate nothing.
+ * <p>
+ * Instances may be shared between threads, which is what
+ * {@link #parallelEvaluateGrid(double, double, double, double, int, int, double[], double[])}
+ * does.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexPolynomial {
+
+    /** Number of grid points below which a grid is evaluated by one task. */
+    public static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    /** Largest number of root finder iterations. */
+    private static final int MAX_ITERATIONS = 500;
+    /** Relative rounding error of the evaluation accepted as a root. */
+    private static final double EPSILON = 4 * Math.ulp(1.0);
+
+    /** Real parts of the coefficients, index is the power of z. */
+    private final double[] real;
+    /** Imaginary parts of the coefficients, index is the power of z. */
+    private final double[] imaginary;
+
+    /**
+     * Constructs a polynomial from its coefficients ordered from the constant
+     * one to the leading one. Zero leading coefficients are dropped.
+     *
+     * @param coefficients
+     *            Coefficients, the one at index k multiplies z^k
+     */
+    public ComplexPolynomial(ComplexNumber... coefficients) {
+        if (coefficients.length == 0) {
+            throw new IllegalArgumentException("Polynomial has no coefficients");
+        }
+
+        int length = significantLength(coefficients.length, coefficients, null, null);
+        this.real = new double[length];
+        this.imaginary = new double[length];
+        for (int i = 0; i < length; i++) {
+            real[i] = coefficients[i].getReal();
+            imaginary[i] = coefficients[i].getImaginary();
+        }
+    }
+
+    /**
+     * Constructs a polynomial from copies of the parts of its coefficients
+     * ordered from the constant one to the leading one. Zero leading
+     * coefficients are dropped.
+     *
+     * @param real
+     *            Real parts of the coefficients
+     * @param imaginary
+     *            Imaginary parts of the coefficients
+     */
+    public ComplexPolynomial(double[] real, double[] imaginary) {
+        if (real.length != imaginary.length) {
+            throw new IllegalArgumentException("Arrays have different lengths");
+        } else if (real.length == 0) {
+            throw new IllegalArgumentException("Polynomial has no coefficients");
+        }
+
+        int length = significantLength(real.length, null, real, imaginary);
+        this.real = Arrays.copyOf(real, length);
+        this.imaginary = Arrays.copyOf(imaginary, length);
+    }
+
+    /**
+     * Factory method which creates the monic polynomial with the specified
+     * roots, {@code (z - r1) * (z - r2) * ... * (z - rn)}.
+     *
+     * @param roots
+     *            Roots of the polynomial
+     * @return Polynomial with the specified roots
+     */
+    public static ComplexPolynomial fromRoots(ComplexNumber... roots) {
+        int n = roots.length;
+        double[] re = new double[n + 1];
+        double[] im = new double[n + 1];
+        re[0] = 1;
+
+        // multiplies the product of the first k factors by (z - root)
+        for (int k = 0; k < n; k++) {
+            double rootRe = roots[k].getReal();
+            double rootIm = roots[k].getImaginary();
+            for (int i = k + 1; i > 0; i--) {
+                double a = re[i - 1];
+                double b = im[i - 1];
+                re[i] -= a * rootRe - b * rootIm;
+                im[i] -= a * rootIm + b * rootRe;
+            }
+        }
+
+        // coefficients were computed from the leading one down
+        for (int i = 0, j = n; i < j; i++, j--) {
+            double t = re[i];
+            re[i] = re[j];
+            re[j] = t;
+            t = im[i];
+            im[i] = im[j];
+            im[j] = t;
+        }
+
+        return new ComplexPolynomial(re, im);
+    }
+
+    /**
+     * Gets the degree of this polynomial. Constant polynomials, including
+     * zero, have degree 0.
+     *
+     * @return Degree of this polynomial
+     */
+    public int degree() {
+        return real.length - 1;
+    }
+
+    /**
+     * Gets the coefficient which multiplies z to the specified power.
+     *
+     * @param power
+     *            Power of z, from 0 to the degree
+     * @return Coefficient of the power
+     */
+    public ComplexNumber getCoefficient(int power) {
+        return new ComplexNumber(real[power], imaginary[power]);
+    }
+
+    /**
+     * Creates the derivative of this polynomial.
+     *
+     * @return Derivative of this polynomial
+     */
+    public ComplexPolynomial derivative() {
+        if (real.length == 1) {
+            return new ComplexPolynomial(new double[1], new double[1]);
+        }
+
+        double[] re = new double[real.length - 1];
+        double[] im = new double[real.length - 1];
+        for (int i = 1; i < real.length; i++) {
+            re[i - 1] = real[i] * i;
+            im[i - 1] = imaginary[i] * i;
+        }
+        return new ComplexPolynomial(re, im);
+    }
+
+    /**
+     * Evaluates this polynomial at the specified point.
+     *
+     * @param z
+     *            Point of evaluation
+     * @return Value of this polynomial at z
+     */
+    public ComplexNumber evaluate(ComplexNumber z) {
+        double zRe = z.getReal();
+        double zIm = z.getImaginary();
+        double[] re = real;
+        double[] im = imaginary;
+        double valueRe = re[re.length - 1];
+        double valueIm = im[im.length - 1];
+
+        for (int i = re.length - 2; i >= 0; i--) {
+            double t = valueRe * zRe - valueIm * zIm + re[i];
+            valueIm = valueRe * zIm + valueIm * zRe + im[i];
+            valueRe = t;
+        }
+
+        return new ComplexNumber(valueRe, valueIm);
+    }
+
+    /**
+     * Evaluates this polynomial and its derivative at the specified point in
+     * one pass.
+     *
+     * @param z
+     *            Point of evaluation
+     * @return Array with the value of this polynomial at index 0 and the
+     *         value of its derivative at index 1
+     */
+    public ComplexNumber[] evaluateWithDerivative(ComplexNumber z) {
+        double[] result = new double[4];
+        evaluateWithDerivative(z.getReal(), z.getImaginary(), result);
+        return new ComplexNumber[] { new ComplexNumber(result[0], result[1]),
+                new ComplexNumber(result[2], result[3]) };
+    }
+
+    /**
+     * Evaluates this polynomial at every point of the arrays. The output
+     * arrays may be the same as the input arrays.
+     *
+     * @param zReal
+     *            Real parts of the points
+     * @param zImaginary
+     *            Imaginary parts of the points
+     * @param valueReal
+     *            Array into which real parts of the values are written
+     * @param valueImaginary
+     *            Array into which imaginary parts of the values are written
+     */
+    public void evaluate(double[] zReal, double[] zImaginary, double[] valueReal,
+            double[] valueImaginary) {
+        int n = zReal.length;
+        if (zImaginary.length != n || valueReal.length < n || valueImaginary.length < n) {
+            throw new IllegalArgumentException("Arrays have different lengths");
+        }
+
+        double[] re = real;
+        double[] im = imaginary;
+        int last = re.length - 1;
+
+        for (int k = 0; k < n; k++) {
+            double zRe = zReal[k];
+            double zIm = zImaginary[k];
+            double vRe = re[last];
+            double vIm = im[last];
+
+            for (int i = last - 1; i >= 0; i--) {
+                double t = vRe * zRe - vIm * zIm + re[i];
+                vIm = vRe * zIm + vIm * zRe + im[i];
+                vRe = t;
+            }
+
+            valueReal[k] = vRe;
+            valueImaginary[k] = vIm;
+        }
+    }
+
+    /**
+     * Evaluates this polynomial and its derivative at every point of the
+     * arrays. The output arrays may be the same as the input arrays.
+     *
+     * @param zReal
+     *            Real parts of the points
+     * @param zImaginary
+     *            Imaginary parts of the points
+     * @param valueReal
+     *            Array into which real parts of the values are written
+     * @param valueImaginary
+     *            Array into which imaginary parts of the values are written
+     * @param derivativeReal
+     *            Array into which real parts of the derivatives are written
+     * @param derivativeImaginary
+     *            Array into which imaginary parts of the derivatives are
+     *            written
+     */
+    public void evaluateWithDerivative(double[] zReal, double[] zImaginary, double[] valueReal,
+            double[] valueImaginary, double[] derivativeReal, double[] derivativeImaginary) {
+        int n = zReal.length;
+        if (zImaginary.length != n || valueReal.length < n || valueImaginary.length < n
+                || derivativeReal.length < n || derivativeImaginary.length < n) {
+            throw new IllegalArgumentException("Arrays have different lengths");
+        }
+
+        double[] re = real;
+        double[] im = imaginary;
+        int last = re.length - 1;
+
+        for (int k = 0; k < n; k++) {
+            double zRe = zReal[k];
+            double zIm = zImaginary[k];
+            double vRe = re[last];
+            double vIm = im[last];
+            double dRe = 0;
+            double dIm = 0;
+
+            for (int i = last - 1; i >= 0; i--) {
+                double t = dRe * zRe - dIm * zIm + vRe;
+                dIm = dRe * zIm + dIm * zRe + vIm;
+                dRe = t;
+
+                t = vRe * zRe - vIm * zIm + re[i];
+                vIm = vRe * zIm + vIm * zRe + im[i];
+                vRe = t;
+            }
+
+            valueReal[k] = vRe;
+            valueImaginary[k] = vIm;
+            derivativeReal[k] = dRe;
+            derivativeImaginary[k] = dIm;
+        }
+    }
+
+    /**
+     * Evaluates this polynomial on a rectangular grid of points. Row y and
+     * column x of the grid is the point
+     * {@code minReal + x * (maxReal - minReal) / (width - 1)} plus
+     * {@code i * (maxImaginary - y * (maxImaginary - minImaginary) / (height - 1))},
+     * so row 0 is at the top like in an image. Values are written row by row.
+     *
+     * @param minReal
+     *            Real part of the left column
+     * @param maxReal
+     *            Real part of the right column
+     * @param minImaginary
+     *            Imaginary part of the bottom row
+     * @param maxImaginary
+     *            Imaginary part of the top row
+     * @param width
+     *            Number of columns
+     * @param height
+     *            Number of rows
+     * @param valueReal
+     *            Array into which real parts of the values are written
+     * @param valueImaginary
+     *            Array into which imaginary parts of the values are written
+     */
+    public void evaluateGrid(double minReal, double maxReal, double minImaginary,
+            double maxImaginary, int width, int height, double[] valueReal,
+            double[] valueImaginary) {
+        Grid grid = new Grid(minReal, maxReal, minImaginary, maxImaginary, width, height,
+                valueReal, valueImaginary);
+        evaluateRows(grid, 0, height);
+    }
+
+    /**
+     * Evaluates this polynomial on a grid like
+     * {@link #evaluateGrid(double, double, double, double, int, int, double[], double[])}
+     * using the common fork-join pool.
+     *
+     * @param minReal
+     *            Real part of the left column
+     * @param maxReal
+     *            Real part of the right column
+     * @param minImaginary
+     *            Imaginary part of the bottom row
+     * @param maxImaginary
+     *            Imaginary part of the top row
+     * @param width
+     *            Number of columns
+     * @param height
+     *            Number of rows
+     * @param valueReal
+     *            Array into which real parts of the values are written
+     * @param valueImaginary
+     *            Array into which imaginary parts of the values are written
+     */
+    public void parallelEvaluateGrid(double minReal, double maxReal, double minImaginary,
+            double maxImaginary, int width, int height, double[] valueReal,
+            double[] valueImaginary) {
+        parallelEvaluateGrid(minReal, maxReal, minImaginary, maxImaginary, width, height,
+                valueReal, valueImaginary, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Evaluates this polynomial on a grid like
+     * {@link #evaluateGrid(double, double, double, double, int, int, double[], double[])}
+     * using the specified fork-join pool. Rows are split between tasks of at
+     * least {@value #PARALLEL_THRESHOLD} points.
+     *
+     * @param minReal
+     *            Real part of the left column
+     * @param maxReal
+     *            Real part of the right column
+     * @param minImaginary
+     *            Imaginary part of the bottom row
+     * @param maxImaginary
+     *            Imaginary part of the top row
+     * @param width
+     *            Number of columns
+     * @param height
+     *            Number of rows
+     * @param valueReal
+     *            Array into which real parts of the values are written
+     * @param valueImaginary
+     *            Array into which imaginary parts of the values are written
+     * @param pool
+     *            Pool which evaluates the grid
+     */
+    public void parallelEvaluateGrid(double minReal, double maxReal, double minImaginary,
+            double maxImaginary, int width, int height, double[] valueReal,
+            double[] valueImaginary, ForkJoinPool pool) {
+        if (pool == null) {
+            throw new NullPointerException();
+        }
+
+        Grid grid = new Grid(minReal, maxReal, minImaginary, maxImaginary, width, height,
+                valueReal, valueImaginary);
+        pool.invoke(new GridTask(grid, 0, height));
+    }
+
+    /**
+     * Finds all roots of this polynomial with the Aberth-Ehrlich method. The
+     * initial approximations are the n-th roots from {@link ComplexNumber#root(int)}
+     * around the centroid of the roots, which lie close to the roots of most
+     * polynomials. Every approximation is then refined simultaneously until
+     * the value of this polynomial at it is within the rounding error of the
+     * evaluation, which usually takes a few iterations.
+     * <p>
+     * The returned roots are exact roots of a polynomial whose coefficients
+     * differ from these by a few units of roundoff. How far that moves the
+     * roots depends on their conditioning: well separated roots are accurate
+     * to nearly full precision, roots of multiplicity m only to about 1/m of
+     * the digits, and clustered real roots of high degree polynomials, like
+     * those of Wilkinson's polynomial, lose many digits.
+     *
+     * @return Array of {@link #degree()} roots, empty for a constant
+     *         polynomial
+     */
+    public ComplexNumber[] roots() {
+        int n = degree();
+        double[] zRe = new double[n];
+        double[] zIm = new double[n];
+        if (n == 0) {
+            return new ComplexNumber[0];
+        }
+
+        initialApproximations(zRe, zIm);
+
+        boolean[] converged = new boolean[n];
+        double[] result = new double[4];
+        int remaining = n;
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS && remaining > 0; iteration++) {
+            for (int k = 0; k < n; k++) {
+                if (converged[k]) {
+                    continue;
+                }
+
+                double x = zRe[k];
+                double y = zIm[k];
+                double bound = evaluateWithDerivative(x, y, result);
+                double pRe = result[0];
+                double pIm = result[1];
+                if (Math.hypot(pRe, pIm) <= EPSILON * bound) {
+                    converged[k] = true;
+                    remaining--;
+                    continue;
+                }
+
+                // ratio = p(z) / p'(z)
+                double dRe = result[2];
+                double dIm = result[3];
+                double norm = dRe * dRe + dIm * dIm;
+                double ratioRe = (pRe * dRe + pIm * dIm) / norm;
+                double ratioIm = (pIm * dRe - pRe * dIm) / norm;
+
+                // sum of 1 / (z - zj) over the other approximations
+                double sumRe = 0;
+                double sumIm = 0;
+                for (int j = 0; j < n; j++) {
+                    if (j != k) {
+                        double a = x - zRe[j];
+                        double b = y - zIm[j];
+                        double d = a * a + b * b;
+                        sumRe += a / d;
+                        sumIm -= b / d;
+                    }
+                }
+
+                // correction = ratio / (1 - ratio * sum)
+                double denominatorRe = 1 - (ratioRe * sumRe - ratioIm * sumIm);
+                double denominatorIm = -(ratioRe * sumIm + ratioIm * sumRe);
+                double correctionRe;
+                double correctionIm;
+                if (norm == 0 || Double.isNaN(ratioRe) || Double.isNaN(ratioIm)) {
+                    // p'(z) is zero, so the approximation is moved away
+                    correctionRe = EPSILON * (1 + Math.abs(x));
+                    correctionIm = EPSILON * (1 + Math.abs(y));
+                } else {
+                    double d = denominatorRe * denominatorRe + denominatorIm * denominatorIm;
+                    correctionRe = (ratioRe * denominatorRe + ratioIm * denominatorIm) / d;
+                    correctionIm = (ratioIm * denominatorRe - ratioRe * denominatorIm) / d;
+                }
+
+                zRe[k] = x - correctionRe;
+                zIm[k] = y - correctionIm;
+
+                if (Math.hypot(correctionRe, correctionIm) <= EPSILON
+                        * Math.hypot(zRe[k], zIm[k])) {
+                    converged[k] = true;
+                    remaining--;
+                }
+            }
+        }
+
+        ComplexNumber[] roots = new ComplexNumber[n];
+        for (int k = 0; k < n; k++) {
+            roots[k] = new ComplexNumber(zRe[k], zIm[k]);
+        }
+        return roots;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = real.length - 1; i >= 0; i--) {
+            if (i < real.length - 1) {
+                if (real[i] == 0 && imaginary[i] == 0) {
+                    continue;
+                }
+                sb.append(" + ");
+            }
+
+            sb.append('(').append(new ComplexNumber(real[i], imaginary[i])).append(')');
+            if (i > 1) {
+                sb.append("z^").append(i);
+            } else if (i == 1) {
+                sb.append('z');
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Evaluates this polynomial and its derivative at a point and bounds the
+     * rounding error of the evaluation.
+     *
+     * @param zRe
+     *            Real part of the point
+     * @param zIm
+     *            Imaginary part of the point
+     * @param result
+     *            Array into which the real and imaginary part of the value and
+     *            of the derivative are written
+     * @return Sum of magnitudes of the terms, the rounding error of the value
+     *         is within a small multiple of it times the unit roundoff
+     */
+    private double evaluateWithDerivative(double zRe, double zIm, double[] result) {
+        double[] re = real;
+        double[] im = imaginary;
+        int last = re.length - 1;
+        double magnitude = Math.hypot(zRe, zIm);
+        double vRe = re[last];
+        double vIm = im[last];
+        double dRe = 0;
+        double dIm = 0;
+        double bound = Math.hypot(vRe, vIm);
+
+        for (int i = last - 1; i >= 0; i--) {
+            double t = dRe * zRe - dIm * zIm + vRe;
+            dIm = dRe * zIm + dIm * zRe + vIm;
+            dRe = t;
+
+            t = vRe * zRe - vIm * zIm + re[i];
+            vIm = vRe * zIm + vIm * zRe + im[i];
+            vRe = t;
+
+            bound = bound * magnitude + Math.hypot(re[i], im[i]);
+        }
+
+        result[0] = vRe;
+        result[1] = vIm;
+        result[2] = dRe;
+        result[3] = dIm;
+        return bound;
+    }
+
+    /**
+     * Writes the initial approximations of the roots, the roots of
+     * {@code (z - c)^n + p(c) / cn} where c is the centroid of the roots. If
+     * p(c) is zero they are spread on a circle around c instead.
+     *
+     * @param zRe
+     *            Array into which real parts are written
+     * @param zIm
+     *            Array into which imaginary parts are written
+     */
+    private void initialApproximations(double[] zRe, double[] zIm) {
+        int n = zRe.length;
+        ComplexNumber leading = new ComplexNumber(real[n], imaginary[n]);
+        ComplexNumber centroid = new ComplexNumber(-real[n - 1], -imaginary[n - 1])
+                .div(leading.mul(ComplexNumber.fromReal(n)));
+
+        ComplexNumber shift = evaluate(centroid).div(leading);
+        if (shift.getReal() == 0 && shift.getImaginary() == 0) {
+            // every root might be at the centroid, so the radius comes from
+            // the Cauchy bound of the roots
+            double radius = 0;
+            double leadingMagnitude = leading.getMagnitude();
+            for (int i = 0; i < n; i++) {
+                radius = Math.max(radius, Math.hypot(real[i], imaginary[i]) / leadingMagnitude);
+            }
+            shift = ComplexNumber.fromReal(-Math.max(radius, 1));
+        }
+
+        new ComplexNumber(-shift.getReal(), -shift.getImaginary()).root(n, zRe, zIm, 0);
+        for (int k = 0; k < n; k++) {
+            zRe[k] += centroid.getReal();
+            zIm[k] += centroid.getImaginary();
+        }
+    }
+
+    /**
+     * Evaluates a range of rows of a grid.
+     *
+     * @param grid
+     *            Grid to be evaluated
+     * @param from
+     *            First row, inclusive
+     * @param to
+     *            Last row, exclusive
+     */
+    private void evaluateRows(Grid grid, int from, int to) {
+        double[] re = real;
+        double[] im = imaginary;
+        int last = re.length - 1;
+        double[] valueReal = grid.valueReal;
+        double[] valueImaginary = grid.valueImaginary;
+        double minReal = grid.minReal;
+        double stepReal = grid.stepReal;
+        int width = grid.width;
+
+        for (int y = from; y < to; y++) {
+            double zIm = grid.maxImaginary - y * grid.stepImaginary;
+            int index = y * width;
+
+            // converting the column from int in every iteration chains the
+            // iterations through a false register dependency, a double counter
+            // is exact and twice as fast
+            double column = 0;
+            for (int x = 0; x < width; x++, index++, column++) {
+                double zRe = minReal + column * stepReal;
+                double vRe = re[last];
+                double vIm = im[last];
+
+                for (int i = last - 1; i >= 0; i--) {
+                    double t = vRe * zRe - vIm * zIm + re[i];
+                    vIm = vRe * zIm + vIm * zRe + im[i];
+                    vRe = t;
+                }
+
+                valueReal[index] = vRe;
+                valueImaginary[index] = vIm;
+            }
+        }
+    }
+
+    /**
+     * Counts the coefficients up to the last nonzero one, given either as
+     * complex numbers or as parts.
+     *
+     * @param length
+     *            Number of coefficients
+     * @param coefficients
+     *            Coefficients as complex numbers, or null
+     * @param real
+     *            Real parts of the coefficients if coefficients are null
+     * @param imaginary
+     *            Imaginary parts of the coefficients if coefficients are null
+     * @return Number of significant coefficients, at least one
+     */
+    private static int significantLength(int length, ComplexNumber[] coefficients,
+            double[] real, double[] imaginary) {
+        while (length > 1) {
+            double re = coefficients == null ? real[length - 1]
+                    : coefficients[length - 1].getReal();
+            double im = coefficients == null ? imaginary[length - 1]
+                    : coefficients[length - 1].getImaginary();
+            if (re != 0 || im != 0) {
+                break;
+            }
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * Rectangular grid of points and the arrays of its values.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static final class Grid {
+        /** Real part of the left column. */
+        final double minReal;
+        /** Imaginary part of the top row. */
+        final double maxImaginary;
+        /** Distance between columns. */
+        final double stepReal;
+        /** Distance between rows. */
+        final double stepImaginary;
+        /** Number of columns. */
+        final int width;
+        /** Real parts of the values. */
+        final double[] valueReal;
+        /** Imaginary parts of the values. */
+        final double[] valueImaginary;
+
+        /**
+         * Constructs a grid and checks its arguments.
+         *
+         * @param minReal
+         *            Real part of the left column
+         * @param maxReal
+         *            Real part of the right column
+         * @param minImaginary
+         *            Imaginary part of the bottom row
+         * @param maxImaginary
+         *            Imaginary part of the top row
+         * @param width
+         *            Number of columns
+         * @param height
+         *            Number of rows
+         * @param valueReal
+         *            Real parts of the values
+         * @param valueImaginary
+         *            Imaginary parts of the values
+         */
+        Grid(double minReal, double maxReal, double minImaginary, double maxImaginary, int width,
+                int height, double[] valueReal, double[] valueImaginary) {
+            if (valueReal == null || valueImaginary == null) {
+                throw new NullPointerException();
+            } else if (width < 0 || height < 0) {
+                throw new IllegalArgumentException("Negative grid size");
+            } else if ((long) width * height > Math.min(valueReal.length, valueImaginary.length)) {
+                throw new IllegalArgumentException("Arrays are smaller than the grid");
+            }
+
+            this.minReal = minReal;
+            this.maxImaginary = maxImaginary;
+            this.stepReal = width > 1 ? (maxReal - minReal) / (width - 1) : 0;
+            this.stepImaginary = height > 1 ? (maxImaginary - minImaginary) / (height - 1) : 0;
+            this.width = width;
+            this.valueReal = valueReal;
+            this.valueImaginary = valueImaginary;
+        }
+    }
+
+    /**
+     * Task which evaluates a range of rows of a grid.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private class GridTask extends RecursiveAction {
+        /** Serial version UID. */
+        private static final long serialVersionUID = 1L;
+
+        /** Grid to be evaluated. */
+        private final Grid grid;
+        /** First row, inclusive. */
+        private final int from;
+        /** Last row, exclusive. */
+        private final int to;
+
+        /**
+         * Constructs a task for the specified rows.
+         *
+         * @param grid
+         *            Grid to be evaluated
+         * @param from
+         *            First row, inclusive
+         * @param to
+         *            Last row, exclusive
+         */
+        GridTask(Grid grid, int from, int to) {
+            this.grid = grid;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1 || (long) (to - from) * grid.width <= PARALLEL_THRESHOLD) {
+                evaluateRows(grid, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GridTask(grid, from, middle), new GridTask(grid, middle, to));
+            }
+        }
+    }
+}
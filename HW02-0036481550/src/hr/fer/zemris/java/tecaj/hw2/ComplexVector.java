@@ -0,0 +1,422 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-length vector of complex numbers stored as two parallel arrays, one
+ * for real and one for imaginary parts. Compared to {@code ComplexNumber[]}
+ * there is no object per element, and the element-wise loops are simple
+ * enough for the JIT to vectorize.
+ * <p>
+ * Arithmetic operations change this vector and return it, so they can be
+ * chained without allocating.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexVector {
+    /** Real parts of the elements. */
+    private final double[] real;
+    /** Imaginary parts of the elements. */
+    private final double[] imaginary;
+
+    /**
+     * Constructs a vector of the specified length with all elements equal to
+     * zero.
+     *
+     * @param length
+     *            Number of elements
+     */
+    public ComplexVector(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.real = new double[length];
+        this.imaginary = new double[length];
+    }
+
+    /**
+     * Constructs a vector from copies of the specified parts.
+     *
+     * @param real
+     *            Real parts of the elements
+     * @param imaginary
+     *            Imaginary parts of the elements
+     */
+    public ComplexVector(double[] real, double[] imaginary) {
+        if (real.length != imaginary.length) {
+            throw new IllegalArgumentException();
+        }
+
+        this.real = real.clone();
+        this.imaginary = imaginary.clone();
+    }
+
+    /**
+     * Factory method which creates vector from an array of complex numbers.
+     *
+     * @param numbers
+     *            Complex numbers
+     * @return Vector with the same elements
+     */
+    public static ComplexVector fromComplexNumbers(ComplexNumber[] numbers) {
+        ComplexVector vector = new ComplexVector(numbers.length);
+
+        for (int i = 0; i < numbers.length; i++) {
+            vector.real[i] = numbers[i].getReal();
+            vector.imaginary[i] = numbers[i].getImaginary();
+        }
+
+        return vector;
+    }
+
+    /**
+     * Creates an array of complex numbers with the elements of this vector.
+     *
+     * @return Array of complex numbers
+     */
+    public ComplexNumber[] toComplexNumbers() {
+        ComplexNumber[] numbers = new ComplexNumber[real.length];
+
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = new ComplexNumber(real[i], imaginary[i]);
+        }
+
+        return numbers;
+    }
+
+    /**
+     * Gets the number of elements of this vector.
+     *
+     * @return Number of elements
+     */
+    public int length() {
+        return real.length;
+    }
+
+    /**
+     * Gets the array of real parts which backs this vector. Changes of the
+     * array are visible in this vector.
+     *
+     * @return Real parts of the elements
+     */
+    public double[] getRealParts() {
+        return real;
+    }
+
+    /**
+     * Gets the array of imaginary parts which backs this vector. Changes of
+     * the array are visible in this vector.
+     *
+     * @return Imaginary parts of the elements
+     */
+    public double[] getImaginaryParts() {
+        return imaginary;
+    }
+
+    /**
+     * Gets the real part of the element at specified index.
+     *
+     * @param index
+     *            Index of the element
+     * @return Real part of the element
+     */
+    public double getReal(int index) {
+        return real[index];
+    }
+
+    /**
+     * Gets the imaginary part of the element at specified index.
+     *
+     * @param index
+     *            Index of the element
+     * @return Imaginary part of the element
+     */
+    public double getImaginary(int index) {
+        return imaginary[index];
+    }
+
+    /**
+     * Gets the element at specified index.
+     *
+     * @param index
+     *            Index of the element
+     * @return Element at specified index
+     */
+    public ComplexNumber get(int index) {
+        return new ComplexNumber(real[index], imaginary[index]);
+    }
+
+    /**
+     * Sets the element at specified index.
+     *
+     * @param index
+     *            Index of the element
+     * @param real
+     *            Real part of the element
+     * @param imaginary
+     *            Imaginary part of the element
+     */
+    public void set(int index, double real, double imaginary) {
+        this.real[index] = real;
+        this.imaginary[index] = imaginary;
+    }
+
+    /**
+     * Sets the element at specified index.
+     *
+     * @param index
+     *            Index of the element
+     * @param c
+     *            New value of the element
+     */
+    public void set(int index, ComplexNumber c) {
+        set(index, c.getReal(), c.getImaginary());
+    }
+
+    /**
+     * Creates a copy of this vector.
+     *
+     * @return Copy of this vector
+     */
+    public ComplexVector copy() {
+        return new ComplexVector(real, imaginary);
+    }
+
+    /**
+     * Adds elements of the specified vector to elements of this vector.
+     *
+     * @param other
+     *            Vector to be added
+     * @return This vector
+     */
+    public ComplexVector add(ComplexVector other) {
+        checkLength(other);
+        double[] re = real;
+        double[] im = imaginary;
+        double[] otherRe = other.real;
+        double[] otherIm = other.imaginary;
+
+        for (int i = 0; i < re.length; i++) {
+            re[i] += otherRe[i];
+            im[i] += otherIm[i];
+        }
+
+        return this;
+    }
+
+    /**
+     * Subtracts elements of the specified vector from elements of this vector.
+     *
+     * @param other
+     *            Vector to be subtracted
+     * @return This vector
+     */
+    public ComplexVector sub(ComplexVector other) {
+        checkLength(other);
+        double[] re = real;
+        double[] im = imaginary;
+        double[] otherRe = other.real;
+        double[] otherIm = other.imaginary;
+
+        for (int i = 0; i < re.length; i++) {
+            re[i] -= otherRe[i];
+            im[i] -= otherIm[i];
+        }
+
+        return this;
+    }
+
+    /**
+     * Multiplies elements of this vector with elements of the specified
+     * vector.
+     *
+     * @param other
+     *            Vector to be multiplied
+     * @return This vector
+     */
+    public ComplexVector mul(ComplexVector other) {
+        checkLength(other);
+        double[] re = real;
+        double[] im = imaginary;
+        double[] otherRe = other.real;
+        double[] otherIm = other.imaginary;
+
+        for (int i = 0; i < re.length; i++) {
+            double a = re[i];
+            double b = im[i];
+            double c = otherRe[i];
+            double d = otherIm[i];
+
+            re[i] = a * c - b * d;
+            im[i] = a * d + b * c;
+        }
+
+        return this;
+    }
+
+    /**
+     * Divides elements of this vector with elements of the specified vector.
+     *
+     * @param other
+     *            Vector used as divisor
+     * @return This vector
+     */
+    public ComplexVector div(ComplexVector other) {
+        checkLength(other);
+        double[] re = real;
+        double[] im = imaginary;
+        double[] otherRe = other.real;
+        double[] otherIm = other.imaginary;
+
+        for (int i = 0; i < re.length; i++) {
+            double a = re[i];
+            double b = im[i];
+            double c = otherRe[i];
+            double d = otherIm[i];
+            double norm = c * c + d * d;
+
+            re[i] = (a * c + b * d) / norm;
+            im[i] = (b * c - a * d) / norm;
+        }
+
+        return this;
+    }
+
+    /**
+     * Multiplies every element of this vector with a real number.
+     *
+     * @param factor
+     *            Real factor
+     * @return This vector
+     */
+    public ComplexVector scale(double factor) {
+        double[] re = real;
+        double[] im = imaginary;
+
+        for (int i = 0; i < re.length; i++) {
+            re[i] *= factor;
+            im[i] *= factor;
+        }
+
+        return this;
+    }
+
+    /**
+     * Multiplies every element of this vector with a complex number.
+     *
+     * @param factor
+     *            Complex factor
+     * @return This vector
+     */
+    public ComplexVector scale(ComplexNumber factor) {
+        double c = factor.getReal();
+        double d = factor.getImaginary();
+        double[] re = real;
+        double[] im = imaginary;
+
+        for (int i = 0; i < re.length; i++) {
+            double a = re[i];
+            double b = im[i];
+
+            re[i] = a * c - b * d;
+            im[i] = a * d + b * c;
+        }
+
+        return this;
+    }
+
+    /**
+     * Conjugates every element of this vector.
+     *
+     * @return This vector
+     */
+    public ComplexVector conjugate() {
+        double[] im = imaginary;
+
+        for (int i = 0; i < im.length; i++) {
+            im[i] = -im[i];
+        }
+
+        return this;
+    }
+
+    /**
+     * Calculates magnitudes of the elements.
+     *
+     * @return Array of magnitudes
+     */
+    public double[] magnitudes() {
+        return magnitudes(new double[real.length]);
+    }
+
+    /**
+     * Calculates magnitudes of the elements into the specified array.
+     *
+     * @param output
+     *            Array into which magnitudes are written
+     * @return The output array
+     */
+    public double[] magnitudes(double[] output) {
+        if (output.length < real.length) {
+            throw new IllegalArgumentException();
+        }
+
+        double[] re = real;
+        double[] im = imaginary;
+        for (int i = 0; i < re.length; i++) {
+            output[i] = Math.sqrt(re[i] * re[i] + im[i] * im[i]);
+        }
+
+        return output;
+    }
+
+    /**
+     * Calculates the inner product of this vector and the specified vector,
+     * the sum of products of elements of this vector with conjugated elements
+     * of the other vector.
+     *
+     * @param other
+     *            Second vector
+     * @return Inner product
+     */
+    public ComplexNumber dot(ComplexVector other) {
+        checkLength(other);
+        double[] re = real;
+        double[] im = imaginary;
+        double[] otherRe = other.real;
+        double[] otherIm = other.imaginary;
+        double sumReal = 0;
+        double sumImaginary = 0;
+
+        for (int i = 0; i < re.length; i++) {
+            sumReal += re[i] * otherRe[i] + im[i] * otherIm[i];
+            sumImaginary += im[i] * otherRe[i] - re[i] * otherIm[i];
+        }
+
+        return new ComplexNumber(sumReal, sumImaginary);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(toComplexNumbers());
+    }
+
+    /**
+     * Checks if the specified vector has the same length as this one.
+     *
+     * @param other
+     *            Vector to be checked
+     */
+    private void checkLength(ComplexVector other) {
+        if (other == null) {
+            throw new NullPointerException();
+        } else if (other.real.length != real.length) {
+            throw new IllegalArgumentException("Vectors have different lengths");
+        }
+    }
+}
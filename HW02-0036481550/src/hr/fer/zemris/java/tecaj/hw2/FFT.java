@@ -0,0 +1,742 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fast Fourier transform of complex sequences stored as split arrays of real
+ * and imaginary parts. Transforms are computed in place.
+ * <p>
+ * Power-of-two lengths use the iterative radix-2 algorithm. Any other length
+ * is handled by Bluestein's algorithm, which rewrites the transform as a
+ * convolution computed with radix-2 transforms of at least twice the length.
+ * Twiddle factors and Bluestein's chirp filters are computed once per length
+ * and cached, so repeated transforms of the same length do not call
+ * {@code sin} or {@code cos}. Every power-of-two plan is kept, there are at
+ * most 31 of them, while only the {@value #BLUESTEIN_CACHE_SIZE} most recently
+ * used lengths of other plans are kept, so transforming many distinct lengths
+ * does not hold their filters forever.
+ * <p>
+ * Lengths which are not powers of two may be at most 2^29, the largest whose
+ * convolution length still fits an array. Every thread keeps scratch arrays
+ * for convolutions of up to {@value #SCRATCH_LIMIT} elements; a longer
+ * convolution allocates two arrays of its length per transform, which costs
+ * little next to its two radix-2 transforms.
+ * <p>
+ * The forward transform computes
+ * {@code X[k] = sum x[j] * exp(-2 * pi * i * j * k / n)} and the inverse
+ * transform divides by {@code n}, so that the inverse of the forward
+ * transform returns the original sequence.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public final class FFT {
+
+    /**
+     * Smallest length transformed in parallel, shorter transforms are faster
+     * on a single thread.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /** Length of the segments whose first stages are computed by one task. */
+    private static final int SEGMENT = 1 << 12;
+
+    /** Number of cached Bluestein plans. */
+    private static final int BLUESTEIN_CACHE_SIZE = 16;
+
+    /** Largest length transformed by Bluestein's algorithm. */
+    private static final int BLUESTEIN_LENGTH_LIMIT = 1 << 29;
+
+    /** Largest convolution length whose scratch arrays are kept by a thread. */
+    private static final int SCRATCH_LIMIT = 1 << 16;
+
+    /** Real and imaginary scratch arrays of Bluestein's convolution per thread. */
+    private static final ThreadLocal<double[][]> SCRATCH = new ThreadLocal<double[][]>() {
+        @Override
+        protected double[][] initialValue() {
+            return new double[2][0];
+        }
+    };
+
+    /** Cached power-of-two plans, index is the base 2 logarithm of the length. */
+    private static final Radix2Plan[] RADIX2_PLANS = new Radix2Plan[Integer.SIZE - 1];
+    /** Most recently used Bluestein plans by length, guarded by itself. */
+    private static final Map<Integer, BluesteinPlan> BLUESTEIN_PLANS =
+            new LinkedHashMap<Integer, BluesteinPlan>(2 * BLUESTEIN_CACHE_SIZE, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, BluesteinPlan> eldest) {
+                    return size() > BLUESTEIN_CACHE_SIZE;
+                }
+            };
+
+    /**
+     * Prevents creating instances, all methods are static.
+     */
+    private FFT() {
+    }
+
+    /**
+     * Computes the forward transform in place.
+     *
+     * @param real
+     *            Real parts, overwritten by the real parts of the transform
+     * @param imaginary
+     *            Imaginary parts, overwritten by the imaginary parts of the
+     *            transform
+     */
+    public static void transform(double[] real, double[] imaginary) {
+        checkLength(real, imaginary);
+        if (real.length > 1) {
+            plan(real.length).transform(real, imaginary);
+        }
+    }
+
+    /**
+     * Computes the inverse transform in place.
+     *
+     * @param real
+     *            Real parts, overwritten by the real parts of the inverse
+     *            transform
+     * @param imaginary
+     *            Imaginary parts, overwritten by the imaginary parts of the
+     *            inverse transform
+     */
+    public static void inverse(double[] real, double[] imaginary) {
+        conjugate(imaginary);
+        transform(real, imaginary);
+        conjugate(imaginary);
+        scale(real, imaginary, 1.0 / Math.max(1, real.length));
+    }
+
+    /**
+     * Computes the forward transform of the vector in place.
+     *
+     * @param vector
+     *            Vector which is transformed
+     */
+    public static void transform(ComplexVector vector) {
+        transform(vector.getRealParts(), vector.getImaginaryParts());
+    }
+
+    /**
+     * Computes the inverse transform of the vector in place.
+     *
+     * @param vector
+     *            Vector which is transformed
+     */
+    public static void inverse(ComplexVector vector) {
+        inverse(vector.getRealParts(), vector.getImaginaryParts());
+    }
+
+    /**
+     * Computes the forward transform of an array of complex numbers.
+     *
+     * @param numbers
+     *            Sequence which is transformed, it is not changed
+     * @return Transform of the sequence
+     */
+    public static ComplexNumber[] transform(ComplexNumber[] numbers) {
+        ComplexVector vector = ComplexVector.fromComplexNumbers(numbers);
+        transform(vector);
+        return vector.toComplexNumbers();
+    }
+
+    /**
+     * Computes the inverse transform of an array of complex numbers.
+     *
+     * @param numbers
+     *            Sequence which is transformed, it is not changed
+     * @return Inverse transform of the sequence
+     */
+    public static ComplexNumber[] inverse(ComplexNumber[] numbers) {
+        ComplexVector vector = ComplexVector.fromComplexNumbers(numbers);
+        inverse(vector);
+        return vector.toComplexNumbers();
+    }
+
+    /**
+     * Computes the forward transform in place using the common fork-join pool.
+     * Power-of-two lengths of at least {@value #PARALLEL_THRESHOLD} are
+     * computed in parallel, other lengths like {@link #transform(double[],
+     * double[])}.
+     *
+     * @param real
+     *            Real parts, overwritten by the real parts of the transform
+     * @param imaginary
+     *            Imaginary parts, overwritten by the imaginary parts of the
+     *            transform
+     */
+    public static void parallelTransform(double[] real, double[] imaginary) {
+        parallelTransform(real, imaginary, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the forward transform in place using the specified fork-join
+     * pool. Power-of-two lengths of at least {@value #PARALLEL_THRESHOLD} are
+     * computed in parallel, other lengths like {@link #transform(double[],
+     * double[])}.
+     *
+     * @param real
+     *            Real parts, overwritten by the real parts of the transform
+     * @param imaginary
+     *            Imaginary parts, overwritten by the imaginary parts of the
+     *            transform
+     * @param pool
+     *            Pool which computes the transform
+     */
+    public static void parallelTransform(double[] real, double[] imaginary, ForkJoinPool pool) {
+        checkLength(real, imaginary);
+        if (pool == null) {
+            throw new NullPointerException();
+        }
+
+        int n = real.length;
+        if (n < PARALLEL_THRESHOLD || Integer.bitCount(n) != 1) {
+            transform(real, imaginary);
+            return;
+        }
+
+        Radix2Plan plan = radix2Plan(n);
+        bitReverse(real, imaginary, n);
+        pool.invoke(new SegmentTask(real, imaginary, plan, 0, n / SEGMENT));
+        for (int length = SEGMENT * 2; length <= n; length <<= 1) {
+            pool.invoke(new StageTask(real, imaginary, plan, length, 0, n / 2));
+        }
+    }
+
+    /**
+     * Computes the inverse transform in place using the common fork-join pool.
+     *
+     * @param real
+     *            Real parts, overwritten by the real parts of the inverse
+     *            transform
+     * @param imaginary
+     *            Imaginary parts, overwritten by the imaginary parts of the
+     *            inverse transform
+     */
+    public static void parallelInverse(double[] real, double[] imaginary) {
+        conjugate(imaginary);
+        parallelTransform(real, imaginary);
+        conjugate(imaginary);
+        scale(real, imaginary, 1.0 / Math.max(1, real.length));
+    }
+
+    /**
+     * Gets the cached plan for the specified length or creates one.
+     *
+     * @param n
+     *            Length of the transform, at least 2
+     * @return Plan of the transform
+     */
+    private static Plan plan(int n) {
+        if (Integer.bitCount(n) == 1) {
+            return radix2Plan(n);
+        }
+
+        BluesteinPlan plan;
+        synchronized (BLUESTEIN_PLANS) {
+            plan = BLUESTEIN_PLANS.get(n);
+        }
+        if (plan == null) {
+            // created outside the lock, so other lengths are not blocked meanwhile
+            plan = new BluesteinPlan(n);
+            synchronized (BLUESTEIN_PLANS) {
+                BluesteinPlan previous = BLUESTEIN_PLANS.get(n);
+                if (previous == null) {
+                    BLUESTEIN_PLANS.put(n, plan);
+                } else {
+                    plan = previous;
+                }
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Gets the length of the convolution which Bluestein's algorithm uses for
+     * the specified length, the smallest power of two of at least
+     * {@code 2n - 1}.
+     *
+     * @param n
+     *            Length of the transform, at least 1
+     * @return Length of the convolution
+     * @throws IllegalArgumentException
+     *             If the convolution length does not fit an {@code int}
+     */
+    static int convolutionLength(int n) {
+        if (n > BLUESTEIN_LENGTH_LIMIT) {
+            throw new IllegalArgumentException("Length " + n
+                    + " is not a power of two and larger than " + BLUESTEIN_LENGTH_LIMIT);
+        }
+
+        return Integer.highestOneBit(2 * n - 1) << 1;
+    }
+
+    /**
+     * Gets the cached plan for the specified power-of-two length or creates
+     * one.
+     *
+     * @param n
+     *            Length of the transform, a power of two of at least 2
+     * @return Plan of the transform
+     */
+    private static Radix2Plan radix2Plan(int n) {
+        int log = Integer.numberOfTrailingZeros(n);
+
+        Radix2Plan plan = RADIX2_PLANS[log];
+        if (plan == null) {
+            // the fields of a plan are final, so a race only computes it twice
+            plan = new Radix2Plan(n);
+            RADIX2_PLANS[log] = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * Checks if both arrays exist and have the same length.
+     *
+     * @param real
+     *            Real parts
+     * @param imaginary
+     *            Imaginary parts
+     */
+    private static void checkLength(double[] real, double[] imaginary) {
+        if (real == null || imaginary == null) {
+            throw new NullPointerException();
+        } else if (real.length != imaginary.length) {
+            throw new IllegalArgumentException("Arrays have different lengths");
+        }
+    }
+
+    /**
+     * Negates every element of the array.
+     *
+     * @param imaginary
+     *            Imaginary parts
+     */
+    private static void conjugate(double[] imaginary) {
+        for (int i = 0; i < imaginary.length; i++) {
+            imaginary[i] = -imaginary[i];
+        }
+    }
+
+    /**
+     * Multiplies every element of both arrays with a factor.
+     *
+     * @param real
+     *            Real parts
+     * @param imaginary
+     *            Imaginary parts
+     * @param factor
+     *            Real factor
+     */
+    private static void scale(double[] real, double[] imaginary, double factor) {
+        for (int i = 0; i < real.length; i++) {
+            real[i] *= factor;
+            imaginary[i] *= factor;
+        }
+    }
+
+    /**
+     * Reorders the first elements of the arrays, a power-of-two length
+     * sequence, by bit-reversed indices.
+     *
+     * @param real
+     *            Real parts
+     * @param imaginary
+     *            Imaginary parts
+     * @param n
+     *            Length of the sequence
+     */
+    private static void bitReverse(double[] real, double[] imaginary, int n) {
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+
+            if (i < j) {
+                double temp = real[i];
+                real[i] = real[j];
+                real[j] = temp;
+                temp = imaginary[i];
+                imaginary[i] = imaginary[j];
+                imaginary[j] = temp;
+            }
+        }
+    }
+
+    /**
+     * Precomputed data of the transform of one length.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private abstract static class Plan {
+        /**
+         * Computes the forward transform in place.
+         *
+         * @param real
+         *            Real parts
+         * @param imaginary
+         *            Imaginary parts
+         */
+        abstract void transform(double[] real, double[] imaginary);
+    }
+
+    /**
+     * Radix-2 transform of a power-of-two length.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static final class Radix2Plan extends Plan {
+        /** Length of the transform. */
+        final int n;
+        /** Real parts of the twiddle factors {@code exp(-2 * pi * i * k / n)}. */
+        final double[] cos;
+        /** Imaginary parts of the twiddle factors. */
+        final double[] sin;
+
+        /**
+         * Constructs a plan and computes the twiddle factors.
+         *
+         * @param n
+         *            Length of the transform
+         */
+        Radix2Plan(int n) {
+            this.n = n;
+            this.cos = new double[n / 2];
+            this.sin = new double[n / 2];
+
+            for (int k = 0; k < n / 2; k++) {
+                double angle = 2 * Math.PI * k / n;
+                cos[k] = Math.cos(angle);
+                sin[k] = -Math.sin(angle);
+            }
+        }
+
+        @Override
+        void transform(double[] real, double[] imaginary) {
+            bitReverse(real, imaginary, n);
+            stages(real, imaginary, 0, n);
+        }
+
+        /**
+         * Computes every stage whose blocks fit into the specified range. The
+         * range must be aligned to its power-of-two size.
+         *
+         * @param real
+         *            Real parts
+         * @param imaginary
+         *            Imaginary parts
+         * @param offset
+         *            Start of the range
+         * @param size
+         *            Size of the range
+         */
+        void stages(double[] real, double[] imaginary, int offset, int size) {
+            int end = offset + size;
+
+            // the first stage has no twiddle factors
+            for (int a = offset; a < end; a += 2) {
+                double re = real[a + 1];
+                double im = imaginary[a + 1];
+                real[a + 1] = real[a] - re;
+                imaginary[a + 1] = imaginary[a] - im;
+                real[a] += re;
+                imaginary[a] += im;
+            }
+
+            for (int length = 4; length <= size; length <<= 1) {
+                int half = length >> 1;
+                int step = n / length;
+
+                for (int block = offset; block < end; block += length) {
+                    for (int j = 0, w = 0; j < half; j++, w += step) {
+                        butterfly(real, imaginary, block + j, half, cos[w], sin[w]);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Computes butterflies of one stage by their index. Butterfly
+         * {@code k} combines elements {@code a = k + (k & -half)} and
+         * {@code a + half}.
+         *
+         * @param real
+         *            Real parts
+         * @param imaginary
+         *            Imaginary parts
+         * @param length
+         *            Length of the blocks of the stage
+         * @param from
+         *            First butterfly, inclusive
+         * @param to
+         *            Last butterfly, exclusive
+         */
+        void butterflies(double[] real, double[] imaginary, int length, int from, int to) {
+            int half = length >> 1;
+            int step = n / length;
+
+            for (int k = from; k < to; k++) {
+                int j = k & (half - 1);
+                butterfly(real, imaginary, k + (k & -half), half, cos[j * step], sin[j * step]);
+            }
+        }
+
+        /**
+         * Combines elements {@code a} and {@code a + half} with a twiddle
+         * factor.
+         *
+         * @param real
+         *            Real parts
+         * @param imaginary
+         *            Imaginary parts
+         * @param a
+         *            Index of the first element
+         * @param half
+         *            Distance to the second element
+         * @param wr
+         *            Real part of the twiddle factor
+         * @param wi
+         *            Imaginary part of the twiddle factor
+         */
+        private static void butterfly(double[] real, double[] imaginary, int a, int half,
+                double wr, double wi) {
+            int b = a + half;
+            double re = real[b] * wr - imaginary[b] * wi;
+            double im = real[b] * wi + imaginary[b] * wr;
+
+            real[b] = real[a] - re;
+            imaginary[b] = imaginary[a] - im;
+            real[a] += re;
+            imaginary[a] += im;
+        }
+    }
+
+    /**
+     * Bluestein's transform of an arbitrary length. Using
+     * {@code jk = (j^2 + k^2 - (k - j)^2) / 2} the transform becomes a
+     * convolution of the sequence multiplied by a chirp with the conjugated
+     * chirp, which is computed by radix-2 transforms.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static final class BluesteinPlan extends Plan {
+        /** Length of the transform. */
+        final int n;
+        /** Plan of the convolution, a power of two of at least 2n - 1. */
+        final Radix2Plan convolution;
+        /** Real parts of the chirp {@code exp(-pi * i * k^2 / n)}. */
+        final double[] chirpReal;
+        /** Imaginary parts of the chirp. */
+        final double[] chirpImaginary;
+        /** Real parts of the transformed filter, divided by its length. */
+        final double[] filterReal;
+        /** Imaginary parts of the transformed filter, divided by its length. */
+        final double[] filterImaginary;
+
+        /**
+         * Constructs a plan and computes the chirp and the filter.
+         *
+         * @param n
+         *            Length of the transform
+         */
+        BluesteinPlan(int n) {
+            int m = convolutionLength(n);
+
+            this.n = n;
+            this.convolution = radix2Plan(m);
+            this.chirpReal = new double[n];
+            this.chirpImaginary = new double[n];
+            this.filterReal = new double[m];
+            this.filterImaginary = new double[m];
+
+            for (int k = 0; k < n; k++) {
+                // k^2 is reduced modulo 2n first so the angle stays accurate
+                double angle = Math.PI * ((long) k * k % (2L * n)) / n;
+                chirpReal[k] = Math.cos(angle);
+                chirpImaginary[k] = -Math.sin(angle);
+            }
+
+            filterReal[0] = 1.0 / m;
+            for (int k = 1; k < n; k++) {
+                filterReal[k] = filterReal[m - k] = chirpReal[k] / m;
+                filterImaginary[k] = filterImaginary[m - k] = -chirpImaginary[k] / m;
+            }
+            convolution.transform(filterReal, filterImaginary);
+        }
+
+        @Override
+        void transform(double[] real, double[] imaginary) {
+            int m = filterReal.length;
+            double[] re;
+            double[] im;
+            if (m <= SCRATCH_LIMIT) {
+                double[][] scratch = SCRATCH.get();
+                if (scratch[0].length < m) {
+                    scratch[0] = new double[m];
+                    scratch[1] = new double[m];
+                }
+                re = scratch[0];
+                im = scratch[1];
+                // the padding of the sequence must be zero, the rest is overwritten
+                Arrays.fill(re, n, m, 0);
+                Arrays.fill(im, n, m, 0);
+            } else {
+                re = new double[m];
+                im = new double[m];
+            }
+
+            for (int k = 0; k < n; k++) {
+                re[k] = real[k] * chirpReal[k] - imaginary[k] * chirpImaginary[k];
+                im[k] = real[k] * chirpImaginary[k] + imaginary[k] * chirpReal[k];
+            }
+
+            convolution.transform(re, im);
+
+            // multiplies by the filter and conjugates for the inverse transform
+            for (int k = 0; k < m; k++) {
+                double r = re[k] * filterReal[k] - im[k] * filterImaginary[k];
+                im[k] = -(re[k] * filterImaginary[k] + im[k] * filterReal[k]);
+                re[k] = r;
+            }
+
+            convolution.transform(re, im);
+
+            for (int k = 0; k < n; k++) {
+                double r = re[k];
+                double i = -im[k];
+                real[k] = r * chirpReal[k] - i * chirpImaginary[k];
+                imaginary[k] = r * chirpImaginary[k] + i * chirpReal[k];
+            }
+        }
+    }
+
+    /**
+     * Task which computes the first stages of a range of segments, every
+     * segment independently.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static class SegmentTask extends RecursiveAction {
+        /** Serial version UID. */
+        private static final long serialVersionUID = 1L;
+
+        /** Real parts. */
+        private final double[] real;
+        /** Imaginary parts. */
+        private final double[] imaginary;
+        /** Plan of the transform. */
+        private final Radix2Plan plan;
+        /** First segment, inclusive. */
+        private final int from;
+        /** Last segment, exclusive. */
+        private final int to;
+
+        /**
+         * Constructs a task for the specified segments.
+         *
+         * @param real
+         *            Real parts
+         * @param imaginary
+         *            Imaginary parts
+         * @param plan
+         *            Plan of the transform
+         * @param from
+         *            First segment, inclusive
+         * @param to
+         *            Last segment, exclusive
+         */
+        SegmentTask(double[] real, double[] imaginary, Radix2Plan plan, int from, int to) {
+            this.real = real;
+            this.imaginary = imaginary;
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                plan.stages(real, imaginary, from * SEGMENT, SEGMENT);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SegmentTask(real, imaginary, plan, from, middle),
+                        new SegmentTask(real, imaginary, plan, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Task which computes a range of butterflies of one stage.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static class StageTask extends RecursiveAction {
+        /** Serial version UID. */
+        private static final long serialVersionUID = 1L;
+
+        /** Real parts. */
+        private final double[] real;
+        /** Imaginary parts. */
+        private final double[] imaginary;
+        /** Plan of the transform. */
+        private final Radix2Plan plan;
+        /** Length of the blocks of the stage. */
+        private final int length;
+        /** First butterfly, inclusive. */
+        private final int from;
+        /** Last butterfly, exclusive. */
+        private final int to;
+
+        /**
+         * Constructs a task for the specified butterflies.
+         *
+         * @param real
+         *            Real parts
+         * @param imaginary
+         *            Imaginary parts
+         * @param plan
+         *            Plan of the transform
+         * @param length
+         *            Length of the blocks of the stage
+         * @param from
+         *            First butterfly, inclusive
+         * @param to
+         *            Last butterfly, exclusive
+         */
+        StageTask(double[] real, double[] imaginary, Radix2Plan plan, int length, int from,
+                int to) {
+            this.real = real;
+            this.imaginary = imaginary;
+            this.plan = plan;
+            this.length = length;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEGMENT) {
+                plan.butterflies(real, imaginary, length, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new StageTask(real, imaginary, plan, length, from, middle),
+                        new StageTask(real, imaginary, plan, length, middle, to));
+            }
+        }
+    }
+}
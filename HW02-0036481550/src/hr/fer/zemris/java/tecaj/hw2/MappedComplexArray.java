@@ -0,0 +1,153 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Read-only view of complex numbers in a memory-mapped file created by
+ * {@link ComplexBinaryFormat#map(java.nio.file.Path)}. Elements are read from
+ * the mapping on every access, so opening a file costs the same regardless of
+ * its size and only touched pages are loaded.
+ * <p>
+ * Instances are immutable and may be shared between threads.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public final class MappedComplexArray {
+    /** Number of elements. */
+    private final int size;
+    /** Interleaved parts, or real parts of a split file. */
+    private final DoubleBuffer first;
+    /** Imaginary parts of a split file, null for an interleaved file. */
+    private final DoubleBuffer second;
+
+    /**
+     * Constructs a view of the mapped parts.
+     *
+     * @param size
+     *            Number of elements
+     * @param first
+     *            Interleaved parts, or real parts of a split file
+     * @param second
+     *            Imaginary parts of a split file, null for an interleaved file
+     */
+    MappedComplexArray(int size, DoubleBuffer first, DoubleBuffer second) {
+        this.size = size;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return Number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the layout of the mapped file.
+     *
+     * @return Layout of the file
+     */
+    public ComplexBinaryFormat.Layout getLayout() {
+        return second == null ? ComplexBinaryFormat.Layout.INTERLEAVED
+                : ComplexBinaryFormat.Layout.SPLIT;
+    }
+
+    /**
+     * Gets the real part of the element at specified index.
+     *
+     * @param index
+     *            Index of the element
+     * @return Real part of the element
+     */
+    public double getReal(int index) {
+        checkIndex(index);
+        return second == null ? first.get(2 * index) : first.get(index);
+    }
+
+    /**
+     * Gets the imaginary part of the element at specified index.
+     *
+     * @param index
+     *            Index of the element
+     * @return Imaginary part of the element
+     */
+    public double getImaginary(int index) {
+        checkIndex(index);
+        return second == null ? first.get(2 * index + 1) : second.get(index);
+    }
+
+    /**
+     * Gets the element at specified index.
+     *
+     * @param index
+     *            Index of the element
+     * @return Element at specified index
+     */
+    public ComplexNumber get(int index) {
+        return new ComplexNumber(getReal(index), getImaginary(index));
+    }
+
+    /**
+     * Copies a range of elements into split arrays.
+     *
+     * @param from
+     *            Index of the first copied element
+     * @param real
+     *            Array into which real parts are copied
+     * @param imaginary
+     *            Array into which imaginary parts are copied
+     * @param offset
+     *            Index in the arrays of the first copied element
+     * @param length
+     *            Number of copied elements
+     */
+    public void copyTo(int from, double[] real, double[] imaginary, int offset, int length) {
+        if (from < 0 || length < 0 || from > size - length || offset < 0
+                || offset > real.length - length || offset > imaginary.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (second == null) {
+            DoubleBuffer parts = first.duplicate();
+            parts.position(2 * from);
+            for (int i = offset; i < offset + length; i++) {
+                real[i] = parts.get();
+                imaginary[i] = parts.get();
+            }
+        } else {
+            DoubleBuffer parts = first.duplicate();
+            parts.position(from);
+            parts.get(real, offset, length);
+            parts = second.duplicate();
+            parts.position(from);
+            parts.get(imaginary, offset, length);
+        }
+    }
+
+    /**
+     * Copies all elements into a new vector.
+     *
+     * @return Vector with the elements of this view
+     */
+    public ComplexVector toVector() {
+        ComplexVector vector = new ComplexVector(size);
+        copyTo(0, vector.getRealParts(), vector.getImaginaryParts(), 0, size);
+        return vector;
+    }
+
+    /**
+     * Checks if the index is within this view.
+     *
+     * @param index
+     *            Index to be checked
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " for size " + size);
+        }
+    }
+}
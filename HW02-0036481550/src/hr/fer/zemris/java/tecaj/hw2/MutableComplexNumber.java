@@ -0,0 +1,375 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+/**
+ * Mutable counterpart of {@link ComplexNumber}. Every operation changes this
+ * object and returns it, so chains of operations in hot loops do not allocate.
+ * Magnitude and angle are computed only when asked for.
+ * <p>
+ * Convert from a {@link ComplexNumber} with
+ * {@link #MutableComplexNumber(ComplexNumber)} or {@link #set(ComplexNumber)}
+ * and back with {@link #toComplexNumber()}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class MutableComplexNumber {
+    /** Real part of the complex number. */
+    private double real;
+    /** Imaginary part of the complex number. */
+    private double imaginary;
+
+    /**
+     * Constructs a new complex number with the given real and imaginary parts.
+     *
+     * @param real
+     *            Real part of a complex number
+     * @param imaginary
+     *            Imaginary part of a complex number
+     */
+    public MutableComplexNumber(double real, double imaginary) {
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    /**
+     * Constructs a new complex number equal to zero.
+     */
+    public MutableComplexNumber() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a new complex number equal to the specified one.
+     *
+     * @param c
+     *            Complex number to be copied
+     */
+    public MutableComplexNumber(ComplexNumber c) {
+        this(c.getReal(), c.getImaginary());
+    }
+
+    /**
+     * Gets the real part of a complex number.
+     *
+     * @return Real part of a complex number
+     */
+    public double getReal() {
+        return real;
+    }
+
+    /**
+     * Gets the imaginary part of a complex number.
+     *
+     * @return Imaginary part of a complex number
+     */
+    public double getImaginary() {
+        return imaginary;
+    }
+
+    /**
+     * Calculates the magnitude of a complex number.
+     *
+     * @return Magnitude of a complex number
+     */
+    public double getMagnitude() {
+        return Math.hypot(real, imaginary);
+    }
+
+    /**
+     * Calculates the angle of a complex number.
+     *
+     * @return Angle of a complex number
+     */
+    public double getAngle() {
+        return Math.atan2(imaginary, real);
+    }
+
+    /**
+     * Sets the real and imaginary parts of this complex number.
+     *
+     * @param real
+     *            Real part of a complex number
+     * @param imaginary
+     *            Imaginary part of a complex number
+     * @return This complex number
+     */
+    public MutableComplexNumber set(double real, double imaginary) {
+        this.real = real;
+        this.imaginary = imaginary;
+        return this;
+    }
+
+    /**
+     * Sets this complex number to the value of the specified one.
+     *
+     * @param c
+     *            Complex number whose value is copied
+     * @return This complex number
+     */
+    public MutableComplexNumber set(ComplexNumber c) {
+        return set(c.getReal(), c.getImaginary());
+    }
+
+    /**
+     * Sets this complex number to the value of the specified one.
+     *
+     * @param c
+     *            Complex number whose value is copied
+     * @return This complex number
+     */
+    public MutableComplexNumber set(MutableComplexNumber c) {
+        return set(c.real, c.imaginary);
+    }
+
+    /**
+     * Adds the specified complex number to this complex number.
+     *
+     * @param real
+     *            Real part of the complex number to be added
+     * @param imaginary
+     *            Imaginary part of the complex number to be added
+     * @return This complex number
+     */
+    public MutableComplexNumber add(double real, double imaginary) {
+        this.real += real;
+        this.imaginary += imaginary;
+        return this;
+    }
+
+    /**
+     * Adds the specified complex number to this complex number.
+     *
+     * @param c
+     *            Complex number to be added
+     * @return This complex number
+     */
+    public MutableComplexNumber add(ComplexNumber c) {
+        return add(c.getReal(), c.getImaginary());
+    }
+
+    /**
+     * Adds the specified complex number to this complex number.
+     *
+     * @param c
+     *            Complex number to be added
+     * @return This complex number
+     */
+    public MutableComplexNumber add(MutableComplexNumber c) {
+        return add(c.real, c.imaginary);
+    }
+
+    /**
+     * Subtracts the specified complex number from this complex number.
+     *
+     * @param real
+     *            Real part of the complex number to be subtracted
+     * @param imaginary
+     *            Imaginary part of the complex number to be subtracted
+     * @return This complex number
+     */
+    public MutableComplexNumber sub(double real, double imaginary) {
+        this.real -= real;
+        this.imaginary -= imaginary;
+        return this;
+    }
+
+    /**
+     * Subtracts the specified complex number from this complex number.
+     *
+     * @param c
+     *            Complex number to be subtracted
+     * @return This complex number
+     */
+    public MutableComplexNumber sub(ComplexNumber c) {
+        return sub(c.getReal(), c.getImaginary());
+    }
+
+    /**
+     * Subtracts the specified complex number from this complex number.
+     *
+     * @param c
+     *            Complex number to be subtracted
+     * @return This complex number
+     */
+    public MutableComplexNumber sub(MutableComplexNumber c) {
+        return sub(c.real, c.imaginary);
+    }
+
+    /**
+     * Multiplies this complex number with the specified complex number.
+     *
+     * @param real
+     *            Real part of the complex number to be multiplied
+     * @param imaginary
+     *            Imaginary part of the complex number to be multiplied
+     * @return This complex number
+     */
+    public MutableComplexNumber mul(double real, double imaginary) {
+        double newReal = this.real * real - this.imaginary * imaginary;
+        this.imaginary = this.real * imaginary + this.imaginary * real;
+        this.real = newReal;
+        return this;
+    }
+
+    /**
+     * Multiplies this complex number with the specified complex number.
+     *
+     * @param c
+     *            Complex number to be multiplied
+     * @return This complex number
+     */
+    public MutableComplexNumber mul(ComplexNumber c) {
+        return mul(c.getReal(), c.getImaginary());
+    }
+
+    /**
+     * Multiplies this complex number with the specified complex number.
+     *
+     * @param c
+     *            Complex number to be multiplied
+     * @return This complex number
+     */
+    public MutableComplexNumber mul(MutableComplexNumber c) {
+        return mul(c.real, c.imaginary);
+    }
+
+    /**
+     * Adds the product of two complex numbers to this complex number, the
+     * usual step of sums of products.
+     *
+     * @param a
+     *            First factor
+     * @param b
+     *            Second factor
+     * @return This complex number
+     */
+    public MutableComplexNumber addProduct(ComplexNumber a, ComplexNumber b) {
+        double aReal = a.getReal();
+        double aImaginary = a.getImaginary();
+        double bReal = b.getReal();
+        double bImaginary = b.getImaginary();
+
+        this.real += aReal * bReal - aImaginary * bImaginary;
+        this.imaginary += aReal * bImaginary + aImaginary * bReal;
+        return this;
+    }
+
+    /**
+     * Divides this complex number with the specified complex number.
+     *
+     * @param real
+     *            Real part of the divisor
+     * @param imaginary
+     *            Imaginary part of the divisor
+     * @return This complex number
+     */
+    public MutableComplexNumber div(double real, double imaginary) {
+        double norm = real * real + imaginary * imaginary;
+        double newReal = (this.real * real + this.imaginary * imaginary) / norm;
+        this.imaginary = (this.imaginary * real - this.real * imaginary) / norm;
+        this.real = newReal;
+        return this;
+    }
+
+    /**
+     * Divides this complex number with the specified complex number.
+     *
+     * @param c
+     *            Complex number used as divisor
+     * @return This complex number
+     */
+    public MutableComplexNumber div(ComplexNumber c) {
+        return div(c.getReal(), c.getImaginary());
+    }
+
+    /**
+     * Divides this complex number with the specified complex number.
+     *
+     * @param c
+     *            Complex number used as divisor
+     * @return This complex number
+     */
+    public MutableComplexNumber div(MutableComplexNumber c) {
+        return div(c.real, c.imaginary);
+    }
+
+    /**
+     * Multiplies this complex number with a real number.
+     *
+     * @param factor
+     *            Real factor
+     * @return This complex number
+     */
+    public MutableComplexNumber scale(double factor) {
+        real *= factor;
+        imaginary *= factor;
+        return this;
+    }
+
+    /**
+     * Conjugates this complex number.
+     *
+     * @return This complex number
+     */
+    public MutableComplexNumber conjugate() {
+        imaginary = -imaginary;
+        return this;
+    }
+
+    /**
+     * Raises this complex number to the power of the argument by repeated
+     * squaring. Negative exponents give the reciprocal of the positive power.
+     *
+     * @param n
+     *            Exponent
+     * @return This complex number
+     */
+    public MutableComplexNumber power(int n) {
+        boolean reciprocal = n < 0;
+
+        double resultReal = 1;
+        double resultImaginary = 0;
+        double baseReal = real;
+        double baseImaginary = imaginary;
+
+        // the unsigned shift also handles Integer.MIN_VALUE
+        n = Math.abs(n);
+        while (n != 0) {
+            if ((n & 1) != 0) {
+                double newReal = resultReal * baseReal - resultImaginary * baseImaginary;
+                resultImaginary = resultReal * baseImaginary + resultImaginary * baseReal;
+                resultReal = newReal;
+            }
+
+            n >>>= 1;
+            if (n != 0) {
+                double newReal = baseReal * baseReal - baseImaginary * baseImaginary;
+                baseImaginary = 2 * baseReal * baseImaginary;
+                baseReal = newReal;
+            }
+        }
+
+        if (reciprocal) {
+            return set(1, 0).div(resultReal, resultImaginary);
+        }
+
+        return set(resultReal, resultImaginary);
+    }
+
+    /**
+     * Creates an immutable complex number with the value of this one.
+     *
+     * @return Immutable complex number
+     */
+    public ComplexNumber toComplexNumber() {
+        return new ComplexNumber(real, imaginary);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return toComplexNumber().toString();
+    }
+}
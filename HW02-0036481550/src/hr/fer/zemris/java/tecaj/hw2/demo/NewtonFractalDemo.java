@@ -0,0 +1,98 @@
+package hr.fer.zemris.java.tecaj.hw2.demo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexNumber;
+import hr.fer.zemris.java.tecaj.hw2.ComplexPolynomial;
+import hr.fer.zemris.java.tecaj.hw2.fractal.FractalImage;
+import hr.fer.zemris.java.tecaj.hw2.fractal.FractalRenderer;
+import hr.fer.zemris.java.tecaj.hw2.fractal.NewtonFractal;
+
+/**
+ * Command-line application which renders the Newton fractal of
+ * {@code z^5 - 1} in every mode of {@link FractalRenderer}, prints the pixels
+ * per second of each mode and writes the image as {@code newton.ppm} and
+ * {@code newton.pgm}. It also starts a rendering and cancels it halfway.
+ * <p>
+ * Optional arguments are the width, the height and the number of repetitions
+ * per mode, 1024, 1024 and 5 by default.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class NewtonFractalDemo {
+
+    /**
+     * Starting point of a program.
+     *
+     * @param args
+     *            Command-line arguments
+     * @throws IOException
+     *             If the image cannot be written
+     * @throws InterruptedException
+     *             If the program is interrupted
+     * @throws ExecutionException
+     *             If rendering fails
+     */
+    public static void main(String[] args)
+            throws IOException, InterruptedException, ExecutionException {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        ComplexPolynomial polynomial = new ComplexPolynomial(ComplexNumber.fromReal(-1),
+                ComplexNumber.fromReal(0), ComplexNumber.fromReal(0), ComplexNumber.fromReal(0),
+                ComplexNumber.fromReal(0), ComplexNumber.fromReal(1));
+        NewtonFractal fractal = new NewtonFractal(polynomial, -1.5, 1.5, -1.5, 1.5);
+        FractalRenderer renderer = new FractalRenderer(fractal);
+
+        System.out.println("Rendering " + polynomial + " at " + width + "x" + height + " on "
+                + Runtime.getRuntime().availableProcessors() + " processors");
+
+        FractalImage image = null;
+        for (FractalRenderer.Mode mode : FractalRenderer.Mode.values()) {
+            // the first rendering only warms up
+            image = renderer.render(width, height, mode);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                image = renderer.render(width, height, mode);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9 / repetitions;
+
+            System.out.printf("%-16s %10.2f ms %10.2f Mpixel/s%n", mode, seconds * 1e3,
+                    (double) width * height / seconds / 1e6);
+        }
+
+        Path ppm = Paths.get("newton.ppm");
+        Path pgm = Paths.get("newton.pgm");
+        image.writePPM(ppm);
+        image.writePGM(pgm);
+        System.out.println("Written " + ppm.toAbsolutePath() + " and " + pgm.toAbsolutePath());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            FractalRenderer.RenderJob job = renderer.submit(width, height, executor, 2);
+            while (!job.isDone() && job.getRenderedTiles() < job.getTileCount() / 2) {
+                Thread.sleep(1);
+            }
+            job.cancel(true);
+
+            try {
+                job.get();
+                System.out.println("Rendering finished before it was cancelled");
+            } catch (CancellationException e) {
+                System.out.println("Cancelled after " + job.getRenderedTiles() + " of "
+                        + job.getTileCount() + " tiles");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
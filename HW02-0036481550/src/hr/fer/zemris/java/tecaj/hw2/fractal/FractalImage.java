@@ -0,0 +1,248 @@
+package hr.fer.zemris.java.tecaj.hw2.fractal;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Image of a {@link NewtonFractal}. Every pixel stores the index of the root
+ * its iteration converged to, or -1 if it did not converge, and the number of
+ * iterations, in one byte and one short so large images stay compact.
+ * <p>
+ * Images are written as binary PGM, shaded by the number of iterations, or as
+ * binary PPM, with one hue per root.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class FractalImage {
+    /** Number of columns. */
+    private final int width;
+    /** Number of rows. */
+    private final int height;
+    /** Number of roots of the fractal. */
+    private final int rootCount;
+    /** Largest number of iterations per pixel. */
+    private final int maxIterations;
+    /** Index of the root plus one per pixel, zero if it did not converge. */
+    private final byte[] roots;
+    /** Number of iterations per pixel. */
+    private final short[] iterations;
+
+    /**
+     * Constructs an empty image.
+     *
+     * @param width
+     *            Number of columns
+     * @param height
+     *            Number of rows
+     * @param rootCount
+     *            Number of roots of the fractal, at most 254
+     * @param maxIterations
+     *            Largest number of iterations per pixel, at most
+     *            {@value Short#MAX_VALUE}
+     */
+    public FractalImage(int width, int height, int rootCount, int maxIterations) {
+        if (width < 0 || height < 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Unsupported image size");
+        } else if (rootCount < 0 || rootCount > NewtonFractal.MAX_DEGREE || maxIterations < 1
+                || maxIterations > NewtonFractal.MAX_ITERATIONS) {
+            throw new IllegalArgumentException();
+        }
+
+        this.width = width;
+        this.height = height;
+        this.rootCount = rootCount;
+        this.maxIterations = maxIterations;
+        this.roots = new byte[width * height];
+        this.iterations = new short[width * height];
+    }
+
+    /**
+     * Gets the number of columns.
+     *
+     * @return Number of columns
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return Number of rows
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the number of roots of the fractal.
+     *
+     * @return Number of roots
+     */
+    public int getRootCount() {
+        return rootCount;
+    }
+
+    /**
+     * Gets the largest number of iterations per pixel.
+     *
+     * @return Largest number of iterations per pixel
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Gets the root of the pixel.
+     *
+     * @param x
+     *            Column of the pixel
+     * @param y
+     *            Row of the pixel
+     * @return Index of the root, or -1 if the iteration did not converge
+     */
+    public int getRoot(int x, int y) {
+        return (roots[index(x, y)] & 0xFF) - 1;
+    }
+
+    /**
+     * Gets the number of iterations of the pixel.
+     *
+     * @param x
+     *            Column of the pixel
+     * @param y
+     *            Row of the pixel
+     * @return Number of iterations
+     */
+    public int getIterations(int x, int y) {
+        return iterations[index(x, y)];
+    }
+
+    /**
+     * Stores a pixel.
+     *
+     * @param index
+     *            Index of the pixel, row by row
+     * @param root
+     *            Index of the root, or -1
+     * @param iterations
+     *            Number of iterations
+     */
+    void set(int index, int root, int iterations) {
+        this.roots[index] = (byte) (root + 1);
+        this.iterations[index] = (short) iterations;
+    }
+
+    /**
+     * Writes this image as binary PGM. Pixels which converged quickly are
+     * bright, pixels which did not converge are black.
+     *
+     * @param path
+     *            Path of the file, its content is replaced
+     * @throws IOException
+     *             If writing fails
+     */
+    public void writePGM(Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            out.write(("P5\n" + width + " " + height + "\n255\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+
+            for (int i = 0; i < roots.length; i++) {
+                out.write(roots[i] == 0 ? 0 : shade(iterations[i], 255));
+            }
+        }
+    }
+
+    /**
+     * Writes this image as binary PPM. Every root has its own hue, and pixels
+     * get darker with the number of iterations. Pixels which did not converge
+     * are black.
+     *
+     * @param path
+     *            Path of the file, its content is replaced
+     * @throws IOException
+     *             If writing fails
+     */
+    public void writePPM(Path path) throws IOException {
+        int[] palette = new int[rootCount + 1];
+        for (int k = 0; k < rootCount; k++) {
+            palette[k + 1] = hue((double) k / rootCount);
+        }
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            out.write(("P6\n" + width + " " + height + "\n255\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+
+            for (int i = 0; i < roots.length; i++) {
+                int color = palette[roots[i] & 0xFF];
+                out.write(shade(iterations[i], color >>> 16 & 0xFF));
+                out.write(shade(iterations[i], color >>> 8 & 0xFF));
+                out.write(shade(iterations[i], color & 0xFF));
+            }
+        }
+    }
+
+    /**
+     * Darkens a channel with the number of iterations, down to a quarter of
+     * its value.
+     *
+     * @param iterations
+     *            Number of iterations
+     * @param value
+     *            Value of the channel
+     * @return Darkened value
+     */
+    private int shade(int iterations, int value) {
+        return value - value * 3 * Math.min(iterations, maxIterations) / (4 * maxIterations);
+    }
+
+    /**
+     * Creates a saturated color of the specified hue.
+     *
+     * @param hue
+     *            Hue from 0 to 1
+     * @return Color as {@code 0xRRGGBB}
+     */
+    private static int hue(double hue) {
+        double h = hue * 6;
+        int sector = (int) h;
+        int rising = (int) Math.round((h - sector) * 255);
+        int falling = 255 - rising;
+
+        switch (sector) {
+            case 0:
+                return 0xFF0000 | rising << 8;
+            case 1:
+                return falling << 16 | 0xFF00;
+            case 2:
+                return 0xFF00 | rising;
+            case 3:
+                return falling << 8 | 0xFF;
+            case 4:
+                return rising << 16 | 0xFF;
+            default:
+                return 0xFF0000 | falling;
+        }
+    }
+
+    /**
+     * Calculates the index of a pixel.
+     *
+     * @param x
+     *            Column of the pixel
+     * @param y
+     *            Row of the pixel
+     * @return Index of the pixel
+     */
+    private int index(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException();
+        }
+        return y * width + x;
+    }
+}
@@ -0,0 +1,442 @@
+package hr.fer.zemris.java.tecaj.hw2.fractal;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Renders a {@link NewtonFractal} into a {@link FractalImage} split into
+ * square tiles. Tiles are the unit of work of every mode, so the modes differ
+ * only in how tiles are scheduled, which makes their pixels-per-second
+ * figures comparable.
+ * <p>
+ * {@link #submit(int, int, Executor, int)} starts a cancellable rendering
+ * whose workers take tiles from a shared counter, so cancelling stops every
+ * worker after its current tile.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class FractalRenderer {
+
+    /** Default length of a side of a tile in pixels. */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    /**
+     * Ways of scheduling tiles.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    public enum Mode {
+        /** Every tile on the calling thread. */
+        SEQUENTIAL,
+        /** Recursive tasks on the common fork-join pool. */
+        FORK_JOIN,
+        /** Parallel stream of tile indices. */
+        PARALLEL_STREAM,
+        /**
+         * A new fixed thread pool with a worker per processor, scheduled by
+         * {@link FractalRenderer#submit(int, int, Executor, int)}.
+         */
+        THREAD_POOL
+    }
+
+    /** Rendered fractal. */
+    private final NewtonFractal fractal;
+    /** Length of a side of a tile in pixels. */
+    private final int tileSize;
+
+    /**
+     * Constructs a renderer of the fractal with tiles of
+     * {@value #DEFAULT_TILE_SIZE} pixels.
+     *
+     * @param fractal
+     *            Rendered fractal
+     */
+    public FractalRenderer(NewtonFractal fractal) {
+        this(fractal, DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Constructs a renderer of the fractal with tiles of the specified size.
+     *
+     * @param fractal
+     *            Rendered fractal
+     * @param tileSize
+     *            Length of a side of a tile in pixels
+     */
+    public FractalRenderer(NewtonFractal fractal, int tileSize) {
+        if (fractal == null) {
+            throw new NullPointerException();
+        } else if (tileSize < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        this.fractal = fractal;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Renders an image of the specified size and waits for it.
+     *
+     * @param width
+     *            Number of columns
+     * @param height
+     *            Number of rows
+     * @param mode
+     *            Way of scheduling tiles
+     * @return Rendered image
+     * @throws InterruptedException
+     *             If the calling thread is interrupted while waiting, the
+     *             rendering is then cancelled
+     */
+    public FractalImage render(int width, int height, Mode mode) throws InterruptedException {
+        final FractalImage image = fractal.createImage(width, height);
+        final int columns = (width + tileSize - 1) / tileSize;
+        int tiles = columns * ((height + tileSize - 1) / tileSize);
+
+        switch (mode) {
+            case SEQUENTIAL:
+                for (int tile = 0; tile < tiles; tile++) {
+                    renderTile(image, columns, tile);
+                }
+                return image;
+
+            case FORK_JOIN:
+                ForkJoinPool.commonPool().invoke(new TileTask(image, columns, 0, tiles));
+                return image;
+
+            case PARALLEL_STREAM:
+                IntStream.range(0, tiles).parallel().forEach(new IntConsumer() {
+                    @Override
+                    public void accept(int tile) {
+                        renderTile(image, columns, tile);
+                    }
+                });
+                return image;
+
+            case THREAD_POOL:
+                int workers = Runtime.getRuntime().availableProcessors();
+                ExecutorService executor = Executors.newFixedThreadPool(workers);
+                RenderJob job = submit(width, height, executor, workers);
+                try {
+                    return job.get();
+                } catch (InterruptedException e) {
+                    job.cancel(true);
+                    throw e;
+                } catch (ExecutionException e) {
+                    throw rethrow(e.getCause());
+                } finally {
+                    executor.shutdown();
+                }
+        }
+
+        // without a default label the compiler can warn about a missing mode
+        throw new IllegalArgumentException("Unsupported mode " + mode);
+    }
+
+    /**
+     * Starts rendering an image of the specified size on the executor and
+     * returns immediately. The specified number of workers is submitted to
+     * the executor, and every worker renders the next unrendered tile until
+     * there are none left or the rendering is cancelled.
+     *
+     * @param width
+     *            Number of columns
+     * @param height
+     *            Number of rows
+     * @param executor
+     *            Executor which runs the workers
+     * @param workers
+     *            Number of workers
+     * @return Job whose result is the rendered image
+     */
+    public RenderJob submit(int width, int height, Executor executor, int workers) {
+        if (executor == null) {
+            throw new NullPointerException();
+        } else if (workers < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        FractalImage image = fractal.createImage(width, height);
+        int columns = (width + tileSize - 1) / tileSize;
+        int tiles = columns * ((height + tileSize - 1) / tileSize);
+        RenderJob job = new RenderJob(image, columns, tiles, Math.min(workers, Math.max(tiles, 1)));
+
+        for (int i = 0; i < job.workers; i++) {
+            try {
+                executor.execute(job.new Worker());
+            } catch (RuntimeException e) {
+                job.cancel(false);
+                // workers which were never started count as finished
+                for (int j = i; j < job.workers; j++) {
+                    job.finished.countDown();
+                }
+                throw e;
+            }
+        }
+
+        return job;
+    }
+
+    /**
+     * Renders one tile.
+     *
+     * @param image
+     *            Rendered image
+     * @param columns
+     *            Number of tile columns
+     * @param tile
+     *            Index of the tile, row by row
+     */
+    private void renderTile(FractalImage image, int columns, int tile) {
+        int fromX = tile % columns * tileSize;
+        int fromY = tile / columns * tileSize;
+        fractal.render(image, fromX, fromY, Math.min(fromX + tileSize, image.getWidth()),
+                Math.min(fromY + tileSize, image.getHeight()));
+    }
+
+    /**
+     * Throws an unchecked exception or error unchanged and wraps anything
+     * else.
+     *
+     * @param cause
+     *            Exception to be thrown
+     * @return Never returns, declared so callers can {@code throw} it
+     */
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    /**
+     * Rendering started by {@link FractalRenderer#submit(int, int, Executor, int)}.
+     * Its progress can be queried while it runs, and cancelling it stops the
+     * workers after their current tiles. If a worker throws, the others stop
+     * after their current tiles as well and the job completes with the first
+     * exception once all of them have finished.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    public final class RenderJob implements Future<FractalImage> {
+        /** Rendered image. */
+        private final FractalImage image;
+        /** Number of tile columns. */
+        private final int columns;
+        /** Number of tiles. */
+        private final int tiles;
+        /** Number of workers. */
+        private final int workers;
+        /** Index of the next tile to be rendered. */
+        private final AtomicInteger nextTile = new AtomicInteger();
+        /** Number of rendered tiles. */
+        private final AtomicInteger renderedTiles = new AtomicInteger();
+        /** Counts down when a worker finishes. */
+        private final CountDownLatch finished;
+        /** First exception thrown by a worker. */
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        /** True once {@link #cancel(boolean)} succeeded. */
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        /**
+         * Constructs a job.
+         *
+         * @param image
+         *            Rendered image
+         * @param columns
+         *            Number of tile columns
+         * @param tiles
+         *            Number of tiles
+         * @param workers
+         *            Number of workers
+         */
+        private RenderJob(FractalImage image, int columns, int tiles, int workers) {
+            this.image = image;
+            this.columns = columns;
+            this.tiles = tiles;
+            this.workers = workers;
+            this.finished = new CountDownLatch(workers);
+        }
+
+        /**
+         * Gets the number of tiles of the image.
+         *
+         * @return Number of tiles
+         */
+        public int getTileCount() {
+            return tiles;
+        }
+
+        /**
+         * Gets the number of tiles rendered so far.
+         *
+         * @return Number of rendered tiles
+         */
+        public int getRenderedTiles() {
+            return renderedTiles.get();
+        }
+
+        /**
+         * Cancels the rendering. Workers stop after their current tile,
+         * {@code mayInterruptIfRunning} is ignored because tiles are short.
+         *
+         * @param mayInterruptIfRunning
+         *            Ignored
+         * @return False if the rendering already finished, successfully or
+         *         with an exception, or was cancelled
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return finished.getCount() != 0 && cancelled.compareAndSet(false, true);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        @Override
+        public boolean isDone() {
+            return cancelled.get() || finished.getCount() == 0;
+        }
+
+        @Override
+        public FractalImage get() throws InterruptedException, ExecutionException {
+            if (!cancelled.get()) {
+                finished.await();
+            }
+            return result();
+        }
+
+        @Override
+        public FractalImage get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            if (!cancelled.get() && !finished.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            return result();
+        }
+
+        /**
+         * Gets the result of a finished or cancelled job.
+         *
+         * @return Rendered image
+         * @throws CancellationException
+         *             If the job was cancelled
+         * @throws ExecutionException
+         *             If a worker failed
+         */
+        private FractalImage result() throws ExecutionException {
+            if (cancelled.get()) {
+                throw new CancellationException();
+            } else if (failure.get() != null) {
+                throw new ExecutionException(failure.get());
+            }
+            return image;
+        }
+
+        /**
+         * Checks if the workers should stop, because the job was cancelled or
+         * a worker failed.
+         *
+         * @return True if the workers should stop
+         */
+        private boolean stopped() {
+            return cancelled.get() || failure.get() != null;
+        }
+
+        /**
+         * Worker which renders tiles until none are left.
+         *
+         * @author TheKarlo95
+         * @version 1.0
+         */
+        private final class Worker implements Runnable {
+            @Override
+            public void run() {
+                try {
+                    int tile;
+                    while (!stopped() && (tile = nextTile.getAndIncrement()) < tiles) {
+                        renderTile(image, columns, tile);
+                        renderedTiles.incrementAndGet();
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    finished.countDown();
+                }
+            }
+        }
+    }
+
+    /**
+     * Task which renders a range of tiles.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private class TileTask extends RecursiveAction {
+        /** Serial version UID. */
+        private static final long serialVersionUID = 1L;
+
+        /** Rendered image. */
+        private final FractalImage image;
+        /** Number of tile columns. */
+        private final int columns;
+        /** First tile, inclusive. */
+        private final int from;
+        /** Last tile, exclusive. */
+        private final int to;
+
+        /**
+         * Constructs a task for the specified tiles.
+         *
+         * @param image
+         *            Rendered image
+         * @param columns
+         *            Number of tile columns
+         * @param from
+         *            First tile, inclusive
+         * @param to
+         *            Last tile, exclusive
+         */
+        TileTask(FractalImage image, int columns, int from, int to) {
+            this.image = image;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    renderTile(image, columns, from);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TileTask(image, columns, from, middle),
+                        new TileTask(image, columns, middle, to));
+            }
+        }
+    }
+}
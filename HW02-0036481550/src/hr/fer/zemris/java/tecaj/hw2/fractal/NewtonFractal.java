@@ -0,0 +1,286 @@
+package hr.fer.zemris.java.tecaj.hw2.fractal;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexNumber;
+import hr.fer.zemris.java.tecaj.hw2.ComplexPolynomial;
+
+/**
+ * Newton-Raphson fractal of a complex polynomial. Every pixel of a
+ * rectangular region of the complex plane is the starting point of Newton's
+ * iteration {@code z = z - p(z) / p'(z)}, and is colored by the root the
+ * iteration converges to and by the number of iterations it takes.
+ * <p>
+ * The roots are found once by {@link ComplexPolynomial#roots()}, and the
+ * iteration runs on doubles, so rendering allocates nothing. Instances are
+ * immutable and may render disjoint tiles of one image from many threads.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class NewtonFractal {
+
+    /** Default largest number of iterations per pixel. */
+    public static final int DEFAULT_MAX_ITERATIONS = 64;
+
+    /** Largest supported number of iterations per pixel. */
+    public static final int MAX_ITERATIONS = Short.MAX_VALUE;
+    /** Largest supported degree of the polynomial. */
+    public static final int MAX_DEGREE = 254;
+
+    /** Relative size of a Newton step at which the iteration stops. */
+    private static final double CONVERGENCE = 1e-6;
+    /** Relative distance within which the iteration has found a root. */
+    private static final double ROOT_DISTANCE = 1e-3;
+
+    /** Polynomial of the fractal. */
+    private final ComplexPolynomial polynomial;
+    /** Real parts of the coefficients, index is the power of z. */
+    private final double[] real;
+    /** Imaginary parts of the coefficients, index is the power of z. */
+    private final double[] imaginary;
+    /** Real parts of the roots. */
+    private final double[] rootReal;
+    /** Imaginary parts of the roots. */
+    private final double[] rootImaginary;
+    /** Real part of the left column. */
+    private final double minReal;
+    /** Real part of the right column. */
+    private final double maxReal;
+    /** Imaginary part of the bottom row. */
+    private final double minImaginary;
+    /** Imaginary part of the top row. */
+    private final double maxImaginary;
+    /** Largest number of iterations per pixel. */
+    private final int maxIterations;
+
+    /**
+     * Constructs a fractal of the polynomial over the specified region with
+     * {@value #DEFAULT_MAX_ITERATIONS} iterations per pixel.
+     *
+     * @param polynomial
+     *            Polynomial of degree 1 to {@value #MAX_DEGREE}
+     * @param minReal
+     *            Real part of the left column
+     * @param maxReal
+     *            Real part of the right column
+     * @param minImaginary
+     *            Imaginary part of the bottom row
+     * @param maxImaginary
+     *            Imaginary part of the top row
+     */
+    public NewtonFractal(ComplexPolynomial polynomial, double minReal, double maxReal,
+            double minImaginary, double maxImaginary) {
+        this(polynomial, minReal, maxReal, minImaginary, maxImaginary, DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Constructs a fractal of the polynomial over the specified region.
+     *
+     * @param polynomial
+     *            Polynomial of degree 1 to {@value #MAX_DEGREE}
+     * @param minReal
+     *            Real part of the left column
+     * @param maxReal
+     *            Real part of the right column
+     * @param minImaginary
+     *            Imaginary part of the bottom row
+     * @param maxImaginary
+     *            Imaginary part of the top row
+     * @param maxIterations
+     *            Largest number of iterations per pixel, from 1 to
+     *            {@value #MAX_ITERATIONS}
+     */
+    public NewtonFractal(ComplexPolynomial polynomial, double minReal, double maxReal,
+            double minImaginary, double maxImaginary, int maxIterations) {
+        if (polynomial == null) {
+            throw new NullPointerException();
+        } else if (polynomial.degree() < 1 || polynomial.degree() > MAX_DEGREE) {
+            throw new IllegalArgumentException("Unsupported degree " + polynomial.degree());
+        } else if (maxIterations < 1 || maxIterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("Unsupported number of iterations");
+        }
+
+        int n = polynomial.degree();
+        this.polynomial = polynomial;
+        this.real = new double[n + 1];
+        this.imaginary = new double[n + 1];
+        for (int i = 0; i <= n; i++) {
+            ComplexNumber c = polynomial.getCoefficient(i);
+            real[i] = c.getReal();
+            imaginary[i] = c.getImaginary();
+        }
+
+        ComplexNumber[] roots = polynomial.roots();
+        this.rootReal = new double[n];
+        this.rootImaginary = new double[n];
+        for (int k = 0; k < n; k++) {
+            rootReal[k] = roots[k].getReal();
+            rootImaginary[k] = roots[k].getImaginary();
+        }
+
+        this.minReal = minReal;
+        this.maxReal = maxReal;
+        this.minImaginary = minImaginary;
+        this.maxImaginary = maxImaginary;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Gets the polynomial of this fractal.
+     *
+     * @return Polynomial of this fractal
+     */
+    public ComplexPolynomial getPolynomial() {
+        return polynomial;
+    }
+
+    /**
+     * Gets the largest number of iterations per pixel.
+     *
+     * @return Largest number of iterations per pixel
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Creates an empty image of the specified size for this fractal.
+     *
+     * @param width
+     *            Number of columns
+     * @param height
+     *            Number of rows
+     * @return Empty image
+     */
+    public FractalImage createImage(int width, int height) {
+        return new FractalImage(width, height, rootReal.length, maxIterations);
+    }
+
+    /**
+     * Renders a rectangular tile of the image. Column x is the point with
+     * real part {@code minReal + x * (maxReal - minReal) / (width - 1)} and row
+     * y the one with imaginary part
+     * {@code maxImaginary - y * (maxImaginary - minImaginary) / (height - 1)},
+     * like {@link ComplexPolynomial#evaluateGrid}.
+     *
+     * @param image
+     *            Image created by {@link #createImage(int, int)}
+     * @param fromX
+     *            First column, inclusive
+     * @param fromY
+     *            First row, inclusive
+     * @param toX
+     *            Last column, exclusive
+     * @param toY
+     *            Last row, exclusive
+     */
+    public void render(FractalImage image, int fromX, int fromY, int toX, int toY) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (fromX < 0 || fromY < 0 || toX > width || toY > height || fromX > toX
+                || fromY > toY) {
+            throw new IndexOutOfBoundsException();
+        } else if (image.getRootCount() != rootReal.length
+                || image.getMaxIterations() != maxIterations) {
+            throw new IllegalArgumentException("Image was not created by this fractal");
+        }
+
+        double stepReal = width > 1 ? (maxReal - minReal) / (width - 1) : 0;
+        double stepImaginary = height > 1 ? (maxImaginary - minImaginary) / (height - 1) : 0;
+
+        for (int y = fromY; y < toY; y++) {
+            double zIm = maxImaginary - y * stepImaginary;
+            int index = y * width + fromX;
+
+            // a double column counter, see ComplexPolynomial.evaluateRows
+            double column = fromX;
+            for (int x = fromX; x < toX; x++, index++, column++) {
+                renderPixel(image, index, minReal + column * stepReal, zIm);
+            }
+        }
+    }
+
+    /**
+     * Iterates from a point and stores the root and the number of iterations.
+     *
+     * @param image
+     *            Image into which the pixel is stored
+     * @param index
+     *            Index of the pixel
+     * @param zRe
+     *            Real part of the starting point
+     * @param zIm
+     *            Imaginary part of the starting point
+     */
+    private void renderPixel(FractalImage image, int index, double zRe, double zIm) {
+        double[] re = real;
+        double[] im = imaginary;
+        int last = re.length - 1;
+
+        int iteration = 0;
+        while (iteration < maxIterations) {
+            iteration++;
+
+            double vRe = re[last];
+            double vIm = im[last];
+            double dRe = 0;
+            double dIm = 0;
+            for (int i = last - 1; i >= 0; i--) {
+                double t = dRe * zRe - dIm * zIm + vRe;
+                dIm = dRe * zIm + dIm * zRe + vIm;
+                dRe = t;
+
+                t = vRe * zRe - vIm * zIm + re[i];
+                vIm = vRe * zIm + vIm * zRe + im[i];
+                vRe = t;
+            }
+
+            double norm = dRe * dRe + dIm * dIm;
+            if (norm == 0) {
+                break;
+            }
+            double stepRe = (vRe * dRe + vIm * dIm) / norm;
+            double stepIm = (vIm * dRe - vRe * dIm) / norm;
+            zRe -= stepRe;
+            zIm -= stepIm;
+
+            double step = stepRe * stepRe + stepIm * stepIm;
+            if (step <= CONVERGENCE * CONVERGENCE * Math.max(1, zRe * zRe + zIm * zIm)) {
+                break;
+            } else if (step != step) {
+                // the iteration diverged to infinity
+                image.set(index, -1, iteration);
+                return;
+            }
+        }
+
+        image.set(index, closestRoot(zRe, zIm), iteration);
+    }
+
+    /**
+     * Finds the root which the point has converged to.
+     *
+     * @param zRe
+     *            Real part of the point
+     * @param zIm
+     *            Imaginary part of the point
+     * @return Index of the closest root if the point is close enough to it,
+     *         otherwise -1
+     */
+    private int closestRoot(double zRe, double zIm) {
+        int closest = -1;
+        double closestDistance = Double.POSITIVE_INFINITY;
+
+        for (int k = 0; k < rootReal.length; k++) {
+            double a = zRe - rootReal[k];
+            double b = zIm - rootImaginary[k];
+            double distance = a * a + b * b;
+            if (distance < closestDistance) {
+                closest = k;
+                closestDistance = distance;
+            }
+        }
+
+        double scale = Math.max(1, zRe * zRe + zIm * zIm);
+        return closestDistance <= ROOT_DISTANCE * ROOT_DISTANCE * scale ? closest : -1;
+    }
+}
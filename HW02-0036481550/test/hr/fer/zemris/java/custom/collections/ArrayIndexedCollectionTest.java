@@ -0,0 +1,85 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static hr.fer.zemris.java.custom.collections.CollectionAssert.assertContents;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link ArrayIndexedCollection}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ArrayIndexedCollectionTest {
+
+    /**
+     * Performs random operations on hash indexed collections and on a list
+     * and checks that they hold the same elements and find the same indexes
+     * after each one.
+     */
+    @Test
+    public void hashIndexedOperationsMatchList() {
+        Random random = new Random(4);
+
+        for (int round = 0; round < 300; round++) {
+            ArrayIndexedCollection collection = new ArrayIndexedCollection();
+            collection.setHashIndexed(true);
+            List<Object> expected = new ArrayList<>();
+            int range = 1 + random.nextInt(100);
+
+            for (int op = 0; op < 600; op++) {
+                int kind = random.nextInt(12);
+                Integer value = random.nextInt(range);
+
+                if (kind < 3) {
+                    collection.add(value);
+                    expected.add(value);
+                } else if (kind < 4 && !expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    collection.insert(value, index);
+                    expected.add(index, value);
+                } else if (kind < 5 && !expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    collection.remove(index);
+                    expected.remove(index);
+                } else if (kind < 6 && !expected.isEmpty()) {
+                    collection.remove(expected.size() - 1);
+                    expected.remove(expected.size() - 1);
+                } else if (kind < 9) {
+                    assertEquals(expected.indexOf(value), collection.indexOf(value));
+                } else if (kind < 10) {
+                    assertEquals(expected.remove(value), collection.remove(value));
+                } else if (kind < 11) {
+                    ArrayIndexedCollection other = new ArrayIndexedCollection();
+                    other.add(value);
+                    other.add(value + 1);
+                    int index = random.nextInt(expected.size() + 1);
+                    collection.insertAll(other, index);
+                    expected.add(index, value);
+                    expected.add(index + 1, value + 1);
+                } else if (random.nextInt(30) == 0) {
+                    collection.clear();
+                    expected.clear();
+                }
+
+                assertContents(expected, collection);
+            }
+        }
+    }
+
+    /**
+     * Checks that null cannot be inserted.
+     */
+    @Test(expected = NullPointerException.class)
+    public void insertRejectsNull() {
+        ArrayIndexedCollection collection = new ArrayIndexedCollection();
+        collection.add(1);
+
+        collection.insert(null, 0);
+    }
+}
@@ -0,0 +1,46 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assertions shared by the tests of the collections, which compare a
+ * collection with a {@link List} that received the same operations.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+final class CollectionAssert {
+
+    /**
+     * Disables creating instances of this class.
+     */
+    private CollectionAssert() {
+
+    }
+
+    /**
+     * Asserts that a collection holds the elements of the reference list, as
+     * seen by {@link Collection#size()}, {@link Collection#toArray()} and an
+     * elements getter.
+     *
+     * @param expected
+     *            Reference list
+     * @param actual
+     *            Tested collection
+     */
+    static void assertContents(List<Object> expected, Collection actual) {
+        assertEquals(expected.size(), actual.size());
+        assertArrayEquals(expected.toArray(), actual.toArray());
+
+        List<Object> elements = new ArrayList<>();
+        ElementsGetter getter = actual.createElementsGetter();
+        while (getter.hasNextElement()) {
+            elements.add(getter.getNextElement());
+        }
+        assertEquals(expected, elements);
+    }
+}
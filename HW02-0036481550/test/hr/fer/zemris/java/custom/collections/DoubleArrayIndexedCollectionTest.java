@@ -0,0 +1,170 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link DoubleArrayIndexedCollection} and {@link DoubleProcessor}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class DoubleArrayIndexedCollectionTest {
+
+    /** Values added besides small multiples of a quarter. */
+    private static final double[] SPECIAL_VALUES = { Double.NaN, 0.0, -0.0,
+            Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE };
+
+    /**
+     * Performs random operations on collections and on a list and checks that
+     * they hold the same values and find the same indexes after each one.
+     * Values are compared like {@link Double#equals(Object)} does, which is
+     * what {@link DoubleArrayIndexedCollection#indexOf(double)} promises.
+     */
+    @Test
+    public void randomOperationsMatchList() {
+        Random random = new Random(8);
+
+        for (int round = 0; round < 100; round++) {
+            DoubleArrayIndexedCollection collection =
+                    new DoubleArrayIndexedCollection(1 + random.nextInt(4));
+            List<Double> expected = new ArrayList<>();
+            int range = 1 + random.nextInt(100);
+
+            for (int op = 0; op < 400; op++) {
+                int kind = random.nextInt(10);
+                double value = random.nextInt(8) == 0
+                        ? SPECIAL_VALUES[random.nextInt(SPECIAL_VALUES.length)]
+                        : (random.nextInt(range) - range / 2) / 4.0;
+
+                if (kind < 3) {
+                    collection.add(value);
+                    expected.add(value);
+                } else if (kind < 5) {
+                    int index = random.nextInt(expected.size() + 1);
+                    collection.insert(value, index);
+                    expected.add(index, value);
+                } else if (kind < 6 && !expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    assertEquals(expected.remove(index), (Double) collection.remove(index));
+                } else if (kind < 7 && !expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    collection.set(value, index);
+                    expected.set(index, value);
+                } else if (kind < 9) {
+                    assertEquals(expected.indexOf(value), collection.indexOf(value));
+                    assertEquals(expected.contains(value), collection.contains(value));
+                } else if (random.nextInt(20) == 0) {
+                    collection.clear();
+                    expected.clear();
+                }
+
+                assertContents(expected, collection);
+            }
+        }
+    }
+
+    /**
+     * Checks that the array constructor copies the values.
+     */
+    @Test
+    public void constructorCopiesValues() {
+        double[] values = { 3, -1, 4 };
+        DoubleArrayIndexedCollection collection = new DoubleArrayIndexedCollection(values);
+        values[0] = 0;
+
+        assertEquals(3, collection.get(0), 0);
+        collection.add(5);
+        assertEquals(4, collection.size());
+        assertEquals(0, new DoubleArrayIndexedCollection(new double[0]).size());
+    }
+
+    /**
+     * Checks that NaN is found and that zeros of different signs are told
+     * apart.
+     */
+    @Test
+    public void indexOfComparesBits() {
+        DoubleArrayIndexedCollection collection =
+                new DoubleArrayIndexedCollection(new double[] { 1, -0.0, Double.NaN, 0.0 });
+
+        assertEquals(2, collection.indexOf(Double.NaN));
+        assertEquals(2, collection.indexOf(Double.longBitsToDouble(0x7FF8_0000_0000_0001L)));
+        assertEquals(1, collection.indexOf(-0.0));
+        assertEquals(3, collection.indexOf(0.0));
+        assertEquals(-1, collection.indexOf(2));
+    }
+
+    /**
+     * Checks that an index equal to the size is rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getRejectsIndexOfSize() {
+        DoubleArrayIndexedCollection collection = new DoubleArrayIndexedCollection();
+        collection.add(1);
+
+        collection.get(1);
+    }
+
+    /**
+     * Checks that a position past the size is rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void insertRejectsPositionPastSize() {
+        new DoubleArrayIndexedCollection().insert(1, 1);
+    }
+
+    /**
+     * Checks that the initial capacity must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsZeroCapacity() {
+        new DoubleArrayIndexedCollection(0);
+    }
+
+    /**
+     * Checks that a null processor is rejected.
+     */
+    @Test(expected = NullPointerException.class)
+    public void forEachRejectsNull() {
+        new DoubleArrayIndexedCollection().forEach(null);
+    }
+
+    /**
+     * Asserts that a collection holds the values of the reference list, as seen
+     * by {@link DoubleArrayIndexedCollection#size()},
+     * {@link DoubleArrayIndexedCollection#toArray()}, indexed access and
+     * {@link DoubleArrayIndexedCollection#forEach(DoubleProcessor)}.
+     *
+     * @param expected
+     *            Reference list
+     * @param actual
+     *            Tested collection
+     */
+    private static void assertContents(List<Double> expected,
+            DoubleArrayIndexedCollection actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+
+        double[] array = actual.toArray();
+        assertEquals(expected.size(), array.length);
+        for (int i = 0; i < array.length; i++) {
+            assertEquals(expected.get(i), (Double) array[i]);
+            assertEquals(expected.get(i), (Double) actual.get(i));
+        }
+
+        final List<Double> processed = new ArrayList<>();
+        actual.forEach(new DoubleProcessor() {
+            @Override
+            public void process(double value) {
+                processed.add(value);
+            }
+        });
+        assertEquals(expected, processed);
+    }
+}
@@ -0,0 +1,146 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link IntArrayIndexedCollection} and {@link IntProcessor}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class IntArrayIndexedCollectionTest {
+
+    /**
+     * Performs random operations on collections and on a list and checks that
+     * they hold the same values and find the same indexes after each one.
+     */
+    @Test
+    public void randomOperationsMatchList() {
+        Random random = new Random(6);
+
+        for (int round = 0; round < 100; round++) {
+            IntArrayIndexedCollection collection =
+                    new IntArrayIndexedCollection(1 + random.nextInt(4));
+            List<Integer> expected = new ArrayList<>();
+            int range = 1 + random.nextInt(100);
+
+            for (int op = 0; op < 400; op++) {
+                int kind = random.nextInt(10);
+                int value = random.nextInt(range) - range / 2;
+
+                if (kind < 3) {
+                    collection.add(value);
+                    expected.add(value);
+                } else if (kind < 5) {
+                    int index = random.nextInt(expected.size() + 1);
+                    collection.insert(value, index);
+                    expected.add(index, value);
+                } else if (kind < 6 && !expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    assertEquals((int) expected.remove(index), collection.remove(index));
+                } else if (kind < 7 && !expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    collection.set(value, index);
+                    expected.set(index, value);
+                } else if (kind < 9) {
+                    assertEquals(expected.indexOf(value), collection.indexOf(value));
+                    assertEquals(expected.contains(value), collection.contains(value));
+                } else if (random.nextInt(20) == 0) {
+                    collection.clear();
+                    expected.clear();
+                }
+
+                assertContents(expected, collection);
+            }
+        }
+    }
+
+    /**
+     * Checks that the array constructor copies the values.
+     */
+    @Test
+    public void constructorCopiesValues() {
+        int[] values = { 3, -1, 4 };
+        IntArrayIndexedCollection collection = new IntArrayIndexedCollection(values);
+        values[0] = 0;
+
+        assertEquals(3, collection.get(0));
+        collection.add(5);
+        assertEquals(4, collection.size());
+        assertEquals(0, new IntArrayIndexedCollection(new int[0]).size());
+    }
+
+    /**
+     * Checks that an index equal to the size is rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getRejectsIndexOfSize() {
+        IntArrayIndexedCollection collection = new IntArrayIndexedCollection();
+        collection.add(1);
+
+        collection.get(1);
+    }
+
+    /**
+     * Checks that a position past the size is rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void insertRejectsPositionPastSize() {
+        new IntArrayIndexedCollection().insert(1, 1);
+    }
+
+    /**
+     * Checks that the initial capacity must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsZeroCapacity() {
+        new IntArrayIndexedCollection(0);
+    }
+
+    /**
+     * Checks that a null processor is rejected.
+     */
+    @Test(expected = NullPointerException.class)
+    public void forEachRejectsNull() {
+        new IntArrayIndexedCollection().forEach(null);
+    }
+
+    /**
+     * Asserts that a collection holds the values of the reference list, as seen
+     * by {@link IntArrayIndexedCollection#size()},
+     * {@link IntArrayIndexedCollection#toArray()}, indexed access and
+     * {@link IntArrayIndexedCollection#forEach(IntProcessor)}.
+     *
+     * @param expected
+     *            Reference list
+     * @param actual
+     *            Tested collection
+     */
+    private static void assertContents(List<Integer> expected,
+            IntArrayIndexedCollection actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+
+        int[] array = actual.toArray();
+        assertEquals(expected.size(), array.length);
+        for (int i = 0; i < array.length; i++) {
+            assertEquals((int) expected.get(i), array[i]);
+            assertEquals((int) expected.get(i), actual.get(i));
+        }
+
+        final List<Integer> processed = new ArrayList<>();
+        actual.forEach(new IntProcessor() {
+            @Override
+            public void process(int value) {
+                processed.add(value);
+            }
+        });
+        assertEquals(expected, processed);
+    }
+}
@@ -0,0 +1,74 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static hr.fer.zemris.java.custom.collections.CollectionAssert.assertContents;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link LinkedListIndexedCollection}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class LinkedListIndexedCollectionTest {
+
+    /**
+     * Performs random operations on collections with various pool capacities,
+     * with and without the hash index, and on a list and checks that they hold
+     * the same elements after each one.
+     */
+    @Test
+    public void randomOperationsMatchList() {
+        Random random = new Random(3);
+
+        for (int poolCapacity : new int[] { 0, 1, 4, 1000 }) {
+            for (int round = 0; round < 100; round++) {
+                LinkedListIndexedCollection collection =
+                        new LinkedListIndexedCollection(poolCapacity);
+                collection.setHashIndexed(round % 2 == 0);
+                List<Object> expected = new ArrayList<>();
+                int range = 1 + random.nextInt(100);
+
+                for (int op = 0; op < 400; op++) {
+                    int kind = random.nextInt(12);
+                    Integer value = random.nextInt(range);
+
+                    if (kind < 3) {
+                        collection.add(value);
+                        expected.add(value);
+                    } else if (kind < 5) {
+                        int index = random.nextInt(expected.size() + 1);
+                        collection.insert(value, index);
+                        expected.add(index, value);
+                    } else if (kind < 7 && !expected.isEmpty()) {
+                        int index = random.nextInt(expected.size());
+                        collection.remove(index);
+                        expected.remove(index);
+                    } else if (kind < 8) {
+                        assertEquals(expected.remove(value), collection.remove(value));
+                    } else if (kind < 10) {
+                        assertEquals(expected.indexOf(value), collection.indexOf(value));
+                        assertEquals(expected.contains(value), collection.contains(value));
+                    } else if (kind < 11) {
+                        int index = random.nextInt(expected.size() + 1);
+                        ListCursorTests.randomEdits(random, collection.createCursor(index), index,
+                                expected);
+                    } else if (random.nextInt(10) == 0) {
+                        collection.clear();
+                        expected.clear();
+                    }
+
+                    assertContents(expected, collection);
+                    for (int i = expected.size() - 1; i >= 0; i -= 7) {
+                        assertEquals(expected.get(i), collection.get(i));
+                    }
+                }
+            }
+        }
+    }
+}
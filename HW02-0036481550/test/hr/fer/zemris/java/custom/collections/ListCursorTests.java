@@ -0,0 +1,78 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random edits through a {@link ListCursor}, shared by the tests of the
+ * collections which create cursors.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+final class ListCursorTests {
+
+    /** Number of steps of one random walk of a cursor. */
+    private static final int STEPS = 20;
+
+    /**
+     * Disables creating instances of this class.
+     */
+    private ListCursorTests() {
+
+    }
+
+    /**
+     * Moves the cursor randomly and edits the collection through it, applying
+     * the same edits to the reference list.
+     *
+     * @param random
+     *            Source of the operations
+     * @param cursor
+     *            Tested cursor
+     * @param index
+     *            Index at which the cursor was created
+     * @param expected
+     *            Reference list
+     */
+    static void randomEdits(Random random, ListCursor cursor, int index, List<Object> expected) {
+        for (int step = 0; step < STEPS; step++) {
+            Integer value = random.nextInt(50);
+            assertEquals(index, cursor.getIndex());
+
+            switch (random.nextInt(5)) {
+                case 0:
+                    if (cursor.hasElement()) {
+                        cursor.next();
+                        index++;
+                    }
+                    break;
+                case 1:
+                    if (cursor.hasPrevious()) {
+                        cursor.previous();
+                        index--;
+                    }
+                    break;
+                case 2:
+                    cursor.insertBefore(value);
+                    expected.add(index++, value);
+                    break;
+                case 3:
+                    if (cursor.hasElement()) {
+                        cursor.remove();
+                        expected.remove(index);
+                    }
+                    break;
+                default:
+                    if (cursor.hasElement()) {
+                        assertEquals(expected.get(index), cursor.get());
+                        cursor.set(value);
+                        expected.set(index, value);
+                    }
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link LongArrayIndexedCollection} and {@link LongProcessor}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class LongArrayIndexedCollectionTest {
+
+    /**
+     * Performs random operations on collections and on a list and checks that
+     * they hold the same values and find the same indexes after each one.
+     */
+    @Test
+    public void randomOperationsMatchList() {
+        Random random = new Random(7);
+
+        for (int round = 0; round < 100; round++) {
+            LongArrayIndexedCollection collection =
+                    new LongArrayIndexedCollection(1 + random.nextInt(4));
+            List<Long> expected = new ArrayList<>();
+            int range = 1 + random.nextInt(100);
+
+            for (int op = 0; op < 400; op++) {
+                int kind = random.nextInt(10);
+                // values outside the int range differ only in their high bits
+                long value = (random.nextInt(range) - range / 2) * 0x1_0000_0001L;
+
+                if (kind < 3) {
+                    collection.add(value);
+                    expected.add(value);
+                } else if (kind < 5) {
+                    int index = random.nextInt(expected.size() + 1);
+                    collection.insert(value, index);
+                    expected.add(index, value);
+                } else if (kind < 6 && !expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    assertEquals((long) expected.remove(index), collection.remove(index));
+                } else if (kind < 7 && !expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    collection.set(value, index);
+                    expected.set(index, value);
+                } else if (kind < 9) {
+                    assertEquals(expected.indexOf(value), collection.indexOf(value));
+                    assertEquals(expected.contains(value), collection.contains(value));
+                } else if (random.nextInt(20) == 0) {
+                    collection.clear();
+                    expected.clear();
+                }
+
+                assertContents(expected, collection);
+            }
+        }
+    }
+
+    /**
+     * Checks that the array constructor copies the values.
+     */
+    @Test
+    public void constructorCopiesValues() {
+        long[] values = { 3, -1, Long.MIN_VALUE };
+        LongArrayIndexedCollection collection = new LongArrayIndexedCollection(values);
+        values[0] = 0;
+
+        assertEquals(3, collection.get(0));
+        assertEquals(2, collection.indexOf(Long.MIN_VALUE));
+        collection.add(5);
+        assertEquals(4, collection.size());
+        assertEquals(0, new LongArrayIndexedCollection(new long[0]).size());
+    }
+
+    /**
+     * Checks that an index equal to the size is rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getRejectsIndexOfSize() {
+        LongArrayIndexedCollection collection = new LongArrayIndexedCollection();
+        collection.add(1);
+
+        collection.get(1);
+    }
+
+    /**
+     * Checks that a position past the size is rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void insertRejectsPositionPastSize() {
+        new LongArrayIndexedCollection().insert(1, 1);
+    }
+
+    /**
+     * Checks that the initial capacity must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsZeroCapacity() {
+        new LongArrayIndexedCollection(0);
+    }
+
+    /**
+     * Checks that a null processor is rejected.
+     */
+    @Test(expected = NullPointerException.class)
+    public void forEachRejectsNull() {
+        new LongArrayIndexedCollection().forEach(null);
+    }
+
+    /**
+     * Asserts that a collection holds the values of the reference list, as seen
+     * by {@link LongArrayIndexedCollection#size()},
+     * {@link LongArrayIndexedCollection#toArray()}, indexed access and
+     * {@link LongArrayIndexedCollection#forEach(LongProcessor)}.
+     *
+     * @param expected
+     *            Reference list
+     * @param actual
+     *            Tested collection
+     */
+    private static void assertContents(List<Long> expected,
+            LongArrayIndexedCollection actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+
+        long[] array = actual.toArray();
+        assertEquals(expected.size(), array.length);
+        for (int i = 0; i < array.length; i++) {
+            assertEquals((long) expected.get(i), array[i]);
+            assertEquals((long) expected.get(i), actual.get(i));
+        }
+
+        final List<Long> processed = new ArrayList<>();
+        actual.forEach(new LongProcessor() {
+            @Override
+            public void process(long value) {
+                processed.add(value);
+            }
+        });
+        assertEquals(expected, processed);
+    }
+}
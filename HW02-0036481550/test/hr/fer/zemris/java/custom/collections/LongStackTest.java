@@ -0,0 +1,104 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link LongStack}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class LongStackTest {
+
+    /**
+     * Performs random operations on stacks and on a deque and checks that they
+     * hold the same values after each one.
+     */
+    @Test
+    public void randomOperationsMatchDeque() {
+        Random random = new Random(10);
+
+        for (int round = 0; round < 100; round++) {
+            LongStack stack = new LongStack(1 + random.nextInt(4));
+            Deque<Long> expected = new ArrayDeque<>();
+
+            for (int op = 0; op < 400; op++) {
+                int kind = random.nextInt(10);
+                long value = random.nextLong();
+
+                if (kind < 5) {
+                    stack.push(value);
+                    expected.push(value);
+                } else if (kind < 8 && !expected.isEmpty()) {
+                    assertEquals((long) expected.pop(), stack.pop());
+                } else if (kind < 9 && !expected.isEmpty()) {
+                    assertEquals((long) expected.peek(), stack.peek());
+                } else if (random.nextInt(10) == 0) {
+                    stack.clear();
+                    expected.clear();
+                }
+
+                assertEquals(expected.size(), stack.size());
+                assertEquals(expected.isEmpty(), stack.isEmpty());
+            }
+        }
+    }
+
+    /**
+     * Checks that a stack grows past its initial capacity and pops the values
+     * in reverse order.
+     */
+    @Test
+    public void growsPastInitialCapacity() {
+        LongStack stack = new LongStack(1);
+        for (int i = 0; i < 1000; i++) {
+            stack.push(i);
+        }
+
+        assertEquals(1000, stack.size());
+        for (int i = 999; i >= 0; i--) {
+            assertEquals(i, stack.peek());
+            assertEquals(i, stack.pop());
+        }
+        assertTrue(stack.isEmpty());
+    }
+
+    /**
+     * Checks that popping an empty stack throws.
+     */
+    @Test(expected = EmptyStackException.class)
+    public void popOnEmptyStackThrows() {
+        LongStack stack = new LongStack();
+        stack.push(1);
+        stack.pop();
+
+        stack.pop();
+    }
+
+    /**
+     * Checks that peeking at an empty stack throws.
+     */
+    @Test(expected = EmptyStackException.class)
+    public void peekOnEmptyStackThrows() {
+        LongStack stack = new LongStack();
+        stack.push(1);
+        stack.clear();
+
+        stack.peek();
+    }
+
+    /**
+     * Checks that the initial capacity must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsZeroCapacity() {
+        new LongStack(0);
+    }
+}
@@ -0,0 +1,88 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static hr.fer.zemris.java.custom.collections.CollectionAssert.assertContents;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link TreeIndexedCollection}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class TreeIndexedCollectionTest {
+
+    /**
+     * Performs random operations on the collection and on a list and checks
+     * that they hold the same elements after each one.
+     */
+    @Test
+    public void randomOperationsMatchList() {
+        Random random = new Random(2);
+
+        for (int round = 0; round < 200; round++) {
+            TreeIndexedCollection collection = new TreeIndexedCollection();
+            List<Object> expected = new ArrayList<>();
+
+            for (int op = 0; op < 400; op++) {
+                int kind = random.nextInt(11);
+                Integer value = random.nextInt(50);
+
+                if (kind < 2) {
+                    collection.add(value);
+                    expected.add(value);
+                } else if (kind < 4) {
+                    int index = random.nextInt(expected.size() + 1);
+                    collection.insert(value, index);
+                    expected.add(index, value);
+                } else if (kind < 6 && !expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    collection.remove(index);
+                    expected.remove(index);
+                } else if (kind < 7 && !expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    assertEquals(expected.get(index), collection.get(index));
+                } else if (kind < 8) {
+                    assertEquals(expected.indexOf(value), collection.indexOf(value));
+                } else if (kind < 9) {
+                    ArrayIndexedCollection other = new ArrayIndexedCollection();
+                    for (int i = random.nextInt(expected.size() + 3); i > 0; i--) {
+                        other.add(i);
+                        expected.add(i);
+                    }
+                    collection.addAll(other);
+                } else if (kind < 10) {
+                    collection.addAll(collection);
+                    expected.addAll(new ArrayList<>(expected));
+                }
+                if (expected.size() > 2000 || kind == 10 && random.nextInt(20) == 0) {
+                    collection.clear();
+                    expected.clear();
+                }
+
+                assertContents(expected, collection);
+            }
+        }
+    }
+
+    /**
+     * Checks that inserting at the front keeps the tree balanced enough to
+     * handle a large number of elements.
+     */
+    @Test
+    public void insertsAtFront() {
+        TreeIndexedCollection collection = new TreeIndexedCollection();
+
+        for (int i = 0; i < 1 << 18; i++) {
+            collection.insert(i, 0);
+        }
+
+        assertEquals((1 << 18) - 1, collection.get(0));
+        assertEquals(0, collection.get((1 << 18) - 1));
+    }
+}
@@ -0,0 +1,83 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static hr.fer.zemris.java.custom.collections.CollectionAssert.assertContents;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link UnrolledLinkedListIndexedCollection}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class UnrolledLinkedListIndexedCollectionTest {
+
+    /**
+     * Performs random operations, including edits through cursors, on
+     * collections with various node capacities and on a list and checks that
+     * they hold the same elements after each one.
+     */
+    @Test
+    public void randomOperationsMatchList() {
+        Random random = new Random(1);
+
+        for (int nodeCapacity : new int[] { 2, 3, 4, 8, 64 }) {
+            for (int round = 0; round < 100; round++) {
+                UnrolledLinkedListIndexedCollection collection =
+                        new UnrolledLinkedListIndexedCollection(nodeCapacity);
+                List<Object> expected = new ArrayList<>();
+
+                for (int op = 0; op < 500; op++) {
+                    int kind = random.nextInt(10);
+                    Integer value = random.nextInt(50);
+
+                    if (kind < 2) {
+                        collection.add(value);
+                        expected.add(value);
+                    } else if (kind < 4) {
+                        int index = random.nextInt(expected.size() + 1);
+                        collection.insert(value, index);
+                        expected.add(index, value);
+                    } else if (kind < 6 && !expected.isEmpty()) {
+                        int index = random.nextInt(expected.size());
+                        collection.remove(index);
+                        expected.remove(index);
+                    } else if (kind < 7 && !expected.isEmpty()) {
+                        int index = random.nextInt(expected.size());
+                        assertEquals(expected.get(index), collection.get(index));
+                    } else if (kind < 8) {
+                        assertEquals(expected.indexOf(value), collection.indexOf(value));
+                    } else if (kind < 9) {
+                        int index = random.nextInt(expected.size() + 1);
+                        ListCursorTests.randomEdits(random, collection.createCursor(index), index,
+                                expected);
+                    } else if (random.nextInt(20) == 0) {
+                        collection.clear();
+                        expected.clear();
+                    }
+
+                    assertContents(expected, collection);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a cursor fails after the collection is modified without it.
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public void cursorFailsAfterModification() {
+        UnrolledLinkedListIndexedCollection collection = new UnrolledLinkedListIndexedCollection();
+        collection.add(1);
+        ListCursor cursor = collection.createCursor(0);
+
+        collection.add(2);
+        cursor.get();
+    }
+}
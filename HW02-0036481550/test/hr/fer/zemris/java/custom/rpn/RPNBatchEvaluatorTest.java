@@ -0,0 +1,273 @@
+package hr.fer.zemris.java.custom.rpn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link RPNBatchEvaluator} against row by row evaluation of the same
+ * {@link RPNProgram}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class RPNBatchEvaluatorTest {
+
+    /** Row counts around the chunk boundaries. */
+    private static final int[] ROW_COUNTS = { 0, 1, RPNBatchEvaluator.CHUNK_SIZE - 1,
+            RPNBatchEvaluator.CHUNK_SIZE, RPNBatchEvaluator.CHUNK_SIZE + 1,
+            2 * RPNBatchEvaluator.CHUNK_SIZE + 1, 3000 };
+
+    /**
+     * Evaluates random programs over columns whose lengths lie around the
+     * chunk boundaries and checks every row against
+     * {@link RPNProgram#evaluate(int...)}, including the rows which divide by
+     * zero.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test
+    public void randomProgramsMatchRowEvaluation() throws ParseException {
+        Random random = new Random(13);
+
+        for (int i = 0; i < 200; i++) {
+            RPNProgram program = RPNProgram.compile(
+                    RPNTests.randomExpression(random, 1 + random.nextInt(5)));
+            RPNBatchEvaluator evaluator = new RPNBatchEvaluator(program);
+
+            // the same evaluator is reused, so state left by one call shows
+            for (int rows : ROW_COUNTS) {
+                int[][] columns = randomColumns(random, program.getVariableCount(), rows);
+                int[] output = new int[rows];
+                boolean[] errors = new boolean[rows];
+                Arrays.fill(errors, true);
+
+                int failed = evaluator.evaluate(columns, output, errors);
+                assertRows(program, columns, 0, rows, output, errors, failed);
+
+                int[] outputWithoutErrors = new int[rows];
+                assertEquals(failed, evaluator.evaluate(columns, outputWithoutErrors, null));
+                assertEquals(Arrays.toString(output), Arrays.toString(outputWithoutErrors));
+            }
+        }
+    }
+
+    /**
+     * Checks that division by zero is flagged exactly in its rows on both
+     * sides of a chunk boundary and does not leak into the next call.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test
+    public void flagsDivisionByZeroPerRow() throws ParseException {
+        RPNBatchEvaluator evaluator = new RPNBatchEvaluator(RPNProgram.compile("x y / x y % +"));
+        int rows = 2 * RPNBatchEvaluator.CHUNK_SIZE + 2;
+        int[] x = new int[rows];
+        int[] y = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            x[i] = i;
+            y[i] = 1 + i % 5;
+        }
+        int[] zeros = { 0, RPNBatchEvaluator.CHUNK_SIZE - 1, RPNBatchEvaluator.CHUNK_SIZE,
+                rows - 1 };
+        for (int row : zeros) {
+            y[row] = 0;
+        }
+
+        int[] output = new int[rows];
+        boolean[] errors = new boolean[rows];
+        assertEquals(zeros.length, evaluator.evaluate(new int[][] { x, y }, output, errors));
+        for (int i = 0; i < rows; i++) {
+            boolean zero = Arrays.binarySearch(zeros, i) >= 0;
+            assertEquals("row " + i, zero, errors[i]);
+            assertEquals("row " + i, zero ? 0 : x[i] / y[i] + x[i] % y[i], output[i]);
+        }
+
+        Arrays.fill(y, 1);
+        assertEquals(0, evaluator.evaluate(new int[][] { x, y }, output, errors));
+        for (int i = 0; i < rows; i++) {
+            assertFalse(errors[i]);
+            assertEquals(x[i], output[i]);
+        }
+    }
+
+    /**
+     * Checks that a range of rows is evaluated into the same rows and the rows
+     * outside it are left alone.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test
+    public void evaluatesRangeOfRows() throws ParseException {
+        Random random = new Random(14);
+        RPNProgram program = RPNProgram.compile("a b c * - 7 %");
+        RPNBatchEvaluator evaluator = new RPNBatchEvaluator(program);
+        int rows = 3000;
+        int[][] columns = randomColumns(random, 3, rows);
+
+        for (int i = 0; i < 50; i++) {
+            int from = random.nextInt(rows + 1);
+            int to = from + random.nextInt(rows - from + 1);
+            int[] output = new int[rows];
+            boolean[] errors = new boolean[rows];
+            Arrays.fill(output, 42);
+            Arrays.fill(errors, true);
+
+            int failed = evaluator.evaluate(columns, from, to, output, errors);
+            assertRows(program, columns, from, to, output, errors, failed);
+            for (int row = 0; row < rows; row++) {
+                if (row < from || row >= to) {
+                    assertEquals(42, output[row]);
+                    assertTrue(errors[row]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a program without variables fills the whole output.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test
+    public void evaluatesConstantProgram() throws ParseException {
+        int[] output = new int[RPNBatchEvaluator.CHUNK_SIZE + 3];
+        boolean[] errors = new boolean[output.length];
+
+        assertEquals(0, new RPNBatchEvaluator(RPNProgram.compile("6 7 *"))
+                .evaluate(new int[0][], output, errors));
+        for (int value : output) {
+            assertEquals(42, value);
+        }
+        assertEquals(output.length, new RPNBatchEvaluator(RPNProgram.compile("1 0 /"))
+                .evaluate(new int[0][], output, errors));
+        for (int i = 0; i < output.length; i++) {
+            assertEquals(0, output[i]);
+            assertTrue(errors[i]);
+        }
+    }
+
+    /**
+     * Checks that fewer columns than variables are rejected.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingColumns() throws ParseException {
+        new RPNBatchEvaluator(RPNProgram.compile("x y +")).evaluate(new int[1][4], new int[4],
+                null);
+    }
+
+    /**
+     * Checks that a column shorter than the evaluated rows is rejected.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsShortColumn() throws ParseException {
+        new RPNBatchEvaluator(RPNProgram.compile("x y +"))
+                .evaluate(new int[][] { new int[4], new int[3] }, new int[4], null);
+    }
+
+    /**
+     * Checks that an error column shorter than the evaluated rows is rejected.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsShortErrorColumn() throws ParseException {
+        new RPNBatchEvaluator(RPNProgram.compile("x 1 +")).evaluate(new int[1][4], new int[4],
+                new boolean[3]);
+    }
+
+    /**
+     * Checks that a reversed range is rejected.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsReversedRange() throws ParseException {
+        new RPNBatchEvaluator(RPNProgram.compile("x 1 +")).evaluate(new int[1][4], 3, 2,
+                new int[4], null);
+    }
+
+    /**
+     * Asserts that every row of a range holds the result of row by row
+     * evaluation, or 0 and an error flag if the row divides by zero.
+     *
+     * @param program
+     *            Evaluated program
+     * @param columns
+     *            Values of the variables, one column per slot
+     * @param from
+     *            First row, inclusive
+     * @param to
+     *            Last row, exclusive
+     * @param output
+     *            Results of the batch evaluation
+     * @param errors
+     *            Error flags of the batch evaluation
+     * @param failed
+     *            Number of failed rows reported by the batch evaluation
+     */
+    private static void assertRows(RPNProgram program, int[][] columns, int from, int to,
+            int[] output, boolean[] errors, int failed) {
+        int[] variables = new int[program.getVariableCount()];
+        int expectedFailed = 0;
+
+        for (int row = from; row < to; row++) {
+            for (int slot = 0; slot < variables.length; slot++) {
+                variables[slot] = columns[slot][row];
+            }
+
+            String message = program + " row " + row;
+            try {
+                int expected = program.evaluate(variables);
+                assertFalse(message, errors[row]);
+                assertEquals(message, expected, output[row]);
+            } catch (ArithmeticException e) {
+                assertTrue(message, errors[row]);
+                assertEquals(message, 0, output[row]);
+                expectedFailed++;
+            }
+        }
+
+        assertEquals(expectedFailed, failed);
+    }
+
+    /**
+     * Creates columns of random values, with zeros common enough to divide by
+     * them.
+     *
+     * @param random
+     *            Source of the values
+     * @param count
+     *            Number of columns
+     * @param rows
+     *            Number of rows
+     * @return Columns of values
+     */
+    private static int[][] randomColumns(Random random, int count, int rows) {
+        int[][] columns = new int[count][rows];
+        for (int[] column : columns) {
+            for (int row = 0; row < rows; row++) {
+                column[row] = random.nextInt(50) == 0 ? 0 : random.nextInt(41) - 20;
+            }
+        }
+        return columns;
+    }
+}
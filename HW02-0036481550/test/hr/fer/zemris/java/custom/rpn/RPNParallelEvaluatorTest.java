@@ -0,0 +1,392 @@
+package hr.fer.zemris.java.custom.rpn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link RPNParallelEvaluator} against {@link RPNStreamEvaluator}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class RPNParallelEvaluatorTest {
+
+    /**
+     * Evaluates random lines with chunks of a few lines on several workers and
+     * checks that the results come in input order, also when the input is
+     * read a few bytes at a time and the evaluator is reused.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void writesResultsInInputOrder() throws IOException {
+        Random random = new Random(16);
+        String input = randomLines(random, 5000);
+        String expected = evaluate(new RPNStreamEvaluator(), input);
+
+        for (int workers : new int[] { 1, 2, 4 }) {
+            RPNParallelEvaluator evaluator = new RPNParallelEvaluator(workers, 100);
+            for (int i = 0; i < 3; i++) {
+                assertEquals(expected, evaluate(evaluator, channel(input, Integer.MAX_VALUE),
+                        5000));
+                assertEquals(expected, evaluate(evaluator, channel(input, 7), 5000));
+            }
+        }
+    }
+
+    /**
+     * Checks that lines many times longer than a chunk are carried across
+     * chunk boundaries, between short lines and as the last line without a
+     * newline.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void carriesLinesLongerThanChunk() throws IOException {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int count : new int[] { 1, 500, 2, 3000, 40, 3000, 1, 700 }) {
+            input.append(sum(count)).append('\n');
+            expected.append(count).append('\n');
+        }
+        input.append(sum(2000));
+        expected.append(2000).append('\n');
+
+        for (int chunkSize : new int[] { 1, 16, 64, 1000 }) {
+            RPNParallelEvaluator evaluator = new RPNParallelEvaluator(2, chunkSize);
+            assertEquals(expected.toString(),
+                    evaluate(evaluator, channel(input.toString(), Integer.MAX_VALUE), 9));
+            assertEquals(expected.toString(),
+                    evaluate(evaluator, channel(input.toString(), 13), 9));
+        }
+    }
+
+    /**
+     * Checks that an empty input produces no output.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void evaluatesEmptyInput() throws IOException {
+        assertEquals("", evaluate(new RPNParallelEvaluator(2, 64), channel("", 1), 0));
+    }
+
+    /**
+     * Checks that a failing input channel fails the evaluation with its
+     * exception and that the evaluator works afterwards.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void propagatesReadFailure() throws IOException {
+        RPNParallelEvaluator evaluator = new RPNParallelEvaluator(2, 64);
+        String input = randomLines(new Random(17), 1000);
+        final IOException failure = new IOException("read");
+
+        FailingInput in = new FailingInput(channel(input, 50), 5000, failure);
+        try {
+            evaluator.evaluate(in, Channels.newChannel(new ByteArrayOutputStream()));
+            fail();
+        } catch (IOException e) {
+            assertSame(failure, e);
+        }
+
+        assertEquals(evaluate(new RPNStreamEvaluator(), input),
+                evaluate(evaluator, channel(input, 50), 1000));
+    }
+
+    /**
+     * Checks that a failing output channel fails the evaluation with its
+     * exception and that the evaluator works afterwards.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void propagatesWriteFailure() throws IOException {
+        RPNParallelEvaluator evaluator = new RPNParallelEvaluator(2, 64);
+        String input = randomLines(new Random(18), 1000);
+        final IOException failure = new IOException("write");
+
+        WritableByteChannel out = new WritableByteChannel() {
+            /** Number of written bytes. */
+            private int written;
+
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                if (written > 500) {
+                    throw failure;
+                }
+                int count = src.remaining();
+                src.position(src.limit());
+                written += count;
+                return count;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+
+            }
+        };
+
+        try {
+            evaluator.evaluate(channel(input, Integer.MAX_VALUE), out);
+            fail();
+        } catch (IOException e) {
+            assertSame(failure, e);
+        }
+
+        assertEquals(evaluate(new RPNStreamEvaluator(), input),
+                evaluate(evaluator, channel(input, Integer.MAX_VALUE), 1000));
+    }
+
+    /**
+     * Checks that a pool supplied by the caller evaluates the chunks, is not
+     * shut down by the evaluator and fails the evaluation once it rejects
+     * tasks.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void usesSuppliedPool() throws IOException {
+        String input = randomLines(new Random(19), 1000);
+        String expected = evaluate(new RPNStreamEvaluator(), input);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        RPNParallelEvaluator evaluator = new RPNParallelEvaluator(pool, 3, 128);
+
+        try {
+            assertEquals(expected, evaluate(evaluator, channel(input, 100), 1000));
+            assertFalse(pool.isShutdown());
+            assertEquals(expected, evaluate(evaluator, channel(input, 100), 1000));
+        } finally {
+            pool.shutdown();
+        }
+
+        try {
+            evaluate(evaluator, channel(input, 100), 1000);
+            fail();
+        } catch (RejectedExecutionException expectedFailure) {
+            // the pool is shut down
+        }
+    }
+
+    /**
+     * Checks that the number of workers must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsZeroWorkers() {
+        new RPNParallelEvaluator(0, 64);
+    }
+
+    /**
+     * Checks that the chunk size must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsZeroChunkSize() {
+        new RPNParallelEvaluator(1, 0);
+    }
+
+    /**
+     * Checks that a null pool is rejected.
+     */
+    @Test(expected = NullPointerException.class)
+    public void constructorRejectsNullPool() {
+        new RPNParallelEvaluator(null, 1, 64);
+    }
+
+    /**
+     * Creates random lines, some of which fail to evaluate.
+     *
+     * @param random
+     *            Source of the lines
+     * @param count
+     *            Number of lines
+     * @return Lines, each ending with a newline
+     */
+    private static String randomLines(Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(10);
+            if (kind == 0) {
+                sb.append("1 0 /");
+            } else if (kind == 1) {
+                sb.append("1 x +");
+            } else {
+                sb.append(random.nextInt(1000)).append(' ').append(random.nextInt(1000))
+                        .append(kind % 2 == 0 ? " +" : " *");
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Creates an expression which adds up ones.
+     *
+     * @param count
+     *            Number of ones, at least 1
+     * @return Postfix expression whose value is {@code count}
+     */
+    private static String sum(int count) {
+        StringBuilder sb = new StringBuilder("1");
+        for (int i = 1; i < count; i++) {
+            sb.append(" 1 +");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Creates a channel which reads the input at most a few bytes at a time.
+     *
+     * @param input
+     *            Input text
+     * @param readSize
+     *            Largest number of bytes per read
+     * @return Channel reading the input
+     */
+    private static ReadableByteChannel channel(String input, final int readSize) {
+        final ReadableByteChannel in = Channels.newChannel(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)));
+
+        return new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                int limit = dst.limit();
+                dst.limit(dst.position() + Math.min(dst.remaining(), readSize));
+                try {
+                    return in.read(dst);
+                } finally {
+                    dst.limit(limit);
+                }
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+
+            }
+        };
+    }
+
+    /**
+     * Evaluates the input with a stream evaluator.
+     *
+     * @param evaluator
+     *            Used evaluator
+     * @param input
+     *            Input lines
+     * @return Output lines
+     * @throws IOException
+     *             If evaluation fails
+     */
+    private static String evaluate(RPNStreamEvaluator evaluator, String input)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        evaluator.evaluate(ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII)),
+                Channels.newChannel(out));
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Evaluates the input and checks the number of evaluated lines.
+     *
+     * @param evaluator
+     *            Used evaluator
+     * @param in
+     *            Channel with the input lines
+     * @param lines
+     *            Expected number of evaluated lines
+     * @return Output lines
+     * @throws IOException
+     *             If evaluation fails
+     */
+    private static String evaluate(RPNParallelEvaluator evaluator, ReadableByteChannel in,
+            long lines) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(lines, evaluator.evaluate(in, Channels.newChannel(out)));
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Channel which fails after reading a number of bytes.
+     *
+     * @author TheKarlo95
+     * @version 1.0
+     */
+    private static class FailingInput implements ReadableByteChannel {
+        /** Channel from which bytes are read. */
+        private final ReadableByteChannel in;
+        /** Number of bytes after which reading fails. */
+        private int remaining;
+        /** Exception thrown by the failing read. */
+        private final IOException failure;
+
+        /**
+         * Constructs a channel which fails after the specified number of bytes.
+         *
+         * @param in
+         *            Channel from which bytes are read
+         * @param remaining
+         *            Number of bytes after which reading fails
+         * @param failure
+         *            Exception thrown by the failing read
+         */
+        FailingInput(ReadableByteChannel in, int remaining, IOException failure) {
+            this.in = in;
+            this.remaining = remaining;
+            this.failure = failure;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (remaining <= 0) {
+                throw failure;
+            }
+            int read = in.read(dst);
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+}
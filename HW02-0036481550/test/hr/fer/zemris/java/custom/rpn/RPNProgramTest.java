@@ -0,0 +1,262 @@
+package hr.fer.zemris.java.custom.rpn;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.text.ParseException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.custom.collections.EmptyStackException;
+
+/**
+ * Tests of {@link RPNProgram} against the evaluation {@code StackDemo} did
+ * before expressions were compiled.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class RPNProgramTest {
+
+    /**
+     * Compiles random expressions, some of which are folded partly or
+     * completely, and checks that they evaluate to the same values and fail
+     * on the same divisions by zero as the legacy evaluation.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test
+    public void randomExpressionsMatchLegacyEvaluation() throws ParseException {
+        Random random = new Random(12);
+
+        for (int i = 0; i < 5000; i++) {
+            String expression = RPNTests.randomExpression(random, 1 + random.nextInt(5));
+            RPNProgram program = RPNProgram.compile(expression);
+            int[] stack = new int[program.getMaxStackDepth()];
+
+            for (int j = 0; j < 5; j++) {
+                int[] values = RPNTests.randomValues(random);
+                int[] variables = RPNTests.slotValues(program, values);
+
+                Integer expected;
+                try {
+                    expected = RPNTests.legacyEvaluate(expression, values);
+                } catch (ArithmeticException e) {
+                    expected = null;
+                }
+
+                try {
+                    assertEquals(expression, expected, (Integer) program.evaluate(variables));
+                    assertEquals(expression, expected,
+                            (Integer) program.evaluate(variables, stack));
+                } catch (ArithmeticException e) {
+                    if (expected != null) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that subexpressions made only of constants are folded and the
+     * others are kept.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test
+    public void foldsConstantSubexpressions() throws ParseException {
+        RPNProgram folded = RPNProgram.compile("-1 8 2 / + 3 *");
+        assertArrayEquals(new byte[] { RPNProgram.CONST }, folded.opcodes);
+        assertEquals(9, folded.operands[0]);
+        assertEquals(9, folded.evaluate());
+
+        RPNProgram partly = RPNProgram.compile("x 1 2 + *");
+        assertArrayEquals(new byte[] { RPNProgram.LOAD, RPNProgram.CONST, RPNProgram.MUL },
+                partly.opcodes);
+        assertEquals(3, partly.operands[1]);
+        assertEquals(21, partly.evaluate(7));
+
+        // operands are folded only when they are adjacent on the stack
+        RPNProgram unfolded = RPNProgram.compile("1 x + 2 +");
+        assertEquals(5, unfolded.opcodes.length);
+        assertEquals(10, unfolded.evaluate(7));
+
+        assertEquals(Integer.MIN_VALUE, RPNProgram.compile("2147483647 1 +").evaluate());
+        assertEquals(Integer.MIN_VALUE, RPNProgram.compile("-2147483648 -1 /").evaluate());
+        assertEquals(0, RPNProgram.compile("-2147483648 -1 %").evaluate());
+    }
+
+    /**
+     * Checks that a division or remainder by a zero constant is not folded and
+     * fails at evaluation time.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test
+    public void divisionByZeroConstantFailsWhenEvaluated() throws ParseException {
+        for (String expression : new String[] { "1 0 /", "1 0 %", "1 2 2 - /", "x 1 1 - %" }) {
+            RPNProgram program = RPNProgram.compile(expression);
+            try {
+                program.evaluate(new int[program.getVariableCount()]);
+                fail("Evaluated " + expression);
+            } catch (ArithmeticException expected) {
+                // the legacy evaluation fails the same way
+            }
+        }
+    }
+
+    /**
+     * Checks that a division or remainder by a zero variable fails.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test
+    public void divisionByZeroVariableFails() throws ParseException {
+        RPNProgram program = RPNProgram.compile("x y / x y % +");
+        assertEquals(3, program.evaluate(7, 3));
+
+        try {
+            program.evaluate(7, 0);
+            fail();
+        } catch (ArithmeticException expected) {
+            // division by zero
+        }
+    }
+
+    /**
+     * Checks the slots of variables, which follow their first appearance.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test
+    public void variablesGetSlotsInOrderOfAppearance() throws ParseException {
+        RPNProgram program = RPNProgram.compile("y x_1 - y * _z +");
+
+        assertEquals(3, program.getVariableCount());
+        assertEquals("y", program.getVariableName(0));
+        assertEquals("x_1", program.getVariableName(1));
+        assertEquals("_z", program.getVariableName(2));
+        assertEquals(1, program.getVariableSlot("x_1"));
+        assertEquals(-1, program.getVariableSlot("x"));
+        assertEquals((5 - 2) * 5 + 1, program.evaluate(5, 2, 1));
+        assertEquals(2, program.getMaxStackDepth());
+    }
+
+    /**
+     * Checks that too few variable values are rejected.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void evaluateRejectsMissingVariables() throws ParseException {
+        RPNProgram.compile("x y +").evaluate(1);
+    }
+
+    /**
+     * Checks that a stack shorter than the largest depth is rejected.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void evaluateRejectsShortStack() throws ParseException {
+        RPNProgram program = RPNProgram.compile("1 x 2 * +");
+
+        program.evaluate(new int[] { 1 }, new int[program.getMaxStackDepth() - 1]);
+    }
+
+    /**
+     * Checks that an operator without enough operands is rejected at its
+     * position, where the legacy evaluation ran out of stack.
+     */
+    @Test
+    public void rejectsStackUnderflow() {
+        assertRejected("1 +", 2);
+        assertRejected("+", 0);
+        assertRejected("1 2 + * 3", 6);
+
+        try {
+            RPNTests.legacyEvaluate("1 +");
+            fail();
+        } catch (EmptyStackException expected) {
+            // the legacy evaluation fails as well
+        }
+    }
+
+    /**
+     * Checks that an expression which does not leave exactly one value is
+     * rejected at its end.
+     */
+    @Test
+    public void rejectsLeftoverValues() {
+        assertRejected("1 2", 3);
+        assertRejected("1 2 3 +", 7);
+        assertRejected("", 0);
+        assertRejected("   ", 3);
+    }
+
+    /**
+     * Checks that unknown tokens are rejected at their position.
+     */
+    @Test
+    public void rejectsUnknownTokens() {
+        assertRejected("1 2 ^", 4);
+        assertRejected("1 2.5 +", 2);
+        assertRejected("1 2 ++", 4);
+        assertRejected("1 -x +", 2);
+        assertRejected("1 2x +", 2);
+    }
+
+    /**
+     * Checks that literals out of the {@code int} range are rejected like
+     * {@link Integer#parseInt(String)} rejects them, and that the extreme
+     * values are accepted.
+     *
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test
+    public void rejectsLiteralsOutOfRange() throws ParseException {
+        String[] rejected = { "2147483648", "-2147483649", "99999999999999999999",
+                "-99999999999999999999", "10000000000000000000000000000000" };
+        for (String literal : rejected) {
+            assertRejected("1 " + literal + " +", 2);
+            try {
+                Integer.parseInt(literal);
+                fail();
+            } catch (NumberFormatException expected) {
+                // the legacy evaluation rejects it as well
+            }
+        }
+
+        assertEquals(Integer.MAX_VALUE, RPNProgram.compile("2147483647").evaluate());
+        assertEquals(Integer.MIN_VALUE, RPNProgram.compile("-2147483648").evaluate());
+        assertEquals(7, RPNProgram.compile("-0 007 +").evaluate());
+    }
+
+    /**
+     * Asserts that an expression is rejected at the specified offset.
+     *
+     * @param expression
+     *            Postfix expression
+     * @param offset
+     *            Expected error offset
+     */
+    private static void assertRejected(String expression, int offset) {
+        try {
+            RPNProgram.compile(expression);
+            fail("Compiled " + expression);
+        } catch (ParseException e) {
+            assertEquals(expression, offset, e.getErrorOffset());
+        }
+    }
+}
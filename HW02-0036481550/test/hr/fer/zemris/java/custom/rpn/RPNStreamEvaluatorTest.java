@@ -0,0 +1,314 @@
+package hr.fer.zemris.java.custom.rpn;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link RPNStreamEvaluator} against {@link RPNProgram} and of the
+ * error lines it writes.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class RPNStreamEvaluatorTest {
+
+    /** Smallest buffer size, so that lines cross reads and the buffer grows. */
+    private static final int SMALL_BUFFER = 64;
+
+    /**
+     * Evaluates random expressions, with their variables replaced by literals,
+     * and checks every line against {@link RPNProgram#evaluate(int...)}.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     * @throws ParseException
+     *             If a valid expression is rejected
+     */
+    @Test
+    public void randomExpressionsMatchProgram() throws IOException, ParseException {
+        Random random = new Random(15);
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+
+        for (int i = 0; i < 3000; i++) {
+            String line = literals(RPNTests.randomExpression(random, 1 + random.nextInt(5)),
+                    RPNTests.randomValues(random));
+            input.append(line).append('\n');
+            try {
+                expected.append(RPNProgram.compile(line).evaluate()).append('\n');
+            } catch (ArithmeticException e) {
+                expected.append("error: division by zero\n");
+            }
+        }
+
+        assertEquals(expected.toString(), evaluate(new RPNStreamEvaluator(SMALL_BUFFER),
+                input.toString(), 3000));
+        assertEquals(expected.toString(), evaluate(new RPNStreamEvaluator(),
+                input.toString(), 3000));
+    }
+
+    /**
+     * Checks the error line of every kind of invalid expression and that the
+     * following line is still evaluated.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void writesErrorLines() throws IOException {
+        assertLine("error: empty expression", "");
+        assertLine("error: empty expression", " \t ");
+        assertLine("error: unknown token", "1 x +");
+        assertLine("error: unknown token", "1 2 ++");
+        assertLine("error: unknown token", "1 2.5 +");
+        assertLine("error: unknown token", "1 -x +");
+        assertLine("error: unknown token", "1 2 +x");
+        assertLine("error: unknown token", "99999999999x");
+        assertLine("error: integer out of range", "2147483648");
+        assertLine("error: integer out of range", "1 -2147483649 +");
+        assertLine("error: integer out of range", "99999999999999999999999 1 +");
+        assertLine("error: not enough operands", "+");
+        assertLine("error: not enough operands", "1 2 + *");
+        assertLine("error: too many operands", "1 2");
+        assertLine("error: too many operands", "1 2 3 +");
+        assertLine("error: division by zero", "1 0 /");
+        assertLine("error: division by zero", "5 3 3 - %");
+    }
+
+    /**
+     * Checks the extreme literals and the wrapping arithmetic of
+     * {@link RPNProgram}.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void evaluatesExtremeValues() throws IOException {
+        assertLine("2147483647", "2147483647");
+        assertLine("-2147483648", "-2147483648");
+        assertLine("-2147483648", "2147483647 1 +");
+        assertLine("-2147483648", "-2147483648 -1 /");
+        assertLine("0", "-2147483648 -1 %");
+        assertLine("7", "-0 007 +");
+    }
+
+    /**
+     * Checks that tabs and carriage returns separate tokens, so CRLF input is
+     * evaluated like LF input.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void acceptsTabsAndCarriageReturns() throws IOException {
+        assertEquals("3\n12\n-1\n", evaluate(new RPNStreamEvaluator(SMALL_BUFFER),
+                "1\t2 +\r\n  3   4 *  \r\n\t-1\t\n", 3));
+    }
+
+    /**
+     * Checks that a last line without a newline is evaluated, including one
+     * which fills the buffer when the input ends.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void evaluatesLastLineWithoutNewline() throws IOException {
+        assertEquals("3\n-4\n", evaluate(new RPNStreamEvaluator(SMALL_BUFFER), "1 2 +\n-4", 2));
+        assertEquals("error: too many operands\n",
+                evaluate(new RPNStreamEvaluator(SMALL_BUFFER), "1 2", 1));
+
+        // exactly one buffer, so the newline appended at the end needs it to grow
+        String line = sum(16) + "   ";
+        assertEquals(SMALL_BUFFER, line.length());
+        assertEquals("16\n", evaluate(new RPNStreamEvaluator(SMALL_BUFFER), line, 1));
+        assertEquals("", evaluate(new RPNStreamEvaluator(SMALL_BUFFER), "", 0));
+    }
+
+    /**
+     * Checks that lines many times longer than the buffer grow it and are
+     * evaluated, also when they follow short lines and when they fail.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void growsBufferForLongLines() throws IOException {
+        RPNStreamEvaluator evaluator = new RPNStreamEvaluator(SMALL_BUFFER);
+        String input = "1\n" + sum(1000) + "\n2\n" + sum(1000) + " x\n" + sum(5000) + "\n";
+
+        assertEquals("1\n1000\n2\nerror: unknown token\n5000\n", evaluate(evaluator, input, 5));
+        // the grown buffer is kept for the next call
+        assertEquals("3\n", evaluate(evaluator, "1 2 +\n", 1));
+    }
+
+    /**
+     * Evaluates the remaining bytes of heap, offset, direct and read-only
+     * buffers and checks that they give the output of the channel evaluation
+     * and that their positions move to their limits.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void evaluatesBuffers() throws IOException {
+        String lines = "1 2 +\n\n1 0 %\n" + sum(100) + "\n-7";
+        String expected = evaluate(new RPNStreamEvaluator(), lines, 5);
+        byte[] bytes = ("xx\n" + lines + "\n6 7 *\n").getBytes(StandardCharsets.US_ASCII);
+        int start = 3;
+        int end = start + lines.length();
+
+        ByteBuffer heap = ByteBuffer.wrap(bytes, start, lines.length());
+        ByteBuffer offset = ((ByteBuffer) ByteBuffer.wrap(bytes).position(1)).slice();
+        offset.position(start - 1).limit(end - 1);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).position(start).limit(end);
+        ByteBuffer readOnly = ByteBuffer.wrap(bytes, start, lines.length()).asReadOnlyBuffer();
+
+        // a small evaluator has to grow for the long line and the copied last line
+        RPNStreamEvaluator evaluator = new RPNStreamEvaluator(SMALL_BUFFER);
+        for (ByteBuffer buffer : new ByteBuffer[] { heap, offset, direct, readOnly }) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            assertEquals(5, evaluator.evaluate(buffer, Channels.newChannel(out)));
+            assertEquals(expected, new String(out.toByteArray(), StandardCharsets.US_ASCII));
+            assertEquals(buffer.limit(), buffer.position());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, evaluator.evaluate(ByteBuffer.allocate(0), Channels.newChannel(out)));
+        assertEquals(0, out.size());
+    }
+
+    /**
+     * Checks that output larger than the output buffer is flushed whole.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test
+    public void flushesOutputLargerThanBuffer() throws IOException {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            input.append(i).append(" -2147483648 +\n");
+            expected.append(i + Integer.MIN_VALUE).append('\n');
+        }
+
+        assertEquals(expected.toString(), evaluate(new RPNStreamEvaluator(SMALL_BUFFER),
+                input.toString(), 1000));
+    }
+
+    /**
+     * Checks that a buffer smaller than 64 bytes is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsSmallBuffer() {
+        new RPNStreamEvaluator(SMALL_BUFFER - 1);
+    }
+
+    /**
+     * Checks that a null channel is rejected.
+     *
+     * @throws IOException
+     *             If evaluation fails
+     */
+    @Test(expected = NullPointerException.class)
+    public void evaluateRejectsNullChannel() throws IOException {
+        new RPNStreamEvaluator().evaluate((ReadableByteChannel) null,
+                Channels.newChannel(new ByteArrayOutputStream()));
+    }
+
+    /**
+     * Asserts that a line, alone and followed by a valid line, evaluates to the
+     * expected result.
+     *
+     * @param expected
+     *            Expected output line without its newline
+     * @param line
+     *            Input line without its newline
+     * @throws IOException
+     *             If evaluation fails
+     */
+    private static void assertLine(String expected, String line) throws IOException {
+        RPNStreamEvaluator evaluator = new RPNStreamEvaluator(SMALL_BUFFER);
+
+        assertEquals(line, expected + "\n", evaluate(evaluator, line + "\n", 1));
+        assertEquals(line, expected + "\n42\n", evaluate(evaluator, line + "\n6 7 *\n", 2));
+    }
+
+    /**
+     * Evaluates the input and checks the number of evaluated lines.
+     *
+     * @param evaluator
+     *            Used evaluator
+     * @param input
+     *            Input lines
+     * @param lines
+     *            Expected number of evaluated lines
+     * @return Output lines
+     * @throws IOException
+     *             If evaluation fails
+     */
+    private static String evaluate(RPNStreamEvaluator evaluator, String input, long lines)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(lines, evaluator.evaluate(
+                Channels.newChannel(
+                        new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII))),
+                Channels.newChannel(out)));
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Creates an expression which adds up ones.
+     *
+     * @param count
+     *            Number of ones, at least 1
+     * @return Postfix expression whose value is {@code count}
+     */
+    private static String sum(int count) {
+        StringBuilder sb = new StringBuilder("1");
+        for (int i = 1; i < count; i++) {
+            sb.append(" 1 +");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Replaces the variables of an expression by their values.
+     *
+     * @param expression
+     *            Expression over {@link RPNTests#VARIABLES}, tokens separated
+     *            by single spaces
+     * @param values
+     *            Values of {@link RPNTests#VARIABLES}
+     * @return Expression made only of literals and operators
+     */
+    private static String literals(String expression, int[] values) {
+        StringBuilder sb = new StringBuilder();
+
+        for (String token : expression.split(" ")) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            int variable = Arrays.asList(RPNTests.VARIABLES).indexOf(token);
+            sb.append(variable == -1 ? token : Integer.toString(values[variable]));
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,198 @@
+package hr.fer.zemris.java.custom.rpn;
+
+import java.util.Random;
+
+import hr.fer.zemris.java.custom.collections.ObjectStack;
+
+/**
+ * Reference evaluation and random expressions, shared by the tests of the RPN
+ * engines.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+final class RPNTests {
+
+    /** Names of the variables of random expressions. */
+    static final String[] VARIABLES = { "a", "b", "c" };
+
+    /** Literals which random expressions prefer besides small integers. */
+    private static final int[] SPECIAL_LITERALS = { 0, 1, -1, Integer.MAX_VALUE,
+            Integer.MIN_VALUE };
+
+    /** Operators of random expressions. */
+    private static final String[] OPERATORS = { "+", "-", "*", "/", "%" };
+
+    /**
+     * Disables creating instances of this class.
+     */
+    private RPNTests() {
+
+    }
+
+    /**
+     * Evaluates an expression the way {@code StackDemo} did before expressions
+     * were compiled: split at spaces, regular expression check of numbers,
+     * {@link Integer#parseInt(String)}, a boxing {@link ObjectStack} and a
+     * string switch over the operator. Variables are the only addition, a
+     * token equal to a variable name pushes its value.
+     *
+     * @param expression
+     *            Postfix expression, tokens separated by single spaces
+     * @param values
+     *            Values of {@link #VARIABLES}
+     * @return Value of the expression
+     * @throws NumberFormatException
+     *             If a literal is out of the {@code int} range
+     * @throws hr.fer.zemris.java.custom.collections.EmptyStackException
+     *             If an operator has not enough operands
+     * @throws IllegalArgumentException
+     *             If a token is unknown or the expression does not leave
+     *             exactly one value
+     * @throws ArithmeticException
+     *             If the expression divides by zero
+     */
+    static int legacyEvaluate(String expression, int... values) {
+        ObjectStack stack = new ObjectStack();
+
+        for (String token : expression.trim().split(" ")) {
+            if (token.matches("^-?[0-9]+(\\.[0-9]+)?$")) {
+                stack.push(Integer.parseInt(token));
+                continue;
+            }
+
+            int variable = variable(token);
+            if (variable != -1) {
+                stack.push(values[variable]);
+                continue;
+            }
+
+            int right = (int) stack.pop();
+            int left = (int) stack.pop();
+            switch (token) {
+                case "+":
+                    stack.push(left + right);
+                    break;
+                case "-":
+                    stack.push(left - right);
+                    break;
+                case "*":
+                    stack.push(left * right);
+                    break;
+                case "/":
+                    stack.push(left / right);
+                    break;
+                case "%":
+                    stack.push(left % right);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown token " + token);
+            }
+        }
+
+        if (stack.size() != 1) {
+            throw new IllegalArgumentException("Leaves " + stack.size() + " values");
+        }
+        return (int) stack.pop();
+    }
+
+    /**
+     * Creates a random valid expression over {@link #VARIABLES}. Some of its
+     * subexpressions are made only of constants, so compilation folds them.
+     *
+     * @param random
+     *            Source of the expression
+     * @param depth
+     *            Largest depth of operators
+     * @return Postfix expression, tokens separated by single spaces
+     */
+    static String randomExpression(Random random, int depth) {
+        StringBuilder sb = new StringBuilder();
+        append(sb, random, depth, random.nextInt(3) == 0);
+        return sb.toString();
+    }
+
+    /**
+     * Creates random variable values, with zeros common enough to divide by
+     * them.
+     *
+     * @param random
+     *            Source of the values
+     * @return Values of {@link #VARIABLES}
+     */
+    static int[] randomValues(Random random) {
+        int[] values = new int[VARIABLES.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(4) == 0 ? 0 : random.nextInt(41) - 20;
+        }
+        return values;
+    }
+
+    /**
+     * Orders values of {@link #VARIABLES} by the slots of a program.
+     *
+     * @param program
+     *            Program whose slots are used
+     * @param values
+     *            Values of {@link #VARIABLES}
+     * @return Values of the variables of the program, indexed by slot
+     */
+    static int[] slotValues(RPNProgram program, int[] values) {
+        int[] slots = new int[program.getVariableCount()];
+        for (int i = 0; i < VARIABLES.length; i++) {
+            int slot = program.getVariableSlot(VARIABLES[i]);
+            if (slot != -1) {
+                slots[slot] = values[i];
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Appends a random subexpression.
+     *
+     * @param sb
+     *            Expression built so far
+     * @param random
+     *            Source of the subexpression
+     * @param depth
+     *            Largest depth of operators
+     * @param constant
+     *            True if the subexpression may not use variables
+     */
+    private static void append(StringBuilder sb, Random random, int depth, boolean constant) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            if (!constant && random.nextInt(3) == 0) {
+                sb.append(VARIABLES[random.nextInt(VARIABLES.length)]);
+            } else if (random.nextInt(6) == 0) {
+                sb.append(SPECIAL_LITERALS[random.nextInt(SPECIAL_LITERALS.length)]);
+            } else {
+                sb.append(random.nextInt(41) - 20);
+            }
+            return;
+        }
+
+        append(sb, random, depth - 1, constant || random.nextInt(4) == 0);
+        append(sb, random, depth - 1, constant || random.nextInt(4) == 0);
+        sb.append(' ').append(OPERATORS[random.nextInt(OPERATORS.length)]);
+    }
+
+    /**
+     * Finds the variable named by a token.
+     *
+     * @param token
+     *            Token
+     * @return Index of the variable or -1 if the token is not a variable
+     */
+    private static int variable(String token) {
+        for (int i = 0; i < VARIABLES.length; i++) {
+            if (VARIABLES[i].equals(token)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
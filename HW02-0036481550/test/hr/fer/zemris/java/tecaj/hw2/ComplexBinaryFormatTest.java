@@ -0,0 +1,150 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexBinaryFormat.Layout;
+
+/**
+ * Tests of {@link ComplexBinaryFormat}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexBinaryFormatTest {
+
+    /** Special values of the parts. */
+    private static final double[] SPECIAL = { 0, -0.0, 1e-20, 3e-19, -1e-300, Double.MIN_VALUE,
+            -Double.MIN_NORMAL, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, 1, -1.5, 0.1, 123456789.123456789 };
+
+    /** Binary file. */
+    private Path binary;
+    /** Text file. */
+    private Path text;
+
+    /**
+     * Creates the files.
+     *
+     * @throws IOException
+     *             If a file cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        binary = Files.createTempFile("complex", ".bin");
+        text = Files.createTempFile("complex", ".txt");
+    }
+
+    /**
+     * Deletes the files.
+     *
+     * @throws IOException
+     *             If a file cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(text);
+    }
+
+    /**
+     * Checks that converting to text and back restores every part exactly.
+     *
+     * @throws IOException
+     *             If reading or writing fails
+     */
+    @Test
+    public void textRoundTripIsExact() throws IOException {
+        Random random = new Random(9);
+        int count = SPECIAL.length * SPECIAL.length + 10_000;
+        double[] real = new double[count];
+        double[] imaginary = new double[count];
+
+        for (int i = 0; i < SPECIAL.length * SPECIAL.length; i++) {
+            real[i] = SPECIAL[i / SPECIAL.length];
+            imaginary[i] = SPECIAL[i % SPECIAL.length];
+        }
+        for (int i = SPECIAL.length * SPECIAL.length; i < count; i++) {
+            real[i] = Double.longBitsToDouble(random.nextLong());
+            imaginary[i] = i % 2 == 0 ? random.nextGaussian()
+                    : Double.longBitsToDouble(random.nextLong());
+        }
+
+        for (Layout layout : Layout.values()) {
+            ComplexBinaryFormat.write(binary, real, imaginary, layout);
+            ComplexBinaryFormat.toText(binary, text);
+            ComplexBinaryFormat.fromText(text, binary, layout);
+            ComplexVector restored = ComplexBinaryFormat.read(binary);
+
+            assertEquals(count, restored.length());
+            for (int i = 0; i < count; i++) {
+                assertBits(real[i], restored.getReal(i));
+                assertBits(imaginary[i], restored.getImaginary(i));
+            }
+        }
+    }
+
+    /**
+     * Checks the text of small parts and special values, which must keep
+     * both parts.
+     *
+     * @throws IOException
+     *             If reading or writing fails
+     */
+    @Test
+    public void textKeepsBothParts() throws IOException {
+        ComplexBinaryFormat.write(binary, new double[] { 1e-20, Double.NaN, 1, -0.0 },
+                new double[] { 3e-19, Double.NaN, Double.NEGATIVE_INFINITY, -0.0 },
+                Layout.INTERLEAVED);
+        ComplexBinaryFormat.toText(binary, text);
+
+        assertEquals("1.0E-20+3.0E-19i\nNaN+NaNi\n1.0-Infinityi\n-0.0-0.0i\n",
+                new String(Files.readAllBytes(text), StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Checks that literals with NaN and infinite parts are parsed.
+     *
+     * @throws ParseException
+     *             If a literal cannot be parsed
+     */
+    @Test
+    public void parsesSpecialValues() throws ParseException {
+        ComplexNumber c = ComplexNumber.parse("-Infinity+NaNi");
+        assertBits(Double.NEGATIVE_INFINITY, c.getReal());
+        assertBits(Double.NaN, c.getImaginary());
+
+        c = ComplexNumber.parse("NaN - Infinityi");
+        assertBits(Double.NaN, c.getReal());
+        assertBits(Double.NEGATIVE_INFINITY, c.getImaginary());
+
+        c = ComplexNumber.parse("-Infinityj");
+        assertBits(0, c.getReal());
+        assertBits(Double.NEGATIVE_INFINITY, c.getImaginary());
+
+        c = ComplexNumber.parse("-I");
+        assertBits(-1, c.getImaginary());
+    }
+
+    /**
+     * Asserts that two doubles have the same bits, any NaN being equal.
+     *
+     * @param expected
+     *            Expected value
+     * @param actual
+     *            Actual value
+     */
+    private static void assertBits(double expected, double actual) {
+        assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+    }
+}
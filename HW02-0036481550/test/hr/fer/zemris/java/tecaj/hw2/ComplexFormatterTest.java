@@ -0,0 +1,185 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of formatting complex numbers against {@link DecimalFormat} and
+ * {@link BigDecimal}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexFormatterTest {
+
+    /** Default locale before the test. */
+    private Locale defaultLocale;
+
+    /**
+     * Sets the default locale used by {@link ComplexNumber#toString()}.
+     */
+    @Before
+    public void setUp() {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+    }
+
+    /**
+     * Restores the default locale.
+     */
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    /**
+     * Checks that {@link ComplexNumber#toString()} gives the same text as the
+     * original implementation based on {@link DecimalFormat}.
+     */
+    @Test
+    public void toStringMatchesDecimalFormat() {
+        checkToString(values(new Random(5), 100_000));
+    }
+
+    /**
+     * Checks that {@link ComplexNumber#toString()} gives the same text as
+     * {@link DecimalFormat} in locales with a decimal comma or other texts of
+     * NaN and infinity.
+     */
+    @Test
+    public void toStringMatchesDecimalFormatInOtherLocales() {
+        List<Double> values = values(new Random(8), 10_000);
+
+        for (String tag : new String[] { "hr-HR", "de-DE", "fr-FR", "ru-RU", "ar-EG", "hi-IN",
+                "sv-SE" }) {
+            Locale.setDefault(Locale.forLanguageTag(tag));
+            checkToString(values);
+        }
+    }
+
+    /**
+     * Compares {@link ComplexNumber#toString()} with the original
+     * implementation in the default locale, pairing each value with another.
+     *
+     * @param values
+     *            Values of the parts
+     */
+    private static void checkToString(List<Double> values) {
+        for (int i = 0; i < values.size(); i++) {
+            double real = i % 4 == 0 ? 0 : values.get(i);
+            double imaginary = values.get((i * 7 + 3) % values.size());
+
+            assertEquals(real + ", " + imaginary, decimalFormat(real, imaginary),
+                    new ComplexNumber(real, imaginary).toString());
+        }
+    }
+
+    /**
+     * Checks that numbers are rounded half to even at every precision. Zero is
+     * skipped, a zero real part selects the format of an imaginary number.
+     */
+    @Test
+    public void formatRoundsHalfEven() {
+        List<Double> values = values(new Random(6), 5_000);
+
+        for (int precision = 0; precision <= 18; precision++) {
+            for (double value : values) {
+                if (Double.isNaN(value) || Double.isInfinite(value) || value == 0) {
+                    continue;
+                }
+
+                String expected = new BigDecimal(value).setScale(precision, RoundingMode.HALF_EVEN)
+                        .stripTrailingZeros().toPlainString();
+                if (expected.equals("0") || expected.startsWith("0E")) {
+                    expected = "0";
+                }
+                if (value < 0) {
+                    expected = "-" + expected.replace("-", "");
+                }
+
+                String actual = new ComplexNumber(value, 0).format(new StringBuilder(), precision)
+                        .toString();
+                assertEquals(value + " at precision " + precision, expected, actual);
+            }
+        }
+    }
+
+    /**
+     * Formats a complex number like the original implementation.
+     *
+     * @param real
+     *            Real part
+     * @param imaginary
+     *            Imaginary part
+     * @return Formatted number
+     */
+    private static String decimalFormat(double real, double imaginary) {
+        DecimalFormat format = new DecimalFormat("#.####");
+        format.setDecimalSeparatorAlwaysShown(false);
+
+        if (real == 0) {
+            return String.format("%si", format.format(imaginary));
+        } else if (imaginary > 0) {
+            return String.format("%s + %si", format.format(real), format.format(imaginary));
+        } else if (imaginary < 0) {
+            return String.format("%s - %si", format.format(real),
+                    format.format(Math.abs(imaginary)));
+        } else {
+            return String.format("%s", format.format(real));
+        }
+    }
+
+    /**
+     * Creates special numbers followed by random numbers of various
+     * magnitudes, including ties of the rounding.
+     *
+     * @param random
+     *            Source of numbers
+     * @param count
+     *            Number of random numbers
+     * @return List of numbers
+     */
+    private static List<Double> values(Random random, int count) {
+        List<Double> values = new ArrayList<>();
+        double[] special = { 0, -0.0, Double.NaN, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE,
+                0.03125, 0.09375, 0.00005, -0.00005, 0.00015, 1e19, 9.3e18, 9.2e18, 1L << 62,
+                1.00005, 0.99995, 4503599627370496.5, 2.5, 1e-5 };
+        for (double value : special) {
+            values.add(value);
+        }
+
+        for (int i = 0; i < count; i++) {
+            switch (i % 5) {
+                case 0:
+                    values.add(Double.longBitsToDouble(random.nextLong()));
+                    break;
+                case 1:
+                    values.add((random.nextDouble() - 0.5) * 1000);
+                    break;
+                case 2:
+                    values.add((random.nextInt(200_000) - 100_000) / 32.0);
+                    break;
+                case 3:
+                    values.add(random.nextInt(2_000_000) / 1e5 * (random.nextBoolean() ? 1 : -1));
+                    break;
+                default:
+                    values.add((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20));
+                    break;
+            }
+        }
+
+        return values;
+    }
+}
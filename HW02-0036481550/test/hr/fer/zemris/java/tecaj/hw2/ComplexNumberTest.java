@@ -0,0 +1,61 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link ComplexNumber}. The precision of the roots is measured by
+ * {@code ComplexRootPrecision} in the benchmarks.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexNumberTest {
+
+    /**
+     * Checks that both variants of the root write the same bits.
+     */
+    @Test
+    public void rootVariantsAgree() {
+        Random random = new Random(7);
+
+        for (int t = 0; t < 2000; t++) {
+            int n = 1 + random.nextInt(t % 10 == 0 ? 1000 : 64);
+            double scale = Math.pow(10, random.nextInt(21) - 10);
+            ComplexNumber c = new ComplexNumber((random.nextDouble() * 2 - 1) * scale,
+                    (random.nextDouble() * 2 - 1) * scale);
+
+            ComplexNumber[] roots = c.root(n);
+            double[] real = new double[n + 1];
+            double[] imaginary = new double[n + 1];
+            c.root(n, real, imaginary, 1);
+
+            for (int k = 0; k < n; k++) {
+                assertEquals(roots[k].getReal(), real[k + 1], 0);
+                assertEquals(roots[k].getImaginary(), imaginary[k + 1], 0);
+            }
+        }
+    }
+
+    /**
+     * Checks that the roots are ordered by angle, root k having the angle
+     * {@code (angle + 2 * k * pi) / n}.
+     */
+    @Test
+    public void rootsAreOrderedByAngle() {
+        // the documented bound of 12 ulps of the magnitude of the roots
+        final double tolerance = 12 * Math.ulp(2.0);
+        ComplexNumber c = new ComplexNumber(-8, 0);
+        ComplexNumber[] roots = c.root(3);
+
+        assertEquals(1, roots[0].getReal(), tolerance);
+        assertEquals(Math.sqrt(3), roots[0].getImaginary(), tolerance);
+        assertEquals(-2, roots[1].getReal(), tolerance);
+        assertEquals(0, roots[1].getImaginary(), tolerance);
+        assertEquals(1, roots[2].getReal(), tolerance);
+        assertEquals(-Math.sqrt(3), roots[2].getImaginary(), tolerance);
+    }
+}
@@ -0,0 +1,175 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of parsing complex numbers.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexParserTest {
+
+    /**
+     * Checks that parsed real numbers have the same bits as those parsed by
+     * {@link Double#parseDouble(String)}.
+     *
+     * @throws ParseException
+     *             If a number cannot be parsed
+     */
+    @Test
+    public void realPartMatchesParseDouble() throws ParseException {
+        Random random = new Random(3);
+
+        for (int i = 0; i < 200_000; i++) {
+            String s;
+            if (i % 2 == 0) {
+                double value = Double.longBitsToDouble(random.nextLong());
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    continue;
+                }
+                s = Double.toString(value);
+            } else {
+                s = String.format(Locale.US, "%.6f", random.nextDouble() * 1000);
+            }
+
+            assertBits(s, Double.parseDouble(s), ComplexNumber.parse(s).getReal());
+        }
+
+        for (String s : new String[] { "1e308", "1e-320", "123456789012345678901234", "0.1",
+                "-0", "7.", ".5", "4.9e-324", "2.2250738585072011e-308" }) {
+            assertBits(s, Double.parseDouble(s), ComplexNumber.parse(s).getReal());
+        }
+    }
+
+    /**
+     * Checks the accepted forms of complex numbers.
+     *
+     * @throws ParseException
+     *             If a number cannot be parsed
+     */
+    @Test
+    public void parsesComplexNumbers() throws ParseException {
+        assertParsed(2.5, -3, "2.5-3i");
+        assertParsed(0, -1, "-i");
+        assertParsed(0, 1, "i");
+        assertParsed(0, 1, "+j");
+        assertParsed(4, 0, "4");
+        assertParsed(1e-3, 250, " 1e-3 + 2.5E2j ");
+        assertParsed(0, -0.5, "-.5i");
+        assertParsed(0, 3, "3I");
+        assertParsed(1, 1, "1 + i");
+        assertParsed(1500, -0.0225, "1.5e+3-2.25e-2i");
+        assertParsed(2, -3, "xx 2-3i yy".toCharArray(), 3, 7);
+    }
+
+    /**
+     * Checks that malformed numbers are rejected.
+     */
+    @Test
+    public void rejectsMalformedNumbers() {
+        for (String s : new String[] { "", "  ", "abc", "2+3", "3i+2", "2.5e", "1.5.5i", "2 3i",
+                "2+-3i", "--1", "1,2", "i2", "2+i i" }) {
+            try {
+                ComplexNumber.parse(s);
+                fail("Accepted " + s);
+            } catch (ParseException expected) {
+                // rejected as it should be
+            }
+        }
+    }
+
+    /**
+     * Checks parsing of separated numbers from a buffer.
+     *
+     * @throws ParseException
+     *             If a number cannot be parsed
+     */
+    @Test
+    public void parsesAllFromBuffer() throws ParseException {
+        ByteBuffer buffer = ByteBuffer
+                .wrap("1+2i, 3 ; -i\n\n4.5e1-j\r\n,7".getBytes(StandardCharsets.US_ASCII));
+        double[] real = new double[3];
+        double[] imaginary = new double[3];
+
+        assertEquals(3, ComplexNumber.parseAll(buffer, real, imaginary, 0));
+        assertEquals(1, real[0], 0);
+        assertEquals(2, imaginary[0], 0);
+        assertEquals(3, real[1], 0);
+        assertEquals(-1, imaginary[2], 0);
+
+        assertEquals(2, ComplexNumber.parseAll(buffer, real, imaginary, 0));
+        assertEquals(45, real[0], 0);
+        assertEquals(-1, imaginary[0], 0);
+        assertEquals(7, real[1], 0);
+        assertEquals(0, buffer.remaining());
+    }
+
+    /**
+     * Asserts that two numbers have the same bits.
+     *
+     * @param s
+     *            Parsed text
+     * @param expected
+     *            Expected number
+     * @param actual
+     *            Actual number
+     */
+    private static void assertBits(String s, double expected, double actual) {
+        assertEquals(s, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+    }
+
+    /**
+     * Asserts that a text is parsed to the specified complex number.
+     *
+     * @param real
+     *            Expected real part
+     * @param imaginary
+     *            Expected imaginary part
+     * @param s
+     *            Parsed text
+     * @throws ParseException
+     *             If the text cannot be parsed
+     */
+    private static void assertParsed(double real, double imaginary, String s)
+            throws ParseException {
+        ComplexNumber number = ComplexNumber.parse(s);
+
+        assertEquals(s, real, number.getReal(), 0);
+        assertEquals(s, imaginary, number.getImaginary(), 0);
+    }
+
+    /**
+     * Asserts that a range of characters is parsed to the specified complex
+     * number.
+     *
+     * @param real
+     *            Expected real part
+     * @param imaginary
+     *            Expected imaginary part
+     * @param chars
+     *            Characters holding the number
+     * @param from
+     *            Index of the first character of the number
+     * @param to
+     *            Index after the last character of the number
+     * @throws ParseException
+     *             If the characters cannot be parsed
+     */
+    private static void assertParsed(double real, double imaginary, char[] chars, int from,
+            int to) throws ParseException {
+        ComplexNumber number = ComplexNumber.parse(chars, from, to);
+
+        assertEquals(real, number.getReal(), 0);
+        assertEquals(imaginary, number.getImaginary(), 0);
+    }
+}
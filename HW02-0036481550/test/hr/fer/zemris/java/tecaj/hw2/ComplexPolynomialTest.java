@@ -0,0 +1,66 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link ComplexPolynomial}.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexPolynomialTest {
+
+    /**
+     * Checks that every computed root is an exact root of a polynomial whose
+     * coefficients differ by a few units of roundoff, that is that the value
+     * at the root is small compared to the sum of the magnitudes of the terms.
+     */
+    @Test
+    public void rootsHaveSmallBackwardError() {
+        Random random = new Random(5);
+
+        for (int t = 0; t < 500; t++) {
+            int n = 1 + random.nextInt(30);
+            ComplexNumber[] roots = new ComplexNumber[n];
+            for (int i = 0; i < n; i++) {
+                roots[i] = new ComplexNumber(random.nextGaussian() * 3,
+                        t % 3 == 0 ? 0 : random.nextGaussian() * 3);
+            }
+            ComplexPolynomial polynomial = ComplexPolynomial.fromRoots(roots);
+
+            ComplexNumber[] found = polynomial.roots();
+            assertEquals(n, found.length);
+            for (ComplexNumber root : found) {
+                double magnitude = root.getMagnitude();
+                double bound = 0;
+                for (int i = polynomial.degree(); i >= 0; i--) {
+                    bound = bound * magnitude + polynomial.getCoefficient(i).getMagnitude();
+                }
+
+                double error = polynomial.evaluate(root).getMagnitude() / bound;
+                assertTrue("backward error " + error, error <= 64 * Math.ulp(1.0));
+            }
+        }
+    }
+
+    /**
+     * Checks the roots of a polynomial with well separated roots.
+     */
+    @Test
+    public void findsSeparatedRoots() {
+        ComplexPolynomial polynomial = ComplexPolynomial.fromRoots(new ComplexNumber(1, 0),
+                new ComplexNumber(-1, 0), new ComplexNumber(0, 2));
+
+        for (ComplexNumber root : polynomial.roots()) {
+            double distance = Math.min(Math.hypot(root.getReal() - 1, root.getImaginary()),
+                    Math.min(Math.hypot(root.getReal() + 1, root.getImaginary()),
+                            Math.hypot(root.getReal(), root.getImaginary() - 2)));
+            assertTrue(distance < 1e-12);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link ComplexVector} against the same operations of
+ * {@link ComplexNumber} applied element by element. The operations use the
+ * same formulas, so the parts are compared bit for bit.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class ComplexVectorTest {
+
+    /** Lengths of the tested vectors, around typical unrolling widths. */
+    private static final int[] LENGTHS = { 0, 1, 3, 7, 8, 64, 1001 };
+
+    /**
+     * Checks the element-wise arithmetic against {@link ComplexNumber}.
+     */
+    @Test
+    public void elementWiseOperationsMatchComplexNumber() {
+        Random random = new Random(26);
+
+        for (int length : LENGTHS) {
+            for (int t = 0; t < 20; t++) {
+                ComplexNumber[] x = randomNumbers(random, length);
+                ComplexNumber[] y = randomNumbers(random, length);
+                ComplexVector other = ComplexVector.fromComplexNumbers(y);
+
+                ComplexNumber[] sum = new ComplexNumber[length];
+                ComplexNumber[] difference = new ComplexNumber[length];
+                ComplexNumber[] product = new ComplexNumber[length];
+                ComplexNumber[] quotient = new ComplexNumber[length];
+                for (int i = 0; i < length; i++) {
+                    sum[i] = x[i].add(y[i]);
+                    difference[i] = x[i].sub(y[i]);
+                    product[i] = x[i].mul(y[i]);
+                    quotient[i] = x[i].div(y[i]);
+                }
+
+                ComplexVector vector = ComplexVector.fromComplexNumbers(x);
+                assertSame(vector, vector.add(other));
+                assertElements(sum, vector);
+                assertElements(difference, ComplexVector.fromComplexNumbers(x).sub(other));
+                assertElements(product, ComplexVector.fromComplexNumbers(x).mul(other));
+                assertElements(quotient, ComplexVector.fromComplexNumbers(x).div(other));
+
+                // the argument is left unchanged
+                assertElements(y, other);
+            }
+        }
+    }
+
+    /**
+     * Checks operations whose argument is the vector itself.
+     */
+    @Test
+    public void aliasedOperationsMatchComplexNumber() {
+        Random random = new Random(27);
+
+        for (int length : LENGTHS) {
+            ComplexNumber[] x = randomNumbers(random, length);
+            ComplexNumber[] sum = new ComplexNumber[length];
+            ComplexNumber[] difference = new ComplexNumber[length];
+            ComplexNumber[] square = new ComplexNumber[length];
+            ComplexNumber[] quotient = new ComplexNumber[length];
+            ComplexNumber dot = new ComplexNumber(0, 0);
+            for (int i = 0; i < length; i++) {
+                sum[i] = x[i].add(x[i]);
+                difference[i] = x[i].sub(x[i]);
+                square[i] = x[i].mul(x[i]);
+                quotient[i] = x[i].div(x[i]);
+                dot = dot.add(x[i].mul(conjugate(x[i])));
+            }
+
+            ComplexVector vector;
+            vector = ComplexVector.fromComplexNumbers(x);
+            assertElements(sum, vector.add(vector));
+            vector = ComplexVector.fromComplexNumbers(x);
+            assertElements(difference, vector.sub(vector));
+            vector = ComplexVector.fromComplexNumbers(x);
+            assertElements(square, vector.mul(vector));
+            vector = ComplexVector.fromComplexNumbers(x);
+            assertElements(quotient, vector.div(vector));
+            vector = ComplexVector.fromComplexNumbers(x);
+            assertParts(dot, vector.dot(vector));
+        }
+    }
+
+    /**
+     * Checks scaling, conjugation, magnitudes and the inner product against
+     * {@link ComplexNumber}.
+     */
+    @Test
+    public void derivedOperationsMatchComplexNumber() {
+        Random random = new Random(28);
+
+        for (int length : LENGTHS) {
+            ComplexNumber[] x = randomNumbers(random, length);
+            ComplexNumber[] y = randomNumbers(random, length);
+            ComplexNumber factor = randomNumber(random);
+            double realFactor = random.nextGaussian();
+
+            ComplexNumber[] scaled = new ComplexNumber[length];
+            ComplexNumber[] realScaled = new ComplexNumber[length];
+            ComplexNumber[] conjugated = new ComplexNumber[length];
+            double[] magnitudes = new double[length];
+            ComplexNumber dot = new ComplexNumber(0, 0);
+            for (int i = 0; i < length; i++) {
+                scaled[i] = x[i].mul(factor);
+                realScaled[i] = x[i].mul(ComplexNumber.fromReal(realFactor));
+                conjugated[i] = conjugate(x[i]);
+                magnitudes[i] = x[i].getMagnitude();
+                dot = dot.add(x[i].mul(conjugate(y[i])));
+            }
+
+            assertElements(scaled, ComplexVector.fromComplexNumbers(x).scale(factor));
+            assertElements(realScaled, ComplexVector.fromComplexNumbers(x).scale(realFactor));
+            assertElements(conjugated, ComplexVector.fromComplexNumbers(x).conjugate());
+            assertParts(dot, ComplexVector.fromComplexNumbers(x)
+                    .dot(ComplexVector.fromComplexNumbers(y)));
+
+            ComplexVector vector = ComplexVector.fromComplexNumbers(x);
+            assertEquals(Arrays.toString(magnitudes), Arrays.toString(vector.magnitudes()));
+            double[] output = new double[length + 2];
+            assertSame(output, vector.magnitudes(output));
+            assertEquals(Arrays.toString(magnitudes),
+                    Arrays.toString(Arrays.copyOf(output, length)));
+        }
+    }
+
+    /**
+     * Checks the conversions, copies, element access and the arrays backing a
+     * vector.
+     */
+    @Test
+    public void accessesAndCopiesElements() {
+        ComplexNumber[] numbers = { new ComplexNumber(1, 2), new ComplexNumber(-3, 0.5),
+                new ComplexNumber(0, -4) };
+        ComplexVector vector = ComplexVector.fromComplexNumbers(numbers);
+
+        assertEquals(3, vector.length());
+        assertElements(numbers, vector);
+        assertElements(numbers, ComplexVector.fromComplexNumbers(vector.toComplexNumbers()));
+        assertEquals(Arrays.toString(numbers), vector.toString());
+
+        double[] real = { 1, -3, 0 };
+        double[] imaginary = { 2, 0.5, -4 };
+        ComplexVector parts = new ComplexVector(real, imaginary);
+        real[0] = 9;
+        assertElements(numbers, parts);
+
+        ComplexVector copy = vector.copy();
+        vector.set(0, 7, 8);
+        vector.set(1, new ComplexNumber(5, 6));
+        assertElements(numbers, copy);
+        assertParts(new ComplexNumber(7, 8), vector.get(0));
+        assertEquals(5, vector.getReal(1), 0);
+        assertEquals(6, vector.getImaginary(1), 0);
+
+        vector.getRealParts()[2] = 10;
+        vector.getImaginaryParts()[2] = 11;
+        assertParts(new ComplexNumber(10, 11), vector.get(2));
+
+        assertElements(new ComplexNumber[] { new ComplexNumber(0, 0), new ComplexNumber(0, 0) },
+                new ComplexVector(2));
+    }
+
+    /**
+     * Checks that every operation on two vectors rejects a vector of another
+     * length, before changing this vector.
+     */
+    @Test
+    public void rejectsLengthMismatch() {
+        ComplexNumber[] numbers = randomNumbers(new Random(29), 4);
+        ComplexVector vector = ComplexVector.fromComplexNumbers(numbers);
+
+        for (int length : new int[] { 0, 3, 5 }) {
+            ComplexVector other = new ComplexVector(length);
+            try {
+                vector.add(other);
+                fail("add of length " + length);
+            } catch (IllegalArgumentException expected) {
+                // different lengths
+            }
+            try {
+                vector.sub(other);
+                fail("sub of length " + length);
+            } catch (IllegalArgumentException expected) {
+                // different lengths
+            }
+            try {
+                vector.mul(other);
+                fail("mul of length " + length);
+            } catch (IllegalArgumentException expected) {
+                // different lengths
+            }
+            try {
+                vector.div(other);
+                fail("div of length " + length);
+            } catch (IllegalArgumentException expected) {
+                // different lengths
+            }
+            try {
+                vector.dot(other);
+                fail("dot of length " + length);
+            } catch (IllegalArgumentException expected) {
+                // different lengths
+            }
+        }
+
+        assertElements(numbers, vector);
+    }
+
+    /**
+     * Checks that a null vector is rejected.
+     */
+    @Test(expected = NullPointerException.class)
+    public void rejectsNullVector() {
+        new ComplexVector(2).add(null);
+    }
+
+    /**
+     * Checks that parts of different lengths are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsPartsOfDifferentLengths() {
+        new ComplexVector(new double[2], new double[3]);
+    }
+
+    /**
+     * Checks that a negative length is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsNegativeLength() {
+        new ComplexVector(-1);
+    }
+
+    /**
+     * Checks that an output array shorter than the vector is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void magnitudesRejectShortOutput() {
+        new ComplexVector(3).magnitudes(new double[2]);
+    }
+
+    /**
+     * Creates the conjugate of a number.
+     *
+     * @param c
+     *            Complex number
+     * @return Conjugated number
+     */
+    private static ComplexNumber conjugate(ComplexNumber c) {
+        return new ComplexNumber(c.getReal(), -c.getImaginary());
+    }
+
+    /**
+     * Creates random nonzero numbers.
+     *
+     * @param random
+     *            Source of the numbers
+     * @param length
+     *            Number of numbers
+     * @return Random complex numbers
+     */
+    private static ComplexNumber[] randomNumbers(Random random, int length) {
+        ComplexNumber[] numbers = new ComplexNumber[length];
+        for (int i = 0; i < length; i++) {
+            numbers[i] = randomNumber(random);
+        }
+        return numbers;
+    }
+
+    /**
+     * Creates a random nonzero number whose parts span several orders of
+     * magnitude and are sometimes zero or integers.
+     *
+     * @param random
+     *            Source of the number
+     * @return Random complex number
+     */
+    private static ComplexNumber randomNumber(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return new ComplexNumber(random.nextInt(21) - 10, 1 + random.nextInt(10));
+            case 1:
+                return random.nextBoolean() ? ComplexNumber.fromReal(random.nextGaussian() + 3)
+                        : ComplexNumber.fromImaginary(random.nextGaussian() - 3);
+            default:
+                double scale = Math.pow(10, random.nextInt(13) - 6);
+                return new ComplexNumber(random.nextGaussian() * scale,
+                        random.nextGaussian() * scale);
+        }
+    }
+
+    /**
+     * Asserts that a vector holds exactly the parts of the expected numbers.
+     *
+     * @param expected
+     *            Expected elements
+     * @param actual
+     *            Tested vector
+     */
+    private static void assertElements(ComplexNumber[] expected, ComplexVector actual) {
+        assertEquals(expected.length, actual.length());
+        for (int i = 0; i < expected.length; i++) {
+            String message = "element " + i + " " + expected[i];
+            assertEquals(message, expected[i].getReal(), actual.getReal(i), 0);
+            assertEquals(message, expected[i].getImaginary(), actual.getImaginary(i), 0);
+        }
+    }
+
+    /**
+     * Asserts that a number has exactly the expected parts.
+     *
+     * @param expected
+     *            Expected number
+     * @param actual
+     *            Tested number
+     */
+    private static void assertParts(ComplexNumber expected, ComplexNumber actual) {
+        assertEquals(expected.toString(), expected.getReal(), actual.getReal(), 0);
+        assertEquals(expected.toString(), expected.getImaginary(), actual.getImaginary(), 0);
+    }
+}
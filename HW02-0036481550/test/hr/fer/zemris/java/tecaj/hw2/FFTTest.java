@@ -0,0 +1,322 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link FFT} against a naive discrete Fourier transform.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class FFTTest {
+
+    /** Largest relative error allowed for the transform. */
+    private static final double TOLERANCE = 1e-12;
+
+    /**
+     * Compares every length up to 69 and a few lengths with large prime
+     * factors, which use Bluestein's algorithm, with the naive transform.
+     */
+    @Test
+    public void transformMatchesNaiveDft() {
+        Random random = new Random(1);
+
+        for (int n = 0; n < 70; n++) {
+            checkTransform(random, n);
+        }
+        for (int n : new int[] { 127, 997, 999, 1000, 1024, 1155, 2048, 4097 }) {
+            checkTransform(random, n);
+        }
+    }
+
+    /**
+     * Compares lengths whose convolutions get shorter and longer again, so
+     * the scratch arrays of Bluestein's algorithm are longer than needed and
+     * hold data of earlier transforms.
+     */
+    @Test
+    public void scratchArraysAreReusedAcrossLengths() {
+        Random random = new Random(3);
+
+        for (int n : new int[] { 4097, 999, 127, 69, 33, 7, 5, 3, 6, 1155, 11 }) {
+            checkTransform(random, n);
+        }
+    }
+
+    /**
+     * Checks a length whose convolution is longer than the kept scratch
+     * arrays by the transform of shifted impulses, which are the powers of
+     * a root of unity, and by the inverse.
+     */
+    @Test
+    public void transformLongerThanScratch() {
+        int n = 40000;
+        Random random = new Random(4);
+
+        for (int shift : new int[] { 0, 1, 12345 }) {
+            double[] real = new double[n];
+            double[] imaginary = new double[n];
+            real[shift] = 1;
+
+            FFT.transform(real, imaginary);
+            double error = 0;
+            for (int k = 0; k < n; k++) {
+                double angle = -2 * Math.PI * ((long) shift * k % n) / n;
+                error = Math.max(error,
+                        Math.hypot(real[k] - Math.cos(angle), imaginary[k] - Math.sin(angle)));
+            }
+            assertTrue("impulse at " + shift, error <= TOLERANCE);
+        }
+
+        double[] real = gaussian(random, n);
+        double[] imaginary = gaussian(random, n);
+        double[] resultReal = real.clone();
+        double[] resultImaginary = imaginary.clone();
+        FFT.transform(resultReal, resultImaginary);
+        FFT.inverse(resultReal, resultImaginary);
+        assertTrue(maxDistance(real, imaginary, resultReal, resultImaginary) <= TOLERANCE);
+    }
+
+    /**
+     * Checks that transforms of lengths which use Bluestein's algorithm give
+     * the same bits on several threads at once as on one thread.
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted
+     * @throws ExecutionException
+     *             If a transform fails
+     */
+    @Test
+    public void concurrentBluesteinTransformsMatchSequential()
+            throws InterruptedException, ExecutionException {
+        Random random = new Random(5);
+        final int[] lengths = { 999, 1155, 4097, 127 };
+        final double[][] inputs = new double[2 * lengths.length][];
+        final double[][] expected = new double[2 * lengths.length][];
+        for (int i = 0; i < lengths.length; i++) {
+            inputs[2 * i] = gaussian(random, lengths[i]);
+            inputs[2 * i + 1] = gaussian(random, lengths[i]);
+            expected[2 * i] = inputs[2 * i].clone();
+            expected[2 * i + 1] = inputs[2 * i + 1].clone();
+            FFT.transform(expected[2 * i], expected[2 * i + 1]);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<double[][]>> results = new ArrayList<>();
+            for (int t = 0; t < 40; t++) {
+                final int i = t % lengths.length;
+                results.add(pool.submit(new Callable<double[][]>() {
+                    @Override
+                    public double[][] call() {
+                        double[] real = new double[lengths[i]];
+                        double[] imaginary = new double[lengths[i]];
+                        for (int round = 0; round < 5; round++) {
+                            System.arraycopy(inputs[2 * i], 0, real, 0, real.length);
+                            System.arraycopy(inputs[2 * i + 1], 0, imaginary, 0,
+                                    imaginary.length);
+                            FFT.transform(real, imaginary);
+                        }
+                        return new double[][] { real, imaginary };
+                    }
+                }));
+            }
+
+            for (int t = 0; t < results.size(); t++) {
+                int i = t % lengths.length;
+                double[][] result = results.get(t).get();
+                assertArrayEquals(expected[2 * i], result[0], 0);
+                assertArrayEquals(expected[2 * i + 1], result[1], 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks the convolution lengths of Bluestein's algorithm and that lengths
+     * whose convolution length would overflow are rejected.
+     */
+    @Test
+    public void convolutionLengthIsCheckedForOverflow() {
+        assertEquals(8, FFT.convolutionLength(3));
+        assertEquals(16, FFT.convolutionLength(5));
+        assertEquals(16, FFT.convolutionLength(7));
+        assertEquals(1 << 30, FFT.convolutionLength((1 << 29) - 1));
+        assertEquals(1 << 30, FFT.convolutionLength(1 << 29));
+
+        for (int n : new int[] { (1 << 29) + 1, (1 << 30) + 1, Integer.MAX_VALUE }) {
+            try {
+                FFT.convolutionLength(n);
+                fail("Accepted length " + n);
+            } catch (IllegalArgumentException expected) {
+                // the convolution length does not fit an int
+            }
+        }
+    }
+
+    /**
+     * Checks that the parallel transform gives the same bits as the sequential
+     * one and that the inverse restores the input.
+     */
+    @Test
+    public void parallelTransformMatchesSequential() {
+        Random random = new Random(2);
+        ForkJoinPool pool = new ForkJoinPool(3);
+
+        try {
+            for (int n : new int[] { 1 << 16, 1 << 18 }) {
+                double[] real = gaussian(random, n);
+                double[] imaginary = gaussian(random, n);
+                double[] sequentialReal = real.clone();
+                double[] sequentialImaginary = imaginary.clone();
+                double[] parallelReal = real.clone();
+                double[] parallelImaginary = imaginary.clone();
+
+                FFT.transform(sequentialReal, sequentialImaginary);
+                FFT.parallelTransform(parallelReal, parallelImaginary, pool);
+                assertArrayEquals(sequentialReal, parallelReal, 0);
+                assertArrayEquals(sequentialImaginary, parallelImaginary, 0);
+
+                FFT.parallelInverse(parallelReal, parallelImaginary);
+                assertTrue(maxDistance(real, imaginary, parallelReal, parallelImaginary)
+                        <= TOLERANCE);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks the transform of complex numbers.
+     */
+    @Test
+    public void transformOfComplexNumbers() {
+        ComplexNumber[] numbers = { new ComplexNumber(1, 0), new ComplexNumber(0, 1),
+                new ComplexNumber(-1, 0) };
+
+        ComplexNumber[] restored = FFT.inverse(FFT.transform(numbers));
+
+        assertEquals(numbers.length, restored.length);
+        for (int i = 0; i < numbers.length; i++) {
+            assertEquals(numbers[i].getReal(), restored[i].getReal(), TOLERANCE);
+            assertEquals(numbers[i].getImaginary(), restored[i].getImaginary(), TOLERANCE);
+        }
+    }
+
+    /**
+     * Compares the transform of random data of the specified length with the
+     * naive transform and checks that the inverse restores the data.
+     *
+     * @param random
+     *            Source of data
+     * @param n
+     *            Length of the data
+     */
+    private static void checkTransform(Random random, int n) {
+        double[] real = gaussian(random, n);
+        double[] imaginary = gaussian(random, n);
+        double[][] expected = naiveDft(real, imaginary);
+        double[] resultReal = real.clone();
+        double[] resultImaginary = imaginary.clone();
+
+        FFT.transform(resultReal, resultImaginary);
+
+        double norm = Double.MIN_NORMAL;
+        for (int i = 0; i < n; i++) {
+            norm = Math.max(norm, Math.hypot(expected[0][i], expected[1][i]));
+        }
+        double error = maxDistance(expected[0], expected[1], resultReal, resultImaginary);
+        assertTrue("transform of length " + n, error / norm <= TOLERANCE);
+
+        FFT.inverse(resultReal, resultImaginary);
+        error = maxDistance(real, imaginary, resultReal, resultImaginary);
+        assertTrue("inverse of length " + n, error <= TOLERANCE);
+    }
+
+    /**
+     * Computes the discrete Fourier transform by its definition.
+     *
+     * @param real
+     *            Real parts
+     * @param imaginary
+     *            Imaginary parts
+     * @return Real and imaginary parts of the transform
+     */
+    private static double[][] naiveDft(double[] real, double[] imaginary) {
+        int n = real.length;
+        double[] resultReal = new double[n];
+        double[] resultImaginary = new double[n];
+
+        for (int k = 0; k < n; k++) {
+            for (int j = 0; j < n; j++) {
+                double angle = -2 * Math.PI * ((long) j * k % n) / n;
+                double cos = Math.cos(angle);
+                double sin = Math.sin(angle);
+                resultReal[k] += real[j] * cos - imaginary[j] * sin;
+                resultImaginary[k] += real[j] * sin + imaginary[j] * cos;
+            }
+        }
+
+        return new double[][] { resultReal, resultImaginary };
+    }
+
+    /**
+     * Gets the largest distance between corresponding complex numbers.
+     *
+     * @param real1
+     *            Real parts of the first numbers
+     * @param imaginary1
+     *            Imaginary parts of the first numbers
+     * @param real2
+     *            Real parts of the second numbers
+     * @param imaginary2
+     *            Imaginary parts of the second numbers
+     * @return Largest distance
+     */
+    private static double maxDistance(double[] real1, double[] imaginary1, double[] real2,
+            double[] imaginary2) {
+        double distance = 0;
+
+        for (int i = 0; i < real1.length; i++) {
+            distance = Math.max(distance,
+                    Math.hypot(real1[i] - real2[i], imaginary1[i] - imaginary2[i]));
+        }
+
+        return distance;
+    }
+
+    /**
+     * Creates an array of normally distributed numbers.
+     *
+     * @param random
+     *            Source of numbers
+     * @param n
+     *            Length of the array
+     * @return Array of numbers
+     */
+    private static double[] gaussian(Random random, int n) {
+        double[] values = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextGaussian();
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,229 @@
+package hr.fer.zemris.java.tecaj.hw2;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link MutableComplexNumber} against the results of the same
+ * operations of {@link ComplexNumber}. The operations use the same formulas,
+ * so the results are compared bit for bit unless noted otherwise.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class MutableComplexNumberTest {
+
+    /** Number of random operands of every test. */
+    private static final int COUNT = 2000;
+
+    /**
+     * Checks every binary operation and every form of its argument against
+     * {@link ComplexNumber}.
+     */
+    @Test
+    public void binaryOperationsMatchComplexNumber() {
+        Random random = new Random(20);
+
+        for (int t = 0; t < COUNT; t++) {
+            ComplexNumber x = random(random);
+            ComplexNumber y = random(random);
+            MutableComplexNumber my = new MutableComplexNumber(y);
+
+            assertParts(x.add(y), mutable(x).add(y), mutable(x).add(my),
+                    mutable(x).add(y.getReal(), y.getImaginary()));
+            assertParts(x.sub(y), mutable(x).sub(y), mutable(x).sub(my),
+                    mutable(x).sub(y.getReal(), y.getImaginary()));
+            assertParts(x.mul(y), mutable(x).mul(y), mutable(x).mul(my),
+                    mutable(x).mul(y.getReal(), y.getImaginary()));
+            assertParts(x.div(y), mutable(x).div(y), mutable(x).div(my),
+                    mutable(x).div(y.getReal(), y.getImaginary()));
+
+            // the argument is left unchanged
+            assertParts(y, my);
+        }
+    }
+
+    /**
+     * Checks operations whose argument is the number itself, which must read
+     * both parts of the argument before changing them.
+     */
+    @Test
+    public void aliasedOperationsMatchComplexNumber() {
+        Random random = new Random(21);
+
+        for (int t = 0; t < COUNT; t++) {
+            ComplexNumber x = random(random);
+            MutableComplexNumber a;
+
+            a = mutable(x);
+            assertParts(x.add(x), a.add(a));
+            a = mutable(x);
+            assertParts(x.sub(x), a.sub(a));
+            a = mutable(x);
+            assertParts(x.mul(x), a.mul(a));
+            a = mutable(x);
+            assertParts(x.div(x), a.div(a));
+            a = mutable(x);
+            assertParts(x.mul(x).mul(x.mul(x)), a.mul(a).mul(a));
+            a = mutable(x);
+            assertParts(x, a.set(a));
+        }
+    }
+
+    /**
+     * Checks chains of operations on one number against the same chain of
+     * immutable numbers.
+     */
+    @Test
+    public void chainsMatchComplexNumber() {
+        Random random = new Random(22);
+
+        for (int t = 0; t < COUNT; t++) {
+            ComplexNumber x = random(random);
+            ComplexNumber y = random(random);
+            ComplexNumber z = random(random);
+
+            ComplexNumber expected = x.mul(y).add(z).div(y).sub(x);
+            assertParts(expected, mutable(x).mul(y).add(z).div(y).sub(x));
+        }
+    }
+
+    /**
+     * Checks {@link MutableComplexNumber#addProduct(ComplexNumber, ComplexNumber)},
+     * {@link MutableComplexNumber#scale(double)} and
+     * {@link MutableComplexNumber#conjugate()}.
+     */
+    @Test
+    public void derivedOperationsMatchComplexNumber() {
+        Random random = new Random(23);
+
+        for (int t = 0; t < COUNT; t++) {
+            ComplexNumber x = random(random);
+            ComplexNumber y = random(random);
+            ComplexNumber z = random(random);
+            double factor = random.nextDouble() * 20 - 10;
+
+            assertParts(z.add(x.mul(y)), mutable(z).addProduct(x, y));
+            assertParts(x.mul(ComplexNumber.fromReal(factor)), mutable(x).scale(factor));
+            assertParts(new ComplexNumber(x.getReal(), -x.getImaginary()),
+                    mutable(x).conjugate());
+        }
+    }
+
+    /**
+     * Checks powers against {@link ComplexNumber#power(int)}, bit for bit
+     * where both use repeated squaring and within a relative tolerance for
+     * larger exponents, which {@link ComplexNumber} raises in polar form.
+     */
+    @Test
+    public void powersMatchComplexNumber() {
+        Random random = new Random(24);
+
+        for (int t = 0; t < COUNT; t++) {
+            // magnitudes near 1 keep large powers finite
+            ComplexNumber x = ComplexNumber.fromMagnitudeAndAngle(
+                    0.9 + random.nextDouble() * 0.2, random.nextDouble() * 2 * Math.PI);
+            int n = random.nextInt(129) - 64;
+
+            assertParts(x.power(n), mutable(x).power(n));
+
+            int large = (65 + random.nextInt(200)) * (random.nextBoolean() ? 1 : -1);
+            ComplexNumber expected = x.power(large);
+            MutableComplexNumber actual = mutable(x).power(large);
+            double tolerance = 1e-11 * expected.getMagnitude();
+            assertEquals(expected.getReal(), actual.getReal(), tolerance);
+            assertEquals(expected.getImaginary(), actual.getImaginary(), tolerance);
+        }
+
+        assertParts(new ComplexNumber(1, 0), new MutableComplexNumber(3, -4).power(0));
+        assertParts(new ComplexNumber(1, 0),
+                new MutableComplexNumber(0, 1).power(Integer.MIN_VALUE));
+    }
+
+    /**
+     * Checks the magnitude and angle against {@link ComplexNumber}, within an
+     * ulp since the magnitude is computed by {@link Math#hypot(double, double)}
+     * instead of the square root of the sum of squares.
+     */
+    @Test
+    public void polarFormMatchesComplexNumber() {
+        Random random = new Random(25);
+
+        for (int t = 0; t < COUNT; t++) {
+            ComplexNumber x = random(random);
+            MutableComplexNumber a = mutable(x);
+
+            assertEquals(x.getMagnitude(), a.getMagnitude(), 2 * Math.ulp(x.getMagnitude()));
+            assertEquals(x.getAngle(), a.getAngle(), 0);
+        }
+    }
+
+    /**
+     * Checks the conversions from and to {@link ComplexNumber} and the string
+     * form.
+     */
+    @Test
+    public void convertsToAndFromComplexNumber() {
+        ComplexNumber x = new ComplexNumber(1.5, -2.25);
+        MutableComplexNumber a = new MutableComplexNumber();
+
+        assertParts(new ComplexNumber(0, 0), a);
+        assertParts(x, a.set(x));
+        assertParts(x, new MutableComplexNumber(x));
+        assertEquals(x.getReal(), a.toComplexNumber().getReal(), 0);
+        assertEquals(x.getImaginary(), a.toComplexNumber().getImaginary(), 0);
+        assertEquals(x.toString(), a.toString());
+        assertParts(new ComplexNumber(3, 4), a.set(3, 4));
+    }
+
+    /**
+     * Creates a copy of an immutable number.
+     *
+     * @param c
+     *            Copied number
+     * @return Mutable number with the same value
+     */
+    private static MutableComplexNumber mutable(ComplexNumber c) {
+        return new MutableComplexNumber(c);
+    }
+
+    /**
+     * Creates a random nonzero number whose parts span several orders of
+     * magnitude and are sometimes zero or integers.
+     *
+     * @param random
+     *            Source of the number
+     * @return Random complex number
+     */
+    private static ComplexNumber random(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return new ComplexNumber(random.nextInt(21) - 10, 1 + random.nextInt(10));
+            case 1:
+                return random.nextBoolean() ? ComplexNumber.fromReal(random.nextGaussian() + 3)
+                        : ComplexNumber.fromImaginary(random.nextGaussian() - 3);
+            default:
+                double scale = Math.pow(10, random.nextInt(13) - 6);
+                return new ComplexNumber(random.nextGaussian() * scale,
+                        random.nextGaussian() * scale);
+        }
+    }
+
+    /**
+     * Asserts that mutable numbers hold exactly the parts of an immutable one.
+     *
+     * @param expected
+     *            Expected value
+     * @param actual
+     *            Tested numbers
+     */
+    private static void assertParts(ComplexNumber expected, MutableComplexNumber... actual) {
+        for (MutableComplexNumber a : actual) {
+            assertEquals(expected.toString(), expected.getReal(), a.getReal(), 0);
+            assertEquals(expected.toString(), expected.getImaginary(), a.getImaginary(), 0);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package hr.fer.zemris.java.tecaj.hw2.fractal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.tecaj.hw2.ComplexNumber;
+import hr.fer.zemris.java.tecaj.hw2.ComplexPolynomial;
+import hr.fer.zemris.java.tecaj.hw2.fractal.FractalRenderer.RenderJob;
+
+/**
+ * Tests of {@link FractalRenderer.RenderJob}, whose workers are run one by one
+ * by the test.
+ *
+ * @author TheKarlo95
+ * @version 1.0
+ */
+public class FractalRendererTest {
+
+    /** Polynomial with the cube roots of unity as roots. */
+    private static final ComplexPolynomial POLYNOMIAL = ComplexPolynomial.fromRoots(
+            new ComplexNumber(1, 0), new ComplexNumber(-0.5, Math.sqrt(0.75)),
+            new ComplexNumber(-0.5, -Math.sqrt(0.75)));
+
+    /**
+     * Checks that a finished job is neither cancelled nor cancellable and
+     * matches the sequential rendering.
+     */
+    @Test
+    public void finishedJobIsNotCancelled() throws Exception {
+        NewtonFractal fractal = new NewtonFractal(POLYNOMIAL, -2, 2, -2, 2);
+        FractalRenderer renderer = new FractalRenderer(fractal, 8);
+        QueueExecutor executor = new QueueExecutor();
+
+        RenderJob job = renderer.submit(30, 20, executor, 2);
+        executor.runAll();
+
+        assertTrue(job.isDone());
+        assertFalse(job.cancel(true));
+        assertFalse(job.isCancelled());
+        assertEquals(job.getTileCount(), job.getRenderedTiles());
+
+        FractalImage expected = renderer.render(30, 20, FractalRenderer.Mode.SEQUENTIAL);
+        FractalImage image = job.get();
+        for (int y = 0; y < 20; y++) {
+            for (int x = 0; x < 30; x++) {
+                assertEquals(expected.getRoot(x, y), image.getRoot(x, y));
+                assertEquals(expected.getIterations(x, y), image.getIterations(x, y));
+            }
+        }
+    }
+
+    /**
+     * Checks that a cancelled job reports it at once and its workers render
+     * nothing once they run.
+     */
+    @Test
+    public void cancelledJobStopsWorkers() throws Exception {
+        FractalRenderer renderer = new FractalRenderer(
+                new NewtonFractal(POLYNOMIAL, -2, 2, -2, 2), 8);
+        QueueExecutor executor = new QueueExecutor();
+
+        RenderJob job = renderer.submit(30, 20, executor, 2);
+        assertTrue(job.cancel(false));
+        assertFalse(job.cancel(false));
+        assertTrue(job.isCancelled());
+        assertTrue(job.isDone());
+        try {
+            job.get();
+            fail();
+        } catch (CancellationException expected) {
+        }
+
+        executor.runAll();
+        assertEquals(0, job.getRenderedTiles());
+    }
+
+    /**
+     * Checks that a failed worker stops the others without cancelling the job,
+     * and that the failure is reported only after every worker finished.
+     */
+    @Test
+    public void failedJobIsNotCancelled() throws Exception {
+        final RuntimeException failure = new IllegalStateException();
+        NewtonFractal fractal = new NewtonFractal(POLYNOMIAL, -2, 2, -2, 2) {
+            @Override
+            public void render(FractalImage image, int fromX, int fromY, int toX, int toY) {
+                throw failure;
+            }
+        };
+        QueueExecutor executor = new QueueExecutor();
+
+        RenderJob job = new FractalRenderer(fractal, 8).submit(30, 20, executor, 2);
+        executor.runNext();
+
+        assertFalse(job.isDone());
+        assertFalse(job.isCancelled());
+        try {
+            job.get(0, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (TimeoutException expected) {
+        }
+
+        executor.runAll();
+        assertTrue(job.isDone());
+        assertFalse(job.isCancelled());
+        assertFalse(job.cancel(true));
+        assertEquals(0, job.getRenderedTiles());
+        try {
+            job.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    /**
+     * Executor which queues the tasks until the test runs them on its own
+     * thread.
+     */
+    private static final class QueueExecutor implements Executor {
+
+        /** Tasks which were not yet run. */
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        /**
+         * Runs the oldest queued task.
+         */
+        void runNext() {
+            tasks.remove(0).run();
+        }
+
+        /**
+         * Runs all queued tasks.
+         */
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                runNext();
+            }
+        }
+    }
+}